@@ -84,6 +84,15 @@ public abstract class ArchivesCore {
 
 	public abstract void preRegisterProject(IPath project);
 
+	/**
+	 * Get a folder where state may be kept between sessions
+	 * @return the folder, or null if no state can be kept
+	 * @since 3.6
+	 */
+	public IPath getStateLocation() {
+		return null;
+	}
+
 	protected abstract String bind2(String message, Object[] bindings);
 
 
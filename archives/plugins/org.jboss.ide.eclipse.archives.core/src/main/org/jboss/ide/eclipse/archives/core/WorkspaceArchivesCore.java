@@ -59,6 +59,10 @@ public class WorkspaceArchivesCore extends ArchivesCore {
 		ProjectUtils.addProjectNature(project);
 	}
 
+	public IPath getStateLocation() {
+		return ArchivesCorePlugin.getDefault().getStateLocation();
+	}
+
 	protected IArchivesLogger createLogger() {
 		return new ArchivesWorkspaceLogger();
 	}
@@ -13,20 +13,36 @@ package org.jboss.ide.eclipse.archives.core.build;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.jboss.ide.eclipse.archives.core.ArchivesCore;
 import org.jboss.ide.eclipse.archives.core.ArchivesCoreMessages;
 import org.jboss.ide.eclipse.archives.core.model.ArchivesModel;
+import org.jboss.ide.eclipse.archives.core.model.DirectoryScannerFactory;
+import org.jboss.ide.eclipse.archives.core.model.DirectoryScannerFactory.DirectoryScannerExtension;
 import org.jboss.ide.eclipse.archives.core.model.DirectoryScannerFactory.DirectoryScannerExtension.FileWrapper;
 import org.jboss.ide.eclipse.archives.core.model.EventManager;
 import org.jboss.ide.eclipse.archives.core.model.IArchive;
@@ -34,10 +50,12 @@ import org.jboss.ide.eclipse.archives.core.model.IArchiveFileSet;
 import org.jboss.ide.eclipse.archives.core.model.IArchiveFolder;
 import org.jboss.ide.eclipse.archives.core.model.IArchiveModelRootNode;
 import org.jboss.ide.eclipse.archives.core.model.IArchiveNode;
-import org.jboss.ide.eclipse.archives.core.model.IArchiveNodeVisitor;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveStandardFileSet;
 import org.jboss.ide.eclipse.archives.core.util.ModelUtil;
 import org.jboss.ide.eclipse.archives.core.util.PathUtils;
 import org.jboss.ide.eclipse.archives.core.util.TrueZipUtil;
+import org.jboss.ide.eclipse.archives.core.util.internal.BuildJournal;
+import org.jboss.ide.eclipse.archives.core.util.internal.FilesetIndex;
 import org.jboss.ide.eclipse.archives.core.util.internal.ModelTruezipBridge;
 import org.jboss.ide.eclipse.archives.core.util.internal.ModelTruezipBridge.FileWrapperStatusPair;
 
@@ -53,6 +71,30 @@ import org.jboss.ide.eclipse.archives.core.util.internal.ModelTruezipBridge.File
 public class ArchiveBuildDelegate {
 
 	public static int CANNOT_REGISTER_CODE = 31415;
+
+	// Archives, and the filesets of an archive, are built on up to this many threads at once
+	private static final int BUILD_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+
+	private static ExecutorService buildPool;
+
+	/*
+	 * The threads shared by every build, created the first time they are needed.
+	 * Archives are built on them, and the filesets of an archive scanned.
+	 */
+	private static synchronized ExecutorService getBuildPool() {
+		if( buildPool == null ) {
+			buildPool = Executors.newFixedThreadPool(BUILD_THREADS, new ThreadFactory() {
+				private int count = 0;
+				public synchronized Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "Archives Build " + (++count)); //$NON-NLS-1$
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		return buildPool;
+	}
+
 	public ArchiveBuildDelegate() {
 	}
 
@@ -64,6 +106,8 @@ public class ArchiveBuildDelegate {
 	public IStatus fullProjectBuild(IPath project, IProgressMonitor monitor) {
 		EventManager.cleanProjectBuild(project);
 		EventManager.startedBuild(project);
+		// variables or project locations used by filesets may have changed
+		FilesetIndex.getInstance().invalidate();
 
 		IArchiveModelRootNode root = ArchivesModel.instance().getRoot(project);
 		if( root == null ) {
@@ -81,17 +125,14 @@ public class ArchiveBuildDelegate {
 			return Status.OK_STATUS;
 		} else {
 			IArchiveNode[] nodes = root.getChildren(IArchiveNode.TYPE_ARCHIVE);
+			IArchive[] archives = new IArchive[nodes.length];
+			System.arraycopy(nodes, 0, archives, 0, nodes.length);
 			ArrayList<IStatus> errors = new ArrayList<IStatus>();
 
 			String title = ArchivesCore.bind(ArchivesCoreMessages.BuildingProject,
 					ArchivesCore.getInstance().getVFS().getProjectName(project));
-			SubMonitor progress = SubMonitor.convert(monitor, title, nodes.length * 1000);
-			
-			for( int i = 0; i < nodes.length; i++ ) {
-				errors.addAll(Arrays.asList(
-						fullArchiveBuild(
-								((IArchive)nodes[i]), progress.split(1000), false)));
-			}
+			SubMonitor progress = SubMonitor.convert(monitor, title, 1000);
+			errors.addAll(Arrays.asList(fullArchivesBuild(archives, progress.split(1000), false)));
 
 			EventManager.finishedBuild(project);
 			EventManager.error(null, errors.toArray(new IStatus[errors.size()]));
@@ -106,48 +147,272 @@ public class ArchiveBuildDelegate {
 		}
 	}
 
+	/**
+	 * Find the archives with a fileset that would include the output of the given archive.
+	 * The output need not exist yet, so that the archives to build after it
+	 * are known before it is built.
+	 */
 	protected IArchive[] findReferences(IArchive node2) {
-		final Set<IArchive> s = new TreeSet<IArchive>();
+		final Set<IArchive> s = new LinkedHashSet<IArchive>();
 		final IPath dest = node2.getArchiveFilePath();
-		ArchivesModel.instance().accept(new IArchiveNodeVisitor(){
-			public boolean visit(IArchiveNode node) {
-				if( node.getNodeType() == IArchiveNode.TYPE_ARCHIVE_FILESET) {
-					IArchiveFileSet fs = (IArchiveFileSet)node;
-					FileWrapper[] wrapper = fs.getMatches(dest);
-					if( wrapper != null && wrapper.length > 0 )
-						s.add(fs.getRootArchive());
-				}
-				return true;
-			}
-		});
+		IArchiveFileSet[] filesets = FilesetIndex.getInstance().getCandidates(ArchivesModel.instance(), dest, false);
+		for( int i = 0; i < filesets.length; i++ ) {
+			IArchive top = filesets[i].getRootArchive();
+			if( top != null && couldInclude(filesets[i], dest))
+				s.add(top);
+		}
 		return (IArchive[]) s.toArray(new IArchive[s.size()]);
 	}
+
+	private boolean couldInclude(IArchiveFileSet fs, IPath path) {
+		try {
+			if( fs instanceof IArchiveStandardFileSet ) {
+				// Only check the patterns, without scanning
+				DirectoryScannerExtension scanner = DirectoryScannerFactory.createDirectoryScanner((IArchiveStandardFileSet)fs, false);
+				return scanner.couldBeIncluded(path.toString(), false);
+			}
+			return fs.matchesPath(path, false);
+		} catch( RuntimeException re ) {
+			// The fileset is broken somehow
+			return false;
+		}
+	}
 	
 	/**
-	 * Builds an archive entirely, overwriting whatever was in the output destination.
+	 * Builds an archive entirely. If its build journal can be trusted, the
+	 * existing output is updated in place; otherwise it is deleted and
+	 * created again. Archives which include the output of this archive
+	 * are rebuilt afterwards.
 	 * @param pkg The archive to build
 	 */
 	public IStatus fullArchiveBuild(IArchive pkg, IProgressMonitor monitor) {
 		return fullArchiveBuild(pkg, monitor, true);
 	}
 	protected IStatus fullArchiveBuild(IArchive pkg, IProgressMonitor monitor, boolean log) {
+		IStatus[] results = fullArchivesBuild(new IArchive[]{pkg}, monitor, log);
+		if( results.length == 1 )
+			return results[0];
+
+		MultiStatus ms = new MultiStatus(ArchivesCore.PLUGIN_ID, IStatus.ERROR, ArchivesCoreMessages.ErrorBuilding, null);
+		for( int i = 0; i < results.length; i++ )
+			ms.add(results[i]);
+		return ms;
+	}
+
+	/**
+	 * Builds the given archives entirely, along with every archive which
+	 * includes the output of one of them. Archives which do not depend on
+	 * each other are built at the same time. An archive is built only once,
+	 * after all of the archives whose output it includes have been built.
+	 *
+	 * @param archives The archives to build
+	 * @return the result of each archive built, in the order the archives were found
+	 */
+	protected IStatus[] fullArchivesBuild(IArchive[] archives, final IProgressMonitor monitor, final boolean log) {
+		// Find every archive to build, and the archives which include the output of each
+		ArrayList<IArchive> all = new ArrayList<IArchive>();
+		HashMap<IArchive, Set<IArchive>> dependents = new HashMap<IArchive, Set<IArchive>>();
+		LinkedList<IArchive> toVisit = new LinkedList<IArchive>(Arrays.asList(archives));
+		while( !toVisit.isEmpty()) {
+			IArchive a = toVisit.removeFirst();
+			if( dependents.containsKey(a))
+				continue;
+			Set<IArchive> refs = new LinkedHashSet<IArchive>(Arrays.asList(findReferences(a)));
+			refs.remove(a);
+			dependents.put(a, refs);
+			all.add(a);
+			toVisit.addAll(refs);
+		}
+
+		// Archives written to the same place must not be built at the same time
+		for( int i = 0; i < all.size(); i++ ) {
+			IPath pi = all.get(i).getArchiveFilePath();
+			for( int j = i + 1; j < all.size(); j++ ) {
+				IPath pj = all.get(j).getArchiveFilePath();
+				if( pi != null && pj != null && (pi.isPrefixOf(pj) || pj.isPrefixOf(pi))
+						&& !dependents.get(all.get(j)).contains(all.get(i)))
+					dependents.get(all.get(i)).add(all.get(j));
+			}
+		}
+
+		HashMap<IArchive, Integer> waitingFor = new HashMap<IArchive, Integer>();
+		for( int i = 0; i < all.size(); i++ )
+			waitingFor.put(all.get(i), new Integer(0));
+		for( int i = 0; i < all.size(); i++ ) {
+			Iterator<IArchive> it = dependents.get(all.get(i)).iterator();
+			while( it.hasNext()) {
+				IArchive d = it.next();
+				waitingFor.put(d, new Integer(waitingFor.get(d).intValue() + 1));
+			}
+		}
+
+		SubMonitor progress = SubMonitor.convert(monitor, all.size() * 1000);
+		// Builds on other threads report only whether the build was canceled
+		final IProgressMonitor buildMonitor = new NullProgressMonitor() {
+			public boolean isCanceled() {
+				return monitor.isCanceled();
+			}
+		};
+		HashMap<IArchive, IStatus> results = new HashMap<IArchive, IStatus>();
+		HashMap<Future<IStatus>, IArchive> running = new HashMap<Future<IStatus>, IArchive>();
+		HashSet<IArchive> started = new HashSet<IArchive>();
+		// The archives in the order they were started, with the events of each
+		ArrayList<IArchive> order = new ArrayList<IArchive>();
+		HashMap<IArchive, ArchiveEvents> events = new HashMap<IArchive, ArchiveEvents>();
+		int fired = 0;
+		LinkedList<IArchive> ready = new LinkedList<IArchive>();
+		for( int i = 0; i < all.size(); i++ ) {
+			if( waitingFor.get(all.get(i)).intValue() == 0 )
+				ready.add(all.get(i));
+		}
+
+		CompletionService<IStatus> completion = new ExecutorCompletionService<IStatus>(getBuildPool());
+		try {
+			while( started.size() < all.size() && !monitor.isCanceled()) {
+				if( ready.isEmpty() && running.isEmpty()) {
+					// The remaining archives include each other's output. Build them in order anyway.
+					for( int i = 0; i < all.size() && ready.isEmpty(); i++ ) {
+						if( !started.contains(all.get(i)))
+							ready.add(all.get(i));
+					}
+				}
+				while( !ready.isEmpty()) {
+					final IArchive a = ready.removeFirst();
+					final ArchiveEvents e = new ArchiveEvents(true);
+					started.add(a);
+					order.add(a);
+					events.put(a, e);
+					running.put(completion.submit(new Callable<IStatus>() {
+						public IStatus call() {
+							return buildArchive(a, buildMonitor, log, e);
+						}
+					}), a);
+				}
+
+				Future<IStatus> f = completion.take();
+				IArchive finished = running.remove(f);
+				results.put(finished, getResult(f));
+				fired = fireEvents(order, fired, events, results);
+				progress.worked(1000);
+				Iterator<IArchive> it = dependents.get(finished).iterator();
+				while( it.hasNext()) {
+					IArchive d = it.next();
+					int remaining = waitingFor.get(d).intValue() - 1;
+					waitingFor.put(d, new Integer(remaining));
+					if( remaining == 0 && !started.contains(d))
+						ready.add(d);
+				}
+			}
+
+			// Wait for the builds already started
+			while( !running.isEmpty()) {
+				Future<IStatus> f = completion.take();
+				results.put(running.remove(f), getResult(f));
+				fired = fireEvents(order, fired, events, results);
+			}
+		} catch( InterruptedException ie ) {
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		}
+		if( monitor.isCanceled())
+			throw new OperationCanceledException();
+		monitor.done();
+
+		ArrayList<IStatus> ret = new ArrayList<IStatus>();
+		for( int i = 0; i < all.size(); i++ ) {
+			if( results.containsKey(all.get(i)))
+				ret.add(results.get(all.get(i)));
+		}
+		return ret.toArray(new IStatus[ret.size()]);
+	}
+
+	/*
+	 * Fire the events of the finished archives, in the order the archives were
+	 * started, stopping at the first archive still being built. An archive is
+	 * only started once the archives whose output it includes are finished,
+	 * so listeners hear about those first.
+	 * @return the number of archives whose events have been fired
+	 */
+	private int fireEvents(ArrayList<IArchive> order, int fired,
+			HashMap<IArchive, ArchiveEvents> events, HashMap<IArchive, IStatus> results) {
+		while( fired < order.size() && results.containsKey(order.get(fired))) {
+			events.get(order.get(fired)).fire();
+			fired++;
+		}
+		return fired;
+	}
+
+	private IStatus getResult(Future<IStatus> f) throws InterruptedException {
+		try {
+			return f.get();
+		} catch( ExecutionException ee ) {
+			Throwable t = ee.getCause();
+			if( t instanceof OperationCanceledException )
+				return Status.CANCEL_STATUS;
+			if( t instanceof Error )
+				throw (Error)t;
+			return new Status(IStatus.ERROR, ArchivesCore.PLUGIN_ID, ArchivesCoreMessages.ErrorBuilding, t);
+		}
+	}
+
+	/**
+	 * Brings the existing output of an archive up to date using its build
+	 * journal, without touching the archives which include its output.
+	 * Only the fileset events are fired, as for a change to the model.
+	 * @param pkg The archive to update
+	 * @return the result, or <code>null</code> if the archive has no output
+	 * or no build journal which can be trusted
+	 */
+	public IStatus updateArchive(IArchive pkg, IProgressMonitor monitor) {
+		if( !pkg.canBuild() || !canUpdate(pkg))
+			return null;
+		ArchiveEvents events = new ArchiveEvents(false) {
+			void cleanArchiveBuild(IArchive pkg) {
+			}
+			void startedBuildingArchive(IArchive pkg) {
+			}
+			void finishedBuildingArchive(IArchive pkg) {
+			}
+		};
+		return buildArchive(pkg, monitor, false, events);
+	}
+
+	private boolean canUpdate(IArchive pkg) {
+		IPath filePath = pkg.getArchiveFilePath();
+		return (pkg.isExploded() ? filePath.toFile().isDirectory() : filePath.toFile().isFile())
+				&& BuildJournal.getInstance().canUpdate(pkg);
+	}
+
+	/**
+	 * Builds one archive entirely, without the archives which reference it.
+	 * If the build journal of the archive can be trusted, the existing output
+	 * is only brought up to date: changed entries are copied again and
+	 * entries no longer matched by any fileset are removed.
+	 * @param pkg The archive to build
+	 * @param events Where the build events of the archive go
+	 */
+	private IStatus buildArchive(IArchive pkg, IProgressMonitor monitor, boolean log, ArchiveEvents events) {
 		if( !pkg.canBuild() ) {
 			IStatus s = new Status(IStatus.ERROR, ArchivesCore.PLUGIN_ID,
 					ArchivesCore.bind(ArchivesCoreMessages.CannotBuildBadConfiguration, pkg.getName()), null);
 			if( log )
-				EventManager.error(pkg, new IStatus[]{s});
+				events.error(pkg, new IStatus[]{s});
 			monitor.done();
 			return s;
 		}
 
-		EventManager.cleanArchiveBuild(pkg);
-		EventManager.startedBuildingArchive(pkg);
+		events.cleanArchiveBuild(pkg);
+		events.startedBuildingArchive(pkg);
 		
 		IPath filePath = pkg.getArchiveFilePath();
-		if( filePath.toFile().isFile()) 
-			filePath.toFile().delete();
-		else
-			TrueZipUtil.javaIODeleteDir(filePath.toFile());
+		boolean update = canUpdate(pkg);
+		if( !update ) {
+			if( filePath.toFile().isFile()) 
+				filePath.toFile().delete();
+			else
+				TrueZipUtil.javaIODeleteDir(filePath.toFile());
+			BuildJournal.getInstance().start(pkg);
+		}
 		
 		//ModelTruezipBridge.deleteArchive(pkg);
 		IPath dest = PathUtils.getGlobalLocation(pkg);
@@ -157,7 +422,7 @@ public class ArchiveBuildDelegate {
 						ArchivesCore.bind(ArchivesCoreMessages.CannotBuildOutputLocationNotWriteable,
 								pkg.getName(), dest.toString()), null);
 				if( log )
-					EventManager.error(pkg, new IStatus[]{s});
+					events.error(pkg, new IStatus[]{s});
 				monitor.done();
 				return s;
 			}
@@ -168,10 +433,10 @@ public class ArchiveBuildDelegate {
 		/* 3 steps:
 		 * create file: 200
 		 * create folders: 800
-		 * build filesets: 7000
+		 * build filesets: 6000
 		 */
 		SubMonitor progress = SubMonitor.convert(monitor, ArchivesCore.bind(
-				ArchivesCoreMessages.BuildingArchive, pkg.toString()), 8000);
+				ArchivesCoreMessages.BuildingArchive, pkg.toString()), 7000);
 
 		// Run the pre actions
 //		IArchiveAction[] actions = pkg.getActions();
@@ -182,7 +447,8 @@ public class ArchiveBuildDelegate {
 //		}
 
 
-		if( !ModelTruezipBridge.createFile(pkg) ) {
+		// Other archives may be built at the same time, so only this archive is synced, once it is complete
+		if( !ModelTruezipBridge.createFile(pkg, false) ) {
 			IStatus e = new Status(IStatus.ERROR, ArchivesCore.PLUGIN_ID,
 					ArchivesCore.bind(ArchivesCoreMessages.ErrorCreatingOutputFile,
 							ModelTruezipBridge.getFilePath(pkg),
@@ -191,12 +457,21 @@ public class ArchiveBuildDelegate {
 		}
 		progress.split(200);
 
+		// find the files of every fileset. When updating, entries no longer matched are removed first
+		IArchiveFileSet[] filesets = ModelUtil.findAllDescendentFilesets(pkg);
+		scanFilesets(filesets);
+		HashMap<String, IArchiveFileSet> owners = null;
+		if( update ) {
+			owners = getEntryOwners(filesets);
+			errors.addAll(Arrays.asList(removeStaleEntries(pkg, owners.keySet())));
+		}
+
 		// force create all folders
 		IArchiveFolder[] folders = ModelUtil.findAllDescendentFolders(pkg);
 		IProgressMonitor folderMonitor = progress.split(800);
 		folderMonitor.beginTask(ArchivesCoreMessages.CreatingFolders, folders.length * 100);
 		for( int i = 0; i < folders.length; i++ ) {
-			if( !ModelTruezipBridge.createFile(folders[i])) {
+			if( !ModelTruezipBridge.createFile(folders[i], false)) {
 				IStatus e = new Status(IStatus.ERROR, ArchivesCore.PLUGIN_ID, 
 						ArchivesCore.bind(ArchivesCoreMessages.ErrorCreatingOutputFile,
 						ModelTruezipBridge.getFilePath(folders[i]),
@@ -208,14 +483,16 @@ public class ArchiveBuildDelegate {
 		folderMonitor.done();
 
 		// build the filesets
-		IArchiveFileSet[] filesets = ModelUtil.findAllDescendentFilesets(pkg);
-		IProgressMonitor filesetMonitor = progress.split(6000);
-		filesetMonitor.beginTask(ArchivesCoreMessages.BuildingFilesets, filesets.length * 1000);
+		SubMonitor filesetMonitor = SubMonitor.convert(progress.split(6000),
+				ArchivesCoreMessages.BuildingFilesets, filesets.length * 1000);
 		for( int i = 0; i < filesets.length; i++ ) {
-			IStatus[] errors2 = fullFilesetBuild(filesets[i], progress.split(1000), pkg);
+			IStatus[] errors2 = update ? updateFileset(filesets[i], filesetMonitor.split(1000), pkg, owners, events)
+					: copyFileset(filesets[i], filesetMonitor.split(1000), pkg, false, events);
 			errors.addAll(Arrays.asList(errors2));
 		}
 		filesetMonitor.done();
+		ModelTruezipBridge.umount(pkg);
+		BuildJournal.getInstance().save();
 
 //		// Run the post actions
 //		for( int i = 0; i < actions.length; i++ ) {
@@ -223,28 +500,11 @@ public class ArchiveBuildDelegate {
 //				actions[i].execute();
 //			}
 //		}
-		
-		
-		ArrayList<IArchive> referencingArchives = new ArrayList<IArchive>();
-		referencingArchives.addAll(Arrays.asList(findReferences(pkg)));
-		
-		SubMonitor referenceMon = SubMonitor.convert(progress.split(1000), ArchivesCoreMessages.BuildingArchive, 
-				referencingArchives.size() * 1000);
-		for( Iterator<IArchive> i = referencingArchives.iterator(); i.hasNext();) {
-			IArchive toBuild = i.next();
-			if( !toBuild.equals(pkg)) {
-				errors.add(fullArchiveBuild(toBuild, referenceMon.split(1000), log));
-			} else {
-				// RECURSE ERROR
-			}
-		}
 
-		
-
-		EventManager.finishedBuildingArchive(pkg);
+		events.finishedBuildingArchive(pkg);
 		IStatus[] errors2 = errors.toArray(new IStatus[errors.size()]);
 		if( log )
-			EventManager.error(pkg, errors2 );
+			events.error(pkg, errors2 );
 		monitor.done();
 		if( errors2.length == 0)
 			return Status.OK_STATUS;
@@ -255,22 +515,111 @@ public class ArchiveBuildDelegate {
 		return ms;
 	}
 
+	/*
+	 * Scan the filesets at the same time, before any of their files are copied.
+	 * The files are still copied one fileset at a time, in order, so that a
+	 * file matched by two filesets always ends up with the same contents.
+	 *
+	 * The scans share the build threads with the archives. The calling thread,
+	 * usually one of those, runs any scan not yet picked up by another thread
+	 * itself, so it never waits on a scan that is queued behind other archives.
+	 */
+	private void scanFilesets(IArchiveFileSet[] filesets) {
+		ArrayList<FutureTask<Object>> scans = new ArrayList<FutureTask<Object>>();
+		for( int i = 0; i < filesets.length; i++ ) {
+			final IArchiveFileSet fs = filesets[i];
+			FutureTask<Object> scan = new FutureTask<Object>(new Runnable() {
+				public void run() {
+					// reset the scanner. It *is* a full build afterall
+					fs.resetScanner();
+					fs.findMatchingPaths();
+				}
+			}, null);
+			scans.add(scan);
+			// the first scan is run by this thread right away
+			if( i > 0 )
+				getBuildPool().execute(scan);
+		}
+		for( int i = 0; i < scans.size(); i++ ) {
+			try {
+				// does nothing if another thread has started the scan already
+				scans.get(i).run();
+				scans.get(i).get();
+			} catch( InterruptedException ie ) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch( ExecutionException ee ) {
+				// The fileset is broken. The error is raised again when its files are copied.
+			}
+		}
+	}
+
+	/*
+	 * Find which fileset writes each entry. When two filesets match the
+	 * same entry, the last one wins, just as when all files are copied in order.
+	 */
+	private HashMap<String, IArchiveFileSet> getEntryOwners(IArchiveFileSet[] filesets) {
+		HashMap<String, IArchiveFileSet> owners = new HashMap<String, IArchiveFileSet>();
+		for( int i = 0; i < filesets.length; i++ ) {
+			String[] entries = ModelTruezipBridge.getEntryPaths(filesets[i], filesets[i].findMatchingPaths());
+			for( int j = 0; j < entries.length; j++ )
+				owners.put(entries[j], filesets[i]);
+		}
+		return owners;
+	}
+
+	private IStatus[] removeStaleEntries(IArchive pkg, Set<String> current) {
+		ArrayList<String> stale = new ArrayList<String>();
+		String[] recorded = BuildJournal.getInstance().getEntries(pkg);
+		for( int i = 0; i < recorded.length; i++ ) {
+			if( !current.contains(recorded[i]))
+				stale.add(recorded[i]);
+		}
+		if( stale.size() == 0 )
+			return new IStatus[0];
+		return ModelTruezipBridge.deleteEntries(pkg, stale.toArray(new String[stale.size()]));
+	}
+
+	private IStatus[] updateFileset(IArchiveFileSet fileset, IProgressMonitor monitor, IArchive topLevel,
+			HashMap<String, IArchiveFileSet> owners, ArchiveEvents events) {
+		events.startedCollectingFileSet(fileset);
+		FileWrapper[] paths = fileset.findMatchingPaths();
+
+		// Only copy the entries this fileset wins
+		String[] entries = ModelTruezipBridge.getEntryPaths(fileset, paths);
+		ArrayList<FileWrapper> owned = new ArrayList<FileWrapper>();
+		for( int i = 0; i < paths.length; i++ ) {
+			if( owners.get(entries[i]) == fileset )
+				owned.add(paths[i]);
+		}
+		IStatus[] result = ModelTruezipBridge.copyOutdatedFiles(fileset,
+				owned.toArray(new FileWrapper[owned.size()]), monitor);
+
+		events.filesUpdated(topLevel, fileset, paths);
+		events.finishedCollectingFileSet(fileset);
+		return result;
+	}
+
 	/**
 	 * Build the given fileset
 	 * @param fileset The fileset to match
 	 * @param topLevel The top level archive that the fileset belongs to
 	 */
 	protected IStatus[] fullFilesetBuild(IArchiveFileSet fileset, IProgressMonitor monitor, IArchive topLevel) {
-		EventManager.startedCollectingFileSet(fileset);
-
 		// reset the scanner. It *is* a full build afterall
 		fileset.resetScanner();
+		return copyFileset(fileset, monitor, topLevel, true, new ArchiveEvents(false));
+	}
+
+	private IStatus[] copyFileset(IArchiveFileSet fileset, IProgressMonitor monitor, IArchive topLevel, boolean sync,
+			ArchiveEvents events) {
+		events.startedCollectingFileSet(fileset);
 		FileWrapper[] paths = fileset.findMatchingPaths();
 
-		FileWrapperStatusPair result = ModelTruezipBridge.fullFilesetBuild(fileset, monitor, true);
+		FileWrapperStatusPair result = ModelTruezipBridge.fullFilesetBuild(fileset, monitor, sync);
 
-		EventManager.filesUpdated(topLevel, fileset, paths);
-		EventManager.finishedCollectingFileSet(fileset);
+		events.filesUpdated(topLevel, fileset, paths);
+		events.finishedCollectingFileSet(fileset);
 		return result.s;
 	}
 
@@ -352,6 +701,7 @@ public class ArchiveBuildDelegate {
 
 		// NOW do the synch
 		TrueZipUtil.sync();
+		BuildJournal.getInstance().save();
 		Comparator<IPath> c = new Comparator<IPath>() {
 			public int compare(IPath o1, IPath o2) {
 				return o1.toOSString().compareTo(o2.toOSString());
@@ -389,4 +739,88 @@ public class ArchiveBuildDelegate {
 			}
 		}
 	}
+
+	/*
+	 * The build events of one archive. An archive built on one of the build
+	 * threads keeps its events, and the thread which started the build fires
+	 * them once the archive is finished. Listeners then hear about one archive
+	 * at a time, always from that thread, as when archives were built in turn.
+	 */
+	private static class ArchiveEvents {
+		// null when events are fired right away
+		private final ArrayList<Runnable> pending;
+
+		ArchiveEvents(boolean deferred) {
+			pending = deferred ? new ArrayList<Runnable>() : null;
+		}
+
+		private void add(Runnable event) {
+			if( pending == null )
+				event.run();
+			else
+				pending.add(event);
+		}
+
+		void fire() {
+			for( int i = 0; i < pending.size(); i++ )
+				pending.get(i).run();
+			pending.clear();
+		}
+
+		void cleanArchiveBuild(final IArchive pkg) {
+			add(new Runnable() {
+				public void run() {
+					EventManager.cleanArchiveBuild(pkg);
+				}
+			});
+		}
+
+		void startedBuildingArchive(final IArchive pkg) {
+			add(new Runnable() {
+				public void run() {
+					EventManager.startedBuildingArchive(pkg);
+				}
+			});
+		}
+
+		void finishedBuildingArchive(final IArchive pkg) {
+			add(new Runnable() {
+				public void run() {
+					EventManager.finishedBuildingArchive(pkg);
+				}
+			});
+		}
+
+		void startedCollectingFileSet(final IArchiveFileSet fileset) {
+			add(new Runnable() {
+				public void run() {
+					EventManager.startedCollectingFileSet(fileset);
+				}
+			});
+		}
+
+		void finishedCollectingFileSet(final IArchiveFileSet fileset) {
+			add(new Runnable() {
+				public void run() {
+					EventManager.finishedCollectingFileSet(fileset);
+				}
+			});
+		}
+
+		void filesUpdated(final IArchive topLevel, final IArchiveFileSet fileset, final FileWrapper[] paths) {
+			add(new Runnable() {
+				public void run() {
+					EventManager.filesUpdated(topLevel, fileset, paths);
+				}
+			});
+		}
+
+		void error(final IArchiveNode node, final IStatus[] errors) {
+			add(new Runnable() {
+				public void run() {
+					EventManager.error(node, errors);
+				}
+			});
+		}
+	}
 }
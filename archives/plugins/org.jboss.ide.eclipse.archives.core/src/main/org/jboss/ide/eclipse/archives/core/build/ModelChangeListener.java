@@ -34,6 +34,7 @@ import org.jboss.ide.eclipse.archives.core.model.IArchiveModelRootNode;
 import org.jboss.ide.eclipse.archives.core.model.IArchiveNode;
 import org.jboss.ide.eclipse.archives.core.model.IArchiveNodeDelta;
 import org.jboss.ide.eclipse.archives.core.util.ModelUtil;
+import org.jboss.ide.eclipse.archives.core.util.internal.BuildJournal;
 import org.jboss.ide.eclipse.archives.core.util.internal.ModelTruezipBridge;
 import org.jboss.ide.eclipse.archives.core.util.internal.ModelTruezipBridge.FileWrapperStatusPair;
 import org.jboss.ide.eclipse.archives.core.util.internal.ModelTruezipBridge.FullBuildRequiredException;
@@ -92,6 +93,7 @@ public class ModelChangeListener implements IArchiveModelListener {
 			IStatus er = new Status(IStatus.ERROR, ArchivesCore.PLUGIN_ID, ArchivesCoreMessages.ErrorUpdatingModel, e);
 			errors = new IStatus[] { er };
 		}
+		BuildJournal.getInstance().save();
 		IArchiveNode node = delta.getPreNode() == null ? delta.getPostNode() : delta.getPreNode();
 		EventManager.error(node, errors);
 	}
@@ -115,7 +117,10 @@ public class ModelChangeListener implements IArchiveModelListener {
 			EventManager.startedBuildingArchive((IArchive)delta.getPostNode());
 		}
 
-		if( (delta.getKind() & (IArchiveNodeDelta.NODE_REGISTERED | IArchiveNodeDelta.UNKNOWN_CHANGE)) != 0 ) {
+		if( (delta.getKind() & IArchiveNodeDelta.NODE_REGISTERED) != 0 && delta.getPreNode() == null
+				&& delta.getPostNode().getNodeType() == IArchiveNode.TYPE_MODEL_ROOT) {
+			errors.addAll(Arrays.asList(projectRegistered((IArchiveModelRootNode)delta.getPostNode())));
+		} else if( (delta.getKind() & (IArchiveNodeDelta.NODE_REGISTERED | IArchiveNodeDelta.UNKNOWN_CHANGE)) != 0 ) {
 			errors.addAll(Arrays.asList(nodeRemoved(delta.getPreNode())));
 			errors.addAll(Arrays.asList(nodeAdded(delta.getPostNode())));
 		} if( (delta.getKind() & IArchiveNodeDelta.REMOVED) != 0 ) {
@@ -193,6 +198,30 @@ public class ModelChangeListener implements IArchiveModelListener {
 
 
 
+	/*
+	 * A project's archives were loaded, for example when the workspace is opened.
+	 * The outputs are probably still there from the last session. An archive
+	 * with a build journal is only brought up to date. Any other archive has
+	 * its files copied over the existing output, as for a newly added archive.
+	 * Archives of other projects are left alone.
+	 */
+	private IStatus[] projectRegistered(IArchiveModelRootNode root) {
+		ArrayList<IStatus> errors = new ArrayList<IStatus>();
+		IArchiveNode[] archives = root.getChildren(IArchiveNode.TYPE_ARCHIVE);
+		ArchiveBuildDelegate delegate = new ArchiveBuildDelegate();
+		for( int i = 0; i < archives.length; i++ ) {
+			IStatus result = delegate.updateArchive((IArchive)archives[i], new NullProgressMonitor());
+			if( result == null ) {
+				errors.addAll(Arrays.asList(nodeAdded(archives[i])));
+			} else {
+				if( !result.isOK())
+					errors.add(result);
+				postChange(archives[i]);
+			}
+		}
+		return errors.toArray(new IStatus[errors.size()]);
+	}
+
 	private IStatus[] nodeAdded(IArchiveNode added) {
 		ArrayList<IStatus> errors = new ArrayList<IStatus>();
 		if( added == null )
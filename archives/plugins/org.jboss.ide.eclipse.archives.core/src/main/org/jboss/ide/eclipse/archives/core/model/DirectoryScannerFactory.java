@@ -127,6 +127,7 @@ public class DirectoryScannerFactory {
 			matches = new ArrayList<FileWrapper>();
 			matchesMap = new HashMap<String, ArrayList<FileWrapper>>();
 			requiredFolders = new HashMap<String, ArrayList<FileWrapper>>();
+			setParallel(true);
 			setBasedir2(fs.rawPath);
 		}
 		
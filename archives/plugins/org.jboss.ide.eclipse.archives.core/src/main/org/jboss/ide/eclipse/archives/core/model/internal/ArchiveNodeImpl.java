@@ -14,6 +14,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IPath;
@@ -36,6 +37,19 @@ import org.jboss.ide.eclipse.archives.core.model.internal.xb.XbPackageNodeWithPr
  */
 public abstract class ArchiveNodeImpl implements IArchiveNode {
 
+	// incremented whenever an attribute or child of any node changes
+	private static final AtomicLong modificationCount = new AtomicLong();
+
+	/**
+	 * Get a count which changes whenever an attribute or the
+	 * children of any node change. Caches of values computed from
+	 * the models may use this to know when they are out of date.
+	 * @since 3.6
+	 */
+	public static long getModificationCount() {
+		return modificationCount.get();
+	}
+
 	protected XbPackageNodeWithProperties nodeDelegate;
 	protected IArchiveNode parent;
 	protected ArrayList<ArchiveNodeImpl> children;
@@ -340,6 +354,7 @@ public abstract class ArchiveNodeImpl implements IArchiveNode {
 
 		// short circuit if no change has REALLY occurred
 		if( beforeValue != null && beforeValue.equals(afterValue)) return;
+		modificationCount.incrementAndGet();
 
 		if( attributeChanges.containsKey(key)) {
 			Object original = attributeChanges.get(key).getBefore();
@@ -400,6 +415,7 @@ public abstract class ArchiveNodeImpl implements IArchiveNode {
 	 * @param changeType
 	 */
 	protected synchronized void childChanges(IArchiveNode node, int changeType) {
+		modificationCount.incrementAndGet();
 		if( childChanges.containsKey(node)) {
 			int lastChange = childChanges.get(node).intValue();
 			if( lastChange == IArchiveNodeDelta.CHILD_ADDED && changeType == IArchiveNodeDelta.CHILD_REMOVED) {
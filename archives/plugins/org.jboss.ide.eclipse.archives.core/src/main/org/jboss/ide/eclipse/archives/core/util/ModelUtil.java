@@ -37,6 +37,7 @@ import org.jboss.ide.eclipse.archives.core.model.internal.ArchiveModelNode;
 import org.jboss.ide.eclipse.archives.core.model.internal.ArchiveNodeImpl;
 import org.jboss.ide.eclipse.archives.core.model.internal.xb.XbPackageNode;
 import org.jboss.ide.eclipse.archives.core.model.internal.xb.XbPackages;
+import org.jboss.ide.eclipse.archives.core.util.internal.FilesetIndex;
 import org.jboss.ide.eclipse.archives.core.xpl.AntNLS;
 
 /**
@@ -59,30 +60,57 @@ public class ModelUtil {
 
 	public static IArchiveFileSet[] getMatchingFilesets(IArchiveNode node, final IPath path, final boolean inWorkspace) {
 		final ArrayList<IArchiveFileSet> rets = new ArrayList<IArchiveFileSet>();
+		if( node == null || isRegistered(node)) {
+			// Only check the filesets whose base folder could contain this path
+			IArchiveFileSet[] candidates = FilesetIndex.getInstance().getCandidates(
+					ArchivesModel.instance(), path, inWorkspace);
+			for( int i = 0; i < candidates.length; i++ ) {
+				if( (node == null || isDescendent(node, candidates[i]))
+						&& filesetMatchesPath(candidates[i], path, inWorkspace))
+					rets.add(candidates[i]);
+			}
+			return rets.toArray(new IArchiveFileSet[rets.size()]);
+		}
+
 		IArchiveNodeVisitor visitor = new IArchiveNodeVisitor() {
 			public boolean visit(IArchiveNode node) {
-				if( node.getNodeType() == IArchiveNode.TYPE_ARCHIVE_FILESET ) {
-					boolean matches = false;
-					try {
-						matches = ((IArchiveFileSet)node).matchesPath(path, inWorkspace);
-					} catch(IllegalStateException ise) {
-						// The fileset is broken somehow, so do some raw checks. 
-						IArchiveStandardFileSet std = node instanceof IArchiveStandardFileSet ? (IArchiveStandardFileSet)node : null;
-						matches =  std != null && new Path(std.getRawSourcePath()).equals(path) && std.isInWorkspace() == inWorkspace;
-					}
-					if( matches ) 
-						rets.add((IArchiveFileSet)node);
-				}
+				if( node.getNodeType() == IArchiveNode.TYPE_ARCHIVE_FILESET
+						&& filesetMatchesPath((IArchiveFileSet)node, path, inWorkspace))
+					rets.add((IArchiveFileSet)node);
 				return true;
 			}
 		};
+		node.accept(visitor);
+		return rets.toArray(new IArchiveFileSet[rets.size()]);
+	}
 
-		if( node == null )
-			ArchivesModel.instance().accept(visitor);
-		else
-			node.accept(visitor);
+	private static boolean filesetMatchesPath(IArchiveFileSet fs, IPath path, boolean inWorkspace) {
+		try {
+			return fs.matchesPath(path, inWorkspace);
+		} catch(IllegalStateException ise) {
+			// The fileset is broken somehow, so do some raw checks. 
+			IArchiveStandardFileSet std = fs instanceof IArchiveStandardFileSet ? (IArchiveStandardFileSet)fs : null;
+			return std != null && new Path(std.getRawSourcePath()).equals(path) && std.isInWorkspace() == inWorkspace;
+		}
+	}
 
-		return rets.toArray(new IArchiveFileSet[rets.size()]);
+	/*
+	 * Is the node part of a project registered with the model?
+	 * Nodes which are not, such as archives still being created,
+	 * are not in the fileset index.
+	 */
+	private static boolean isRegistered(IArchiveNode node) {
+		IArchiveModelRootNode root = node.getModelRootNode();
+		return root != null && root.getProjectPath() != null
+				&& ArchivesModel.instance().getRoot(root.getProjectPath()) == root;
+	}
+
+	private static boolean isDescendent(IArchiveNode ancestor, IArchiveNode node) {
+		for( IArchiveNode n = node; n != null; n = n.getParent()) {
+			if( n == ancestor )
+				return true;
+		}
+		return false;
 	}
 
 	/**
@@ -293,6 +293,32 @@ public class TrueZipUtil {
 		}
 	}
 
+	/**
+	 * Commit and release only the top-level archive containing the given file,
+	 * along with any archives nested inside it. Unlike {@link #umount()}, 
+	 * archives mounted by other publishes or builds in this JVM are not flushed.
+	 * 
+	 * @param file an archive, or a file inside an archive
+	 */
+	public static void umount(java.io.File file) {
+		ClassLoader bundleLoader = ArchivesCorePlugin.getDefault().getBundleClassLoader();
+		ClassLoader originalTCCL = Thread.currentThread().getContextClassLoader();
+		try {
+			Thread.currentThread().setContextClassLoader(bundleLoader);
+			de.schlichtherle.io.File f = file instanceof de.schlichtherle.io.File ? 
+					(de.schlichtherle.io.File)file : getFile(file, getJarArchiveDetector());
+			de.schlichtherle.io.File top = f.getTopLevelArchive();
+			if( top != null ) {
+				try {
+					de.schlichtherle.io.File.umount(top);
+				} catch( ArchiveException ae ) {
+				}
+			}
+		} finally {
+			Thread.currentThread().setContextClassLoader(originalTCCL);
+		}
+	}
+
 	/**
 	 * Sync's with file system after executing a runnable
 	 * @param run Runnable or null
@@ -0,0 +1,320 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.archives.core.util.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Path;
+import org.jboss.ide.eclipse.archives.core.ArchivesCore;
+import org.jboss.ide.eclipse.archives.core.model.IArchive;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveFolder;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveNode;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveNodeVisitor;
+
+/**
+ * Remembers, for each top level archive, which entries were written to its
+ * output, and from which source file. The journal is kept on disk, so that
+ * a build after a restart only needs to copy the entries whose source has
+ * changed and remove the entries no longer matched by any fileset.
+ *
+ * Entry paths are relative to the top level archive. The layout of the
+ * archive, meaning its inner archives and folders, is recorded as well.
+ * A journal is only trusted while the layout is the same.
+ *
+ * A journal is started by a full build of the archive. From then on every
+ * file copied or deleted through {@link ModelTruezipBridge} is recorded.
+ */
+public class BuildJournal {
+	private static final String JOURNAL_FOLDER = "buildJournals"; //$NON-NLS-1$
+	private static final String JOURNAL_EXTENSION = ".journal"; //$NON-NLS-1$
+	private static final int VERSION = 1;
+
+	private static BuildJournal instance;
+	public static synchronized BuildJournal getInstance() {
+		if( instance == null )
+			instance = new BuildJournal();
+		return instance;
+	}
+
+	private static class Entry {
+		private String source;
+		private long modified;
+		private long length;
+	}
+
+	private static class Journal {
+		private String archive;
+		private String[] layout;
+		private LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>();
+		private boolean dirty;
+	}
+
+	// archive output path to journal, or to null if there is none on disk
+	private HashMap<String, Journal> journals = new HashMap<String, Journal>();
+
+	/**
+	 * Get the path of a folder or archive relative to its top level archive
+	 * @param node a folder or archive, or a top level archive
+	 * @return the relative path, empty for a top level archive
+	 */
+	public static IPath getRelativePath(IArchiveNode node) {
+		IPath p = Path.EMPTY;
+		IArchiveNode n = node;
+		while( n != null && !(n instanceof IArchive && ((IArchive)n).isTopLevel())) {
+			if( n instanceof IArchive )
+				p = new Path(((IArchive)n).getName()).append(p);
+			else if( n instanceof IArchiveFolder )
+				p = new Path(((IArchiveFolder)n).getName()).append(p);
+			n = n.getParent();
+		}
+		return p;
+	}
+
+	/**
+	 * Get the layout of a top level archive: the inner archives and folders
+	 * where entries may be written, and whether each archive is exploded.
+	 */
+	public static String[] getLayout(IArchive archive) {
+		final ArrayList<String> layout = new ArrayList<String>();
+		archive.accept(new IArchiveNodeVisitor() {
+			public boolean visit(IArchiveNode node) {
+				if( node.getNodeType() == IArchiveNode.TYPE_ARCHIVE ) {
+					IArchive a = (IArchive)node;
+					layout.add("archive " + a.isExploded() + " " + getRelativePath(a)); //$NON-NLS-1$ //$NON-NLS-2$
+				} else if( node.getNodeType() == IArchiveNode.TYPE_ARCHIVE_FOLDER ) {
+					layout.add("folder " + getRelativePath(node)); //$NON-NLS-1$
+				}
+				return true;
+			}
+		});
+		return layout.toArray(new String[layout.size()]);
+	}
+
+	private static String getKey(IArchive archive) {
+		IPath p = archive == null ? null : archive.getArchiveFilePath();
+		return p == null ? null : p.toString();
+	}
+
+	/**
+	 * Start a new, empty journal for an archive which is about to be fully built.
+	 * @param archive a top level archive
+	 */
+	public synchronized void start(IArchive archive) {
+		String key = getKey(archive);
+		if( key == null )
+			return;
+		Journal j = new Journal();
+		j.archive = key;
+		j.layout = getLayout(archive);
+		j.dirty = true;
+		journals.put(key, j);
+	}
+
+	/**
+	 * Whether the archive has a journal which matches its current layout
+	 * @param archive a top level archive
+	 */
+	public synchronized boolean canUpdate(IArchive archive) {
+		Journal j = getJournal(getKey(archive));
+		return j != null && Arrays.equals(j.layout, getLayout(archive));
+	}
+
+	/**
+	 * Forget everything about an archive, for example because it was deleted.
+	 * @param archive a top level archive
+	 */
+	public synchronized void forget(IArchive archive) {
+		String key = getKey(archive);
+		if( key == null )
+			return;
+		journals.put(key, null);
+		File f = getJournalFile(key);
+		if( f != null && f.exists())
+			f.delete();
+	}
+
+	/**
+	 * Whether the entry was last written from the given source, and the
+	 * source has not changed since.
+	 */
+	public synchronized boolean isUpToDate(IArchive archive, String entry, File source) {
+		Journal j = getJournal(getKey(archive));
+		Entry e = j == null ? null : j.entries.get(entry);
+		return e != null && e.source.equals(source.getAbsolutePath())
+				&& e.modified == source.lastModified() && e.length == source.length();
+	}
+
+	/**
+	 * Record that an entry was written from a source file.
+	 * Nothing is recorded for an archive without a journal.
+	 */
+	public synchronized void added(IArchive archive, String entry, File source) {
+		Journal j = getJournal(getKey(archive));
+		if( j == null || entry == null )
+			return;
+		Entry e = new Entry();
+		e.source = source.getAbsolutePath();
+		e.modified = source.lastModified();
+		e.length = source.length();
+		j.entries.put(entry, e);
+		j.dirty = true;
+	}
+
+	/**
+	 * Record that an entry was deleted.
+	 */
+	public synchronized void removed(IArchive archive, String entry) {
+		Journal j = getJournal(getKey(archive));
+		if( j != null && j.entries.remove(entry) != null )
+			j.dirty = true;
+	}
+
+	/**
+	 * Get the entries recorded for an archive
+	 * @return the entries, or an empty array if the archive has no journal
+	 */
+	public synchronized String[] getEntries(IArchive archive) {
+		Journal j = getJournal(getKey(archive));
+		if( j == null )
+			return new String[0];
+		return j.entries.keySet().toArray(new String[j.entries.size()]);
+	}
+
+	/**
+	 * Write every changed journal to disk
+	 */
+	public synchronized void save() {
+		Iterator<Journal> i = journals.values().iterator();
+		while(i.hasNext()) {
+			Journal j = i.next();
+			if( j != null && j.dirty ) {
+				write(j);
+				j.dirty = false;
+			}
+		}
+	}
+
+	/**
+	 * Drop the journals held in memory.
+	 * They are read from disk again when next needed.
+	 */
+	public synchronized void clearCache() {
+		journals.clear();
+	}
+
+	private Journal getJournal(String key) {
+		if( key == null )
+			return null;
+		if( !journals.containsKey(key))
+			journals.put(key, read(key));
+		return journals.get(key);
+	}
+
+	private File getJournalFile(String key) {
+		IPath state = ArchivesCore.getInstance().getStateLocation();
+		if( state == null )
+			return null;
+		String name = Integer.toHexString(key.hashCode()) + JOURNAL_EXTENSION;
+		return state.append(JOURNAL_FOLDER).append(name).toFile();
+	}
+
+	private Journal read(String key) {
+		File f = getJournalFile(key);
+		if( f == null || !f.isFile())
+			return null;
+		DataInputStream in = null;
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(f)));
+			if( in.readInt() != VERSION || !key.equals(in.readUTF()))
+				return null;
+			Journal j = new Journal();
+			j.archive = key;
+			j.layout = new String[in.readInt()];
+			for( int i = 0; i < j.layout.length; i++ )
+				j.layout[i] = in.readUTF();
+			int count = in.readInt();
+			for( int i = 0; i < count; i++ ) {
+				String entry = in.readUTF();
+				Entry e = new Entry();
+				e.source = in.readUTF();
+				e.modified = in.readLong();
+				e.length = in.readLong();
+				j.entries.put(entry, e);
+			}
+			return j;
+		} catch(IOException ioe) {
+			// A broken journal only costs a full build
+			return null;
+		} finally {
+			if( in != null ) {
+				try {
+					in.close();
+				} catch(IOException ioe) {
+				}
+			}
+		}
+	}
+
+	private void write(Journal j) {
+		File f = getJournalFile(j.archive);
+		if( f == null )
+			return;
+		f.getParentFile().mkdirs();
+		DataOutputStream out = null;
+		boolean saved = false;
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(f)));
+			out.writeInt(VERSION);
+			out.writeUTF(j.archive);
+			out.writeInt(j.layout.length);
+			for( int i = 0; i < j.layout.length; i++ )
+				out.writeUTF(j.layout[i]);
+			out.writeInt(j.entries.size());
+			Iterator<Map.Entry<String, Entry>> i = j.entries.entrySet().iterator();
+			while(i.hasNext()) {
+				Map.Entry<String, Entry> next = i.next();
+				out.writeUTF(next.getKey());
+				out.writeUTF(next.getValue().source);
+				out.writeLong(next.getValue().modified);
+				out.writeLong(next.getValue().length);
+			}
+			out.close();
+			out = null;
+			saved = true;
+		} catch(IOException ioe) {
+			ArchivesCore.log(IStatus.WARNING, "Unable to save the build journal of " + j.archive, ioe); //$NON-NLS-1$
+		} finally {
+			if( out != null ) {
+				try {
+					out.close();
+				} catch(IOException ioe) {
+				}
+			}
+			if( !saved )
+				f.delete();
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.archives.core.util.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.jboss.ide.eclipse.archives.core.ArchivesCore;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveFileSet;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveModel;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveModelRootNode;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveNode;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveNodeVisitor;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveStandardFileSet;
+import org.jboss.ide.eclipse.archives.core.model.internal.ArchiveNodeImpl;
+import org.jboss.ide.eclipse.archives.core.util.PathUtils;
+
+/**
+ * An index from base folders to the filesets of a model which
+ * are rooted in them. A changed path can only be matched by a fileset
+ * whose base folder is the path or one of its parents, so only those
+ * filesets need to have their patterns checked.
+ *
+ * Each fileset is indexed under its workspace location (if it has one),
+ * its file system location, and its raw source path. Filesets whose base
+ * cannot be computed are checked for every path.
+ *
+ * The index is rebuilt lazily, the first time it is used after a node
+ * of any model has changed or a project has been registered or unregistered.
+ */
+public class FilesetIndex {
+	private static FilesetIndex instance;
+	public static synchronized FilesetIndex getInstance() {
+		if( instance == null )
+			instance = new FilesetIndex();
+		return instance;
+	}
+
+	private static class Snapshot {
+		private IArchiveModel model;
+		private IArchiveModelRootNode[] roots;
+		private long modificationCount;
+		private HashMap<IPath, List<IArchiveFileSet>> byBase;
+		private List<IArchiveFileSet> unindexed;
+		private HashMap<IArchiveFileSet, Integer> order;
+	}
+
+	private Snapshot snapshot;
+
+	/**
+	 * Forget the index, for example because a path variable
+	 * used by some filesets may have changed.
+	 */
+	public synchronized void invalidate() {
+		snapshot = null;
+	}
+
+	/**
+	 * Get the filesets of the model which may match the given path,
+	 * in the order in which they are found in the model.
+	 * The returned filesets must still have their patterns checked.
+	 *
+	 * @param model the model
+	 * @param path a workspace or file system path
+	 * @param inWorkspace whether the path is a workspace path
+	 * @return the candidate filesets
+	 */
+	public IArchiveFileSet[] getCandidates(IArchiveModel model, IPath path, boolean inWorkspace) {
+		Snapshot s = getSnapshot(model);
+		LinkedHashSet<IArchiveFileSet> found = new LinkedHashSet<IArchiveFileSet>();
+		addPrefixMatches(s, path, found);
+		if( inWorkspace ) {
+			IPath global = ArchivesCore.getInstance().getVFS().workspacePathToAbsolutePath(path);
+			if( global != null )
+				addPrefixMatches(s, global, found);
+		} else {
+			IPath[] workspace = ArchivesCore.getInstance().getVFS().absolutePathToWorkspacePath(path);
+			for( int i = 0; workspace != null && i < workspace.length; i++ )
+				addPrefixMatches(s, workspace[i], found);
+		}
+		found.addAll(s.unindexed);
+
+		// Keep the order of the model so callers see the same results as before
+		TreeMap<Integer, IArchiveFileSet> sorted = new TreeMap<Integer, IArchiveFileSet>();
+		Iterator<IArchiveFileSet> i = found.iterator();
+		while(i.hasNext()) {
+			IArchiveFileSet fs = i.next();
+			sorted.put(s.order.get(fs), fs);
+		}
+		return sorted.values().toArray(new IArchiveFileSet[sorted.size()]);
+	}
+
+	private void addPrefixMatches(Snapshot s, IPath path, Set<IArchiveFileSet> found) {
+		IPath p = path.removeTrailingSeparator();
+		int count = p.segmentCount();
+		for( int k = 0; k <= count; k++ ) {
+			List<IArchiveFileSet> l = s.byBase.get(p.removeLastSegments(k));
+			if( l != null )
+				found.addAll(l);
+		}
+	}
+
+	private synchronized Snapshot getSnapshot(IArchiveModel model) {
+		IArchiveModelRootNode[] roots = model.getModelNodes();
+		long count = ArchiveNodeImpl.getModificationCount();
+		if( snapshot == null || snapshot.model != model || snapshot.modificationCount != count
+				|| !Arrays.equals(snapshot.roots, roots)) {
+			snapshot = build(model, roots, count);
+		}
+		return snapshot;
+	}
+
+	private Snapshot build(IArchiveModel model, IArchiveModelRootNode[] roots, long count) {
+		final Snapshot s = new Snapshot();
+		s.model = model;
+		s.roots = roots;
+		s.modificationCount = count;
+		s.byBase = new HashMap<IPath, List<IArchiveFileSet>>();
+		s.unindexed = new ArrayList<IArchiveFileSet>();
+		s.order = new HashMap<IArchiveFileSet, Integer>();
+		for( int i = 0; i < roots.length; i++ ) {
+			roots[i].accept(new IArchiveNodeVisitor() {
+				public boolean visit(IArchiveNode node) {
+					if( node.getNodeType() == IArchiveNode.TYPE_ARCHIVE_FILESET
+							&& !s.order.containsKey(node)) {
+						IArchiveFileSet fs = (IArchiveFileSet)node;
+						s.order.put(fs, new Integer(s.order.size()));
+						index(s, fs);
+					}
+					return true;
+				}
+			});
+		}
+		return s;
+	}
+
+	private void index(Snapshot s, IArchiveFileSet fs) {
+		if( !(fs instanceof IArchiveStandardFileSet)) {
+			s.unindexed.add(fs);
+			return;
+		}
+		IArchiveStandardFileSet std = (IArchiveStandardFileSet)fs;
+		Set<IPath> keys = new LinkedHashSet<IPath>();
+		try {
+			String absolute = PathUtils.getAbsoluteLocation(std);
+			if( absolute != null )
+				keys.add(new Path(absolute).removeTrailingSeparator());
+			IPath global = PathUtils.getGlobalLocation(std);
+			if( global != null )
+				keys.add(global.removeTrailingSeparator());
+		} catch(RuntimeException re) {
+			// Unresolvable variables or a missing project; only the raw path is known
+		}
+		if( keys.isEmpty()) {
+			s.unindexed.add(fs);
+			return;
+		}
+		if( std.getRawSourcePath() != null )
+			keys.add(new Path(std.getRawSourcePath()).removeTrailingSeparator());
+		Iterator<IPath> i = keys.iterator();
+		while(i.hasNext()) {
+			IPath key = i.next();
+			List<IArchiveFileSet> l = s.byBase.get(key);
+			if( l == null ) {
+				l = new ArrayList<IArchiveFileSet>();
+				s.byBase.put(key, l);
+			}
+			l.add(fs);
+		}
+	}
+}
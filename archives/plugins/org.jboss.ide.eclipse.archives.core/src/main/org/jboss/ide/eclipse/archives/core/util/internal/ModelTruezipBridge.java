@@ -152,12 +152,17 @@ public class ModelTruezipBridge {
 		boolean b = true;
 		ArrayList<IStatus> list = new ArrayList<IStatus>();
 		final File[] destFiles = getFiles(files, fileset);
+		final String[] entries = getEntryPaths(fileset, files);
+		IArchive top = fileset.getRootArchive();
 		for( int i = 0; i < files.length; i++ ) {
 			b = TrueZipUtil.copyFile(files[i].getAbsolutePath(), destFiles[i], updateTimestamps);
 			if( b == false ) {
 				list.add(new Status(IStatus.ERROR, ArchivesCore.PLUGIN_ID,
 						ArchivesCore.bind(ArchivesCoreMessages.FileCopyFailed,
 								files[i].getAbsolutePath(), destFiles[i].toString())));
+				BuildJournal.getInstance().removed(top, entries[i]);
+			} else {
+				BuildJournal.getInstance().added(top, entries[i], files[i]);
 			}
 			monitor.worked(100);
 		}
@@ -174,12 +179,16 @@ public class ModelTruezipBridge {
 		monitor.beginTask(ArchivesCore.bind(ArchivesCoreMessages.DeletingCountFiles,
 				new Integer(files.length).toString()), files.length * 100);
 		final File[] destFiles = getFiles(files, fileset);
+		final String[] entries = getEntryPaths(fileset, files);
+		IArchive top = fileset.getRootArchive();
 		ArrayList<IStatus> list = new ArrayList<IStatus>();
 		for( int i = 0; i < files.length; i++ ) {
 			if( !TrueZipUtil.deleteAll(destFiles[i]) ) {
 				IStatus e = new Status(IStatus.ERROR, ArchivesCore.PLUGIN_ID,
 						ArchivesCore.bind(ArchivesCoreMessages.FileDeleteFailed, destFiles[i].toString()));
 				list.add(e);
+			} else {
+				BuildJournal.getInstance().removed(top, entries[i]);
 			}
 			monitor.worked(100);
 		}
@@ -190,10 +199,82 @@ public class ModelTruezipBridge {
 	}
 
 
+	/**
+	 * Copy only the files whose entry is not known to be up to date.
+	 * An entry is up to date when the build journal shows it was last
+	 * copied from the same, unchanged source, and it is still in the output.
+	 * @return the errors, if any
+	 */
+	public static IStatus[] copyOutdatedFiles(IArchiveFileSet fileset, final FileWrapper[] files, IProgressMonitor monitor) {
+		final File[] destFiles = getFiles(files, fileset);
+		final String[] entries = getEntryPaths(fileset, files);
+		IArchive top = fileset.getRootArchive();
+		ArrayList<FileWrapper> outdated = new ArrayList<FileWrapper>();
+		for( int i = 0; i < files.length; i++ ) {
+			if( !BuildJournal.getInstance().isUpToDate(top, entries[i], files[i])
+					|| !destFiles[i].exists() || destFiles[i].length() != files[i].length())
+				outdated.add(files[i]);
+		}
+		return copyFiles(fileset, outdated.toArray(new FileWrapper[outdated.size()]), monitor, false, false);
+	}
+
+	/**
+	 * Delete entries of a top level archive, given as paths relative to it.
+	 * Folders left empty are removed as well.
+	 * @return the errors, if any
+	 */
+	public static IStatus[] deleteEntries(IArchive archive, String[] entries) {
+		ArrayList<IStatus> list = new ArrayList<IStatus>();
+		for( int i = 0; i < entries.length; i++ ) {
+			File f = getEntryFile(archive, new Path(entries[i]));
+			if( f != null && f.exists() && !TrueZipUtil.deleteAll(f)) {
+				list.add(new Status(IStatus.ERROR, ArchivesCore.PLUGIN_ID,
+						ArchivesCore.bind(ArchivesCoreMessages.FileDeleteFailed, f.toString())));
+			} else {
+				BuildJournal.getInstance().removed(archive, entries[i]);
+			}
+		}
+		File archiveFile = getFile(archive);
+		if( archiveFile != null )
+			cleanFolder(archiveFile, false);
+		return list.toArray(new IStatus[list.size()]);
+	}
+
+	/**
+	 * Get the paths of the entries the given files of a fileset are copied to,
+	 * relative to the top level archive
+	 */
+	public static String[] getEntryPaths(IArchiveFileSet fs, FileWrapper[] inputFiles) {
+		IPath parent = BuildJournal.getRelativePath(fs.getParent());
+		String[] entries = new String[inputFiles.length];
+		for( int i = 0; i < inputFiles.length; i++ ) {
+			if( inputFiles[i] != null )
+				entries[i] = parent.append(getFilesetRelative(fs, inputFiles[i])).toString();
+		}
+		return entries;
+	}
+
+	/**
+	 * Commit the given archive, and any packed archives inside it,
+	 * to disk. Unlike {@link TrueZipUtil#sync()}, archives being written
+	 * by other builds at the same time are left alone.
+	 * @param archive
+	 */
+	public static void umount(IArchive archive) {
+		ArrayList<IArchiveNode> archives = ModelUtil.findAllDescendents(archive, IArchiveNode.TYPE_ARCHIVE, true);
+		for( int i = archives.size() - 1; i >= 0; i-- ) {
+			File f = getFile(archives.get(i));
+			if( f != null )
+				TrueZipUtil.umount(f);
+		}
+	}
+
 	public static boolean deleteArchive(IArchive archive) {
 		final File file = getFile(archive);
 		boolean b = file.deleteAll();
 		TrueZipUtil.sync();
+		if( archive.isTopLevel())
+			BuildJournal.getInstance().forget(archive);
 		return b;
 	}
 
@@ -235,7 +316,6 @@ public class ModelTruezipBridge {
 	 * @return
 	 */
 	private static File[] getFiles(FileWrapper[] inputFiles, IArchiveFileSet fs ) {
-		String filesetRelative;
 		File fsFile = getFile(fs);
 		if( fs == null || fsFile == null )
 			return new File[]{};
@@ -244,26 +324,55 @@ public class ModelTruezipBridge {
 		for( int i = 0; i < inputFiles.length; i++ ) {
 			if( inputFiles[i] == null )
 				continue;
-			
-			if( fs instanceof IArchiveStandardFileSet && ((IArchiveStandardFileSet)fs).isFlattened() )
-				filesetRelative = inputFiles[i].getOutputName();
-			else
-				filesetRelative = inputFiles[i].getFilesetRelative();
-
-			File parentFile;
-			if(new Path(filesetRelative).segmentCount() > 1 ) {
-				String tmp = new Path(filesetRelative).removeLastSegments(1).toString();
-				parentFile = new File(fsFile, tmp, ArchiveDetector.NULL);
-				if( parentFile.getEnclArchive() != null )
-					parentFile = new File(fsFile, tmp, ArchiveDetector.DEFAULT);
-			} else {
-				parentFile = fsFile;
-			}
-			returnFiles.add(new File(parentFile, new Path(filesetRelative).lastSegment(), ArchiveDetector.NULL));
+			returnFiles.add(getFile(fsFile, getFilesetRelative(fs, inputFiles[i])));
 		}
 		return (File[]) returnFiles.toArray(new File[returnFiles.size()]);
 	}
 
+	private static String getFilesetRelative(IArchiveFileSet fs, FileWrapper inputFile) {
+		if( fs instanceof IArchiveStandardFileSet && ((IArchiveStandardFileSet)fs).isFlattened() )
+			return inputFile.getOutputName();
+		return inputFile.getFilesetRelative();
+	}
+
+	private static File getFile(File fsFile, String filesetRelative) {
+		File parentFile;
+		if(new Path(filesetRelative).segmentCount() > 1 ) {
+			String tmp = new Path(filesetRelative).removeLastSegments(1).toString();
+			parentFile = new File(fsFile, tmp, ArchiveDetector.NULL);
+			if( parentFile.getEnclArchive() != null )
+				parentFile = new File(fsFile, tmp, ArchiveDetector.DEFAULT);
+		} else {
+			parentFile = fsFile;
+		}
+		return new File(parentFile, new Path(filesetRelative).lastSegment(), ArchiveDetector.NULL);
+	}
+
+	/*
+	 * Find the file for an entry of a top level archive. The entry is
+	 * placed in the deepest archive or folder of the model it lies in.
+	 */
+	private static File getEntryFile(IArchive archive, IPath entry) {
+		IArchiveNode node = archive;
+		IPath rest = entry;
+		boolean found = true;
+		while( found && rest.segmentCount() > 1 ) {
+			found = false;
+			IArchiveNode[] children = node.getAllChildren();
+			for( int i = 0; i < children.length && !found; i++ ) {
+				String name = children[i] instanceof IArchive ? ((IArchive)children[i]).getName()
+						: children[i] instanceof IArchiveFolder ? ((IArchiveFolder)children[i]).getName() : null;
+				if( rest.segment(0).equals(name)) {
+					node = children[i];
+					rest = rest.removeFirstSegments(1);
+					found = true;
+				}
+			}
+		}
+		File nodeFile = getFile(node);
+		return nodeFile == null ? null : getFile(nodeFile, rest.toString());
+	}
+
 
 	/**
 	 * This should go through the tree and create a file that is
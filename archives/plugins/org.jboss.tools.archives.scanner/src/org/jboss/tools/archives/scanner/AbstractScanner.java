@@ -121,6 +121,12 @@ public abstract class AbstractScanner<T> implements Scanner <T> {
 
     private MatchPatterns excludesPatterns;
 
+    /**
+     * The directories below which everything is excluded,
+     * taken from the exclude patterns ending in <code>**</code>.
+     */
+    private MatchPatterns excludedSubtreePatterns;
+
     /**
      * Whether or not the file system should be treated as a case sensitive
      * one.
@@ -274,6 +280,14 @@ public abstract class AbstractScanner<T> implements Scanner <T> {
         return includesPatterns.matches( name, tokenizedName, isCaseSensitive );
     }
 
+    /**
+     * @since 3.6
+     */
+    protected boolean isIncluded( String name, char[][] tokenizedName )
+    {
+        return includesPatterns.matches( name, tokenizedName, isCaseSensitive );
+    }
+
     /**
      * Tests whether or not a name matches the start of at least one include
      * pattern.
@@ -305,6 +319,28 @@ public abstract class AbstractScanner<T> implements Scanner <T> {
         return excludesPatterns.matches( name, tokenizedName, isCaseSensitive );
     }
 
+    /**
+     * @since 3.6
+     */
+    protected boolean isExcluded( String name, char[][] tokenizedName )
+    {
+        return excludesPatterns.matches( name, tokenizedName, isCaseSensitive );
+    }
+
+    /**
+     * Tests whether every path below the given directory is excluded,
+     * in which case the directory need not be scanned for included files.
+     *
+     * @param name The name of the directory. Must not be <code>null</code>.
+     * @return <code>true</code> when the directory matches the start of an
+     *         exclude pattern ending in <code>**</code>.
+     * @since 3.6
+     */
+    protected boolean isExcludedSubtree( String name, char[][] tokenizedName )
+    {
+        return excludedSubtreePatterns.matches( name, tokenizedName, isCaseSensitive );
+    }
+
     /**
      * Adds default exclusions to the current exclusions set.
      */
@@ -342,5 +378,6 @@ public abstract class AbstractScanner<T> implements Scanner <T> {
     {
         includesPatterns = MatchPatterns.from( includes );
         excludesPatterns = MatchPatterns.from( excludes );
+        excludedSubtreePatterns = excludesPatterns.getSubtreePatterns();
     }
 }
@@ -42,6 +42,15 @@ public class FilesystemDirectoryScanner extends VirtualDirectoryScanner<TreeNode
         }
         return newfiles;
     }
+
+    /**
+     * Listing ahead would follow links which are trimmed later.
+     */
+    @Override
+    protected boolean canListInParallel() {
+        return followSymlinks;
+    }
+
     private ITreeNode[] trimSymLinkFiles(ITreeNode[] newfiles, ITreeNode dir, String vpath) {
         ArrayList<ITreeNode> noLinks = new ArrayList<ITreeNode>();
         for ( ITreeNode newfile : newfiles ) {
@@ -55,9 +55,17 @@
 package org.jboss.tools.archives.scanner;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.tools.archives.scanner.internal.MatchPattern;
 
@@ -254,6 +262,53 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
     
     protected IDirectoryScannerIterator<T> iterator = null;
 
+    /**
+     * The number of threads used to list directories in parallel mode.
+     */
+    private static final int LISTING_THREADS = Math.max( 2, Runtime.getRuntime().availableProcessors() );
+
+    /**
+     * The threads listing directories, shared by every scanner
+     * and created the first time a parallel scan runs.
+     */
+    private static ExecutorService listingPool;
+
+    private static synchronized ExecutorService getListingPool() {
+        if( listingPool == null ) {
+            listingPool = Executors.newFixedThreadPool( LISTING_THREADS, new ThreadFactory() {
+                private int count = 0;
+                public synchronized Thread newThread( Runnable r ) {
+                    Thread t = new Thread( r, "Directory Scanner " + (++count) ); //$NON-NLS-1$
+                    t.setDaemon( true );
+                    return t;
+                }
+            });
+        }
+        return listingPool;
+    }
+
+    /**
+     * Whether directory listings are read ahead by a thread pool.
+     */
+    private boolean parallel = false;
+
+    /**
+     * The listings read ahead for the current scan, if scanning in parallel.
+     */
+    private ListingPrefetch prefetch;
+
+    /**
+     * Every name already sorted into the included, excluded
+     * or deselected files and directories.
+     */
+    private HashSet<String> processedNames;
+
+    /**
+     * Directories a fast scan skipped because everything
+     * below them is excluded. A slow scan must still visit them.
+     */
+    private List<String> prunedDirs;
+
     /**
      * Patterns which should be excluded by default.
      *
@@ -344,6 +399,39 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
         return basedir;
     }
 
+    /**
+     * Sets whether directory listings should be read by several threads.
+     * Matching and the results are the same either way, but listing
+     * large or slow trees in parallel is usually much faster.
+     * Only {@link #scan()} uses the parallel mode; iterating does not.
+     *
+     * @param parallel whether to list directories in parallel
+     * @since 3.6
+     */
+    public void setParallel( boolean parallel ) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * @return whether directory listings are read by several threads
+     * @since 3.6
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Subclasses which trim listings in a way the parallel
+     * listing cannot follow, such as skipping symbolic links,
+     * may return <code>false</code> to always scan sequentially.
+     *
+     * @return whether the parallel mode may be used
+     * @since 3.6
+     */
+    protected boolean canListInParallel() {
+        return true;
+    }
+
     /**
      * Returns whether or not the scanner has included all the files or
      * directories it has come across so far.
@@ -366,7 +454,19 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
      */
     public void scan() throws IllegalStateException {
     	scanPrepare();
-        scandirWrap( basedir, "", true );//$NON-NLS-1$
+    	if( parallel && iterator == null && canListInParallel() ) {
+    		prefetch = new ListingPrefetch();
+    		try {
+    			prefetch.start( basedir, "" ); //$NON-NLS-1$
+    			scandirWrap( basedir, "", true );//$NON-NLS-1$
+    			prefetch.rethrow();
+    		} finally {
+    			prefetch.shutdown();
+    			prefetch = null;
+    		}
+    	} else {
+    		scandirWrap( basedir, "", true );//$NON-NLS-1$
+    	}
     }
 
     /*
@@ -395,6 +495,8 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
         dirsNotIncluded = new Vector<String>();
         dirsExcluded = new Vector<String>();
         dirsDeselected = new Vector<String>();
+        processedNames = new HashSet<String>();
+        prunedDirs = new ArrayList<String>();
 
         if ( isIncluded( "", tokenizedEmpty ) ) { //$NON-NLS-1$ 
             if ( !isExcluded( "", tokenizedEmpty ) ) { //$NON-NLS-1$ 
@@ -442,6 +544,13 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
             }
         }
 
+        if ( prunedDirs != null ) {
+            String[] pruned = prunedDirs.toArray( new String[prunedDirs.size()] );
+            for ( String aPruned : pruned ) {
+                scandir( getChild( basedir, aPruned ), aPruned + File.separator, false );
+            }
+        }
+
         haveSlowResults = true;
     }
         
@@ -466,7 +575,7 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
      */
     protected void scandir( ITreeNode dir, String vpath, boolean fast ) {
     	 // LINE MODIFIED FOR JBOSS TOOLS;  was  dir.list();
-    	ITreeNode[] newfiles = listChildren(dir);
+    	ITreeNode[] newfiles = prefetch == null ? listChildren(dir) : prefetch.take(dir, vpath);
         
         if ( newfiles == null )
         {
@@ -500,15 +609,15 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
         // Run scanner on files to track (excluding symlinks if we are ignoring symlinks)
         for ( ITreeNode newfile : newfiles ) {
             String name = vpath + getName(newfile);
-            String[] tokenizedName =  MatchPattern.tokenizePathToString( name, File.separator );
+            char[][] tokenizedName =  MatchPattern.tokenizePathToChars( name, File.separatorChar );
             ITreeNode file = newfile;
             if ( isDirectory(file) ) {
                 if ( isIncluded( name, tokenizedName ) ) {
-                	accountForIncludedDir(name, (T)file, fast);
+                	accountForIncludedDir(name, tokenizedName, (T)file, fast);
                 } else {
                     everythingIncluded = false;
                     dirsNotIncluded.addElement( name );
-                    if ( fast && couldHoldIncluded( name ) ) {
+                    if ( fast && shouldDescend( name, tokenizedName ) ) {
                         scandirWrap( (T)file, name + File.separator, fast );
                     }
                 }
@@ -519,7 +628,7 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
                 
             } else { // assumed to be a file   
                 if ( isIncluded( name, tokenizedName ) ) {
-                    accountForIncludedFile(name, (T)file);
+                    accountForIncludedFile(name, tokenizedName, (T)file);
                 } else {
                     everythingIncluded = false;
                     filesNotIncluded.addElement( name );
@@ -528,6 +637,28 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
         }
     }
 
+    /**
+     * Whether a fast scan must look into the given directory. A directory
+     * is skipped if no included path can be below it, or if every path
+     * below it is excluded. The latter are remembered for a slow scan.
+     *
+     * @param name the directory, relative to the base directory
+     * @param tokenizedName the segments of the name
+     * @return <code>true</code> if the directory must be scanned
+     */
+    private boolean shouldDescend( String name, char[][] tokenizedName ) {
+        if ( !couldHoldIncluded( name ) ) {
+            return false;
+        }
+        if ( isExcludedSubtree( name, tokenizedName ) ) {
+            if ( prunedDirs != null ) {
+                prunedDirs.add( name );
+            }
+            return false;
+        }
+        return true;
+    }
+
     /**
      * "Selectors are not used in this api, but this code is unmodified
      * from the plexus-utils version. Theoretically, subclasses
@@ -745,11 +876,14 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
      * @param name path of the directory relative to the directory of
      *             the FileSet.
      * @param file directory as File.
+     * @param tokenizedName the segments of the name.
+     * @param file directory as File.
      * @param fast whether to perform fast scans.
      */
-    private void accountForIncludedDir(String name, T file, boolean fast) {
-        processIncluded(name, file, dirsIncluded, dirsExcluded, dirsDeselected);
-        if (couldHoldIncluded(name)) {
+    private void accountForIncludedDir(String name, char[][] tokenizedName, T file, boolean fast) {
+        processIncluded(name, tokenizedName, file, dirsIncluded, dirsExcluded, dirsDeselected);
+        // A slow scan descends into every directory anyway
+        if (fast && shouldDescend(name, tokenizedName)) {
             scandirWrap(file, name + File.separator, fast);
         }
     }
@@ -757,10 +891,11 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
     /**
      * Process included file.
      * @param name  path of the file relative to the directory of the FileSet.
+     * @param tokenizedName the segments of the name.
      * @param file  included File.
      */
-    private void accountForIncludedFile(String name, T file) {
-        processIncluded(name, file, filesIncluded, filesExcluded, filesDeselected);
+    private void accountForIncludedFile(String name, char[][] tokenizedName, T file) {
+        processIncluded(name, tokenizedName, file, filesIncluded, filesExcluded, filesDeselected);
     }
     
     /**
@@ -777,9 +912,15 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
      * @param des
      */
     protected void processIncluded(String name, T file, Vector<String> inc, Vector<String> exc, Vector<String> des) {
-        if (inc.contains(name) || exc.contains(name) || des.contains(name)) { return; }
+        processIncluded(name, MatchPattern.tokenizePathToChars(name, File.separatorChar), file, inc, exc, des);
+    }
+
+    private void processIncluded(String name, char[][] tokenizedName, T file, Vector<String> inc, Vector<String> exc, Vector<String> des) {
+        if (processedNames != null) {
+            if (!processedNames.add(name)) { return; }
+        } else if (inc.contains(name) || exc.contains(name) || des.contains(name)) { return; }
         boolean included = false;
-        if (isExcluded(name)) {
+        if (isExcluded(name, tokenizedName)) {
             exc.add(name);
             postExclude(file, name);
         } else if (isSelected(name, file)) {
@@ -910,4 +1051,127 @@ public class VirtualDirectoryScanner<T extends ITreeNode> extends AbstractScanne
      */
 	public void cleanup() {
 	}
+
+	/**
+	 * Reads directory listings ahead of the scan on a pool of threads.
+	 * Only the listings are read in parallel; the scanning thread still
+	 * matches every path and fills in the results in the usual order.
+	 * Directories are only read if a fast scan would look into them.
+	 *
+	 * The threads are shared with other scans. A listing the scanning thread
+	 * needs before any of those threads has started on it is read by the
+	 * scanning thread itself, so a busy pool never holds up the scan.
+	 */
+	private class ListingPrefetch {
+		private final Map<String, ITreeNode[]> listings = new ConcurrentHashMap<String, ITreeNode[]>();
+		private final Object lock = new Object();
+		// listings requested and not yet read
+		private final HashSet<String> pending = new HashSet<String>();
+		// listings requested which no thread has started reading yet
+		private final HashSet<String> queued = new HashSet<String>();
+		private boolean closed;
+		private RuntimeException failure;
+
+		void start( ITreeNode dir, String vpath ) {
+			submit( dir, vpath );
+		}
+
+		private void submit( final ITreeNode dir, final String vpath ) {
+			synchronized( lock ) {
+				if( failure != null || closed )
+					return;
+				pending.add( vpath );
+				queued.add( vpath );
+			}
+			getListingPool().execute( new Runnable() {
+				public void run() {
+					synchronized( lock ) {
+						// the scanning thread read it already, or the scan is over
+						if( !queued.remove( vpath ))
+							return;
+					}
+					try {
+						list( dir, vpath );
+					} catch( RuntimeException re ) {
+						synchronized( lock ) {
+							if( failure == null )
+								failure = re;
+						}
+					} finally {
+						synchronized( lock ) {
+							pending.remove( vpath );
+							lock.notifyAll();
+						}
+					}
+				}
+			});
+		}
+
+		private void list( ITreeNode dir, String vpath ) {
+			ITreeNode[] children = listChildren( dir );
+			if( children == null )
+				children = new ITreeNode[0];
+			for( ITreeNode child : children ) {
+				if( isDirectory( child )) {
+					String name = vpath + getName( child );
+					if( couldHoldIncluded( name ) && !isExcludedSubtree( name,
+							MatchPattern.tokenizePathToChars( name, File.separatorChar )))
+						submit( child, name + File.separator );
+				}
+			}
+			listings.put( vpath, children );
+		}
+
+		/**
+		 * Get the listing of a directory, waiting for it if it is
+		 * still being read, or reading it here if no thread has started on it.
+		 */
+		ITreeNode[] take( ITreeNode dir, String vpath ) {
+			boolean claimed;
+			synchronized( lock ) {
+				claimed = queued.remove( vpath );
+			}
+			if( claimed ) {
+				try {
+					list( dir, vpath );
+				} finally {
+					synchronized( lock ) {
+						pending.remove( vpath );
+					}
+				}
+			}
+			synchronized( lock ) {
+				while( failure == null && !listings.containsKey( vpath ) && pending.contains( vpath )) {
+					try {
+						lock.wait();
+					} catch( InterruptedException ie ) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+				}
+				rethrow();
+			}
+			ITreeNode[] children = listings.remove( vpath );
+			return children == null ? listChildren( dir ) : children;
+		}
+
+		void rethrow() {
+			synchronized( lock ) {
+				if( failure != null )
+					throw failure;
+			}
+		}
+
+		/**
+		 * Stop reading listings for this scan.
+		 * Listings still queued are dropped when their turn comes.
+		 */
+		void shutdown() {
+			synchronized( lock ) {
+				closed = true;
+				queued.clear();
+			}
+			listings.clear();
+		}
+	}
 }
@@ -102,6 +102,11 @@ public class MatchPattern
         return source.startsWith( string );
     }
 
+    boolean isRegex()
+    {
+        return regexPattern != null;
+    }
+
 
     public static String[] tokenizePathToString( String path, String separator )
     {
@@ -114,6 +119,31 @@ public class MatchPattern
         return ret.toArray( new String[ret.size()] );
     }
 
+    /**
+     * Split a path into the character arrays of its segments,
+     * as expected by the matching methods.
+     */
+    public static char[][] tokenizePathToChars( String path, char separator )
+    {
+        List<char[]> ret = new ArrayList<char[]>();
+        int start = 0;
+        int length = path.length();
+        for ( int i = 0; i <= length; i++ )
+        {
+            if ( i == length || path.charAt( i ) == separator )
+            {
+                if ( i > start )
+                {
+                    char[] segment = new char[i - start];
+                    path.getChars( start, i, segment, 0 );
+                    ret.add( segment );
+                }
+                start = i + 1;
+            }
+        }
+        return ret.toArray( new char[ret.size()][] );
+    }
+
     public static MatchPattern fromString( String source )
     {
         return new MatchPattern( source, File.separator );
@@ -16,6 +16,8 @@
 package org.jboss.tools.archives.scanner.internal;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A list of patterns to be matched
@@ -31,9 +33,22 @@ public class MatchPatterns
 {
     private final MatchPattern[] patterns;
 
+    // true if one of the patterns is "**", which matches every path
+    private final boolean matchesEverything;
+
     private MatchPatterns( MatchPattern[] patterns )
     {
         this.patterns = patterns;
+        boolean all = false;
+        for ( MatchPattern pattern : patterns )
+        {
+            String[] tokens = pattern.getTokenizedPathString();
+            if ( !pattern.isRegex() && tokens.length == 1 && "**".equals( tokens[0] ) ) //$NON-NLS-1$
+            {
+                all = true;
+            }
+        }
+        this.matchesEverything = all;
     }
 
     /**
@@ -53,10 +68,27 @@ public class MatchPatterns
 
     public boolean matches( String name, String[] tokenizedName, boolean isCaseSensitive )
     {
+        if ( matchesEverything )
+        {
+            return true;
+        }
         char[][] tokenizedNameChar = new char[tokenizedName.length][];
         for(int i = 0;  i < tokenizedName.length; i++){
         tokenizedNameChar[i] = tokenizedName[i].toCharArray();
         }
+        return matches( name, tokenizedNameChar, isCaseSensitive );
+    }
+
+    /**
+     * Checks these MatchPatterns against a path which has already
+     * been split with {@link MatchPattern#tokenizePathToChars(String, char)}.
+     */
+    public boolean matches( String name, char[][] tokenizedNameChar, boolean isCaseSensitive )
+    {
+        if ( matchesEverything )
+        {
+            return true;
+        }
         for ( MatchPattern pattern : patterns )
         {
             if ( pattern.matchPath( name, tokenizedNameChar, isCaseSensitive ) )
@@ -79,6 +111,35 @@ public class MatchPatterns
         return false;
     }
 
+    /**
+     * Get the patterns which match a directory when every path below
+     * that directory is matched by one of these patterns. For example,
+     * <code>**&#47;target</code> is returned for <code>**&#47;target&#47;**</code>.
+     * Regular expressions are left out, since they cannot be split this way.
+     */
+    public MatchPatterns getSubtreePatterns()
+    {
+        List<MatchPattern> result = new ArrayList<MatchPattern>();
+        for ( MatchPattern pattern : patterns )
+        {
+            String[] tokens = pattern.getTokenizedPathString();
+            if ( !pattern.isRegex() && tokens.length > 1 && "**".equals( tokens[tokens.length - 1] ) ) //$NON-NLS-1$
+            {
+                StringBuilder prefix = new StringBuilder();
+                for ( int i = 0; i < tokens.length - 1; i++ )
+                {
+                    if ( i > 0 )
+                    {
+                        prefix.append( File.separator );
+                    }
+                    prefix.append( tokens[i] );
+                }
+                result.add( MatchPattern.fromString( prefix.toString() ) );
+            }
+        }
+        return new MatchPatterns( result.toArray( new MatchPattern[result.size()] ) );
+    }
+
     public static MatchPatterns from( String... sources )
     {
         final int length = sources.length;
@@ -14,8 +14,10 @@ import junit.framework.Test;
 import junit.framework.TestSuite;
 
 import org.jboss.ide.eclipse.archives.test.model.DirectoryScannerModelTest;
+import org.jboss.ide.eclipse.archives.test.model.DirectoryScannerParallelTest;
 import org.jboss.ide.eclipse.archives.test.model.DirectoryScannerRegexTest;
 import org.jboss.ide.eclipse.archives.test.model.DirectoryScannerTest;
+import org.jboss.ide.eclipse.archives.test.model.FilesetIndexTest;
 import org.jboss.ide.eclipse.archives.test.model.FilesetMatchesPathTest;
 import org.jboss.ide.eclipse.archives.test.model.ModelCreationTest;
 import org.jboss.ide.eclipse.archives.test.model.ModelTruezipBridgeTest;
@@ -23,6 +25,8 @@ import org.jboss.ide.eclipse.archives.test.model.ModelUtilTest;
 import org.jboss.ide.eclipse.archives.test.model.ReadWriteTest;
 import org.jboss.ide.eclipse.archives.test.model.XBMarshallTest;
 import org.jboss.ide.eclipse.archives.test.model.XBUnmarshallTest;
+import org.jboss.ide.eclipse.archives.test.projects.BuildJournalTest;
+import org.jboss.ide.eclipse.archives.test.projects.FullBuildOrderTest;
 import org.jboss.ide.eclipse.archives.test.projects.InnerZipResourceTimestampTest;
 import org.jboss.ide.eclipse.archives.test.projects.JBIDE1406Test;
 import org.jboss.ide.eclipse.archives.test.projects.JBIDE2099Test;
@@ -44,9 +48,11 @@ public class ArchivesTestSuite extends TestSuite {
         suite.addTestSuite(DirectoryScannerRegexTest.class);
         suite.addTestSuite(DirectoryScannerModelTest.class);
         suite.addTestSuite(DirectoryScannerTest.class);
+        suite.addTestSuite(DirectoryScannerParallelTest.class);
         suite.addTestSuite(ModelCreationTest.class);
         suite.addTestSuite(ModelTruezipBridgeTest.class);
         suite.addTestSuite(FilesetMatchesPathTest.class);
+        suite.addTestSuite(FilesetIndexTest.class);
         
         // jiras
         suite.addTestSuite(JBIDE1406Test.class);
@@ -56,6 +62,8 @@ public class ArchivesTestSuite extends TestSuite {
         suite.addTestSuite(JBIDE2315Test.class);
         suite.addTestSuite(JBIDE2439Test.class);
         suite.addTestSuite(InnerZipResourceTimestampTest.class);
+        suite.addTestSuite(FullBuildOrderTest.class);
+        suite.addTestSuite(BuildJournalTest.class);
         
         // UI
         suite.addTestSuite(BuildActionTest.class);
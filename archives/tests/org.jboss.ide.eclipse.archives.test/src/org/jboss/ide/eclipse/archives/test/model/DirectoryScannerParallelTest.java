@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.archives.test.model;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IPath;
+import org.jboss.ide.eclipse.archives.core.util.TrueZipUtil;
+import org.jboss.ide.eclipse.archives.test.ArchivesTest;
+import org.jboss.tools.archives.scanner.FilesystemDirectoryScanner;
+
+public class DirectoryScannerParallelTest extends TestCase {
+	private static final String[] FOLDERS = new String[] {
+		"a", "a/b", "a/skip", "a/skip/x", "b", "skip", "c/skip/d"
+	};
+	private IPath root;
+
+	protected void setUp() throws Exception {
+		root = ArchivesTest.getDefault().getStateLocation().append("ds_parallel");
+		for( int i = 0; i < FOLDERS.length; i++ ) {
+			File folder = root.append(FOLDERS[i]).toFile();
+			folder.mkdirs();
+			setContents(new File(folder, "f.txt"));
+			setContents(new File(folder, "g.xml"));
+		}
+	}
+
+	protected void tearDown() throws Exception {
+		TrueZipUtil.javaIODeleteDir(root.toFile());
+	}
+
+	private void setContents(File file) throws IOException {
+		FileOutputStream os = new FileOutputStream(file);
+		try {
+			os.write(file.getName().getBytes());
+		} finally {
+			os.close();
+		}
+	}
+
+	private FilesystemDirectoryScanner scan(boolean parallel, String includes, String excludes) {
+		FilesystemDirectoryScanner scanner = new FilesystemDirectoryScanner();
+		scanner.setBasedir(root.toFile());
+		scanner.setIncludes(includes);
+		scanner.setExcludes(excludes);
+		scanner.setParallel(parallel);
+		scanner.scan();
+		return scanner;
+	}
+
+	private String[] sorted(String[] names) {
+		Arrays.sort(names);
+		return names;
+	}
+
+	private String path(String s) {
+		return s.replace('/', File.separatorChar);
+	}
+
+	public void testParallelMatchesSequential() {
+		String[][] patterns = new String[][] {
+				{"**", null}, {"**/*.txt", "**/skip/**"}, {"a/**", "a/skip/**"}, {"%regex[.*g\\.xml]", null}
+		};
+		for( int i = 0; i < patterns.length; i++ ) {
+			FilesystemDirectoryScanner sequential = scan(false, patterns[i][0], patterns[i][1]);
+			FilesystemDirectoryScanner parallel = scan(true, patterns[i][0], patterns[i][1]);
+			assertTrue(Arrays.equals(sequential.getIncludedFiles(), parallel.getIncludedFiles()));
+			assertTrue(Arrays.equals(sequential.getIncludedDirectories(), parallel.getIncludedDirectories()));
+			assertTrue(Arrays.equals(sorted(sequential.getExcludedFiles()), sorted(parallel.getExcludedFiles())));
+		}
+	}
+
+	public void testExcludedSubtree() {
+		FilesystemDirectoryScanner scanner = scan(true, "**/*.xml", "**/skip/**");
+		String[] included = scanner.getIncludedFiles();
+		assertEquals(3, included.length);
+		assertEquals(path("a/b/g.xml"), included[0]);
+		assertEquals(path("a/g.xml"), included[1]);
+		assertEquals(path("b/g.xml"), included[2]);
+
+		// The skipped folders are still visited when asked for excluded files
+		String[] excluded = sorted(scanner.getExcludedFiles());
+		assertEquals(4, excluded.length);
+		assertEquals(path("a/skip/g.xml"), excluded[0]);
+		assertEquals(path("a/skip/x/g.xml"), excluded[1]);
+		assertEquals(path("c/skip/d/g.xml"), excluded[2]);
+		assertEquals(path("skip/g.xml"), excluded[3]);
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.archives.test.model;
+
+import java.io.IOException;
+import java.net.URL;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.jboss.ide.eclipse.archives.core.ArchivesCore;
+import org.jboss.ide.eclipse.archives.core.model.ArchivesModel;
+import org.jboss.ide.eclipse.archives.core.model.IArchive;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveFileSet;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveNodeFactory;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveStandardFileSet;
+import org.jboss.ide.eclipse.archives.core.model.internal.ArchiveModelNode;
+import org.jboss.ide.eclipse.archives.core.model.internal.xb.XbPackages;
+import org.jboss.ide.eclipse.archives.core.util.ModelUtil;
+import org.jboss.ide.eclipse.archives.core.util.internal.FilesetIndex;
+import org.jboss.ide.eclipse.archives.test.ArchivesTest;
+
+public class FilesetIndexTest extends TestCase {
+	private IPath project = new Path("test").append("filesetIndex");
+	private IPath misc;
+	private ArchiveModelNode modelNode;
+	private IArchive archive;
+	private IArchiveStandardFileSet miscFileset;
+	private IArchiveStandardFileSet imageFileset;
+
+	protected void setUp() throws Exception {
+		URL bundleURL = null;
+		try {
+			bundleURL = FileLocator.toFileURL(ArchivesTest.getDefault().getBundle().getEntry(""));
+		} catch( IOException ioe ) {
+			fail(ioe.getMessage());
+		}
+		IPath bundlePath = new Path(bundleURL.getFile());
+		misc = bundlePath.append("inputs").append("fileTrees").append("misc");
+
+		IArchiveNodeFactory factory = ArchivesCore.getInstance().getNodeFactory();
+		archive = factory.createArchive();
+		archive.setArchiveType("jar");
+		archive.setDestinationPath(bundlePath.append("output"));
+		archive.setName("index.jar");
+		archive.setInWorkspace(false);
+
+		miscFileset = factory.createFileset();
+		miscFileset.setInWorkspace(false);
+		miscFileset.setRawSourcePath(misc.toString());
+		miscFileset.setIncludesPattern("**/*.xml");
+		archive.addChild(miscFileset);
+
+		imageFileset = factory.createFileset();
+		imageFileset.setInWorkspace(false);
+		imageFileset.setRawSourcePath(misc.toString());
+		imageFileset.setIncludesPattern("**/*.gif");
+		archive.addChild(imageFileset);
+
+		modelNode = new ArchiveModelNode(project, new XbPackages(), ArchivesModel.instance());
+		modelNode.addChild(archive);
+		ArchivesModel.instance().registerProject(modelNode, new NullProgressMonitor());
+	}
+
+	protected void tearDown() throws Exception {
+		ArchivesModel.instance().unregisterProject(modelNode, new NullProgressMonitor());
+		FilesetIndex.getInstance().invalidate();
+	}
+
+	public void testCandidatesAreUnderBase() {
+		IArchiveFileSet[] candidates = FilesetIndex.getInstance().getCandidates(
+				ArchivesModel.instance(), misc.append("rug.xml"), false);
+		assertEquals(2, candidates.length);
+		assertEquals(miscFileset, candidates[0]);
+		assertEquals(imageFileset, candidates[1]);
+
+		candidates = FilesetIndex.getInstance().getCandidates(
+				ArchivesModel.instance(), new Path("/some/other/folder/rug.xml"), false);
+		for( int i = 0; i < candidates.length; i++ ) {
+			assertNotSame(miscFileset, candidates[i]);
+			assertNotSame(imageFileset, candidates[i]);
+		}
+	}
+
+	public void testMatchingFilesets() {
+		IArchiveFileSet[] xml = ModelUtil.getMatchingFilesets(null, misc.append("rug.xml"));
+		assertEquals(1, xml.length);
+		assertEquals(miscFileset, xml[0]);
+		IArchiveFileSet[] gif = ModelUtil.getMatchingFilesets(archive, misc.append("single_file.gif"));
+		assertEquals(1, gif.length);
+		assertEquals(imageFileset, gif[0]);
+	}
+
+	public void testIndexFollowsModelChanges() {
+		assertEquals(1, ModelUtil.getMatchingFilesets(archive, misc.append("rug.xml")).length);
+		miscFileset.setRawSourcePath(misc.append("secretImages").toString());
+		assertEquals(0, ModelUtil.getMatchingFilesets(archive, misc.append("rug.xml")).length);
+		archive.removeChild(imageFileset);
+		assertEquals(0, ModelUtil.getMatchingFilesets(archive, misc.append("single_file.gif")).length);
+	}
+}
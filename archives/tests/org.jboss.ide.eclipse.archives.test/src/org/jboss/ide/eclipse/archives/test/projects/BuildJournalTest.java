@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.archives.test.projects;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.jboss.ide.eclipse.archives.core.ArchivesCore;
+import org.jboss.ide.eclipse.archives.core.build.ArchiveBuildDelegate;
+import org.jboss.ide.eclipse.archives.core.model.IArchive;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveNodeFactory;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveStandardFileSet;
+import org.jboss.ide.eclipse.archives.core.util.TrueZipUtil;
+import org.jboss.ide.eclipse.archives.core.util.internal.BuildJournal;
+import org.jboss.ide.eclipse.archives.test.ArchivesTest;
+
+/**
+ * A second build of an archive only copies what changed
+ */
+public class BuildJournalTest extends TestCase {
+	private static final long MARKER = 100000000000L;
+	private IPath root;
+	private IPath input;
+	private IArchive archive;
+	private IArchiveStandardFileSet fileset;
+
+	protected void setUp() throws Exception {
+		root = ArchivesTest.getDefault().getStateLocation().append("buildJournal");
+		input = root.append("input");
+		setContents(input.append("a.txt").toFile(), "a");
+		setContents(input.append("b.txt").toFile(), "b");
+		setContents(input.append("sub").append("c.txt").toFile(), "c");
+
+		IArchiveNodeFactory factory = ArchivesCore.getInstance().getNodeFactory();
+		archive = factory.createArchive();
+		archive.setArchiveType("jar");
+		archive.setName("journal.jar");
+		archive.setDestinationPath(root.append("output"));
+		archive.setInWorkspace(false);
+		archive.setExploded(true);
+		fileset = factory.createFileset();
+		fileset.setInWorkspace(false);
+		fileset.setRawSourcePath(input.toString());
+		fileset.setIncludesPattern("**/*.txt");
+		archive.addChild(fileset);
+	}
+
+	protected void tearDown() throws Exception {
+		BuildJournal.getInstance().forget(archive);
+		TrueZipUtil.javaIODeleteDir(root.toFile());
+	}
+
+	private void setContents(File file, String contents) throws IOException {
+		file.getParentFile().mkdirs();
+		FileOutputStream os = new FileOutputStream(file);
+		try {
+			os.write(contents.getBytes());
+		} finally {
+			os.close();
+		}
+	}
+
+	private void build() {
+		IStatus s = new ArchiveBuildDelegate().fullArchiveBuild(archive, new NullProgressMonitor());
+		assertTrue(s.isOK());
+	}
+
+	private File output(String entry) {
+		return archive.getArchiveFilePath().append(entry).toFile();
+	}
+
+	public void testOnlyChangedEntriesCopied() throws Exception {
+		build();
+		assertTrue(output("a.txt").setLastModified(MARKER));
+		assertTrue(output("b.txt").setLastModified(MARKER));
+
+		File b = input.append("b.txt").toFile();
+		long stamp = b.lastModified();
+		setContents(b, "bb");
+		b.setLastModified(stamp + 10000);
+		build();
+		assertEquals(MARKER, output("a.txt").lastModified());
+		assertEquals(2, output("b.txt").length());
+	}
+
+	public void testRemovedEntries() {
+		build();
+		assertTrue(output("a.txt").setLastModified(MARKER));
+		fileset.setIncludesPattern("a.txt");
+		build();
+		assertEquals(MARKER, output("a.txt").lastModified());
+		assertFalse(output("b.txt").exists());
+		assertFalse(output("sub").exists());
+	}
+
+	public void testJournalSurvivesRestart() {
+		build();
+		BuildJournal.getInstance().clearCache();
+		assertTrue(output("a.txt").setLastModified(MARKER));
+		assertTrue(output("b.txt").delete());
+		build();
+		assertEquals(MARKER, output("a.txt").lastModified());
+		assertTrue(output("b.txt").exists());
+		assertTrue(output("sub/c.txt").exists());
+	}
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.archives.test.projects;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.FileLocator;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.jboss.ide.eclipse.archives.core.ArchivesCore;
+import org.jboss.ide.eclipse.archives.core.build.ArchiveBuildDelegate;
+import org.jboss.ide.eclipse.archives.core.model.AbstractBuildListener;
+import org.jboss.ide.eclipse.archives.core.model.ArchivesModel;
+import org.jboss.ide.eclipse.archives.core.model.IArchive;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveNodeFactory;
+import org.jboss.ide.eclipse.archives.core.model.IArchiveStandardFileSet;
+import org.jboss.ide.eclipse.archives.core.model.internal.ArchiveModelNode;
+import org.jboss.ide.eclipse.archives.core.model.internal.xb.XbPackages;
+import org.jboss.ide.eclipse.archives.core.util.TrueZipUtil;
+import org.jboss.ide.eclipse.archives.test.ArchivesTest;
+
+/**
+ * An archive which includes the output of other archives
+ * must be built once, after all of them.
+ */
+public class FullBuildOrderTest extends TestCase {
+	private IPath project = new Path("test").append("fullBuildOrder");
+	private IPath misc;
+	private IPath outputs;
+	private ArchiveModelNode modelNode;
+	private IArchive xmlArchive, htmlArchive, bundle;
+	private final List<String> built = Collections.synchronizedList(new ArrayList<String>());
+	private final List<Thread> eventThreads = Collections.synchronizedList(new ArrayList<Thread>());
+	private AbstractBuildListener listener = new AbstractBuildListener() {
+		public void startedBuildingArchive(IArchive pkg) {
+			eventThreads.add(Thread.currentThread());
+		}
+		public void finishedBuildingArchive(IArchive pkg) {
+			eventThreads.add(Thread.currentThread());
+			built.add(pkg.getName());
+		}
+	};
+
+	protected void setUp() throws Exception {
+		URL bundleURL = null;
+		try {
+			bundleURL = FileLocator.toFileURL(ArchivesTest.getDefault().getBundle().getEntry(""));
+		} catch( IOException ioe ) {
+			fail(ioe.getMessage());
+		}
+		IPath bundlePath = new Path(bundleURL.getFile());
+		misc = bundlePath.append("inputs").append("fileTrees").append("misc");
+		outputs = bundlePath.append("output").append("fullBuildOrder");
+
+		// the bundle is listed first, so its inputs must be found before it is built
+		bundle = createArchive("bundle.jar", outputs.append("bundle"));
+		bundle.addChild(createFileset(outputs.append("xml").toString(), "**"));
+		bundle.addChild(createFileset(outputs.append("html").toString(), "**"));
+		xmlArchive = createArchive("xml.jar", outputs.append("xml"));
+		xmlArchive.addChild(createFileset(misc.toString(), "**/*.xml"));
+		htmlArchive = createArchive("html.jar", outputs.append("html"));
+		htmlArchive.addChild(createFileset(misc.toString(), "**/*.html"));
+
+		modelNode = new ArchiveModelNode(project, new XbPackages(), ArchivesModel.instance());
+		modelNode.addChild(bundle);
+		modelNode.addChild(xmlArchive);
+		modelNode.addChild(htmlArchive);
+		ArchivesModel.instance().registerProject(modelNode, new NullProgressMonitor());
+		ArchivesModel.instance().addBuildListener(listener);
+	}
+
+	protected void tearDown() throws Exception {
+		ArchivesModel.instance().removeBuildListener(listener);
+		ArchivesModel.instance().unregisterProject(modelNode, new NullProgressMonitor());
+		TrueZipUtil.javaIODeleteDir(outputs.toFile());
+	}
+
+	private IArchive createArchive(String name, IPath destination) {
+		IArchiveNodeFactory factory = ArchivesCore.getInstance().getNodeFactory();
+		IArchive archive = factory.createArchive();
+		archive.setArchiveType("jar");
+		archive.setName(name);
+		archive.setDestinationPath(destination);
+		archive.setInWorkspace(false);
+		archive.setExploded(true);
+		return archive;
+	}
+
+	private IArchiveStandardFileSet createFileset(String source, String includes) {
+		IArchiveStandardFileSet fs = ArchivesCore.getInstance().getNodeFactory().createFileset();
+		fs.setInWorkspace(false);
+		fs.setRawSourcePath(source);
+		fs.setIncludesPattern(includes);
+		return fs;
+	}
+
+	public void testProjectBuildsBundleOnceAndLast() {
+		new ArchiveBuildDelegate().fullProjectBuild(project, new NullProgressMonitor());
+		assertEquals(3, built.size());
+		assertEquals("bundle.jar", built.get(2));
+		IPath bundleOutput = bundle.getArchiveFilePath();
+		assertTrue(bundleOutput.append("xml.jar").append("rug.xml").toFile().exists());
+		assertTrue(bundleOutput.append("html.jar").append("someHtml.html").toFile().exists());
+	}
+
+	public void testArchiveBuildRebuildsReferences() {
+		new ArchiveBuildDelegate().fullArchiveBuild(xmlArchive, new NullProgressMonitor());
+		assertEquals(2, built.size());
+		assertEquals("xml.jar", built.get(0));
+		assertEquals("bundle.jar", built.get(1));
+		assertTrue(bundle.getArchiveFilePath().append("xml.jar").append("rug.xml").toFile().exists());
+	}
+
+	public void testEventsFiredOnBuildingThread() {
+		new ArchiveBuildDelegate().fullProjectBuild(project, new NullProgressMonitor());
+		assertEquals(6, eventThreads.size());
+		for( int i = 0; i < eventThreads.size(); i++ )
+			assertSame(Thread.currentThread(), eventThreads.get(i));
+	}
+}
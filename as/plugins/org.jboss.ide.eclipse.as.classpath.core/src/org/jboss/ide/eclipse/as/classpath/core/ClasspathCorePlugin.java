@@ -18,6 +18,7 @@ import org.eclipse.wst.server.core.IRuntime;
 import org.eclipse.wst.server.core.IRuntimeType;
 import org.eclipse.wst.server.core.ServerCore;
 import org.jboss.ide.eclipse.as.classpath.core.runtime.cache.internal.ModuleSlotCache;
+import org.jboss.ide.eclipse.as.classpath.core.runtime.cache.internal.ModulesIndex;
 import org.jboss.ide.eclipse.as.classpath.core.runtime.cache.internal.RuntimeClasspathCache;
 import org.osgi.framework.BundleContext;
 
@@ -53,6 +54,7 @@ public class ClasspathCorePlugin extends Plugin {
 	 * @see org.eclipse.ui.plugin.AbstractUIPlugin#stop(org.osgi.framework.BundleContext)
 	 */
 	public void stop(BundleContext context) throws Exception {
+		ModuleSlotCache.getInstance().save();
 		plugin = null;
 		super.stop(context);
 		ServerCore.removeRuntimeLifecycleListener(RuntimeClasspathCache.getInstance());
@@ -86,6 +88,8 @@ public class ClasspathCorePlugin extends Plugin {
 				if( rtt != null && rtt.getId().equals(rt.getId())) {
 					RuntimeClasspathCache.getInstance().cacheEntries(allRuntimes[i], null);
 					ModuleSlotCache.getInstance().clearRuntimeModuleSlots(allRuntimes[i]);
+					if( allRuntimes[i].getLocation() != null )
+						ModulesIndex.getInstance().invalidate(allRuntimes[i].getLocation().append("modules")); //$NON-NLS-1$
 				}
 			}
 		}
@@ -66,6 +66,12 @@ public class ModuleSlot {
 	}
 	
 	public IPath[] getJars(IPath modulesFolder) {
+		// Subclasses may customize the lookup, so only plain slots use the index
+		if( getClass() == ModuleSlot.class ) {
+			IPath[] indexed = ModulesIndex.getInstance().getJars(modulesFolder, this);
+			if( indexed != null )
+				return indexed;
+		}
 		return getJarsInternal(modulesFolder, this);
 	}
 	
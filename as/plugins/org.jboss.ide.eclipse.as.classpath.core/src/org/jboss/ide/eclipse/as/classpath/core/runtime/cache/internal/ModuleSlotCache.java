@@ -11,120 +11,273 @@
 package org.jboss.ide.eclipse.as.classpath.core.runtime.cache.internal;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.wst.server.core.IRuntime;
+import org.jboss.ide.eclipse.as.classpath.core.ClasspathCorePlugin;
+import org.jboss.tools.foundation.core.xml.IMemento;
+import org.jboss.tools.foundation.core.xml.XMLMemento;
 
 /**
- * This class caches individual manifest or deployment-structure 
- * files and what ModuleSlot combinations they require. 
+ * This class caches individual manifest or deployment-structure
+ * files and what ModuleSlot combinations they require.
+ *
+ * The cache may be used by several builds and resource listeners at once.
+ * Changes to the list of files for a project should be made while holding
+ * the lock from {@link #getProjectLock(IProject)}.
+ *
+ * The module slots of each file are saved when the bundle stops,
+ * along with the file's modification stamps, so that files which
+ * have not changed need not be read again in the next session.
  */
 public class ModuleSlotCache {
+	private static final String CACHE_FILE = "moduleSlots.xml"; //$NON-NLS-1$
+	private static final String VERSION = "1"; //$NON-NLS-1$
+
 	private static ModuleSlotCache instance = null;
-	public static ModuleSlotCache getInstance() {
-		if( instance == null )
+	public static synchronized ModuleSlotCache getInstance() {
+		if( instance == null ) {
 			instance = new ModuleSlotCache();
+			instance.load();
+		}
 		return instance;
 	}
-	
+
+	/*
+	 * The module slots read from a file, and the file's stamps at the time it was read
+	 */
+	private static class Entry {
+		private final long modificationStamp;
+		private final long localTimeStamp;
+		private final ModuleSlot[] moduleSlots;
+		Entry(long modificationStamp, long localTimeStamp, ModuleSlot[] moduleSlots) {
+			this.modificationStamp = modificationStamp;
+			this.localTimeStamp = localTimeStamp;
+			this.moduleSlots = moduleSlots;
+		}
+	}
+
 	// Cache a given file to the required module-slot combos
-	private Map<IFile, ModuleSlot[]> moduleSlotEntries;
-	// Cache last time a module file was updated
-	private Map<IFile, Long> lastUpdated;
-	
+	private Map<IFile, Entry> moduleSlotEntries;
+
 	// Cache the default module/slots for a given runtime type
 	private Map<RuntimeKey, ModuleSlot[]> defaultModuleSlots;
-	
-	// Keep a list of manifest files for each project
-	private Map<IProject, ArrayList<IFile>> manifests;
 
 	// Keep a list of manifest files for each project
-	private Map<IProject, ArrayList<IFile>> deploymentStructures;
+	private Map<IProject, IFile[]> manifests;
+
+	// Keep a list of deployment structure files for each project
+	private Map<IProject, IFile[]> deploymentStructures;
+
+	private Map<IProject, Object> projectLocks;
+
+	private volatile boolean dirty = false;
 
-	
 	ModuleSlotCache() {
-		moduleSlotEntries = new HashMap<IFile, ModuleSlot[]>();
-		lastUpdated = new HashMap<IFile, Long>();
-		defaultModuleSlots = new HashMap<RuntimeKey, ModuleSlot[]>();
-		manifests = new HashMap<IProject, ArrayList<IFile>>();
-		deploymentStructures = new HashMap<IProject, ArrayList<IFile>>();
+		moduleSlotEntries = new ConcurrentHashMap<IFile, Entry>();
+		defaultModuleSlots = new ConcurrentHashMap<RuntimeKey, ModuleSlot[]>();
+		manifests = new ConcurrentHashMap<IProject, IFile[]>();
+		deploymentStructures = new ConcurrentHashMap<IProject, IFile[]>();
+		projectLocks = new ConcurrentHashMap<IProject, Object>();
 	}
-	
+
+	/**
+	 * Get the lock to hold while reading and updating
+	 * the cached files of the given project
+	 * @since 3.10
+	 */
+	public Object getProjectLock(IProject p) {
+		Object lock = projectLocks.get(p);
+		if( lock == null ) {
+			Object created = new Object();
+			lock = projectLocks.putIfAbsent(p, created);
+			if( lock == null )
+				lock = created;
+		}
+		return lock;
+	}
+
 	public boolean hasInitializedManifests(IProject p) {
-		return manifests.containsKey(p) && manifests.get(p) != null;
+		return manifests.containsKey(p);
 	}
 
 	public boolean hasInitializedDeploymentStructures(IProject p) {
-		return deploymentStructures.containsKey(p) && deploymentStructures.get(p) != null;
+		return deploymentStructures.containsKey(p);
 	}
 
 	public void setManifests(IProject p, IFile[] manFiles) {
-		manifests.put(p, new ArrayList<IFile>(Arrays.asList(manFiles)));
+		manifests.put(p, copy(manFiles));
 	}
-	
+
 	public void setDeploymentStructures(IProject p, IFile[] manFiles) {
-		deploymentStructures.put(p, new ArrayList<IFile>(Arrays.asList(manFiles)));
+		deploymentStructures.put(p, copy(manFiles));
 	}
-	
+
 	public IFile[] getManifests(IProject p) {
-		ArrayList<IFile> ret = manifests.get(p);
-		if( ret != null ) {
-			return (IFile[]) ret.toArray(new IFile[ret.size()]);
-		}
-		return null;
+		return copy(manifests.get(p));
 	}
-	
+
 	public IFile[] getDeploymentStructures(IProject p) {
-		ArrayList<IFile> ret = deploymentStructures.get(p);
-		if( ret != null ) {
-			return (IFile[]) ret.toArray(new IFile[ret.size()]);
-		}
-		return null;
+		return copy(deploymentStructures.get(p));
+	}
+
+	private static IFile[] copy(IFile[] files) {
+		return files == null ? null : Arrays.copyOf(files, files.length);
 	}
-	
+
 	public void cache(IFile file, ModuleSlot[] ms) {
-		lastUpdated.put(file, file.getLocation().toFile().lastModified());
-		moduleSlotEntries.put(file, ms);
-		
+		cache(file, ms, file.getModificationStamp(), file.getLocalTimeStamp());
+	}
+
+	/**
+	 * Cache the module slots read from a file.
+	 * The stamps should be fetched before the file is read,
+	 * so that a change made while reading it is not missed.
+	 * @since 3.10
+	 */
+	public void cache(IFile file, ModuleSlot[] ms, long modificationStamp, long localTimeStamp) {
+		moduleSlotEntries.put(file, new Entry(modificationStamp, localTimeStamp, ms));
+		dirty = true;
 	}
-	
+
+	/**
+	 * Forget the given file, for example because it has been deleted
+	 * @since 3.10
+	 */
+	public void remove(IFile file) {
+		if( moduleSlotEntries.remove(file) != null )
+			dirty = true;
+	}
+
 	public ModuleSlot[] getEntries(IFile file) {
-		return moduleSlotEntries.get(file);
+		Entry e = moduleSlotEntries.get(file);
+		return e == null ? null : e.moduleSlots;
 	}
-	
+
 	public boolean isOutdated(IFile file) {
-		boolean ret = false;
-		Object o = lastUpdated.get(file);
-		File f = file.getLocation().toFile();
-		if( !f.exists() && o != null ) {
-			ret = true;
-		} else {
-			if( o == null || !(o instanceof Long) || ((Long)o).longValue() < file.getLocation().toFile().lastModified()) {
-				ret = true;
-			} else {
-				ret = false;
-			}
-		}
-		return ret;
-	}	
-	
+		Entry e = moduleSlotEntries.get(file);
+		return e == null || e.modificationStamp == IResource.NULL_STAMP
+				|| e.modificationStamp != file.getModificationStamp()
+				|| e.localTimeStamp != file.getLocalTimeStamp();
+	}
+
 	public void cacheRuntimeModuleSlots(IRuntime runtime, ModuleSlot[] all) {
 		RuntimeKey key = RuntimeClasspathCache.getRuntimeKey(runtime);
-		defaultModuleSlots.put(key, all);
+		if( key != null ) {
+			if( all == null )
+				defaultModuleSlots.remove(key);
+			else
+				defaultModuleSlots.put(key, all);
+		}
 	}
-	
+
 	public ModuleSlot[] getRuntimeModuleSlots(IRuntime runtime) {
 		RuntimeKey key = RuntimeClasspathCache.getRuntimeKey(runtime);
-		return defaultModuleSlots.get(key);
+		return key == null ? null : defaultModuleSlots.get(key);
 	}
-	
+
 	public void clearRuntimeModuleSlots(IRuntime runtime) {
 		RuntimeKey key = RuntimeClasspathCache.getRuntimeKey(runtime);
-		defaultModuleSlots.remove(key);		
+		if( key != null )
+			defaultModuleSlots.remove(key);
+	}
+
+	private static File getCacheFile() {
+		ClasspathCorePlugin plugin = ClasspathCorePlugin.getDefault();
+		return plugin == null ? null : plugin.getStateLocation().append(CACHE_FILE).toFile();
+	}
+
+	private void load() {
+		File f = getCacheFile();
+		if( f == null || !f.isFile())
+			return;
+		InputStream is = null;
+		try {
+			is = new FileInputStream(f);
+			XMLMemento memento = XMLMemento.createReadRoot(is);
+			if( !VERSION.equals(memento.getString("version"))) //$NON-NLS-1$
+				return;
+			IMemento[] files = memento.getChildren("file"); //$NON-NLS-1$
+			for( int i = 0; i < files.length; i++ ) {
+				IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(files[i].getString("path"))); //$NON-NLS-1$
+				long stamp = Long.parseLong(files[i].getString("stamp")); //$NON-NLS-1$
+				long local = Long.parseLong(files[i].getString("local")); //$NON-NLS-1$
+				IMemento[] slots = files[i].getChildren("slot"); //$NON-NLS-1$
+				ModuleSlot[] ms = new ModuleSlot[slots.length];
+				for( int j = 0; j < slots.length; j++ ) {
+					ms[j] = new ModuleSlot(slots[j].getString("module"), slots[j].getString("slot")); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				moduleSlotEntries.put(file, new Entry(stamp, local, ms));
+			}
+		} catch(IOException ioe) {
+			// Start with an empty cache
+		} catch(RuntimeException re) {
+			// A damaged file, start with an empty cache
+			moduleSlotEntries.clear();
+		} finally {
+			close(is);
+		}
+	}
+
+	/**
+	 * Save the cached module slots of every file which still exists.
+	 * @since 3.10
+	 */
+	public void save() {
+		File f = getCacheFile();
+		if( f == null || !dirty )
+			return;
+		dirty = false;
+		XMLMemento memento = XMLMemento.createWriteRoot("moduleSlots"); //$NON-NLS-1$
+		memento.putString("version", VERSION); //$NON-NLS-1$
+		ArrayList<Map.Entry<IFile, Entry>> all = new ArrayList<Map.Entry<IFile, Entry>>(moduleSlotEntries.entrySet());
+		for( Map.Entry<IFile, Entry> e : all ) {
+			if( !e.getKey().exists())
+				continue;
+			IMemento child = memento.createChild("file"); //$NON-NLS-1$
+			child.putString("path", e.getKey().getFullPath().toString()); //$NON-NLS-1$
+			child.putString("stamp", Long.toString(e.getValue().modificationStamp)); //$NON-NLS-1$
+			child.putString("local", Long.toString(e.getValue().localTimeStamp)); //$NON-NLS-1$
+			ModuleSlot[] ms = e.getValue().moduleSlots;
+			for( int i = 0; i < ms.length; i++ ) {
+				IMemento slot = child.createChild("slot"); //$NON-NLS-1$
+				slot.putString("module", ms[i].getModule()); //$NON-NLS-1$
+				slot.putString("slot", ms[i].getSlot()); //$NON-NLS-1$
+			}
+		}
+		OutputStream os = null;
+		try {
+			f.getParentFile().mkdirs();
+			os = new FileOutputStream(f);
+			memento.save(os);
+		} catch(IOException ioe) {
+			ClasspathCorePlugin.log("Unable to save the module slot cache", ioe); //$NON-NLS-1$
+			f.delete();
+		} finally {
+			close(os);
+		}
+	}
+
+	private static void close(java.io.Closeable c) {
+		if( c != null ) {
+			try {
+				c.close();
+			} catch(IOException ioe) {
+				// Ignore
+			}
+		}
 	}
 }
@@ -0,0 +1,414 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.as.classpath.core.runtime.cache.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.jboss.ide.eclipse.as.classpath.core.ClasspathCorePlugin;
+import org.jboss.ide.eclipse.as.core.server.jbossmodules.LayeredModulePathFactory;
+import org.jboss.tools.foundation.core.xml.IMemento;
+import org.jboss.tools.foundation.core.xml.XMLMemento;
+
+/**
+ * An index of every module in a jboss-modules folder,
+ * listing the jars of each module:slot, the module aliases,
+ * and the order of the layers and overlays.
+ *
+ * The index for a modules folder is built once, by walking each layer,
+ * and saved in this bundle's state location so that it survives restarts.
+ * It is rebuilt only when the fingerprint of the modules tree
+ * (the folders, module.xml files and layer configuration) changes.
+ * The fingerprint is checked when an index is first used, when
+ * the runtime changes, and at most every {@link #REVALIDATE_INTERVAL} ms.
+ */
+public class ModulesIndex {
+	/** The longest time (ms) an index is used before its fingerprint is checked again */
+	public static final long REVALIDATE_INTERVAL = 30000;
+
+	private static final String INDEX_FOLDER = "modulesIndex"; //$NON-NLS-1$
+	private static final String VERSION = "1"; //$NON-NLS-1$
+	private static final String MODULE_XML = "module.xml"; //$NON-NLS-1$
+	private static final String LAYERS_CONF = "layers.conf"; //$NON-NLS-1$
+	private static final String OVERLAYS = ".overlays"; //$NON-NLS-1$
+
+	private static ModulesIndex instance = null;
+	public static synchronized ModulesIndex getInstance() {
+		if( instance == null )
+			instance = new ModulesIndex();
+		return instance;
+	}
+
+	private static class ModuleEntry {
+		private final String[] jars;
+		private final String alias;
+		ModuleEntry(String[] jars, String alias) {
+			this.jars = jars;
+			this.alias = alias;
+		}
+	}
+
+	private static class Index {
+		private final String fingerprint;
+		private final List<String> layers;
+		private final Map<String, ModuleEntry> modules;
+		private long validated;
+		Index(String fingerprint, List<String> layers, Map<String, ModuleEntry> modules) {
+			this.fingerprint = fingerprint;
+			this.layers = layers;
+			this.modules = modules;
+		}
+	}
+
+	// modules folder to its index
+	private final Map<String, Index> indexes = new HashMap<String, Index>();
+
+	ModulesIndex() {
+	}
+
+	/**
+	 * Get the jars for the given module and slot, following module aliases.
+	 *
+	 * @param modulesFolder	The modules folder of a runtime
+	 * @param ms			The module and slot
+	 * @return The jars, or null if the folder could not be indexed
+	 */
+	public IPath[] getJars(IPath modulesFolder, ModuleSlot ms) {
+		Index index = getIndex(modulesFolder.toFile());
+		if( index == null )
+			return null;
+		Set<String> seen = new HashSet<String>();
+		String key = getKey(ms.getModule(), ms.getSlot());
+		while( key != null && seen.add(key)) {
+			ModuleEntry e = index.modules.get(key);
+			if( e == null )
+				break;
+			if( e.jars.length > 0 || e.alias == null ) {
+				IPath[] ret = new IPath[e.jars.length];
+				for( int i = 0; i < ret.length; i++ ) {
+					ret[i] = new Path(e.jars[i]);
+				}
+				return ret;
+			}
+			key = e.alias;
+		}
+		return new IPath[0];
+	}
+
+	/**
+	 * Get the layers and overlays of the given modules folder,
+	 * in the order in which modules are looked up
+	 *
+	 * @param modulesFolder	The modules folder of a runtime
+	 * @return The layer folders, or null if the folder could not be indexed
+	 */
+	public IPath[] getLayers(IPath modulesFolder) {
+		Index index = getIndex(modulesFolder.toFile());
+		if( index == null )
+			return null;
+		IPath[] ret = new IPath[index.layers.size()];
+		for( int i = 0; i < ret.length; i++ ) {
+			ret[i] = new Path(index.layers.get(i));
+		}
+		return ret;
+	}
+
+	/**
+	 * Check the fingerprint of the given modules folder the next time it is used,
+	 * for example because the runtime has changed.
+	 */
+	public synchronized void invalidate(IPath modulesFolder) {
+		Index index = indexes.get(modulesFolder.toFile().getAbsolutePath());
+		if( index != null )
+			index.validated = 0;
+	}
+
+	/**
+	 * Forget all indexes, both in memory and on disk
+	 */
+	public synchronized void clear() {
+		indexes.clear();
+		File root = getIndexRoot();
+		File[] children = root == null ? null : root.listFiles();
+		if( children != null ) {
+			for( int i = 0; i < children.length; i++ ) {
+				children[i].delete();
+			}
+		}
+	}
+
+	private synchronized Index getIndex(File folder) {
+		if( !folder.isDirectory())
+			return null;
+		String folderKey = folder.getAbsolutePath();
+		Index index = indexes.get(folderKey);
+		long now = System.currentTimeMillis();
+		if( index != null && now - index.validated < REVALIDATE_INTERVAL )
+			return index;
+
+		List<String> layers;
+		String fingerprint;
+		try {
+			layers = getLayerPaths(folder);
+			fingerprint = computeFingerprint(folder, layers);
+		} catch(RuntimeException re) {
+			// A bad layers.conf; let the caller resolve without the index and report it
+			return null;
+		}
+		if( fingerprint == null ) {
+			indexes.remove(folderKey);
+			return null;
+		}
+
+		if( index == null ) {
+			index = load(folder);
+		}
+		if( index == null || !fingerprint.equals(index.fingerprint) || !layers.equals(index.layers)) {
+			index = build(fingerprint, layers);
+			save(folder, index);
+		}
+		index.validated = now;
+		indexes.put(folderKey, index);
+		return index;
+	}
+
+	private static List<String> getLayerPaths(File folder) {
+		File[] layered = LayeredModulePathFactory.resolveLayeredModulePath(folder);
+		List<String> ret = new ArrayList<String>(layered.length);
+		for( int i = 0; i < layered.length; i++ ) {
+			ret.add(layered[i].getAbsolutePath());
+		}
+		return ret;
+	}
+
+	private static String getKey(String module, String slot) {
+		return module + ":" + slot; //$NON-NLS-1$
+	}
+
+	/*
+	 * Folders gain or lose a modification stamp whenever a module, slot or jar
+	 * is added or removed, so the stamps of every folder plus those of the files
+	 * which describe modules and layers are enough to notice any change which
+	 * would alter the index.
+	 */
+	private static String computeFingerprint(File folder, List<String> layers) {
+		final CRC32 crc = new CRC32();
+		final long[] count = new long[1];
+		for( String l : layers ) {
+			update(crc, l);
+		}
+		try {
+			Files.walkFileTree(folder.toPath(), new SimpleFileVisitor<java.nio.file.Path>() {
+				@Override
+				public FileVisitResult preVisitDirectory(java.nio.file.Path dir, BasicFileAttributes attrs) {
+					count[0]++;
+					update(crc, dir.toString() + "@" + attrs.lastModifiedTime().toMillis()); //$NON-NLS-1$
+					return FileVisitResult.CONTINUE;
+				}
+				@Override
+				public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) {
+					String name = file.getFileName().toString();
+					if( MODULE_XML.equals(name) || LAYERS_CONF.equals(name) || OVERLAYS.equals(name)) {
+						update(crc, file.toString() + "@" + attrs.lastModifiedTime().toMillis() + "@" + attrs.size()); //$NON-NLS-1$ //$NON-NLS-2$
+					}
+					return FileVisitResult.CONTINUE;
+				}
+				@Override
+				public FileVisitResult visitFileFailed(java.nio.file.Path file, IOException exc) {
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch(IOException ioe) {
+			return null;
+		}
+		return count[0] + "-" + Long.toHexString(crc.getValue()); //$NON-NLS-1$
+	}
+
+	private static void update(CRC32 crc, String s) {
+		crc.update(s.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Index build(String fingerprint, List<String> layers) {
+		Set<File> layerRoots = new HashSet<File>();
+		for( String l : layers ) {
+			layerRoots.add(new File(l));
+		}
+		Map<String, ModuleEntry> modules = new HashMap<String, ModuleEntry>();
+		ModuleAliasUtil aliasUtil = new ModuleAliasUtil();
+		for( String l : layers ) {
+			indexFolder(new File(l), new ArrayList<String>(), layerRoots, modules, aliasUtil);
+		}
+		return new Index(fingerprint, Collections.unmodifiableList(layers), modules);
+	}
+
+	/*
+	 * Index one folder of a layer and recurse into its children.
+	 * Other layers nested inside this one, such as system/layers/base
+	 * inside the modules root, and hidden folders such as .overlays,
+	 * are indexed separately or not at all.
+	 */
+	private static void indexFolder(File dir, List<String> segments, Set<File> layerRoots,
+			Map<String, ModuleEntry> modules, ModuleAliasUtil aliasUtil) {
+		File[] children = dir.listFiles();
+		if( children == null )
+			return;
+		List<String> jars = new ArrayList<String>();
+		boolean hasModuleXml = false;
+		for( int i = 0; i < children.length; i++ ) {
+			String name = children[i].getName();
+			if( children[i].isFile()) {
+				if( name.endsWith(".jar")) //$NON-NLS-1$
+					jars.add(children[i].getAbsolutePath());
+				else if( MODULE_XML.equals(name))
+					hasModuleXml = true;
+			} else if( children[i].isDirectory() && !name.startsWith(".") && !layerRoots.contains(children[i])) { //$NON-NLS-1$
+				segments.add(name);
+				indexFolder(children[i], segments, layerRoots, modules, aliasUtil);
+				segments.remove(segments.size() - 1);
+			}
+		}
+		if( segments.size() < 2 || (!hasModuleXml && jars.isEmpty()))
+			return;
+
+		StringBuilder module = new StringBuilder();
+		for( int i = 0; i < segments.size() - 1; i++ ) {
+			if( i > 0 )
+				module.append('.');
+			module.append(segments.get(i));
+		}
+		String key = getKey(module.toString(), segments.get(segments.size() - 1));
+		// The first layer to contain a module hides it in all later layers
+		if( modules.containsKey(key))
+			return;
+		String alias = null;
+		if( jars.isEmpty()) {
+			ModuleSlot ms = aliasUtil.getAliasModuleSlot(new File(dir, MODULE_XML));
+			if( ms != null )
+				alias = getKey(ms.getModule(), ms.getSlot());
+		}
+		modules.put(key, new ModuleEntry((String[]) jars.toArray(new String[jars.size()]), alias));
+	}
+
+	private static File getIndexRoot() {
+		ClasspathCorePlugin plugin = ClasspathCorePlugin.getDefault();
+		return plugin == null ? null : plugin.getStateLocation().append(INDEX_FOLDER).toFile();
+	}
+
+	private static File getIndexFile(File folder) {
+		File root = getIndexRoot();
+		if( root == null )
+			return null;
+		String name = Integer.toHexString(folder.getAbsolutePath().hashCode()) + ".xml"; //$NON-NLS-1$
+		return new File(root, name);
+	}
+
+	private static Index load(File folder) {
+		File f = getIndexFile(folder);
+		if( f == null || !f.isFile())
+			return null;
+		InputStream is = null;
+		try {
+			is = new FileInputStream(f);
+			XMLMemento memento = XMLMemento.createReadRoot(is);
+			// The file name is only a hash of the folder, so make sure it is the right one
+			if( !VERSION.equals(memento.getString("version")) //$NON-NLS-1$
+					|| !folder.getAbsolutePath().equals(memento.getString("folder"))) //$NON-NLS-1$
+				return null;
+			List<String> layers = new ArrayList<String>();
+			IMemento[] layerChildren = memento.getChildren("layer"); //$NON-NLS-1$
+			for( int i = 0; i < layerChildren.length; i++ ) {
+				layers.add(layerChildren[i].getString("path")); //$NON-NLS-1$
+			}
+			Map<String, ModuleEntry> modules = new HashMap<String, ModuleEntry>();
+			IMemento[] moduleChildren = memento.getChildren("module"); //$NON-NLS-1$
+			for( int i = 0; i < moduleChildren.length; i++ ) {
+				IMemento[] jarChildren = moduleChildren[i].getChildren("jar"); //$NON-NLS-1$
+				String[] jars = new String[jarChildren.length];
+				for( int j = 0; j < jars.length; j++ ) {
+					jars[j] = jarChildren[j].getString("path"); //$NON-NLS-1$
+				}
+				modules.put(moduleChildren[i].getString("id"), //$NON-NLS-1$
+						new ModuleEntry(jars, moduleChildren[i].getString("alias"))); //$NON-NLS-1$
+			}
+			return new Index(memento.getString("fingerprint"), Collections.unmodifiableList(layers), modules); //$NON-NLS-1$
+		} catch(IOException ioe) {
+			// Rebuild it
+		} catch(RuntimeException re) {
+			// A damaged file, rebuild it
+		} finally {
+			close(is);
+		}
+		return null;
+	}
+
+	private static void save(File folder, Index index) {
+		File f = getIndexFile(folder);
+		if( f == null )
+			return;
+		f.getParentFile().mkdirs();
+		XMLMemento memento = XMLMemento.createWriteRoot("modulesIndex"); //$NON-NLS-1$
+		memento.putString("version", VERSION); //$NON-NLS-1$
+		memento.putString("folder", folder.getAbsolutePath()); //$NON-NLS-1$
+		memento.putString("fingerprint", index.fingerprint); //$NON-NLS-1$
+		for( String l : index.layers ) {
+			memento.createChild("layer").putString("path", l); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		for( Map.Entry<String, ModuleEntry> e : index.modules.entrySet()) {
+			IMemento child = memento.createChild("module"); //$NON-NLS-1$
+			child.putString("id", e.getKey()); //$NON-NLS-1$
+			if( e.getValue().alias != null )
+				child.putString("alias", e.getValue().alias); //$NON-NLS-1$
+			String[] jars = e.getValue().jars;
+			for( int i = 0; i < jars.length; i++ ) {
+				child.createChild("jar").putString("path", jars[i]); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		OutputStream os = null;
+		try {
+			os = new FileOutputStream(f);
+			memento.save(os);
+		} catch(IOException ioe) {
+			ClasspathCorePlugin.log("Unable to save the modules index for " + folder.getAbsolutePath(), ioe); //$NON-NLS-1$
+			f.delete();
+		} finally {
+			close(os);
+		}
+	}
+
+	private static void close(java.io.Closeable c) {
+		if( c != null ) {
+			try {
+				c.close();
+			} catch(IOException ioe) {
+				// Ignore
+			}
+		}
+	}
+}
@@ -59,6 +59,9 @@ public class RuntimeClasspathCache implements IRuntimeLifecycleListener {
 		if (key != null) {
 			runtimeClasspaths.remove(key);
 		}
+		if (runtime.getLocation() != null) {
+			ModulesIndex.getInstance().invalidate(runtime.getLocation().append("modules")); //$NON-NLS-1$
+		}
 	}
 	
 	private Map<RuntimeKey, IClasspathEntry[]> getRuntimeClasspaths() {
@@ -41,4 +41,8 @@ public class DeploymentStructureChangeListener extends ManifestChangeListener {
 	protected void ensureInCache(IFile f) {
 		new DeploymentStructureUtil().ensureInCache(f);
 	}
+	
+	protected void removeFromCache(IFile f) {
+		new DeploymentStructureUtil().removeFromCache(f);
+	}
 }
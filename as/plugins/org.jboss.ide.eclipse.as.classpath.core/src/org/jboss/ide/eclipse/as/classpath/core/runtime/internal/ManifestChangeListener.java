@@ -54,10 +54,15 @@ public class ManifestChangeListener implements IResourceChangeListener {
 		new ModuleSlotManifestUtil().ensureInCache(f);
 	}
 	
+	protected void removeFromCache(IFile f) {
+		new ModuleSlotManifestUtil().removeFromCache(f);
+	}
+	
 	@Override
 	public void resourceChanged(IResourceChangeEvent event) {
 		IResourceDelta delta = event.getDelta();
 		final ArrayList<IFile> changedManifests = new ArrayList<IFile>();
+		final ArrayList<IFile> removedManifests = new ArrayList<IFile>();
 		final ArrayList<IProject> changedProjects = new ArrayList<IProject>();
 		try {
 			delta.accept(new IResourceDeltaVisitor() {
@@ -65,7 +70,10 @@ public class ManifestChangeListener implements IResourceChangeListener {
 					String name = delta.getResource().getName();
 					if (name.toLowerCase().equals(getFileName())) {
 						if( delta.getResource() instanceof IFile) {
-							changedManifests.add((IFile)delta.getResource());
+							if( delta.getKind() == IResourceDelta.REMOVED )
+								removedManifests.add((IFile)delta.getResource());
+							else
+								changedManifests.add((IFile)delta.getResource());
 						}
 						if( !changedProjects.contains(delta.getResource().getProject())) {
 							changedProjects.add(delta.getResource().getProject());
@@ -82,6 +90,9 @@ public class ManifestChangeListener implements IResourceChangeListener {
 		for( int i = 0; i < asArr.length; i++ ) {
 			ensureInCache(asArr[i]);
 		}
+		for( IFile f : removedManifests ) {
+			removeFromCache(f);
+		}
 		
 		// reset classpath containers for affected projects
 		IProject[] asArr2 = changedProjects.toArray(new IProject[changedProjects.size()]);
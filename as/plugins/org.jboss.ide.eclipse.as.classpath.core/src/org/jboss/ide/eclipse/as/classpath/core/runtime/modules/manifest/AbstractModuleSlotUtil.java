@@ -101,14 +101,16 @@ public abstract class AbstractModuleSlotUtil {
 	}
 	
 	protected IFile[] getRelevantFiles(IProject p) {
-		if( !isInitialized(p) ) {
-			try {
-				cacheFiles(p, locateRelevantFiles(p));
-			} catch(CoreException ce) {
-				return new IFile[0];
+		synchronized(ModuleSlotCache.getInstance().getProjectLock(p)) {
+			if( !isInitialized(p) ) {
+				try {
+					cacheFiles(p, locateRelevantFiles(p));
+				} catch(CoreException ce) {
+					return new IFile[0];
+				}
 			}
+			return getCachedFiles(p);
 		}
-		return getCachedFiles(p);
 	}
 	
 	protected boolean isCacheOutdated(IFile f) {
@@ -122,14 +124,17 @@ public abstract class AbstractModuleSlotUtil {
 		
 		for( int i = 0; i < files.length; i++ ) {
 			IFile f = files[i];
-			if( !isCacheOutdated(f)) {
-				ModuleSlot[] prevCached = fetchCachedModuleSlots(f);
+			ModuleSlot[] prevCached = isCacheOutdated(f) ? null : fetchCachedModuleSlots(f);
+			if( prevCached != null ) {
 				all.addAll(Arrays.asList(prevCached));
 			} else {
 				// don't use the cache
-				// read the file to get a list of modules
+				// read the file to get a list of modules,
+				// noting its stamps first so a change made while reading is not missed
+				long stamp = f.getModificationStamp();
+				long local = f.getLocalTimeStamp();
 				ModuleSlot[] forFile = calculateModuleSlots(files[i]);
-				cacheModuleSlots(f, forFile);
+				cacheModuleSlots(f, forFile, stamp, local);
 				all.addAll(Arrays.asList(forFile));
 			}
 		}
@@ -139,6 +144,13 @@ public abstract class AbstractModuleSlotUtil {
 	protected void cacheModuleSlots(IFile f, ModuleSlot[] all) {
 		ModuleSlotCache.getInstance().cache(f, all);
 	}
+
+	/**
+	 * @since 3.10
+	 */
+	protected void cacheModuleSlots(IFile f, ModuleSlot[] all, long modificationStamp, long localTimeStamp) {
+		ModuleSlotCache.getInstance().cache(f, all, modificationStamp, localTimeStamp);
+	}
 	
 	protected abstract boolean isInitialized(IProject p);
 	
@@ -172,21 +184,41 @@ public abstract class AbstractModuleSlotUtil {
 	
 	public void ensureInCache(IFile f) {
 		IProject p = f.getProject();
-		boolean initialized = cacheInitializedProject(p);
-		if( !initialized ) {
-			try {
-				cacheRelevantFiles(p);
-			} catch(CoreException ce) {
-				IStatus o = ce.getStatus();
-				IStatus stat2 = new Status(o.getSeverity(), o.getPlugin(), o.getMessage(), ce);
-				ClasspathCorePlugin.getDefault().getLog().log(stat2);
+		synchronized(ModuleSlotCache.getInstance().getProjectLock(p)) {
+			boolean initialized = cacheInitializedProject(p);
+			if( !initialized ) {
+				try {
+					cacheRelevantFiles(p);
+				} catch(CoreException ce) {
+					IStatus o = ce.getStatus();
+					IStatus stat2 = new Status(o.getSeverity(), o.getPlugin(), o.getMessage(), ce);
+					ClasspathCorePlugin.getDefault().getLog().log(stat2);
+				}
+			}
+			IFile[] all = getCachedFiles(p);
+			ArrayList<IFile> tmp = all == null ? new ArrayList<IFile>() : new ArrayList<IFile>(Arrays.asList(all));
+			if( !tmp.contains(f)) {
+				tmp.add(f);
+				cacheFiles(p, (IFile[]) tmp.toArray(new IFile[tmp.size()]));
 			}
 		}
-		IFile[] all = getCachedFiles(p);
-		ArrayList<IFile> tmp = all == null ? new ArrayList<IFile>() : new ArrayList<IFile>(Arrays.asList(all));
-		if( !tmp.contains(f)) {
-			tmp.add(f);
-			cacheFiles(p, (IFile[]) tmp.toArray(new IFile[tmp.size()]));
+	}
+	
+	/**
+	 * Forget a file which has been deleted
+	 * @since 3.10
+	 */
+	public void removeFromCache(IFile f) {
+		IProject p = f.getProject();
+		synchronized(ModuleSlotCache.getInstance().getProjectLock(p)) {
+			IFile[] all = getCachedFiles(p);
+			if( all != null ) {
+				ArrayList<IFile> tmp = new ArrayList<IFile>(Arrays.asList(all));
+				if( tmp.remove(f)) {
+					cacheFiles(p, (IFile[]) tmp.toArray(new IFile[tmp.size()]));
+				}
+			}
+			ModuleSlotCache.getInstance().remove(f);
 		}
 	}
 	
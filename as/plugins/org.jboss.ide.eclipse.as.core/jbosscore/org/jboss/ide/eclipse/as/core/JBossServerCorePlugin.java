@@ -28,10 +28,12 @@ import org.eclipse.wst.common.project.facet.core.FacetedProjectFramework;
 import org.eclipse.wst.common.project.facet.core.events.IFacetedProjectEvent;
 import org.eclipse.wst.server.core.IServer;
 import org.jboss.ide.eclipse.as.core.extensions.descriptors.XPathModel;
+import org.jboss.ide.eclipse.as.core.extensions.polling.PollerScheduler;
 import org.jboss.ide.eclipse.as.core.server.IUserPrompter;
 import org.jboss.ide.eclipse.as.core.server.UnitedServerListenerManager;
 import org.jboss.ide.eclipse.as.core.server.UserPrompter;
 import org.jboss.ide.eclipse.as.core.server.internal.ServerListener;
+import org.jboss.ide.eclipse.as.core.server.internal.v7.DeploymentMarkerMonitor;
 import org.jboss.ide.eclipse.as.core.util.ServerUtil;
 import org.osgi.framework.BundleContext;
 
@@ -106,6 +108,8 @@ public class JBossServerCorePlugin extends Plugin  {
 		UnitedServerListenerManager.getDefault().removeListener(ServerListener.getDefault());
 		UnitedServerListenerManager.getDefault().removeListener(XPathModel.getDefault());
 		FacetedProjectFramework.removeListener(JBoss4xEarFacetInstallListener.getDefault());
+		DeploymentMarkerMonitor.shutdown();
+		PollerScheduler.shutdown();
 	}
 
 	/**
@@ -10,17 +10,58 @@
  ******************************************************************************/ 
 package org.jboss.ide.eclipse.as.core.extensions.descriptors;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.apache.tools.ant.DirectoryScanner;
 
 /**
  * A class to scann files and folders for files that match a pattern
  * Delegates to a DirectoryScanner provided by the ant plugins
+ * 
+ * Many filters are created for the same folder and pattern, for example
+ * one per port query of a server. The result of a scan is therefore shared 
+ * by all filters for {@link #SCAN_CACHE_TIMEOUT} ms. Only the 
+ * {@link #SCAN_CACHE_SIZE} most recently used results are kept.
+ * 
  * @author rob.stryker@redhat.com
  */
 public class AntFileFilter {
+	/** How long (ms) the result of a scan is shared with other filters */
+	public static final long SCAN_CACHE_TIMEOUT = 5000;
+	/** How many scan results are shared with other filters at most */
+	public static final int SCAN_CACHE_SIZE = 64;
+	
+	private static class ScanResult {
+		private final String[] files;
+		private final long scanned;
+		ScanResult(String[] files) {
+			this.files = files;
+			this.scanned = System.currentTimeMillis();
+		}
+	}
+	private static final Map<String, ScanResult> recentScans = Collections.synchronizedMap(
+			new LinkedHashMap<String, ScanResult>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+				protected boolean removeEldestEntry(Map.Entry<String, ScanResult> eldest) {
+					return size() > SCAN_CACHE_SIZE;
+				}
+			});
+	
+	/**
+	 * Forget all shared scan results, for example because files were added
+	 * @since 3.10
+	 */
+	public static void clearScanCache() {
+		recentScans.clear();
+	}
+	
 	private String includes;
 	private String baseDir;
 	private boolean hasScanned;
+	private String[] includedFiles;
+	private final String scanKey;
 	private transient DirectoryScanner scanner;
 	public AntFileFilter(String baseDir, String includes) {
 		this.includes = includes == null ? "**/*.xml" : includes; //$NON-NLS-1$
@@ -29,6 +70,7 @@ public class AntFileFilter {
 		String includesList[] = this.includes.split(" ?, ?"); //$NON-NLS-1$
 		scanner.setBasedir(baseDir);
 		scanner.setIncludes(includesList);
+		this.scanKey = baseDir + "\n" + this.includes; //$NON-NLS-1$
 	}
 	public String getBaseDir() { return baseDir; }
 	public String getIncludes() { return includes; }
@@ -36,9 +78,22 @@ public class AntFileFilter {
 	public void setBaseDir(String baseDir) { this.baseDir = baseDir; }
 	public String[] getIncludedFiles() {
 		if( !hasScanned ) {
+			includedFiles = scan();
 			hasScanned = true;
-			scanner.scan();
 		}
-		return scanner.getIncludedFiles();
+		return includedFiles.clone();
+	}
+	
+	private String[] scan() {
+		ScanResult recent = recentScans.get(scanKey);
+		if( recent != null ) {
+			if( System.currentTimeMillis() - recent.scanned < SCAN_CACHE_TIMEOUT )
+				return recent.files;
+			recentScans.remove(scanKey);
+		}
+		scanner.scan();
+		String[] files = scanner.getIncludedFiles();
+		recentScans.put(scanKey, new ScanResult(files));
+		return files;
 	}
 }
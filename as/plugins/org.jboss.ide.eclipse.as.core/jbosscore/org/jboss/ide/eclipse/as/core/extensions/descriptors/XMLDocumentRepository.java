@@ -10,14 +10,24 @@
  ******************************************************************************/ 
 package org.jboss.ide.eclipse.as.core.extensions.descriptors;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.HashMap;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
@@ -38,27 +48,62 @@ import org.xml.sax.SAXException;
 /**
  * Parses and potentially stores descriptor files.
  * 
+ * The repository may be used from many threads at once. 
+ * At most {@link #MAX_DOCUMENTS} documents are kept, the least recently 
+ * used being dropped first, and a file is only parsed by one thread 
+ * at a time; other threads asking for it wait for that parse. 
+ * 
+ * A file is only read again when its size or modification time changes,
+ * and only parsed again when its contents have really changed. 
+ * 
  * @author rstryker@redhat.com
  * 
  */
 public class XMLDocumentRepository {
+	/** The largest number of documents kept by one repository */
+	public static final int MAX_DOCUMENTS = 64;
+	
 	/** singleton instance */
 	private static XMLDocumentRepository instance = null;
 	private static final String LOAD_EXTERNAL_DTD_KEY = 
 		"http://apache.org/xml/features/nonvalidating/load-external-dtd"; //$NON-NLS-1$
 
 	/** singleton getter */
-	public static XMLDocumentRepository getDefault() {
+	public static synchronized XMLDocumentRepository getDefault() {
 		if (instance == null)
 			instance = new XMLDocumentRepository();
 		return instance;
 	}
 
-	/** maps a path to its actual document object */
-	private HashMap<String, Document> pathToDocument;
+	/*
+	 * What is known about a file the last time it was read
+	 */
+	private static class Entry {
+		/** the document, or null if the file is missing or could not be parsed */
+		private final Document document;
+		private final long lastModified;
+		/** the file's length, or -1 if it could not be read */
+		private final long size;
+		private final long checksum;
+		/** the last time the file's contents changed */
+		private final long changed;
+		Entry(Document document, long lastModified, long size, long checksum, long changed) {
+			this.document = document;
+			this.lastModified = lastModified;
+			this.size = size;
+			this.checksum = checksum;
+			this.changed = changed;
+		}
+		boolean matches(File f) {
+			return size >= 0 && lastModified == f.lastModified() && size == f.length();
+		}
+	}
 	
-	/** maps a path to the last time that path's file was changed */
-	private HashMap<String, Long> pathToTimestamp;
+	/** maps a path to what was last read from it, in least recently used order */
+	private final Map<String, Entry> pathToEntry;
+	
+	/** the reads currently in progress */
+	private final ConcurrentHashMap<String, CompletableFuture<Entry>> loading;
 	
 	/** a link to a parent repository which may already contain the document 
 	 * and may prevent a costly reparse. */
@@ -66,16 +111,20 @@ public class XMLDocumentRepository {
 
 	/** package-private constructor */
 	XMLDocumentRepository() {
-		pathToDocument = new HashMap<String, Document>();
-		pathToTimestamp = new HashMap<String, Long>();
+		this(null);
 	}
 
 	/** public constructor with a parent repository
 	 * @param parent The parent repository
 	 */
 	public XMLDocumentRepository(XMLDocumentRepository parent) {
-		pathToDocument = new HashMap<String, Document>();
-		pathToTimestamp = new HashMap<String, Long>();
+		pathToEntry = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > MAX_DOCUMENTS;
+			}
+		});
+		loading = new ConcurrentHashMap<String, CompletableFuture<Entry>>();
 		this.parent = parent;
 	}
 
@@ -106,15 +155,15 @@ public class XMLDocumentRepository {
 	 * @return the document
 	 */
 	public Document getDocument(String fullPath, boolean load, boolean save) {
-		Document d = pathToDocument.get(fullPath);
+		Entry e = pathToEntry.get(fullPath);
+		Document d = e == null ? null : e.document;
 		if( d == null && parent != null)
 			d = parent.getDocument(fullPath, false, save);
 		if (d == null && load) {
 			if( !save ) {
 				d = loadDocument(fullPath);
 			} else {
-				refresh(fullPath);
-				d = pathToDocument.get(fullPath);
+				d = refreshEntry(fullPath).document;
 			}
 		}
 		return d;
@@ -126,46 +175,82 @@ public class XMLDocumentRepository {
 	 * @return whether the document was re-read
 	 */
 	public boolean refresh(String fullPath) {
-		boolean hasCachedTimestamp = pathToTimestamp.get(fullPath) != null;
+		Entry before = pathToEntry.get(fullPath);
+		Entry after = refreshEntry(fullPath);
+		if( before == null )
+			return after.size >= 0;
+		return after.document != before.document;
+	}
+	
+	private Entry refreshEntry(String fullPath) {
 		File f = new File(fullPath);
-		
 		if( !f.exists()) {
 			// The file doesn't exist, so we cache a null document with current timestamp
-			pathToDocument.put(fullPath, null);
-			pathToTimestamp.put(fullPath, System.currentTimeMillis());
-			return false;
+			long now = System.currentTimeMillis();
+			Entry missing = new Entry(null, 0, -1, 0, now);
+			pathToEntry.put(fullPath, missing);
+			return missing;
 		}
 		
-		boolean refreshed = false;
-		// The file does exist...
-		if (!hasCachedTimestamp) {
-			// We don't have a cached timestamp, so we'll cache the current doc
-			// and modification stamp
-			pathToDocument.put(fullPath, loadDocument(fullPath));
-			pathToTimestamp.put(fullPath, new Long(f.lastModified()));
-			refreshed = true;
-		} else {
-			// We DO have a cached timestamp, and the file exists. Let's see if
-			// it was modified
-			Long cachedStamp = pathToTimestamp.get(fullPath);
-			long cVal = cachedStamp == null ? 0 : cachedStamp.longValue();
-			boolean modified = cVal < f.lastModified();
-			if (modified) {
-				pathToDocument.put(fullPath, loadDocument(fullPath));
-				pathToTimestamp.put(fullPath, new Long(f.lastModified()));
-				refreshed = true;
+		Entry cached = pathToEntry.get(fullPath);
+		if( cached != null && cached.matches(f)) 
+			return cached;
+		
+		// Only one thread reads a given file, any others wait for its result
+		CompletableFuture<Entry> mine = new CompletableFuture<Entry>();
+		CompletableFuture<Entry> inProgress = loading.putIfAbsent(fullPath, mine);
+		if( inProgress != null ) {
+			try {
+				return inProgress.join();
+			} catch(CompletionException ce) {
+				// The other thread failed unexpectedly, so try here instead
+				return readEntry(f, cached);
 			}
 		}
-		
-		return refreshed;
+		try {
+			Entry e = readEntry(f, cached);
+			pathToEntry.put(fullPath, e);
+			mine.complete(e);
+			return e;
+		} catch(RuntimeException re) {
+			mine.completeExceptionally(re);
+			throw re;
+		} finally {
+			loading.remove(fullPath, mine);
+		}
+	}
+	
+	/*
+	 * Read the file, but only parse it if its contents differ from the previous read
+	 */
+	private Entry readEntry(File f, Entry previous) {
+		long lastModified = f.lastModified();
+		byte[] bytes;
+		try {
+			bytes = Files.readAllBytes(f.toPath());
+		} catch(IOException ioe) {
+			JBossServerCorePlugin.getDefault().getLog().log(
+					new Status(IStatus.ERROR, JBossServerCorePlugin.PLUGIN_ID,
+							NLS.bind(Messages.loadXMLDocumentFailed, f.getAbsolutePath()), ioe));
+			return new Entry(null, lastModified, -1, 0, lastModified);
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length);
+		long checksum = crc.getValue();
+		if( previous != null && previous.size == bytes.length && previous.checksum == checksum ) {
+			// Only the timestamp changed, the document is still valid
+			return new Entry(previous.document, lastModified, bytes.length, checksum, previous.changed);
+		}
+		Document d = parseDocument(new ByteArrayInputStream(bytes), f.getAbsolutePath());
+		return new Entry(d, lastModified, bytes.length, checksum, lastModified);
 	}
 	
 	/**
 	 * @since 2.4
 	 */
 	public boolean hasChangedSince(String fullPath, long timestamp) {
-		Long lastUpdated = pathToTimestamp.get(fullPath);
-		return lastUpdated.longValue() > timestamp;
+		Entry e = pathToEntry.get(fullPath);
+		return e == null || e.changed > timestamp;
 	}
 
 	/*
@@ -173,6 +258,26 @@ public class XMLDocumentRepository {
 	 * Upon exception, log the exception and return null
 	 */
 	private Document loadDocument(String fullpath) {
+		try {
+			InputStream is = new FileInputStream(fullpath);
+			try {
+				return parseDocument(is, fullpath);
+			} finally {
+				is.close();
+			}
+		} catch (IOException e) {
+			JBossServerCorePlugin.getDefault().getLog().log(
+					new Status(IStatus.ERROR, JBossServerCorePlugin.PLUGIN_ID,
+							NLS.bind(Messages.loadXMLDocumentFailed,fullpath), e));
+		}
+		return null;
+	}
+	
+	/*
+	 * Parse the contents of the given file. 
+	 * Upon exception, log the exception and return null
+	 */
+	private Document parseDocument(InputStream is, String fullpath) {
 		Exception ex = null;
 		try {
 			URL url;
@@ -186,7 +291,7 @@ public class XMLDocumentRepository {
 
 			SAXReader reader = new SAXReader(false);
 			reader.setXMLReader(sp.getXMLReader());
-			Document document = reader.read(url);
+			Document document = reader.read(is, url.toString());
 
 			return document;
 		} catch (MalformedURLException e) {
@@ -10,9 +10,17 @@
  ******************************************************************************/ 
 package org.jboss.ide.eclipse.as.core.extensions.descriptors;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.dom4j.Document;
 
 import org.eclipse.wst.server.core.IServer;
+import org.jaxen.JaxenException;
 import org.jboss.tools.foundation.core.xml.IMemento;
 
 /**
@@ -100,6 +108,67 @@ public class XPathCategory {
 		}
 	}
 
+	/**
+	 * Load the results of every query in this category which has none yet. 
+	 * Each file matched by any of the queries is read only once, 
+	 * and all the queries matching it are evaluated against it together. 
+	 * @since 3.10
+	 */
+	public synchronized void loadResults() {
+		XPathQuery[] queries = getQueries();
+		Map<String, List<XPathQuery>> byFile = new LinkedHashMap<String, List<XPathQuery>>();
+		Map<XPathQuery, List<XPathFileResult>> found = new LinkedHashMap<XPathQuery, List<XPathFileResult>>();
+		for( int i = 0; i < queries.length; i++ ) {
+			if( queries[i].resultsLoaded())
+				continue;
+			try {
+				String[] files = queries[i].getFilePaths();
+				for( int j = 0; j < files.length; j++ ) {
+					List<XPathQuery> l = byFile.get(files[j]);
+					if( l == null ) {
+						l = new ArrayList<XPathQuery>();
+						byFile.put(files[j], l);
+					}
+					l.add(queries[i]);
+				}
+				found.put(queries[i], new ArrayList<XPathFileResult>());
+			} catch(IllegalStateException ise) {
+				queries[i].setResults(new XPathFileResult[0]);
+			}
+		}
+		
+		for( Entry<String, List<XPathQuery>> e : byFile.entrySet()) {
+			XMLDocumentRepository repo = null;
+			Document d = null;
+			for( XPathQuery q : e.getValue()) {
+				List<XPathFileResult> results = found.get(q);
+				if( results == null )
+					continue; // failed in an earlier file
+				if( q.getRepository() != repo ) {
+					repo = q.getRepository();
+					d = repo.getDocument(e.getKey());
+				}
+				try {
+					XPathFileResult r = q.evaluate(e.getKey(), d);
+					if( r != null )
+						results.add(r);
+				} catch(JaxenException je) {
+					// Not logged, see XPathQuery.loadResults
+					found.remove(q);
+					q.setResults(new XPathFileResult[0]);
+				} catch(IllegalStateException ise) {
+					found.remove(q);
+					q.setResults(new XPathFileResult[0]);
+				}
+			}
+		}
+		
+		for( Entry<XPathQuery, List<XPathFileResult>> e : found.entrySet()) {
+			List<XPathFileResult> l = e.getValue();
+			e.getKey().setResults(l.toArray(new XPathFileResult[l.size()]));
+		}
+	}
+
 	/*
 	 * Save these queries to its server object
 	 */
@@ -19,7 +19,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IPath;
@@ -32,6 +34,10 @@ import org.eclipse.wst.server.core.IRuntime;
 import org.eclipse.wst.server.core.IRuntimeType;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.ServerCore;
+import org.jaxen.JaxenException;
+import org.jaxen.SimpleNamespaceContext;
+import org.jaxen.XPath;
+import org.jaxen.dom4j.Dom4jXPath;
 import org.jboss.ide.eclipse.as.core.JBossServerCorePlugin;
 import org.jboss.ide.eclipse.as.core.Messages;
 import org.jboss.ide.eclipse.as.core.extensions.descriptors.XPathFileResult.XPathResultNode;
@@ -422,9 +428,31 @@ public class XPathModel extends UnitedServerListener {
 	}
 	public void setNamespaceMap(Properties map) {
 		namespaceMap = map;
+		compiledXPaths.clear();
 		// TODO  save to preferences
 	}
 	
+	/*
+	 * Compiled xpaths, shared by all queries using the same expression
+	 */
+	private final Map<String, XPath> compiledXPaths = new ConcurrentHashMap<String, XPath>();
+	
+	/**
+	 * Get the compiled form of an xpath expression, 
+	 * using the current namespace map. 
+	 * Each expression is only compiled once. 
+	 * @since 3.10
+	 */
+	public XPath getCompiledXPath(String xpathPattern) throws JaxenException {
+		XPath xpath = compiledXPaths.get(xpathPattern);
+		if( xpath == null ) {
+			xpath = new Dom4jXPath(xpathPattern);
+			xpath.setNamespaceContext(new SimpleNamespaceContext(getNamespaceMap()));
+			compiledXPaths.put(xpathPattern, xpath);
+		}
+		return xpath;
+	}
+	
 	/* 
 	 * Static utility methods
 	 */
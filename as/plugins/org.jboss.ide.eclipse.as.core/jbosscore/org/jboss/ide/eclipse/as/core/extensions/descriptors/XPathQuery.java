@@ -13,7 +13,6 @@ package org.jboss.ide.eclipse.as.core.extensions.descriptors;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 import org.dom4j.Document;
 import org.dom4j.Node;
@@ -22,9 +21,6 @@ import org.eclipse.core.runtime.Path;
 import org.eclipse.wst.server.core.IRuntime;
 import org.eclipse.wst.server.core.IServer;
 import org.jaxen.JaxenException;
-import org.jaxen.SimpleNamespaceContext;
-import org.jaxen.XPath;
-import org.jaxen.dom4j.Dom4jXPath;
 import org.jboss.ide.eclipse.as.core.extensions.descriptors.XPathFileResult.XPathResultNode;
 import org.jboss.ide.eclipse.as.core.resolvers.RuntimeVariableResolver;
 import org.jboss.tools.foundation.core.expressions.ExpressionResolver;
@@ -57,7 +53,7 @@ public class XPathQuery implements Serializable {
 	/*
 	 * The file results, need not be saved on serialize
 	 */
-	protected transient XPathFileResult[] results;
+	protected transient volatile XPathFileResult[] results;
 	protected transient XPathCategory category;
 	protected transient XMLDocumentRepository repository = null;
 	protected IServer server; // May be null
@@ -180,23 +176,19 @@ public class XPathQuery implements Serializable {
 	}
 
 	protected void loadResults() {
+		if( category != null ) {
+			// Load this query together with the others in its category
+			category.loadResults();
+			if( results != null )
+				return;
+		}
 		try {
-			String[] files = getFilter().getIncludedFiles();
-			String fileLoc;
+			String[] files = getFilePaths();
 			ArrayList<XPathFileResult> resultList = new ArrayList<XPathFileResult>();
-			List<Node> nodeList = null;
 			for( int i = 0; i < files.length; i++ ) {
-				fileLoc = new Path(effectiveBaseDir).append(files[i]).toOSString();
-				Document d = getRepository().getDocument(fileLoc);
-				if( d != null ) {
-					XPath xpath = new Dom4jXPath( xpathPattern );
-					Map map = XPathModel.getDefault().getNamespaceMap();
-					xpath.setNamespaceContext( new SimpleNamespaceContext( map));
-					List nodes = xpath.selectNodes(d);
-					nodeList = xpath.selectNodes(d);
-				}
-				if( nodeList != null && nodeList.size() > 0 ) 
-					resultList.add(new XPathFileResult(this, fileLoc, nodeList));
+				XPathFileResult r = evaluate(files[i], getRepository().getDocument(files[i]));
+				if( r != null ) 
+					resultList.add(r);
 			}
 			results = resultList.toArray(new XPathFileResult[resultList.size()]);
 		} catch( IllegalStateException ise ) {
@@ -216,6 +208,35 @@ public class XPathQuery implements Serializable {
 		}
 	}
 	
+	/*
+	 * The full paths of the files matching the file pattern
+	 */
+	String[] getFilePaths() {
+		String[] files = getFilter().getIncludedFiles();
+		String[] ret = new String[files.length];
+		for( int i = 0; i < files.length; i++ ) {
+			ret[i] = new Path(effectiveBaseDir).append(files[i]).toOSString();
+		}
+		return ret;
+	}
+	
+	/*
+	 * Match this query against one document. 
+	 * Returns null if nothing in the document matches. 
+	 */
+	XPathFileResult evaluate(String fileLoc, Document d) throws JaxenException {
+		if( d == null )
+			return null;
+		List<Node> nodeList = XPathModel.getDefault().getCompiledXPath(xpathPattern).selectNodes(d);
+		if( nodeList != null && nodeList.size() > 0 ) 
+			return new XPathFileResult(this, fileLoc, nodeList);
+		return null;
+	}
+	
+	void setResults(XPathFileResult[] results) {
+		this.results = results;
+	}
+	
 	public String getFirstResult() {
 		XPathFileResult[] fileResults = getResults();
 		if( fileResults.length > 0 ) {
@@ -0,0 +1,264 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.as.core.extensions.polling;
+
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.jboss.ide.eclipse.as.core.JBossServerCorePlugin;
+
+/**
+ * A small, shared pool of threads on which all server state pollers run.
+ *
+ * Rather than each poller owning a thread which sleeps between checks,
+ * a poller submits a task which performs a single check. The task is
+ * re-scheduled until it reports that it is finished or it is canceled.
+ *
+ * The delay between two checks of the same task begins at the task's
+ * initial delay and grows until it reaches the task's maximum delay.
+ * A small random jitter is added to every delay so that many servers
+ * polled together do not all wake at the same instant.
+ *
+ * Checks which may block, for example on a remote call or while waiting
+ * for the user to provide credentials, must be scheduled with
+ * {@link #scheduleBlocking(IPollTask, long, long)}. They are timed by the
+ * shared threads but run on a second pool of at most
+ * {@link #BLOCKING_POOL_SIZE} threads, so that they cannot hold up every
+ * other poller. When that pool and its queue are full, a check is put
+ * off until its next delay has passed.
+ *
+ * @since 3.10
+ */
+public class PollerScheduler {
+	/** The number of threads shared by all pollers */
+	public static final int POOL_SIZE = 4;
+	/** The largest number of blocking checks which run at once */
+	public static final int BLOCKING_POOL_SIZE = 8;
+	/** The number of blocking checks which may wait for a thread */
+	public static final int BLOCKING_QUEUE_SIZE = 32;
+	/** The factor by which the delay grows after each check */
+	public static final double BACKOFF_FACTOR = 1.5;
+	/** The largest fraction of a delay which may be added or removed at random */
+	public static final double JITTER = 0.1;
+
+	/**
+	 * A single check performed by a poller
+	 */
+	public interface IPollTask {
+		/**
+		 * Perform one check.
+		 * @return true if polling is finished and the task should not run again
+		 */
+		public boolean poll();
+	}
+
+	private static PollerScheduler instance;
+
+	public static synchronized PollerScheduler getDefault() {
+		if( instance == null )
+			instance = new PollerScheduler();
+		return instance;
+	}
+
+	/**
+	 * Stop all polling and release the shared threads.
+	 * Called when the bundle stops.
+	 */
+	public static synchronized void shutdown() {
+		if( instance != null ) {
+			instance.executor.shutdownNow();
+			instance.blockingExecutor.shutdownNow();
+			instance = null;
+		}
+	}
+
+	private final ScheduledThreadPoolExecutor executor;
+	// Runs blocking checks; idle threads are released after a minute
+	private final ThreadPoolExecutor blockingExecutor;
+	private final Random random = new Random();
+
+	private PollerScheduler() {
+		executor = new ScheduledThreadPoolExecutor(POOL_SIZE, new PollerThreadFactory("Server Poller ")); //$NON-NLS-1$
+		executor.setRemoveOnCancelPolicy(true);
+		blockingExecutor = new ThreadPoolExecutor(BLOCKING_POOL_SIZE, BLOCKING_POOL_SIZE, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(BLOCKING_QUEUE_SIZE),
+				new PollerThreadFactory("Server Poller (blocking) ")); //$NON-NLS-1$
+		blockingExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	private static class PollerThreadFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+		private final String prefix;
+		PollerThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, prefix + count.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+	}
+
+	/**
+	 * Begin running the given task. The first check runs right away.
+	 *
+	 * @param task			The task to run
+	 * @param initialDelay	The delay (ms) after the first check
+	 * @param maxDelay		The largest delay (ms) between two checks
+	 * @return A handle for canceling or waking the task
+	 */
+	public PollHandle schedule(IPollTask task, long initialDelay, long maxDelay) {
+		PollHandle h = new PollHandle(task, initialDelay, maxDelay, false);
+		h.scheduleNext(0);
+		return h;
+	}
+
+	/**
+	 * Begin running a task whose checks may block.
+	 * The delays are the same as for {@link #schedule(IPollTask, long, long)},
+	 * but each check runs outside the shared threads.
+	 *
+	 * @param task			The task to run
+	 * @param initialDelay	The delay (ms) after the first check
+	 * @param maxDelay		The largest delay (ms) between two checks
+	 * @return A handle for canceling or waking the task
+	 */
+	public PollHandle scheduleBlocking(IPollTask task, long initialDelay, long maxDelay) {
+		PollHandle h = new PollHandle(task, initialDelay, maxDelay, true);
+		h.scheduleNext(0);
+		return h;
+	}
+
+	private long jitter(long delay) {
+		double r;
+		synchronized(random) {
+			r = random.nextDouble();
+		}
+		return Math.max(0, delay + (long)(delay * JITTER * (2 * r - 1)));
+	}
+
+	/**
+	 * A task which has been submitted to the scheduler
+	 */
+	public class PollHandle implements Runnable {
+		private final IPollTask task;
+		private final long initialDelay;
+		private final long maxDelay;
+		private final Runnable dispatch;
+		private long delay;
+		private ScheduledFuture<?> next;
+		private boolean running, wakeRequested, canceled, finished;
+
+		private PollHandle(IPollTask task, long initialDelay, long maxDelay, boolean blocking) {
+			this.task = task;
+			this.initialDelay = initialDelay;
+			this.maxDelay = Math.max(initialDelay, maxDelay);
+			this.delay = initialDelay;
+			this.dispatch = blocking ? new Runnable() {
+				public void run() {
+					try {
+						blockingExecutor.execute(PollHandle.this);
+					} catch(RejectedExecutionException ree) {
+						synchronized(PollHandle.this) {
+							if( blockingExecutor.isShutdown()) {
+								finished = true;
+							} else if( !canceled ) {
+								// Every blocking thread is busy; try again after the usual delay
+								scheduleNext(jitter(delay));
+							}
+						}
+					}
+				}
+			} : this;
+		}
+
+		public void run() {
+			synchronized(this) {
+				if( canceled || finished )
+					return;
+				running = true;
+				wakeRequested = false;
+			}
+			boolean done = true;
+			try {
+				done = task.poll();
+			} catch(RuntimeException re) {
+				JBossServerCorePlugin.log(new Status(IStatus.ERROR, JBossServerCorePlugin.PLUGIN_ID,
+						"Unexpected error while polling server state", re)); //$NON-NLS-1$
+			}
+			synchronized(this) {
+				running = false;
+				if( done ) {
+					finished = true;
+				} else if( !canceled ) {
+					if( wakeRequested ) {
+						scheduleNext(0);
+					} else {
+						scheduleNext(jitter(delay));
+						delay = Math.min((long)(delay * BACKOFF_FACTOR), maxDelay);
+					}
+				}
+			}
+		}
+
+		private synchronized void scheduleNext(long ms) {
+			try {
+				next = executor.schedule(dispatch, ms, TimeUnit.MILLISECONDS);
+			} catch(RejectedExecutionException ree) {
+				// The scheduler has been shut down
+				finished = true;
+			}
+		}
+
+		/**
+		 * Run the next check as soon as possible,
+		 * for example because the poller was canceled and must clean up.
+		 */
+		public synchronized void pollNow() {
+			if( canceled || finished )
+				return;
+			if( running ) {
+				wakeRequested = true;
+			} else if( next == null || next.cancel(false)) {
+				scheduleNext(0);
+			}
+		}
+
+		/**
+		 * Start again from the initial delay, for example after a state change
+		 */
+		public synchronized void resetDelay() {
+			delay = initialDelay;
+		}
+
+		/**
+		 * Stop running the task. A check which is already running will complete.
+		 */
+		public synchronized void cancel() {
+			canceled = true;
+			if( next != null )
+				next.cancel(false);
+		}
+
+		public synchronized boolean isDone() {
+			return canceled || finished;
+		}
+	}
+}
@@ -36,11 +36,16 @@ import org.jboss.ide.eclipse.as.core.util.ServerUtil;
 public class WebPortPoller implements IServerStatePoller2 {
 
 	public static final String WEB_POLLER_ID = IJBossToolingConstants.DEFAULT_STARTUP_POLLER;
+	private static final long POLL_INTERVAL = 100;
+	private static final long MAX_POLL_INTERVAL = 1000;
+	// A ping must not hang on an unresponsive host
+	private static final int PING_TIMEOUT = 5000;
 	private IServer server;
 	private IServerStatePollerType type;
 	private boolean canceled, done;
 	private boolean state;
 	private boolean expectedState;
+	private PollerScheduler.PollHandle handle;
 
 	public void beginPolling(IServer server, boolean expectedState) {
 		this.server = server;
@@ -51,12 +56,12 @@ public class WebPortPoller implements IServerStatePoller2 {
 	}
 
 	protected void launchThread() {
-		Thread t = new Thread(new Runnable(){
-			public void run() {
-				pollerRun();
+		final String url = getURL(getServer());
+		handle = PollerScheduler.getDefault().scheduleBlocking(new PollerScheduler.IPollTask() {
+			public boolean poll() {
+				return pollOnce(url);
 			}
-		}, "Web Poller"); //$NON-NLS-1$
-		t.start();
+		}, POLL_INTERVAL, MAX_POLL_INTERVAL);
 	}
 	
 	private synchronized void setStateInternal(boolean done, boolean state) {
@@ -64,18 +69,19 @@ public class WebPortPoller implements IServerStatePoller2 {
 		this.state = state;
 	}
 	
-	private void pollerRun() {
-		setStateInternal(false, state);
-		String url = getURL(getServer());
-		while(!canceled && !done) {
-			boolean up = onePing(url);
-			if( up == expectedState ) {
-				setStateInternal(true, expectedState);
-			}
-			try {
-				Thread.sleep(100);
-			} catch(InterruptedException ie) {} // ignore
+	private synchronized boolean isFinished() {
+		return canceled || done;
+	}
+	
+	private boolean pollOnce(String url) {
+		if( isFinished())
+			return true;
+		boolean up = onePing(url);
+		if( up == expectedState ) {
+			setStateInternal(true, expectedState);
+			return true;
 		}
+		return false;
 	}
 	
 	private static String getURL(IServer server) {
@@ -94,6 +100,8 @@ public class WebPortPoller implements IServerStatePoller2 {
 		try {
 			URL pingUrl = new URL(url);
 			conn = pingUrl.openConnection();
+			conn.setConnectTimeout(PING_TIMEOUT);
+			conn.setReadTimeout(PING_TIMEOUT);
 			((HttpURLConnection)conn).getResponseCode();
 			return true;
 		} catch( FileNotFoundException fnfe ) {
@@ -145,6 +153,8 @@ public class WebPortPoller implements IServerStatePoller2 {
 
 	public synchronized void cancel(int type) {
 		canceled = true;
+		if( handle != null )
+			handle.cancel();
 	}
 
 	public int getTimeoutBehavior() {
@@ -17,6 +17,7 @@ import org.eclipse.wst.server.core.IServer;
 import org.jboss.ide.eclipse.as.core.JBossServerCorePlugin;
 import org.jboss.ide.eclipse.as.core.Messages;
 import org.jboss.ide.eclipse.as.core.extensions.events.ServerLogger;
+import org.jboss.ide.eclipse.as.core.extensions.polling.PollerScheduler;
 import org.jboss.ide.eclipse.as.core.server.IPollResultListener;
 import org.jboss.ide.eclipse.as.core.server.IServerStatePoller;
 import org.jboss.ide.eclipse.as.core.server.IServerStatePoller.PollingException;
@@ -25,10 +26,17 @@ import org.jboss.ide.eclipse.as.core.util.IEventCodes;
 import org.jboss.ide.eclipse.as.core.util.PollThreadUtils;
 
 /**
+ * Drives an {@link IServerStatePoller} until it has an answer, 
+ * the server changes state, polling is canceled, or the timeout is reached.
+ * 
+ * Calling {@link #start()} does not start a thread which sleeps between steps; 
+ * the steps are scheduled with the {@link PollerScheduler} instead. 
+ * Calling {@link #run()} polls synchronously on the calling thread. 
+ * Use {@link #isAlive()} and {@link #join(long)} to follow polling either way. 
  * 
  * @author rob.stryker@jboss.com
  */
-public class PollThread extends Thread {
+public class PollThread implements Runnable {
 	// PollThread status objects look like this:
 	// 00000001xxxxxxxxaaaaaaaaaaaaaaaa  
 	// 00000001000000010000000000xxx00x
@@ -46,7 +54,17 @@ public class PollThread extends Thread {
 	public static final String SERVER_STARTING = "org.jboss.ide.eclipse.as.core.runtime.server.PollThread.server.starting"; //$NON-NLS-1$
 	public static final String SERVER_STOPPING = "org.jboss.ide.eclipse.as.core.runtime.server.PollThread.server.stopping"; //$NON-NLS-1$
 
-	private boolean expectedState, abort, stateStartedOrStopped;
+	private static final long POLL_INTERVAL = 100;
+	private static final long MAX_POLL_INTERVAL = 500;
+
+	private boolean expectedState, stateStartedOrStopped;
+	private volatile boolean abort;
+	private boolean begun, done;
+	// Guarded by this
+	private boolean started, finished;
+	private long startTime;
+	private int maxWait;
+	private volatile PollerScheduler.PollHandle handle;
 	private IServerStatePoller poller;
 	private String abortMessage;
 	private String pollerId;
@@ -54,7 +72,6 @@ public class PollThread extends Thread {
 	private IServer server;
 
 	public PollThread(boolean expectedState, IServerStatePoller poller, IPollResultListener listener, IServer server) {
-		super(getThreadName(server));
 		this.expectedState = expectedState;
 		this.poller = poller;
 		this.server = server;
@@ -62,18 +79,18 @@ public class PollThread extends Thread {
 		this.abort = false;
 	}
 
-	private static String getThreadName(IServer server) {
-		return NLS.bind(Messages.ServerPollerThreadName, server.getName());
-	}
-
 	public void cancel() {
 		cancel(null);
 	}
 
 	public void cancel(String message) {
-		abort = true;
 		abortMessage = message;
+		abort = true;
 		poller.cancel(IServerStatePoller.CANCEL);
+		// Let the next step notice the abort and clean up right away
+		PollerScheduler.PollHandle h = handle;
+		if( h != null )
+			h.pollNow();
 	}
 
 	public int getTimeout() {
@@ -83,58 +100,151 @@ public class PollThread extends Thread {
 			return (getServer().getStopTimeout() - 2) * 1000;
 	}
 
+	/**
+	 * Begin polling in the background.
+	 * The poller may block in any step, and credentials may be requested, 
+	 * so the steps do not run on the scheduler's shared threads.
+	 */
+	public synchronized void start() {
+		if( started )
+			throw new IllegalStateException();
+		started = true;
+		handle = PollerScheduler.getDefault().scheduleBlocking(new PollerScheduler.IPollTask() {
+			public boolean poll() {
+				return step();
+			}
+		}, POLL_INTERVAL, MAX_POLL_INTERVAL);
+	}
+
 	public void run() {
-		// Poller not found. Abort
-		if (poller == null) {
-			alertEventLogStarting();
-			alertPollerNotFound();
-			alertListener(!expectedState);
-			return;
+		synchronized(this) {
+			started = true;
 		}
+		while( !step()) {
+			try {
+				Thread.sleep(POLL_INTERVAL);
+			} catch (InterruptedException ie) {
+				// Keep polling until finished, canceled, or timed out
+			}
+		}
+	}
 
-		int maxWait = getTimeout();
-		alertEventLogStarting();
+	/**
+	 * @return true once polling has begun, until it has finished
+	 */
+	public synchronized boolean isAlive() {
+		if( !started || finished )
+			return false;
+		// The scheduler may have been shut down
+		PollerScheduler.PollHandle h = handle;
+		return h == null || !h.isDone();
+	}
 
-		long startTime = System.currentTimeMillis();
-		boolean done = false;
-		try {
-			poller.beginPolling(getServer(), expectedState);
-	
-			// begin the loop; ask the poller every so often
-			while (!stateStartedOrStopped 
-					&& !abort 
-					&& !done
-					&& !timeoutReached(startTime, maxWait)) {
-				try {
-					Thread.sleep(100);
-				} catch (InterruptedException ie) {
-					// I have no idea what I'm supposed to do here to make this 'not empty'
-				}
-	
-				try {
-					done = poller.isComplete();
-				} catch (PollingException e) {
-					// abort and put the message in event log
-					poller.cancel(IServerStatePoller.CANCEL);
-					poller.cleanup();
-					alertEventLogPollerException(e);
-					alertListener(!expectedState);
+	/**
+	 * Wait for polling to finish.
+	 * 
+	 * @param millis	The longest time (ms) to wait, or 0 to wait until finished
+	 */
+	public synchronized void join(long millis) throws InterruptedException {
+		long end = System.currentTimeMillis() + millis;
+		while( isAlive()) {
+			long ms = MAX_POLL_INTERVAL;
+			if( millis > 0 ) {
+				long left = end - System.currentTimeMillis();
+				if( left <= 0 )
 					return;
-				} catch (RequiresInfoException rie) {
-					// This way each request for new info is checked only once.
-					if (!rie.getChecked()) {
-						rie.setChecked();
-						fireRequestCredentials(expectedState, poller);
-					}
+				ms = Math.min(left, ms);
+			}
+			wait(ms);
+		}
+	}
+
+	/*
+	 * Perform one step of polling, noting when polling has finished
+	 */
+	private boolean step() {
+		boolean ret = true;
+		try {
+			ret = pollOnce();
+		} finally {
+			if( ret )
+				setFinished();
+		}
+		return ret;
+	}
+
+	private synchronized void setFinished() {
+		finished = true;
+		notifyAll();
+	}
+
+	/*
+	 * Perform a single step of polling. 
+	 * The first step begins polling; each later step asks the poller whether it is done.
+	 * Returns true once polling is finished and the listener has been alerted.
+	 */
+	private boolean pollOnce() {
+		if( !begun ) {
+			begun = true;
+			// Poller not found. Abort
+			if (poller == null) {
+				alertEventLogStarting();
+				alertPollerNotFound();
+				alertListener(!expectedState);
+				return true;
+			}
+			maxWait = getTimeout();
+			alertEventLogStarting();
+			startTime = System.currentTimeMillis();
+			try {
+				poller.beginPolling(getServer(), expectedState);
+			} catch(Exception e) {
+				handleUnexpectedError(e);
+			}
+			return isLoopFinished() ? finish() : false;
+		}
+		
+		if( isLoopFinished())
+			return finish();
+		
+		try {
+			try {
+				done = poller.isComplete();
+			} catch (PollingException e) {
+				// abort and put the message in event log
+				poller.cancel(IServerStatePoller.CANCEL);
+				poller.cleanup();
+				alertEventLogPollerException(e);
+				alertListener(!expectedState);
+				return true;
+			} catch (RequiresInfoException rie) {
+				// This way each request for new info is checked only once.
+				if (!rie.getChecked()) {
+					rie.setChecked();
+					fireRequestCredentials(expectedState, poller);
 				}
-				stateStartedOrStopped = checkServerState();
 			}
+			stateStartedOrStopped = checkServerState();
 		} catch(Exception e) {
-			abort = true;
-			Status s = new Status(IStatus.ERROR, JBossServerCorePlugin.PLUGIN_ID, Messages.ServerStatePollerUnexpectedError, e);
-			ServerLogger.getDefault().log(server, s);
+			handleUnexpectedError(e);
 		}
-
+		return isLoopFinished() ? finish() : false;
+	}
+	
+	private void handleUnexpectedError(Exception e) {
+		abort = true;
+		Status s = new Status(IStatus.ERROR, JBossServerCorePlugin.PLUGIN_ID, Messages.ServerStatePollerUnexpectedError, e);
+		ServerLogger.getDefault().log(server, s);
+	}
+	
+	private boolean isLoopFinished() {
+		return stateStartedOrStopped 
+				|| abort 
+				|| done
+				|| timeoutReached(startTime, maxWait);
+	}
+	
+	private boolean finish() {
 		if (stateStartedOrStopped) {
 			// we stopped. Did we abort?
 			handleUncertainTermination();
@@ -149,6 +259,7 @@ public class PollThread extends Thread {
 			// we timed out. get response from preferences
 			handleTimeoutTermination();
 		}
+		return true;
 	}
 
 	private void handlePollerHasAnswer() {
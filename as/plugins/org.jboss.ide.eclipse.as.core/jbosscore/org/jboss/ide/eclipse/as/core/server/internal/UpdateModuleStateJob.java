@@ -20,6 +20,7 @@ import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.internal.Server;
 import org.jboss.ide.eclipse.as.core.server.IServerModuleStateVerifier;
 import org.jboss.ide.eclipse.as.core.server.internal.extendedproperties.JBossExtendedProperties;
+import org.jboss.ide.eclipse.as.core.server.internal.v7.AbstractJBoss7ModuleStateVerifier;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IModuleStateController;
 
 public class UpdateModuleStateJob extends Job {
@@ -80,7 +81,42 @@ public class UpdateModuleStateJob extends Job {
 		}
 	}
 
+	/*
+	 * Verifiers for jboss 7 style servers can check and wait 
+	 * on all modules together rather than one at a time
+	 */
+	private AbstractJBoss7ModuleStateVerifier getBatchVerifier() {
+		if( verifier instanceof AbstractJBoss7ModuleStateVerifier )
+			return (AbstractJBoss7ModuleStateVerifier)verifier;
+		if( controller instanceof AbstractJBoss7ModuleStateVerifier )
+			return (AbstractJBoss7ModuleStateVerifier)controller;
+		return null;
+	}
+	
+	private IModule[][] getRootModulePaths(IModule[] modules) {
+		IModule[][] paths = new IModule[modules.length][];
+		for( int i = 0; i < modules.length; i++ ) {
+			paths[i] = new IModule[]{modules[i]};
+		}
+		return paths;
+	}
+	
+	private void setModuleStates(IModule[][] paths, int[] states) {
+		for( int i = 0; i < paths.length; i++ ) {
+			((Server)server).setModuleState(paths[i], states[i]);
+		}
+	}
+
 	private IStatus runWait(IProgressMonitor monitor) {
+		AbstractJBoss7ModuleStateVerifier batch = getBatchVerifier();
+		if( batch != null ) {
+			IModule[][] paths = getRootModulePaths(server.getModules());
+			monitor.beginTask("Checking module states for " + server.getName(), IProgressMonitor.UNKNOWN); //$NON-NLS-1$
+			setModuleStates(paths, batch.waitModulesStarted(server, paths, maxWait, monitor));
+			monitor.done();
+			return Status.OK_STATUS;
+		}
+		
 		boolean allStarted = false;
 		long startTime = System.currentTimeMillis();
 		long endTime = startTime + maxWait;
@@ -111,6 +147,14 @@ public class UpdateModuleStateJob extends Job {
 	
 	private IStatus runQuick(IProgressMonitor monitor) {
 		IModule[] modules = server.getModules();
+		AbstractJBoss7ModuleStateVerifier batch = getBatchVerifier();
+		if( batch != null ) {
+			IModule[][] paths = getRootModulePaths(modules);
+			monitor.beginTask("Verifying Module State", 1); //$NON-NLS-1$
+			setModuleStates(paths, batch.getModuleStates(server, paths, monitor));
+			monitor.done();
+			return Status.OK_STATUS;
+		}
 		monitor.beginTask("Verifying Module State", modules.length * 1000); //$NON-NLS-1$
 		for( int i = 0; i < modules.length; i++ ) {
 			IModule[] temp = new IModule[]{modules[i]};
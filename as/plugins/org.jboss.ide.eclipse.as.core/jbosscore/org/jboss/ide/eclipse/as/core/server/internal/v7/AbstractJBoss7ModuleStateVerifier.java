@@ -11,6 +11,14 @@
  ******************************************************************************/ 
 package org.jboss.ide.eclipse.as.core.server.internal.v7;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
@@ -28,30 +36,20 @@ import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IModuleStateController;
 import org.jboss.tools.as.core.server.controllable.systems.IModuleDeployPathController;
 
 public abstract class AbstractJBoss7ModuleStateVerifier extends AbstractSubsystemController implements IModuleStateController, IServerModuleStateVerifier {
+	/*
+	 * How often (ms) a thread waiting on a module checks whether it has been canceled
+	 */
+	private static final long CANCEL_CHECK_INTERVAL = 250;
+	
+	/*
+	 * Tracks modules which are being waited on, so that 
+	 * all waiting modules are checked in a single request
+	 */
+	private DeploymentStateTracker tracker;
+	private IServer trackerServer;
+	
 	public void waitModuleStarted(IServer server, IModule[] module, final int maxDelay) {
-		final NullProgressMonitor monitor = new NullProgressMonitor();
-		Thread t = new Thread(){
-			public void run() {
-				try {
-					Thread.sleep(maxDelay);
-				} catch(InterruptedException ie) {
-					return;
-				}
-				synchronized(monitor) {
-					monitor.setCanceled(true);
-				}
-			}
-		};
-		t.start();
-		
-		// synchronous call to wait
-		waitModuleStarted(server, module, monitor);
-		
-		// call is over, can notify the thread to go finish itself
-		synchronized(monitor) {
-			if( !monitor.isCanceled() )
-				t.interrupt();
-		}
+		waitModuleStarted(server, module, System.currentTimeMillis() + maxDelay, new NullProgressMonitor());
 	}
 
 	public boolean isModuleStarted(IServer server, IModule[] module,
@@ -99,47 +97,154 @@ public abstract class AbstractJBoss7ModuleStateVerifier extends AbstractSubsyste
 	
 
 	public void waitModuleStarted(IServer server, IModule[] module, IProgressMonitor monitor) {
+		waitModuleStarted(server, module, Long.MAX_VALUE, monitor);
+	}
+	
+	private void waitModuleStarted(IServer server, IModule[] module, long deadline, IProgressMonitor monitor) {
 		if( module.length == 0 || module[0] == null)
 			return;
 		
 		try {
 			String deploymentName = getDeploymentName(server, module[0]);
-			boolean waitedOnce = false;
+			if( isRootModuleStarted(server, module[0], deploymentName, monitor)) {
+				return;
+			}
+			String info = "Module {0} on {1} not yet fully deployed. Waiting..."; //$NON-NLS-1$
+			IStatus s = new Status( IStatus.INFO, JBossServerCorePlugin.PLUGIN_ID, 
+				NLS.bind(info, module[0].getName(), server.getName()),null);
+			JBossServerCorePlugin.log(s);
 			
-			while (!monitor.isCanceled()) {
-				boolean done = isRootModuleStarted(server, module[0], deploymentName, monitor);
-				if (done) {
+			Future<Integer> started = getTracker(server).whenStarted(module[0], deploymentName);
+			try {
+				if( waitFor(started, deadline, monitor)) {
 					return;
 				}
-				if(!waitedOnce) {
-					String info = "Module {0} on {1} not yet fully deployed. Waiting..."; //$NON-NLS-1$
-					IStatus s = new Status( IStatus.INFO, JBossServerCorePlugin.PLUGIN_ID, 
-						NLS.bind(info, module[0].getName(), server.getName()),null);
-					JBossServerCorePlugin.log(s);
-				}
-				waitedOnce = true;
-				try {
-					Thread.sleep(2000);
-				} catch (InterruptedException ie) {
-					// Ignore, intentional
-				}
+			} finally {
+				started.cancel(false);
 			}
 			
 			String warning = "Module {0} on {1} still not ready to be shown in browser. Aborting delay."; //$NON-NLS-1$
-			IStatus s = new Status(
+			s = new Status(
 					IStatus.WARNING, JBossServerCorePlugin.PLUGIN_ID, 
 					NLS.bind(warning, module[0].getName(), server.getName()), null);
 			JBossServerCorePlugin.log(s);
 		} catch (Exception e) {
+			Throwable t = e instanceof ExecutionException ? e.getCause() : e;
 			String er = "Error occurred while waiting for {0} to start on server {1}"; //$NON-NLS-1$
 			IStatus s = new Status(
 					IStatus.WARNING, JBossServerCorePlugin.PLUGIN_ID,
-					NLS.bind(er, module[0].getName(), server.getName()), e);
+					NLS.bind(er, module[0].getName(), server.getName()), t);
 			JBossServerCorePlugin.log(s);
 		}
 	}
 	
-
+	/*
+	 * Wait for the future to complete, returning false if the deadline 
+	 * passes or the monitor is canceled first
+	 */
+	private boolean waitFor(Future<Integer> f, long deadline, IProgressMonitor monitor) 
+			throws InterruptedException, ExecutionException {
+		while( !monitor.isCanceled()) {
+			long remaining = deadline - System.currentTimeMillis();
+			if( remaining <= 0 )
+				return false;
+			try {
+				f.get(Math.min(remaining, CANCEL_CHECK_INTERVAL), TimeUnit.MILLISECONDS);
+				return true;
+			} catch(TimeoutException te) {
+				// Check the monitor and deadline again
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Get the state of many root modules, using as few requests to the server as possible.
+	 * 
+	 * @param server	The server
+	 * @param modules	An array of module paths, only the root of each is checked
+	 * @param monitor	A progress monitor
+	 * @return One of the IServer.STATE_XXX constants for each module
+	 */
+	public int[] getModuleStates(IServer server, IModule[][] modules, IProgressMonitor monitor) {
+		IModule[] roots = new IModule[modules.length];
+		String[] names = new String[modules.length];
+		for( int i = 0; i < modules.length; i++ ) {
+			roots[i] = modules[i][0];
+			names[i] = getDeploymentOutputName(server, roots[i]);
+		}
+		try {
+			return getRootModuleStates(server, roots, names, monitor);
+		} catch(Exception e ) {
+			String er = "Error occurred while checking module states on server {0}"; //$NON-NLS-1$
+			IStatus s = new Status(
+					IStatus.WARNING, JBossServerCorePlugin.PLUGIN_ID,
+					NLS.bind(er, server.getName()), e);
+			JBossServerCorePlugin.log(s);
+			int[] ret = new int[modules.length];
+			Arrays.fill(ret, IServer.STATE_UNKNOWN);
+			return ret;
+		}
+	}
+	
+	/**
+	 * Wait until all the given root modules have started, the delay has passed, 
+	 * or the monitor is canceled, and return the final state of each module.
+	 * 
+	 * @param server	The server
+	 * @param modules	An array of module paths, only the root of each is checked
+	 * @param maxDelay	The maximum time to wait in ms
+	 * @param monitor	A progress monitor
+	 * @return One of the IServer.STATE_XXX constants for each module
+	 */
+	public int[] waitModulesStarted(IServer server, IModule[][] modules, long maxDelay, IProgressMonitor monitor) {
+		long deadline = System.currentTimeMillis() + maxDelay;
+		DeploymentStateTracker t = getTracker(server);
+		List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+		try {
+			for( int i = 0; i < modules.length; i++ ) {
+				String name = getDeploymentOutputName(server, modules[i][0]);
+				if( name != null )
+					futures.add(t.whenStarted(modules[i][0], name));
+			}
+			for( Future<Integer> f : futures ) {
+				if( !waitFor(f, deadline, monitor))
+					break;
+			}
+		} catch(InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} catch(ExecutionException ee) {
+			// The final read below reports whatever state can be found
+		} finally {
+			for( Future<Integer> f : futures ) {
+				f.cancel(false);
+			}
+		}
+		return getModuleStates(server, modules, monitor);
+	}
+	
+	private synchronized DeploymentStateTracker getTracker(final IServer server) {
+		if( tracker == null || trackerServer != server ) {
+			tracker = new DeploymentStateTracker(server, createStateReader(server));
+			trackerServer = server;
+		}
+		return tracker;
+	}
+	
+	/**
+	 * Create the reader used to check all modules which are being waited on.
+	 * Subclasses which are notified of state changes may return an
+	 * {@link DeploymentStateTracker.IDeploymentStateReader2}.
+	 * @since 3.10
+	 */
+	protected DeploymentStateTracker.IDeploymentStateReader createStateReader(final IServer server) {
+		return new DeploymentStateTracker.IDeploymentStateReader() {
+			public int[] readStates(IModule[] roots, String[] names) throws Exception {
+				return getRootModuleStates(server, roots, names, new NullProgressMonitor());
+			}
+		};
+	}
+	
 	@Override
 	public int stopModule(IModule[] module, IProgressMonitor monitor) throws CoreException  {
 		return changeModuleStateTo(module, IServer.STATE_STOPPED, monitor);	
@@ -154,6 +259,21 @@ public abstract class AbstractJBoss7ModuleStateVerifier extends AbstractSubsyste
 	protected abstract int getRootModuleState(IServer server, IModule root, 
 			String deploymentName, IProgressMonitor monitor) throws Exception;
 
+	/**
+	 * Get the state of many root modules at once. 
+	 * Subclasses able to read many deployments in one request should override this.
+	 * A null deployment name results in {@link IServer#STATE_UNKNOWN}.
+	 */
+	protected int[] getRootModuleStates(IServer server, IModule[] roots, 
+			String[] deploymentNames, IProgressMonitor monitor) throws Exception {
+		int[] ret = new int[roots.length];
+		for( int i = 0; i < roots.length; i++ ) {
+			ret[i] = deploymentNames[i] == null ? IServer.STATE_UNKNOWN : 
+				getRootModuleState(server, roots[i], deploymentNames[i], monitor);
+		}
+		return ret;
+	}
+
 	public abstract int changeModuleStateTo(IModule[] module, int state, IProgressMonitor monitor) throws CoreException;
 	
 	@Override
@@ -0,0 +1,398 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.as.core.server.internal.v7;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jboss.ide.eclipse.as.core.extensions.polling.PollerScheduler;
+
+/**
+ * Keeps an up-to-date view of the deployment markers in local deploy folders.
+ *
+ * Each watched folder is registered with a {@link WatchService} so that
+ * markers which are created or deleted by the server are known right away,
+ * and registered listeners are told about every change.
+ * Where the filesystem has no native change notification,
+ * the folder is listed periodically instead.
+ *
+ * Folders which are not queried for {@link #IDLE_TIMEOUT} ms
+ * are no longer watched.
+ */
+public class DeploymentMarkerMonitor {
+	/** A folder not queried for this long (ms) is no longer watched */
+	public static final long IDLE_TIMEOUT = 5 * 60 * 1000;
+	/** The delays (ms) used when a folder must be listed rather than watched */
+	public static final long SCAN_INTERVAL = 250;
+	public static final long MAX_SCAN_INTERVAL = 1000;
+
+	private static final String[] ALL_MARKERS = new String[] {
+		DeploymentMarkerUtils.DEPLOYED, DeploymentMarkerUtils.FAILED_DEPLOY,
+		DeploymentMarkerUtils.DO_DEPLOY, DeploymentMarkerUtils.DEPLOYING,
+		DeploymentMarkerUtils.UNDEPLOYING, DeploymentMarkerUtils.UNDEPLOYED,
+		DeploymentMarkerUtils.SKIP_DEPLOY, DeploymentMarkerUtils.PENDING
+	};
+
+	/**
+	 * Notified whenever a marker appears or disappears in a watched folder.
+	 * Listeners are called on the monitor's thread and should return quickly.
+	 */
+	public interface IDeploymentMarkerListener {
+		public void markerChanged(File folder, String deployment, String marker, boolean exists);
+	}
+
+	private static DeploymentMarkerMonitor instance;
+
+	public static synchronized DeploymentMarkerMonitor getDefault() {
+		if( instance == null )
+			instance = new DeploymentMarkerMonitor();
+		return instance;
+	}
+
+	/**
+	 * Stop watching all folders. Called when the bundle stops.
+	 */
+	public static synchronized void shutdown() {
+		if( instance != null ) {
+			instance.unwatchAll();
+			instance = null;
+		}
+	}
+
+	private static class WatchedFolder {
+		private final File folder;
+		// deployment name to the markers which currently exist for it
+		private Map<String, Set<String>> markers = new HashMap<String, Set<String>>();
+		private WatchKey key;
+		private PollerScheduler.PollHandle scan;
+		private long lastUsed = System.currentTimeMillis();
+		WatchedFolder(File folder) {
+			this.folder = folder;
+		}
+	}
+
+	private final Map<File, WatchedFolder> folders = new HashMap<File, WatchedFolder>();
+	private final List<IDeploymentMarkerListener> listeners = new ArrayList<IDeploymentMarkerListener>();
+	private WatchService watchService;
+	private boolean nativeWatch = true;
+	private PollerScheduler.PollHandle sweep;
+
+	public void addListener(IDeploymentMarkerListener l) {
+		synchronized(listeners) {
+			if( !listeners.contains(l))
+				listeners.add(l);
+		}
+	}
+
+	public void removeListener(IDeploymentMarkerListener l) {
+		synchronized(listeners) {
+			listeners.remove(l);
+		}
+	}
+
+	/**
+	 * Get the markers which currently exist for the given deployment,
+	 * beginning to watch the folder if it is not already watched.
+	 *
+	 * @param folder		A local deploy folder
+	 * @param deployment	The deployment's file name, for example foo.war
+	 * @return The markers, for example {@link DeploymentMarkerUtils#DEPLOYED},
+	 * 		or null if the folder does not exist
+	 */
+	public synchronized Set<String> getMarkers(File folder, String deployment) {
+		WatchedFolder wf = folders.get(folder);
+		if( wf == null ) {
+			if( !folder.isDirectory())
+				return null;
+			wf = watch(folder);
+		}
+		wf.lastUsed = System.currentTimeMillis();
+		Set<String> s = wf.markers.get(deployment);
+		return s == null ? Collections.<String>emptySet() : new HashSet<String>(s);
+	}
+
+	/**
+	 * Record a marker which was just created or deleted by this process,
+	 * so that it is seen by the next query rather than only once the
+	 * change notification arrives. The file itself is checked,
+	 * so this is safe to call even if the change failed.
+	 *
+	 * @param folder		A local deploy folder
+	 * @param markerFile	The marker's file name, for example foo.war.dodeploy
+	 */
+	public void markerWritten(File folder, String markerFile) {
+		WatchedFolder wf;
+		synchronized(this) {
+			wf = folders.get(folder);
+		}
+		if( wf != null )
+			markerEvent(wf, markerFile, new File(folder, markerFile).exists());
+	}
+
+	/*
+	 * Must hold the lock
+	 */
+	private WatchedFolder watch(File folder) {
+		WatchedFolder wf = new WatchedFolder(folder);
+		folders.put(folder, wf);
+		if( !registerNative(wf)) {
+			final WatchedFolder wf2 = wf;
+			wf.scan = PollerScheduler.getDefault().schedule(new PollerScheduler.IPollTask() {
+				public boolean poll() {
+					if( rescan(wf2))
+						wf2.scan.resetDelay();
+					return false;
+				}
+			}, SCAN_INTERVAL, MAX_SCAN_INTERVAL);
+		}
+		// Read the folder after registering so no change is missed in between
+		wf.markers = scan(folder);
+		if( sweep == null ) {
+			sweep = PollerScheduler.getDefault().schedule(new PollerScheduler.IPollTask() {
+				public boolean poll() {
+					return sweepIdle();
+				}
+			}, IDLE_TIMEOUT / 2, IDLE_TIMEOUT / 2);
+		}
+		return wf;
+	}
+
+	/*
+	 * Must hold the lock
+	 */
+	private boolean registerNative(WatchedFolder wf) {
+		if( !nativeWatch )
+			return false;
+		try {
+			if( watchService == null ) {
+				watchService = FileSystems.getDefault().newWatchService();
+				// Some platforms only emulate change notification by listing folders slowly
+				if( watchService.getClass().getName().endsWith("PollingWatchService")) { //$NON-NLS-1$
+					nativeWatch = false;
+					watchService.close();
+					watchService = null;
+					return false;
+				}
+				final WatchService ws = watchService;
+				Thread t = new Thread(new Runnable() {
+					public void run() {
+						processEvents(ws);
+					}
+				}, "Deployment Marker Monitor"); //$NON-NLS-1$
+				t.setDaemon(true);
+				t.start();
+			}
+			wf.key = wf.folder.toPath().register(watchService,
+					StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_DELETE,
+					StandardWatchEventKinds.OVERFLOW);
+			return true;
+		} catch(IOException ioe) {
+			return false;
+		} catch(UnsupportedOperationException uoe) {
+			nativeWatch = false;
+			return false;
+		}
+	}
+
+	private void processEvents(WatchService ws) {
+		while(true) {
+			WatchKey key;
+			try {
+				key = ws.take();
+			} catch(InterruptedException ie) {
+				return;
+			} catch(ClosedWatchServiceException cwse) {
+				return;
+			}
+			WatchedFolder wf = findFolder(key);
+			if( wf != null ) {
+				for( WatchEvent<?> e : key.pollEvents()) {
+					if( e.kind() == StandardWatchEventKinds.OVERFLOW ) {
+						rescan(wf);
+					} else {
+						// Check the file rather than trust the event kind, since the event
+						// may arrive after a later change was already recorded by markerWritten
+						String name = ((Path)e.context()).getFileName().toString();
+						markerEvent(wf, name, new File(wf.folder, name).exists());
+					}
+				}
+			} else {
+				key.pollEvents();
+			}
+			if( !key.reset() && wf != null ) {
+				// The folder was deleted or became inaccessible
+				unwatch(wf);
+			}
+		}
+	}
+
+	private synchronized WatchedFolder findFolder(WatchKey key) {
+		for( WatchedFolder wf : folders.values()) {
+			if( wf.key == key )
+				return wf;
+		}
+		return null;
+	}
+
+	private void markerEvent(WatchedFolder wf, String fileName, boolean created) {
+		String marker = getMarker(fileName);
+		if( marker == null )
+			return;
+		String deployment = fileName.substring(0, fileName.length() - marker.length());
+		boolean changed;
+		synchronized(this) {
+			Set<String> s = wf.markers.get(deployment);
+			if( s == null ) {
+				s = new HashSet<String>();
+				wf.markers.put(deployment, s);
+			}
+			changed = created ? s.add(marker) : s.remove(marker);
+			if( s.isEmpty())
+				wf.markers.remove(deployment);
+		}
+		if( changed )
+			fireChanged(wf.folder, deployment, marker, created);
+	}
+
+	/*
+	 * List the folder again and fire events for any difference.
+	 * Returns true if anything changed.
+	 */
+	private boolean rescan(WatchedFolder wf) {
+		Map<String, Set<String>> now = scan(wf.folder);
+		Map<String, Set<String>> before;
+		synchronized(this) {
+			before = wf.markers;
+			wf.markers = now;
+		}
+		boolean changed = false;
+		Set<String> deployments = new HashSet<String>(before.keySet());
+		deployments.addAll(now.keySet());
+		for( String d : deployments ) {
+			Set<String> b = before.containsKey(d) ? before.get(d) : Collections.<String>emptySet();
+			Set<String> n = now.containsKey(d) ? now.get(d) : Collections.<String>emptySet();
+			for( String m : ALL_MARKERS ) {
+				if( b.contains(m) != n.contains(m)) {
+					changed = true;
+					fireChanged(wf.folder, d, m, n.contains(m));
+				}
+			}
+		}
+		return changed;
+	}
+
+	private static Map<String, Set<String>> scan(File folder) {
+		Map<String, Set<String>> ret = new HashMap<String, Set<String>>();
+		String[] names = folder.list();
+		if( names == null )
+			return ret;
+		for( int i = 0; i < names.length; i++ ) {
+			String marker = getMarker(names[i]);
+			if( marker != null ) {
+				String deployment = names[i].substring(0, names[i].length() - marker.length());
+				Set<String> s = ret.get(deployment);
+				if( s == null ) {
+					s = new HashSet<String>();
+					ret.put(deployment, s);
+				}
+				s.add(marker);
+			}
+		}
+		return ret;
+	}
+
+	private static String getMarker(String fileName) {
+		for( int i = 0; i < ALL_MARKERS.length; i++ ) {
+			if( fileName.endsWith(ALL_MARKERS[i]) && fileName.length() > ALL_MARKERS[i].length())
+				return ALL_MARKERS[i];
+		}
+		return null;
+	}
+
+	private void fireChanged(File folder, String deployment, String marker, boolean exists) {
+		IDeploymentMarkerListener[] ls;
+		synchronized(listeners) {
+			ls = (IDeploymentMarkerListener[]) listeners.toArray(new IDeploymentMarkerListener[listeners.size()]);
+		}
+		for( int i = 0; i < ls.length; i++ ) {
+			ls[i].markerChanged(folder, deployment, marker, exists);
+		}
+	}
+
+	/*
+	 * Stop watching folders which have not been queried recently.
+	 * Returns true once nothing is watched any more.
+	 */
+	private synchronized boolean sweepIdle() {
+		long now = System.currentTimeMillis();
+		Iterator<WatchedFolder> it = new ArrayList<WatchedFolder>(folders.values()).iterator();
+		while(it.hasNext()) {
+			WatchedFolder wf = it.next();
+			if( now - wf.lastUsed > IDLE_TIMEOUT )
+				unwatch(wf);
+		}
+		if( folders.isEmpty()) {
+			sweep = null;
+			return true;
+		}
+		return false;
+	}
+
+	private synchronized void unwatch(WatchedFolder wf) {
+		folders.remove(wf.folder);
+		if( wf.key != null )
+			wf.key.cancel();
+		if( wf.scan != null )
+			wf.scan.cancel();
+		if( folders.isEmpty())
+			closeWatchService();
+	}
+
+	private synchronized void unwatchAll() {
+		for( WatchedFolder wf : new ArrayList<WatchedFolder>(folders.values())) {
+			unwatch(wf);
+		}
+		if( sweep != null ) {
+			sweep.cancel();
+			sweep = null;
+		}
+	}
+
+	/*
+	 * Must hold the lock
+	 */
+	private void closeWatchService() {
+		if( watchService != null ) {
+			try {
+				watchService.close();
+			} catch(IOException ioe) {
+				// Ignore, the event thread ends either way
+			}
+			watchService = null;
+		}
+	}
+}
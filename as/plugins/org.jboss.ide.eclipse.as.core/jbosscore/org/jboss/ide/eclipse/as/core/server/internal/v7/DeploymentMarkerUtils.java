@@ -10,12 +10,16 @@
  ******************************************************************************/
 package org.jboss.ide.eclipse.as.core.server.internal.v7;
 
+import java.io.File;
+import java.util.Set;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.wst.server.core.IServer;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IFilesystemController;
+import org.jboss.ide.eclipse.as.wtp.core.server.behavior.LocalFilesystemController;
 
 /**
  * 
@@ -71,7 +75,7 @@ public class DeploymentMarkerUtils {
 	public static IStatus removeDeployFailedMarker(IPath module, IFilesystemController controller) throws CoreException {
 		IPath folder = module.removeLastSegments(1);
 		IPath p = folder.append(getFailedMarkerName(module.lastSegment()));
-		return controller.deleteResource(p, new NullProgressMonitor());
+		return markerWritten(p, controller, controller.deleteResource(p, new NullProgressMonitor()));
 	}
 	
 	@Deprecated // Spelling error
@@ -91,7 +95,7 @@ public class DeploymentMarkerUtils {
 	public static IStatus removeDeployedMarker(IPath module, IFilesystemController controller) throws CoreException {
 		IPath folder = module.removeLastSegments(1);
 		IPath p = folder.append(getDeployedMarker(module.lastSegment()));
-		return controller.deleteResource(p, new NullProgressMonitor());
+		return markerWritten(p, controller, controller.deleteResource(p, new NullProgressMonitor()));
 	}
 
 	@Deprecated // spelling error
@@ -104,26 +108,68 @@ public class DeploymentMarkerUtils {
 	public static IStatus removeUndeployedMarker(IPath module, IFilesystemController controller) throws CoreException {
 		IPath folder = module.removeLastSegments(1);
 		IPath p = folder.append(getUndeployedMarker(module.lastSegment()));
-		return controller.deleteResource(p, new NullProgressMonitor());
+		return markerWritten(p, controller, controller.deleteResource(p, new NullProgressMonitor()));
 	}
 
 	public static IStatus removeDoDeployMarker(IPath module, IFilesystemController controller) throws CoreException {
 		IPath folder = module.removeLastSegments(1);
 		IPath p = folder.append(getDoDeployMarkerName(module.lastSegment()));
-		return controller.deleteResource(p, new NullProgressMonitor());
+		return markerWritten(p, controller, controller.deleteResource(p, new NullProgressMonitor()));
 	}
 	
 	public static IStatus createDoDeployMarker(IPath module, IFilesystemController controller) throws CoreException {
 		IPath folder = module.removeLastSegments(1);
 		IPath p = folder.append(getDoDeployMarkerName(module.lastSegment()));
-		return controller.touchResource(p, new NullProgressMonitor());
+		return markerWritten(p, controller, controller.touchResource(p, new NullProgressMonitor()));
 	}
 	
+	/*
+	 * Tell the monitor about a marker changed in a local deploy folder,
+	 * so that a check made right after the change sees it.
+	 */
+	private static IStatus markerWritten(IPath marker, IFilesystemController controller, IStatus result) {
+		if( controller instanceof LocalFilesystemController ) {
+			File folder = new File(marker.removeLastSegments(1).toOSString());
+			DeploymentMarkerMonitor.getDefault().markerWritten(folder, marker.lastSegment());
+		}
+		return result;
+	}
 
 	public static boolean markerExists(IPath module, IFilesystemController controller, String markerId) throws CoreException {
 		IPath folder = module.removeLastSegments(1);
 		IPath p = folder.append(module.lastSegment() + markerId);
 		return controller.exists(p, new NullProgressMonitor());
 	}
+	
+	/**
+	 * Find the first of the given markers which exists for a module.
+	 * Local deploy folders are answered from the {@link DeploymentMarkerMonitor},
+	 * so no file needs to be checked. Markers changed through this class
+	 * are recorded in the monitor as soon as they are written.
+	 * 
+	 * @param module	The module's deployed path
+	 * @param controller	The filesystem controller for the module's server
+	 * @param markerIds	The markers to look for, in order of preference
+	 * @return the first marker found, or null if none exists
+	 * @since 3.10
+	 */
+	public static String findFirstMarker(IPath module, IFilesystemController controller, String[] markerIds) throws CoreException {
+		if( controller instanceof LocalFilesystemController ) {
+			File folder = new File(module.removeLastSegments(1).toOSString());
+			Set<String> existing = DeploymentMarkerMonitor.getDefault().getMarkers(folder, module.lastSegment());
+			if( existing != null ) {
+				for( int i = 0; i < markerIds.length; i++ ) {
+					if( existing.contains(markerIds[i]))
+						return markerIds[i];
+				}
+				return null;
+			}
+		}
+		for( int i = 0; i < markerIds.length; i++ ) {
+			if( markerExists(module, controller, markerIds[i]))
+				return markerIds[i];
+		}
+		return null;
+	}
 }
 
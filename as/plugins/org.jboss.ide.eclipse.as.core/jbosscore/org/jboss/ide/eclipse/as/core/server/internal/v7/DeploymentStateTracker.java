@@ -0,0 +1,245 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.as.core.server.internal.v7;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.IServer;
+
+/**
+ * Tracks the deployment state of many root modules on one server.
+ *
+ * Callers ask for a future which completes once a deployment has started.
+ * While any future is outstanding, a single background thread reads
+ * the state of every awaited deployment in one batch, and completes
+ * each future as soon as its deployment is seen to be started.
+ *
+ * The delay between reads begins small and grows while nothing changes,
+ * so a deployment which starts quickly is noticed almost immediately
+ * without flooding the server with requests for a slow one.
+ */
+public class DeploymentStateTracker {
+	/** The first delay (ms) between two reads */
+	public static final long MIN_INTERVAL = 100;
+	/** The largest delay (ms) between two reads */
+	public static final long MAX_INTERVAL = 2000;
+
+	/**
+	 * Reads the current state of many deployments at once
+	 */
+	public interface IDeploymentStateReader {
+		/**
+		 * @param roots	The root modules
+		 * @param names	The deployment name of each root module
+		 * @return One of the IServer.STATE_XXX constants per root module
+		 * @throws Exception
+		 */
+		public int[] readStates(IModule[] roots, String[] names) throws Exception;
+	}
+
+	/**
+	 * A reader which can tell the tracker when states may have changed,
+	 * for example because it is notified of filesystem changes.
+	 * It should call {@link DeploymentStateTracker#refreshNow()} on
+	 * the given tracker between the start and stop notifications.
+	 * Both notifications are sent while the tracker's lock is held.
+	 */
+	public interface IDeploymentStateReader2 extends IDeploymentStateReader {
+		/**
+		 * The tracker has begun waiting on deployments
+		 */
+		public void startWatching(DeploymentStateTracker tracker);
+		/**
+		 * The tracker is no longer waiting on any deployment
+		 */
+		public void stopWatching(DeploymentStateTracker tracker);
+	}
+
+	private static class Waiter {
+		private final IModule root;
+		private final List<CompletableFuture<Integer>> futures = new ArrayList<CompletableFuture<Integer>>();
+		Waiter(IModule root) {
+			this.root = root;
+		}
+	}
+
+	private final IServer server;
+	private final IDeploymentStateReader reader;
+	private final Map<String, Waiter> waiting = new LinkedHashMap<String, Waiter>();
+	private Thread worker;
+	private boolean refreshRequested;
+
+	public DeploymentStateTracker(IServer server, IDeploymentStateReader reader) {
+		this.server = server;
+		this.reader = reader;
+	}
+
+	/**
+	 * Get a future which completes with {@link IServer#STATE_STARTED}
+	 * once the given deployment has started. If reading the state fails,
+	 * the future completes exceptionally.
+	 *
+	 * Callers which stop waiting should cancel the future.
+	 */
+	public Future<Integer> whenStarted(IModule root, String deploymentName) {
+		CompletableFuture<Integer> f = new CompletableFuture<Integer>();
+		synchronized(this) {
+			Waiter w = waiting.get(deploymentName);
+			if( w == null ) {
+				w = new Waiter(root);
+				waiting.put(deploymentName, w);
+			}
+			w.futures.add(f);
+			if( worker == null ) {
+				worker = new Thread(new Runnable() {
+					public void run() {
+						refreshLoop();
+					}
+				}, "Deployment state tracker for " + server.getName()); //$NON-NLS-1$
+				worker.setDaemon(true);
+				if( reader instanceof IDeploymentStateReader2 )
+					((IDeploymentStateReader2)reader).startWatching(this);
+				worker.start();
+			}
+			// Wake a sleeping worker so the new deployment is checked right away
+			notifyAll();
+		}
+		return f;
+	}
+
+	/**
+	 * Read the awaited deployments again right away,
+	 * rather than after the current delay has passed
+	 */
+	public synchronized void refreshNow() {
+		refreshRequested = true;
+		notifyAll();
+	}
+
+	private void refreshLoop() {
+		long delay = MIN_INTERVAL;
+		while(true) {
+			String[] names;
+			IModule[] roots;
+			synchronized(this) {
+				removeCanceled();
+				if( waiting.isEmpty()) {
+					stopWorker();
+					return;
+				}
+				names = (String[]) waiting.keySet().toArray(new String[waiting.size()]);
+				roots = new IModule[names.length];
+				for( int i = 0; i < names.length; i++ ) {
+					roots[i] = waiting.get(names[i]).root;
+				}
+			}
+
+			int[] states = null;
+			Exception error = null;
+			try {
+				states = reader.readStates(roots, names);
+			} catch(Exception e) {
+				error = e;
+			}
+
+			int before;
+			synchronized(this) {
+				before = waiting.size();
+				for( int i = 0; i < names.length; i++ ) {
+					if( error != null ) {
+						complete(names[i], error, IServer.STATE_UNKNOWN);
+					} else if( states[i] == IServer.STATE_STARTED ) {
+						complete(names[i], null, IServer.STATE_STARTED);
+					}
+				}
+				if( waiting.size() < before || refreshRequested ) {
+					// Something changed, others may follow shortly
+					delay = MIN_INTERVAL;
+				}
+				if( !waiting.isEmpty() && !refreshRequested ) {
+					try {
+						wait(delay);
+					} catch(InterruptedException ie) {
+						Thread.currentThread().interrupt();
+						failAll(ie);
+						stopWorker();
+						return;
+					}
+				}
+				if( refreshRequested ) {
+					refreshRequested = false;
+					delay = MIN_INTERVAL;
+					continue;
+				}
+			}
+			delay = Math.min(delay * 2, MAX_INTERVAL);
+		}
+	}
+
+	/*
+	 * Must hold the lock
+	 */
+	private void stopWorker() {
+		worker = null;
+		refreshRequested = false;
+		if( reader instanceof IDeploymentStateReader2 )
+			((IDeploymentStateReader2)reader).stopWatching(this);
+	}
+
+	/*
+	 * Must hold the lock
+	 */
+	private void complete(String name, Exception error, int state) {
+		Waiter w = waiting.remove(name);
+		if( w == null )
+			return;
+		for( CompletableFuture<Integer> f : w.futures ) {
+			if( error != null )
+				f.completeExceptionally(error);
+			else
+				f.complete(state);
+		}
+	}
+
+	/*
+	 * Must hold the lock
+	 */
+	private void failAll(Exception error) {
+		String[] names = (String[]) waiting.keySet().toArray(new String[waiting.size()]);
+		for( int i = 0; i < names.length; i++ ) {
+			complete(names[i], error, IServer.STATE_UNKNOWN);
+		}
+	}
+
+	/*
+	 * Must hold the lock
+	 */
+	private void removeCanceled() {
+		Iterator<Waiter> it = waiting.values().iterator();
+		while(it.hasNext()) {
+			Waiter w = it.next();
+			Iterator<CompletableFuture<Integer>> fit = w.futures.iterator();
+			while(fit.hasNext()) {
+				if( fit.next().isDone())
+					fit.remove();
+			}
+			if( w.futures.isEmpty())
+				it.remove();
+		}
+	}
+}
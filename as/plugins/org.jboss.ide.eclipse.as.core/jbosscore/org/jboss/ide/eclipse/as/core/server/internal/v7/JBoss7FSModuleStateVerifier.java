@@ -11,9 +11,12 @@
  ******************************************************************************/ 
 package org.jboss.ide.eclipse.as.core.server.internal.v7;
 
+import java.io.File;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.IServer;
 import org.jboss.ide.eclipse.as.core.server.IServerModuleStateVerifier;
@@ -88,34 +91,62 @@ public class JBoss7FSModuleStateVerifier extends AbstractJBoss7ModuleStateVerifi
 		return deployPathController;
 	}
 	
+	/*
+	 * The markers which decide a module's state, in the order they are checked
+	 */
+	private static final String[] STATE_MARKERS = new String[] {
+		DeploymentMarkerUtils.DEPLOYED, DeploymentMarkerUtils.DEPLOYING,
+		DeploymentMarkerUtils.FAILED_DEPLOY, DeploymentMarkerUtils.PENDING,
+		DeploymentMarkerUtils.SKIP_DEPLOY, DeploymentMarkerUtils.UNDEPLOYED,
+		DeploymentMarkerUtils.UNDEPLOYING
+	};
+	private static final int[] STATE_MARKER_STATES = new int[] {
+		IServer.STATE_STARTED, IServer.STATE_STARTING,
+		IServer.STATE_STOPPED, IServer.STATE_STARTING,
+		IServer.STATE_STOPPED, IServer.STATE_STOPPED,
+		IServer.STATE_STOPPING
+	};
+	
 	protected int getRootModuleState(IServer server, IModule root,
 			String deploymentName, IProgressMonitor monitor) throws Exception {
 		IFilesystemController c = getFilesystemController();
 		IPath d = getModuleDeployRoot(new IModule[]{root});
-		if( DeploymentMarkerUtils.markerExists(d, c, DeploymentMarkerUtils.DEPLOYED)) {
-			return IServer.STATE_STARTED;
-		}
-		if( DeploymentMarkerUtils.markerExists(d, c, DeploymentMarkerUtils.DEPLOYING)) {
-			return IServer.STATE_STARTING;
-		}
-		if( DeploymentMarkerUtils.markerExists(d, c, DeploymentMarkerUtils.FAILED_DEPLOY)) {
-			return IServer.STATE_STOPPED;
-		}
-		if( DeploymentMarkerUtils.markerExists(d, c, DeploymentMarkerUtils.PENDING)) {
-			return IServer.STATE_STARTING;
-		}
-		if( DeploymentMarkerUtils.markerExists(d, c, DeploymentMarkerUtils.SKIP_DEPLOY)) {
-			return IServer.STATE_STOPPED;
-		}
-		if( DeploymentMarkerUtils.markerExists(d, c, DeploymentMarkerUtils.UNDEPLOYED)) {
-			return IServer.STATE_STOPPED;
-		}
-		if( DeploymentMarkerUtils.markerExists(d, c, DeploymentMarkerUtils.UNDEPLOYING)) {
-			return IServer.STATE_STOPPING;
+		String marker = DeploymentMarkerUtils.findFirstMarker(d, c, STATE_MARKERS);
+		for( int i = 0; i < STATE_MARKERS.length; i++ ) {
+			if( STATE_MARKERS[i].equals(marker))
+				return STATE_MARKER_STATES[i];
 		}
 		return IServer.STATE_UNKNOWN;
 	}
 	
+	/*
+	 * Modules deployed to a local folder are checked again 
+	 * as soon as a marker changes, rather than on the next poll
+	 */
+	@Override
+	protected DeploymentStateTracker.IDeploymentStateReader createStateReader(final IServer server) {
+		return new DeploymentStateTracker.IDeploymentStateReader2() {
+			private DeploymentMarkerMonitor.IDeploymentMarkerListener listener;
+			public int[] readStates(IModule[] roots, String[] names) throws Exception {
+				return getRootModuleStates(server, roots, names, new NullProgressMonitor());
+			}
+			public void startWatching(final DeploymentStateTracker tracker) {
+				listener = new DeploymentMarkerMonitor.IDeploymentMarkerListener() {
+					public void markerChanged(File folder, String deployment, String marker, boolean exists) {
+						tracker.refreshNow();
+					}
+				};
+				DeploymentMarkerMonitor.getDefault().addListener(listener);
+			}
+			public void stopWatching(DeploymentStateTracker tracker) {
+				if( listener != null ) {
+					DeploymentMarkerMonitor.getDefault().removeListener(listener);
+					listener = null;
+				}
+			}
+		};
+	}
+	
 	public int changeModuleStateTo(IModule[] module, int state, IProgressMonitor monitor) throws CoreException {
 		IPath archiveDestination = getModuleDeployRoot(new IModule[]{module[0]});
 		if(state == IServer.STATE_STARTED ) {
@@ -24,6 +24,7 @@ import org.eclipse.osgi.util.NLS;
 import org.eclipse.wst.server.core.IServer;
 import org.jboss.ide.eclipse.as.core.JBossServerCorePlugin;
 import org.jboss.ide.eclipse.as.core.Messages;
+import org.jboss.ide.eclipse.as.core.extensions.polling.PollerScheduler;
 import org.jboss.ide.eclipse.as.core.server.IServerStatePoller;
 import org.jboss.ide.eclipse.as.core.server.IServerStatePoller2;
 import org.jboss.ide.eclipse.as.core.server.IServerStatePollerType;
@@ -44,6 +45,8 @@ public class JBoss7ManagerServicePoller implements IServerStatePoller2 {
 	public static final String WILDFLY_POLLER_ID = "org.jboss.ide.eclipse.as.core.server.Wildfly8ManagerServicePoller"; //$NON-NLS-1$
 	
 	private static final int SYNCHRONOUS_POLL_FAST_TIMEOUT = 800;
+	private static final long POLL_INTERVAL = 300;
+	private static final long MAX_POLL_INTERVAL = 2000;
 	
 	
 	private IServer server;
@@ -161,32 +164,41 @@ public class JBoss7ManagerServicePoller implements IServerStatePoller2 {
 	}
 	
 	public void launchPollingThread() {
-		new Thread() {
-			public void run() {
-				runLoop();
+		// Management calls may wait on the network or for the user to provide credentials
+		PollerScheduler.getDefault().scheduleBlocking(new PollerScheduler.IPollTask() {
+			public boolean poll() {
+				return pollOnce();
 			}
-		}.start();
+		}, POLL_INTERVAL, MAX_POLL_INTERVAL);
 	}
 	
 	public void runLoop() {
+		while( !pollOnce() )  {
+			try {
+				Thread.sleep(POLL_INTERVAL);
+			} catch(InterruptedException ie) {
+				// Ignore
+			}
+		}
+	}
+	
+	/*
+	 * Check the server once, returning true when there is no need to check again
+	 */
+	private boolean pollOnce() {
+		if( getDone() || getCanceled() )
+			return true;
 		try {
-			while( !getDone() && !getCanceled() )  {
-				if (expectedState == SERVER_DOWN) {
-					setDone(checkShutdown(service));
-				} else {
-					setDone(checkRunning(service));
-				}
-				if( !getDone() ) {
-					try {
-						Thread.sleep(300);
-					} catch(InterruptedException ie) {
-						// Ignore
-					}
-				}
+			if (expectedState == SERVER_DOWN) {
+				setDone(checkShutdown(service));
+			} else {
+				setDone(checkRunning(service));
 			}
 		} catch (Exception e) {
 			setPollingException(new PollingException(e.getMessage()));
+			return true;
 		}
+		return getDone();
 	}
 
 	private boolean checkRunning(IJBoss7ManagerService service) {
@@ -11,12 +11,15 @@
  ******************************************************************************/ 
 package org.jboss.ide.eclipse.as.core.server.internal.v7;
 
+import java.util.Arrays;
+
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.wst.server.core.IModule;
 import org.eclipse.wst.server.core.IServer;
+import org.jboss.dmr.ModelNode;
 import org.jboss.ide.eclipse.as.core.JBossServerCorePlugin;
 import org.jboss.ide.eclipse.as.core.server.IServerModuleStateVerifier;
 import org.jboss.ide.eclipse.as.core.server.v7.management.AS7ManagementDetails;
@@ -48,6 +51,35 @@ public class JBoss7ModuleStateVerifier extends AbstractJBoss7ModuleStateVerifier
 		return ret;
 	}
 	
+	/*
+	 * Read every deployment on the server in a single request
+	 */
+	@Override
+	protected int[] getRootModuleStates(IServer server, IModule[] roots,
+			String[] deploymentNames, IProgressMonitor monitor) throws Exception {
+		int[] ret = new int[roots.length];
+		Arrays.fill(ret, IServer.STATE_UNKNOWN);
+		IJBoss7ManagerService service = JBoss7ManagerUtil.getService(server);
+		AS7ManagementDetails details = new AS7ManagementDetails(server);
+		if (!service.isRunning(details)) // to avoid asking while server is starting up.
+			return ret;
+		
+		ModelNode op = new ModelNode();
+		op.get("operation").set("read-children-resources"); //$NON-NLS-1$ //$NON-NLS-2$
+		op.get("address").setEmptyList(); //$NON-NLS-1$
+		op.get("child-type").set("deployment"); //$NON-NLS-1$ //$NON-NLS-2$
+		ModelNode deployments = ModelNode.fromJSONString(service.execute(details, op.toJSONString(true)));
+		for( int i = 0; i < roots.length; i++ ) {
+			String name = deploymentNames[i];
+			if( name != null && deployments.has(name)) {
+				ModelNode enabled = deployments.get(name).get("enabled"); //$NON-NLS-1$
+				if( enabled.isDefined())
+					ret[i] = enabled.asBoolean() ? IServer.STATE_STARTED : IServer.STATE_STOPPED;
+			}
+		}
+		return ret;
+	}
+	
 	public int changeModuleStateTo(IModule[] module, int state, IProgressMonitor monitor) throws CoreException {
 		AS7ManagementDetails details = new AS7ManagementDetails(getServer());
 		IControllableServerBehavior beh = JBossServerBehaviorUtils.getControllableBehavior(getServer());
@@ -52,11 +52,13 @@ import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IModuleStateController;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IPrimaryPublishController;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IPublishController;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IPublishControllerDelegate;
+import org.jboss.ide.eclipse.as.wtp.core.server.behavior.LocalFilesystemController;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.util.PublishControllerUtil;
 import org.jboss.ide.eclipse.as.wtp.core.server.launch.AbstractStartJavaServerLaunchDelegate;
 import org.jboss.ide.eclipse.as.wtp.core.server.publish.BinaryModulePublishRunner;
 import org.jboss.ide.eclipse.as.wtp.core.server.publish.LocalZippedModulePublishRunner;
 import org.jboss.ide.eclipse.as.wtp.core.server.publish.ModulePublishErrorCache;
+import org.jboss.ide.eclipse.as.wtp.core.server.publish.PublishManifest;
 import org.jboss.ide.eclipse.as.wtp.core.server.publish.PublishModuleFullRunner;
 import org.jboss.ide.eclipse.as.wtp.core.server.publish.PublishModuleIncrementalRunner;
 import org.jboss.ide.eclipse.as.wtp.core.util.ServerModelUtilities;
@@ -488,7 +490,12 @@ public class StandardFileSystemPublishController extends AbstractSubsystemContro
 		}
 		
 		
-		PublishModuleFullRunner runner = new PublishModuleFullRunner(getFilesystemController(), archiveDestination);
+		IFilesystemController fsController = getFilesystemController();
+		PublishModuleFullRunner runner = new PublishModuleFullRunner(fsController, archiveDestination);
+		if( fsController instanceof LocalFilesystemController ) {
+			// Deployed copies can only be compared against their sources on the local filesystem
+			runner.setPublishManifest(new PublishManifest(getPublishManifestLocation(archiveDestination).toFile()));
+		}
 		IModuleResource[] filtered = filter == null ? ModuleResourceUtil.getMembers(module[module.length-1]) : filter.getFilteredMembers();
 		IStatus[] ret = runner.fullPublish(filtered, monitor);
 		requiresRestart.put(module, true);
@@ -673,6 +680,18 @@ public class StandardFileSystemPublishController extends AbstractSubsystemContro
 		return deployRoot;
 	}
 	
+	/**
+	 * Get the metadata file recording what a full publish deployed to the given folder
+	 * @param archiveDestination
+	 * @return
+	 */
+	private IPath getPublishManifestLocation(IPath archiveDestination) {
+		String name = archiveDestination.lastSegment() + "_" //$NON-NLS-1$
+				+ Integer.toHexString(archiveDestination.toPortableString().hashCode()) + ".properties"; //$NON-NLS-1$
+		return JBossServerCorePlugin.getServerStateLocation(getServer()).
+			append(IJBossToolingConstants.PUBLISH_MANIFESTS).append(name).makeAbsolute();
+	}
+	
 	@Override
 	public void publishServer(int kind, IProgressMonitor monitor)
 			throws CoreException {
@@ -47,6 +47,7 @@ import org.jboss.ide.eclipse.as.core.util.ProgressMonitorUtil;
 import org.jboss.ide.eclipse.as.management.core.IJBoss7DeploymentResult;
 import org.jboss.ide.eclipse.as.management.core.IJBoss7ManagerService;
 import org.jboss.ide.eclipse.as.management.core.IncrementalDeploymentManagerService;
+import org.jboss.ide.eclipse.as.management.core.IncrementalDeploymentManagerService2;
 import org.jboss.ide.eclipse.as.management.core.IncrementalManagementModel;
 import org.jboss.ide.eclipse.as.management.core.JBoss7DeploymentState;
 import org.jboss.ide.eclipse.as.management.core.JBoss7ManagerUtil;
@@ -113,6 +114,27 @@ public class ManagementPublishController extends AbstractSubsystemController
 	 */
 	private IModuleDeployPathController moduleDeployPathController;
 	
+	/*
+	 * Whether a publish operation is in progress, 
+	 * ie between publishStart and publishFinish
+	 */
+	private boolean inPublish = false;
+	
+	/*
+	 * A successful result of checking that the server responds, 
+	 * shared by all modules in the current publish operation so that
+	 * the server is only queried once rather than once per module. 
+	 * It is discarded when the publish finishes or any module fails. 
+	 */
+	private IStatus publishRunningStatus;
+	
+	/*
+	 * Incremental changes collected during the current publish operation. 
+	 * They are sent to the server together in publishFinish, so that
+	 * all changed modules are updated in a single request. 
+	 */
+	private IncrementalPublishBatch incrementalBatch;
+	
 	private IJBoss7ManagerService getService() throws JBoss7ManangerException {
 		if( service == null ) {
 			this.service = JBoss7ManagerUtil.getService(getServer());
@@ -150,6 +172,24 @@ public class ManagementPublishController extends AbstractSubsystemController
 		return new Status(IStatus.ERROR, JBossServerCorePlugin.PLUGIN_ID, "JBossTools is unable to verify that the server is up and responsive.", e); //$NON-NLS-1$
 	}
 	
+	/*
+	 * During a publish, re-use the last successful check. 
+	 * Failures are never cached so that the next module checks again. 
+	 */
+	private IStatus isRunningInPublish() {
+		IStatus cached = publishRunningStatus;
+		if( inPublish && cached != null )
+			return cached;
+		IStatus s = isRunning();
+		if( inPublish && s.isOK())
+			publishRunningStatus = s;
+		return s;
+	}
+	
+	private void invalidateRunningStatus() {
+		publishRunningStatus = null;
+	}
+	
 	
 	@Override
 	public IStatus canPublish() {
@@ -164,7 +204,7 @@ public class ManagementPublishController extends AbstractSubsystemController
 		
 		// If we should check if the server is actually running, do it
 		if( checkServerResponds ) {
-			IStatus isRunningStatus = isRunning();
+			IStatus isRunningStatus = isRunningInPublish();
 			if( !isRunningStatus.isOK()) 
 				return isRunningStatus;
 		}
@@ -180,21 +220,33 @@ public class ManagementPublishController extends AbstractSubsystemController
 
 	@Override
 	public void publishStart(IProgressMonitor monitor) throws CoreException {
+		invalidateRunningStatus();
+		incrementalBatch = null;
+		inPublish = true;
 		IStatus canPublish = canPublishInternal(true);
-		if( !canPublish.isOK() && canPublish().getSeverity() != IStatus.CANCEL) {
+		if( !canPublish.isOK() && canPublish.getSeverity() != IStatus.CANCEL) {
+			inPublish = false;
 			throw new CoreException(canPublish);
 		}
 	}
 
 	@Override
 	public void publishFinish(IProgressMonitor monitor) throws CoreException {
+		try {
+			flushIncrementalBatch(monitor);
+		} finally {
+			inPublish = false;
+			invalidateRunningStatus();
+		}
+		
 		IServer s = getServer();
 		((Server)s).setServerPublishState(getUpdatedPublishState(s));
 
 		// update the wtp model with live module state from the server
 		IModuleStateController c = getModuleStateController();
 		if( c != null && getServer().getServerState() == IServer.STATE_STARTED) {
-			new UpdateModuleStateJob( c, getServer(), true, 15000).schedule(5000);
+			// Deployments were made synchronously, so their state can be read right away
+			new UpdateModuleStateJob( c, getServer(), true, 15000).schedule();
 		}
 	}
 
@@ -235,6 +287,20 @@ public class ManagementPublishController extends AbstractSubsystemController
 	@Override
 	public int publishModule(int kind, int deltaKind, IModule[] module,
 			IProgressMonitor monitor) throws CoreException {
+		boolean ok = false;
+		try {
+			int ret = publishModuleInternal(kind, deltaKind, module, monitor);
+			ok = (ret == IServer.PUBLISH_STATE_NONE);
+			return ret;
+		} finally {
+			// A failed module may mean the server went away, so check again for the next one
+			if( !ok )
+				invalidateRunningStatus();
+		}
+	}
+	
+	private int publishModuleInternal(int kind, int deltaKind, IModule[] module,
+			IProgressMonitor monitor) throws CoreException {
 		IStatus canPublish = canPublishInternal(true);
 		if( !canPublish.isOK() && canPublish.getSeverity() != IStatus.CANCEL) {
 			IStatus error = new Status(IStatus.ERROR, JBossServerCorePlugin.PLUGIN_ID, "The server must be started to publish."); //$NON-NLS-1$
@@ -269,6 +335,9 @@ public class ManagementPublishController extends AbstractSubsystemController
 			// We should try an incremental publish here. The publishType flag doesn't 
 			// know about child modules at all, which may have changed. 
 			if( getService().supportsIncrementalDeployment()) {
+				if( inPublish && getService() instanceof IncrementalDeploymentManagerService2 ) {
+					return queueIncrementalPublish(module[0], monitor);
+				}
 				return incrementalPublish(module[0], monitor);
 			}
 		}
@@ -500,6 +569,52 @@ public class ManagementPublishController extends AbstractSubsystemController
 		return new IncrementalManagementPublishRunner().incrementalPublish(module, service, monitor);
 	}
 	
+	/*
+	 * Collect the module's changes to be sent with all others when the publish finishes. 
+	 * The module is marked as needing a full publish if the batch later fails.
+	 */
+	private int queueIncrementalPublish(IModule module, IProgressMonitor monitor) throws CoreException {
+		if( incrementalBatch == null )
+			incrementalBatch = new IncrementalPublishBatch();
+		IncrementalManagementPublishRunner runner = new IncrementalManagementPublishRunner();
+		String rootName = getDeploymentOutputName(getServer(), module);
+		boolean requiresRestart = runner.collectChanges(module, rootName, incrementalBatch.model, monitor);
+		incrementalBatch.modules.add(module);
+		if( requiresRestart )
+			incrementalBatch.redeploy.add(rootName);
+		return IServer.PUBLISH_STATE_NONE;
+	}
+	
+	private void flushIncrementalBatch(IProgressMonitor monitor) throws CoreException {
+		IncrementalPublishBatch batch = incrementalBatch;
+		incrementalBatch = null;
+		if( batch == null || batch.modules.isEmpty())
+			return;
+		
+		IStatus s = null;
+		try {
+			IncrementalDeploymentManagerService2 service = (IncrementalDeploymentManagerService2)getService();
+			String[] redeploy = (String[]) batch.redeploy.toArray(new String[batch.redeploy.size()]);
+			IJBoss7DeploymentResult result = service.incrementalPublish(managementDetails, batch.model, redeploy, monitor);
+			s = result.getStatus();
+		} catch(JBoss7ManangerException jbme) {
+			s = new Status(IStatus.ERROR, JBossServerCorePlugin.PLUGIN_ID, jbme.getMessage(), jbme);
+		}
+		if( !s.isOK()) {
+			ServerLogger.getDefault().log(getServer(), s);
+			// The changes were rolled back, so every module in the batch must be published again
+			for( IModule m : batch.modules ) {
+				((Server)getServer()).setModulePublishState(new IModule[]{m}, IServer.PUBLISH_STATE_FULL);
+			}
+		}
+	}
+	
+	private static class IncrementalPublishBatch {
+		private final IncrementalManagementModel model = new IncrementalManagementModel();
+		private final List<IModule> modules = new ArrayList<IModule>();
+		private final List<String> redeploy = new ArrayList<String>();
+	}
+	
 	//Exposed only for tests to override
 	protected IModuleResourceDelta[] getDeltaForModule(IModule[] module) {
 		IModuleResourceDelta[] deltas = ((Server)getServer()).getPublishedResourceDelta(module);
@@ -528,11 +643,28 @@ public class ManagementPublishController extends AbstractSubsystemController
 		
 		public int incrementalPublish(IModule module, IncrementalDeploymentManagerService service, IProgressMonitor monitor) throws CoreException {
 			// module may be any size > 0 
-			monitor.beginTask("Incremental Publish", 200); //$NON-NLS-1$
-			boolean shouldMinimizeRedeploys = shouldMinimizeRedeployments();
-			
+			monitor.beginTask("Incremental Publish", 300); //$NON-NLS-1$
 			String rootName = getDeploymentOutputName(getServer(), module);
+			IncrementalManagementModel model = new IncrementalManagementModel();
+			boolean requiresRestart = collectChanges(module, rootName, model, new SubProgressMonitor(monitor, 200));
 			
+			IJBoss7DeploymentResult result = service.incrementalPublish(managementDetails, rootName, model, 
+					requiresRestart, new SubProgressMonitor(monitor, 100));
+			IStatus s = result.getStatus();
+			if( !s.isOK()) {
+				ServerLogger.getDefault().log(getServer(), s);
+				return IServer.PUBLISH_STATE_FULL;
+			}
+			return IServer.PUBLISH_STATE_NONE;
+		}
+		
+		/**
+		 * Add the changes of a root module and all its children to the model
+		 * @return whether the module must be restarted for the changes to take effect
+		 */
+		public boolean collectChanges(IModule module, String rootName, IncrementalManagementModel model, IProgressMonitor monitor) throws CoreException {
+			monitor.beginTask("Collecting changes", 200); //$NON-NLS-1$
+			boolean shouldMinimizeRedeploys = shouldMinimizeRedeployments();
 			
 			IModule[] asArr = new IModule[] {module};
 			IModuleResourceDelta[] delta = getDeltaForModule(asArr);
@@ -551,7 +683,6 @@ public class ManagementPublishController extends AbstractSubsystemController
 			}
 			
 			ManagementDouble dub = traverseDelta(delta, new SubProgressMonitor(monitor, 100));
-			IncrementalManagementModel model = new IncrementalManagementModel();
 			model.setDeploymentChanges(rootName, dub.changedContent, dub.removedContent);
 			
 			ArrayList<IModule[]> deepModules = ServerModelUtilities.getDeepChildren(getServer(), asArr);
@@ -575,15 +706,8 @@ public class ManagementPublishController extends AbstractSubsystemController
 				relative = rel.removeTrailingSeparator().toString();
 				model.addSubDeploymentChanges(rootName, relative, dub.changedContent, dub.removedContent);
 			}
-			
-			IJBoss7DeploymentResult result = service.incrementalPublish(managementDetails, rootName, model, 
-					requiresRestart, new SubProgressMonitor(monitor, 100));
-			IStatus s = result.getStatus();
-			if( !s.isOK()) {
-				ServerLogger.getDefault().log(getServer(), s);
-				return IServer.PUBLISH_STATE_FULL;
-			}
-			return IServer.PUBLISH_STATE_NONE;
+			monitor.done();
+			return requiresRestart;
 		}
 		
 
@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc. 
+ * Distributed under license by Red Hat, Inc. All rights reserved. 
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution, 
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ * 
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.ide.eclipse.as.management.core;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/**
+ * @since 3.10
+ */
+public interface IncrementalDeploymentManagerService2 extends IncrementalDeploymentManagerService {
+
+	/**
+	 * A synchronous API to send the incremental changes of many deployments 
+	 * to the server in a single request. All changes are applied, 
+	 * or none of them are. 
+	 * 
+	 * @param details
+	 * @param model		The changes for every deployment in the model
+	 * @param redeploy	The deployments which must be redeployed once the changes are applied
+	 * @param monitor
+	 * @return
+	 * @throws JBoss7ManangerException
+	 */
+	public IJBoss7DeploymentResult incrementalPublish(
+			IAS7ManagementDetails details, IncrementalManagementModel model,
+			String[] redeploy, IProgressMonitor monitor) throws JBoss7ManangerException;
+}
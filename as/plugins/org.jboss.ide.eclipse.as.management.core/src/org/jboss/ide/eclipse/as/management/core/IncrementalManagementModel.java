@@ -85,6 +85,18 @@ public class IncrementalManagementModel {
 
 	
 	
+	/**
+	 * Get a model holding only the changes of one deployment
+	 * @since 3.10
+	 */
+	public IncrementalManagementModel getDeploymentModel(String deploymentId) {
+		IncrementalManagementModel ret = new IncrementalManagementModel();
+		Module m = map.get(deploymentId);
+		if( m != null )
+			ret.map.put(deploymentId, m);
+		return ret;
+	}
+	
 	private static class Module {
 		Map<String, String> changedContent;
 		List<String> removedContent;
@@ -12,6 +12,8 @@ package org.jboss.ide.eclipse.as.management.core;
 
 import java.io.File;
 import java.text.MessageFormat;
+import java.util.Arrays;
+import java.util.List;
 
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.osgi.framework.BundleContext;
@@ -22,7 +24,7 @@ import org.osgi.util.tracker.ServiceTracker;
  * @author André Dietisheim
  */
 public class JBoss7ManagerServiceProxy extends ServiceTracker<IJBoss7ManagerService, IJBoss7ManagerService>
-		implements IJBoss7ManagerService, IncrementalDeploymentManagerService {
+		implements IJBoss7ManagerService, IncrementalDeploymentManagerService2 {
 
 	private String serviceVersion;
 	public JBoss7ManagerServiceProxy(BundleContext context, String serviceVersion) throws InvalidSyntaxException {
@@ -136,6 +138,30 @@ public class JBoss7ManagerServiceProxy extends ServiceTracker<IJBoss7ManagerServ
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public IJBoss7DeploymentResult incrementalPublish(IAS7ManagementDetails details,
+			IncrementalManagementModel model, String[] redeploy, IProgressMonitor monitor)
+			throws JBoss7ManangerException {
+		IJBoss7ManagerService serv = checkedGetService();
+		if( serv instanceof IncrementalDeploymentManagerService2) {
+			return ((IncrementalDeploymentManagerService2)serv).incrementalPublish(details, model, redeploy, monitor);
+		}
+		if( serv instanceof IncrementalDeploymentManagerService) {
+			// Older services can only publish one deployment per request
+			List<String> toRedeploy = Arrays.asList(redeploy);
+			String[] ids = model.getDeploymentIds();
+			IJBoss7DeploymentResult ret = null;
+			for( int i = 0; i < ids.length; i++ ) {
+				IJBoss7DeploymentResult r = ((IncrementalDeploymentManagerService)serv).incrementalPublish(details, ids[i], 
+						model.getDeploymentModel(ids[i]), toRedeploy.contains(ids[i]), monitor);
+				if( ret == null || ret.getStatus().isOK())
+					ret = r;
+			}
+			return ret;
+		}
+		throw new UnsupportedOperationException();
+	}
+
 	@Override
 	public IJBoss7DeploymentResult deploySync(IAS7ManagementDetails details, String deploymentName, File file,
 			boolean add, String[] explodePaths, IProgressMonitor monitor) throws JBoss7ManangerException {
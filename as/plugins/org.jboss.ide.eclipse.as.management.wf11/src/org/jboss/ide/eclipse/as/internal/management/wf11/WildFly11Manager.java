@@ -47,7 +47,9 @@ import javax.security.auth.callback.UnsupportedCallbackException;
 import javax.security.sasl.RealmCallback;
 
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.SubProgressMonitor;
 import org.eclipse.osgi.util.NLS;
@@ -596,6 +598,65 @@ public class WildFly11Manager {
 		}
 	}
 	
+	/**
+	 * Apply the changes of every deployment in the model in one deployment plan, 
+	 * which the server runs as a single composite operation. 
+	 * If any step fails, all deployments are rolled back. 
+	 */
+	public IJBoss7DeploymentResult incrementalPublish(
+			IAS7ManagementDetails details, IncrementalManagementModel model,
+			String[] redeploy, IProgressMonitor monitor) throws JBoss7ManangerException {
+		String[] deployments = model.getDeploymentIds();
+		DeploymentPlanBuilder b = manager.newDeploymentPlan().withRollback();
+		try {
+			// Child modules which are still zipped must be exploded before their content can change
+			for (String deployment : deployments) {
+				String[] children = model.getChildrenToExplode(deployment);
+				if( children.length > 0 ) {
+					ArrayList<String> zipped = getZippedPathsForDeployment(deployment);
+					List<String> toExplode = new ArrayList<String>();
+					for( int i = 0; i < children.length; i++ ) {
+						if( zipped == null || zipped.contains(children[i]))
+							toExplode.add(children[i]);
+					}
+					if( toExplode.size() > 0 ) {
+						b = b.undeploy(deployment);
+						for( String child : toExplode ) {
+							b = b.explodeDeploymentContent(deployment, child);
+						}
+						b = b.deploy(deployment);
+					}
+				}
+			}
+			for (String deployment : deployments) {
+				Map<String, String> changed = model.getChanged(deployment);
+				List<String> removed = model.getRemoved(deployment);
+				if( changed.size() > 0 || removed.size() > 0)
+					b = addChanges(deployment, changed, removed, b);
+			}
+			for( int i = 0; i < redeploy.length; i++ ) {
+				b = b.redeploy(redeploy[i]);
+			}
+			
+			DeploymentAction action = b.getLastAction();
+			if( action == null ) {
+				// Nothing has changed
+				return new IJBoss7DeploymentResult() {
+					public IStatus getStatus() {
+						return Status.OK_STATUS;
+					}
+				};
+			}
+			DeploymentPlan plan = b.build();
+			Future<ServerDeploymentPlanResult> future = manager.execute(plan);
+			DeploymentOperationResult res = new DeploymentOperationResult(action, future, DEFAULT_REQUEST_TIMEOUT, TimeUnit.MILLISECONDS);
+			waitFor(res, "Incremental Deployment", new SubProgressMonitor(monitor, 95));
+			return res;
+		} catch (IOException e) {
+			throw new JBoss7ManangerException(e);
+		}
+	}
+	
 	private DeploymentPlanBuilder addChanges(String deploymentName, 
 			Map<String, String> changedContent, 
 			List<String> removedContent,
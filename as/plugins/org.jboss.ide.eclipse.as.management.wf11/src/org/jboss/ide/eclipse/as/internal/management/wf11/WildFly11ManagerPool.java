@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.as.internal.management.wf11;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.ide.eclipse.as.management.core.IAS7ManagementDetails;
+import org.jboss.ide.eclipse.as.management.core.JBoss7ManangerException;
+
+/**
+ * A pool of {@link WildFly11Manager} instances keyed by host, port, protocol
+ * and credentials. Each manager owns an authenticated remoting channel,
+ * so re-using them avoids a connection and authentication handshake
+ * for every management call.
+ *
+ * Managers idle for longer than {@link #IDLE_TIMEOUT} are evicted.
+ * Managers idle for longer than {@link #VALIDATE_AFTER} are checked
+ * with a cheap server-state request before being handed out again.
+ *
+ * A manager used for an asynchronous deployment is kept out of the pool
+ * until the deployment's result has come through on its channel.
+ */
+public class WildFly11ManagerPool {
+	/** Idle managers older than this (ms) are closed */
+	public static final long IDLE_TIMEOUT = 60000;
+	/** Idle managers older than this (ms) are health-checked before reuse */
+	public static final long VALIDATE_AFTER = 5000;
+	/** Maximum number of idle managers kept for a single key */
+	public static final int MAX_IDLE_PER_KEY = 4;
+	/** How often (ms) pending asynchronous operations are checked for completion */
+	public static final long PENDING_CHECK_INTERVAL = 250;
+
+	private static WildFly11ManagerPool instance;
+
+	public static synchronized WildFly11ManagerPool getDefault() {
+		if( instance == null )
+			instance = new WildFly11ManagerPool();
+		return instance;
+	}
+
+	/**
+	 * Close every pooled manager and discard the shared pool.
+	 * Called when the bundle stops.
+	 */
+	public static synchronized void shutdown() {
+		if( instance != null ) {
+			instance.clear();
+			instance = null;
+		}
+	}
+
+	private static class PooledManager {
+		private final WildFly11Manager manager;
+		private long lastUsed;
+		PooledManager(WildFly11Manager manager) {
+			this.manager = manager;
+			this.lastUsed = System.currentTimeMillis();
+		}
+	}
+
+	private static class PendingManager {
+		private final IAS7ManagementDetails details;
+		private final WildFly11Manager manager;
+		private final DeploymentOperationResult result;
+		PendingManager(IAS7ManagementDetails details, WildFly11Manager manager, DeploymentOperationResult result) {
+			this.details = details;
+			this.manager = manager;
+			this.result = result;
+		}
+	}
+
+	private final Map<String, Deque<PooledManager>> idle = new HashMap<String, Deque<PooledManager>>();
+	private final List<PendingManager> pending = new ArrayList<PendingManager>();
+	private ScheduledExecutorService pendingChecker;
+
+	/**
+	 * Borrow a manager for the given details, creating one if no
+	 * healthy idle manager is available. Callers must hand the manager
+	 * back with {@link #release(IAS7ManagementDetails, WildFly11Manager)}
+	 * or {@link #invalidate(WildFly11Manager)}.
+	 */
+	public WildFly11Manager acquire(IAS7ManagementDetails details) throws JBoss7ManangerException {
+		String key = getKey(details);
+		long now = System.currentTimeMillis();
+		List<WildFly11Manager> expired = new ArrayList<WildFly11Manager>();
+		PooledManager candidate = null;
+		synchronized(this) {
+			collectExpired(now, expired);
+			Deque<PooledManager> q = idle.get(key);
+			if( q != null ) {
+				candidate = q.pollFirst();
+				if( q.isEmpty())
+					idle.remove(key);
+			}
+		}
+		for( WildFly11Manager m : expired ) {
+			m.dispose();
+		}
+
+		if( candidate != null ) {
+			if( now - candidate.lastUsed < VALIDATE_AFTER || isHealthy(candidate.manager)) {
+				return candidate.manager;
+			}
+			candidate.manager.dispose();
+		}
+		return new WildFly11Manager(details);
+	}
+
+	/**
+	 * Return a healthy manager to the pool
+	 */
+	public void release(IAS7ManagementDetails details, WildFly11Manager manager) {
+		String key = getKey(details);
+		boolean accepted = false;
+		synchronized(this) {
+			if( instance == this ) {
+				Deque<PooledManager> q = idle.get(key);
+				if( q == null ) {
+					q = new ArrayDeque<PooledManager>();
+					idle.put(key, q);
+				}
+				if( q.size() < MAX_IDLE_PER_KEY ) {
+					// Most recently used first, so the warmest channel is reused
+					q.addFirst(new PooledManager(manager));
+					accepted = true;
+				}
+			}
+		}
+		if( !accepted ) {
+			manager.dispose();
+		}
+	}
+
+	/**
+	 * Return a manager to the pool once the asynchronous operation whose
+	 * result arrives on its channel has finished. Until then no other
+	 * caller can borrow it.
+	 */
+	public void releaseWhenDone(IAS7ManagementDetails details, WildFly11Manager manager, DeploymentOperationResult result) {
+		synchronized(this) {
+			if( instance == this ) {
+				pending.add(new PendingManager(details, manager, result));
+				if( pendingChecker == null ) {
+					pendingChecker = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r, "WildFly Management Pending Results"); //$NON-NLS-1$
+							t.setDaemon(true);
+							return t;
+						}
+					});
+					pendingChecker.scheduleWithFixedDelay(() -> checkPending(),
+							PENDING_CHECK_INTERVAL, PENDING_CHECK_INTERVAL, TimeUnit.MILLISECONDS);
+				}
+				return;
+			}
+		}
+		manager.dispose();
+	}
+
+	private void checkPending() {
+		List<PendingManager> done = new ArrayList<PendingManager>();
+		synchronized(this) {
+			Iterator<PendingManager> it = pending.iterator();
+			while(it.hasNext()) {
+				PendingManager pm = it.next();
+				if( pm.result.isDone()) {
+					done.add(pm);
+					it.remove();
+				}
+			}
+			if( pending.isEmpty() && pendingChecker != null ) {
+				pendingChecker.shutdown();
+				pendingChecker = null;
+			}
+		}
+		for( PendingManager pm : done ) {
+			if( hasResult(pm.result))
+				release(pm.details, pm.manager);
+			else
+				invalidate(pm.manager);
+		}
+	}
+
+	/*
+	 * A failed deployment still leaves a usable channel;
+	 * only an operation which ended without a result does not.
+	 */
+	private boolean hasResult(DeploymentOperationResult result) {
+		try {
+			result.getStatus();
+			return true;
+		} catch(JBoss7ManangerException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Discard a manager whose connection may no longer be usable
+	 */
+	public void invalidate(WildFly11Manager manager) {
+		manager.dispose();
+	}
+
+	/**
+	 * Close all idle managers, and those still waiting on an asynchronous result
+	 */
+	public void clear() {
+		List<WildFly11Manager> all = new ArrayList<WildFly11Manager>();
+		synchronized(this) {
+			for( PendingManager pm : pending ) {
+				all.add(pm.manager);
+			}
+			pending.clear();
+			if( pendingChecker != null ) {
+				pendingChecker.shutdownNow();
+				pendingChecker = null;
+			}
+			for( Deque<PooledManager> q : idle.values()) {
+				for( PooledManager pm : q ) {
+					all.add(pm.manager);
+				}
+			}
+			idle.clear();
+		}
+		for( WildFly11Manager m : all ) {
+			m.dispose();
+		}
+	}
+
+	private void collectExpired(long now, List<WildFly11Manager> expired) {
+		Iterator<Deque<PooledManager>> it = idle.values().iterator();
+		while(it.hasNext()) {
+			Deque<PooledManager> q = it.next();
+			Iterator<PooledManager> qIt = q.iterator();
+			while(qIt.hasNext()) {
+				PooledManager pm = qIt.next();
+				if( now - pm.lastUsed > IDLE_TIMEOUT ) {
+					expired.add(pm.manager);
+					qIt.remove();
+				}
+			}
+			if( q.isEmpty())
+				it.remove();
+		}
+	}
+
+	private boolean isHealthy(WildFly11Manager manager) {
+		try {
+			manager.getServerState();
+			return true;
+		} catch(JBoss7ManangerException e) {
+			return false;
+		} catch(RuntimeException re) {
+			return false;
+		}
+	}
+
+	private String getKey(IAS7ManagementDetails details) {
+		String pass = details.getManagementPassword();
+		StringBuilder sb = new StringBuilder();
+		sb.append(details.getProtocol()).append("://"); //$NON-NLS-1$
+		sb.append(details.getManagementUsername()).append('@');
+		sb.append(details.getHost()).append(':').append(details.getManagementPort());
+		sb.append('#').append(pass == null ? 0 : pass.hashCode());
+		sb.append('#').append(details.getProperty(IAS7ManagementDetails.PROPERTY_TIMEOUT));
+		return sb.toString();
+	}
+}
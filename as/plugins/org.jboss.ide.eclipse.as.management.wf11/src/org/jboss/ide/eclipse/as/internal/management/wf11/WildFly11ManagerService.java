@@ -18,6 +18,7 @@ import org.jboss.ide.eclipse.as.management.core.IAS7ManagementDetails;
 import org.jboss.ide.eclipse.as.management.core.IJBoss7DeploymentResult;
 import org.jboss.ide.eclipse.as.management.core.IJBoss7ManagerService;
 import org.jboss.ide.eclipse.as.management.core.IncrementalDeploymentManagerService;
+import org.jboss.ide.eclipse.as.management.core.IncrementalDeploymentManagerService2;
 import org.jboss.ide.eclipse.as.management.core.IncrementalManagementModel;
 import org.jboss.ide.eclipse.as.management.core.JBoss7DeploymentState;
 import org.jboss.ide.eclipse.as.management.core.JBoss7ManangerException;
@@ -26,84 +27,108 @@ import org.jboss.ide.eclipse.as.management.core.JBoss7ServerState;
 /**
  * @author Rob Stryker
  */
-public class WildFly11ManagerService implements IJBoss7ManagerService, IncrementalDeploymentManagerService {
+public class WildFly11ManagerService implements IJBoss7ManagerService, IncrementalDeploymentManagerService2 {
+
+	/**
+	 * A unit of work executed against a pooled manager
+	 */
+	private interface ManagerCall<T> {
+		T run(WildFly11Manager manager) throws JBoss7ManangerException;
+	}
 
 	public void init() throws JBoss7ManangerException {
 	}
 
+	/*
+	 * Borrow a connected manager from the shared pool, run the call, and
+	 * hand the manager back. Managers whose call failed are discarded
+	 * since their channel may be broken.
+	 */
+	private <T> T call(IAS7ManagementDetails details, ManagerCall<T> call) throws JBoss7ManangerException {
+		WildFly11ManagerPool pool = WildFly11ManagerPool.getDefault();
+		WildFly11Manager manager = pool.acquire(details);
+		boolean ok = false;
+		try {
+			T ret = call.run(manager);
+			ok = true;
+			return ret;
+		} finally {
+			if( ok )
+				pool.release(details, manager);
+			else
+				pool.invalidate(manager);
+		}
+	}
+
 	/**
 	 * Add a deployment but do not deploy it
 	 */
-	public IJBoss7DeploymentResult addDeployment(IAS7ManagementDetails details, String deploymentName,
-			File file, IProgressMonitor monitor) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
-		try {
+	public IJBoss7DeploymentResult addDeployment(IAS7ManagementDetails details, final String deploymentName,
+			final File file, IProgressMonitor monitor) throws JBoss7ManangerException {
+		return call(details, manager -> {
 			IJBoss7DeploymentResult result = manager.add(deploymentName, file);
 			result.getStatus();
 			return result;
-		} finally {
-			manager.dispose();
-		}
+		});
 	}
 
 	/**
 	 * Remove a deployment which has been undeployed
 	 */
-	public IJBoss7DeploymentResult removeDeployment(IAS7ManagementDetails details, String deploymentName,
+	public IJBoss7DeploymentResult removeDeployment(IAS7ManagementDetails details, final String deploymentName,
 			IProgressMonitor monitor) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
-		try {
+		return call(details, manager -> {
 			IJBoss7DeploymentResult result = manager.remove(deploymentName);
 			result.getStatus();
 			return result;
-		} finally {
-			manager.dispose();
-		}
+		});
 	}
 
 	/**
 	 * replace a deployment
 	 */
-	public IJBoss7DeploymentResult replaceDeployment(IAS7ManagementDetails details, String deploymentName,
-			File file, IProgressMonitor monitor) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
-		try {
+	public IJBoss7DeploymentResult replaceDeployment(IAS7ManagementDetails details, final String deploymentName,
+			final File file, IProgressMonitor monitor) throws JBoss7ManangerException {
+		return call(details, manager -> {
 			IJBoss7DeploymentResult result = manager.replace(deploymentName, file);
 			result.getStatus();
 			return result;
-		} finally {
-			manager.dispose();
-		}
+		});
 	}
 
-	
-	/* 
-	 * This asynch method does not really work. 
-	 * They dispose the manager before the result has come through
+	/*
+	 * Like call, but the result of an asynchronous operation comes through
+	 * on the manager's channel after the call returns. The manager is only
+	 * handed back to the pool once that result has arrived, so no other
+	 * caller uses the channel in the meantime.
 	 */
-	public IJBoss7DeploymentResult deployAsync(IAS7ManagementDetails details, String deploymentName,
-			File file, boolean add, IProgressMonitor monitor) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
+	private IJBoss7DeploymentResult callAsync(IAS7ManagementDetails details, 
+			ManagerCall<IJBoss7DeploymentResult> call) throws JBoss7ManangerException {
+		WildFly11ManagerPool pool = WildFly11ManagerPool.getDefault();
+		WildFly11Manager manager = pool.acquire(details);
+		boolean ok = false;
 		try {
-			IJBoss7DeploymentResult result = manager.deploy(deploymentName, file, new String[] {deploymentName}, add);
-			return result;
+			IJBoss7DeploymentResult ret = call.run(manager);
+			ok = true;
+			if( ret instanceof DeploymentOperationResult )
+				pool.releaseWhenDone(details, manager, (DeploymentOperationResult)ret);
+			else
+				pool.release(details, manager);
+			return ret;
 		} finally {
-			manager.dispose();
+			if( !ok )
+				pool.invalidate(manager);
 		}
 	}
-	/* 
-	 * This asynch method does not really work. 
-	 * They dispose the manager before the result has come through
-	 */
-	public IJBoss7DeploymentResult undeployAsync(IAS7ManagementDetails details, String deploymentName,
-			boolean removeFile, IProgressMonitor monitor) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
-		try {
-			IJBoss7DeploymentResult result = manager.undeploy(deploymentName, removeFile);
-			return result;
-		} finally {
-			manager.dispose();
-		}
+
+	public IJBoss7DeploymentResult deployAsync(IAS7ManagementDetails details, final String deploymentName,
+			final File file, final boolean add, IProgressMonitor monitor) throws JBoss7ManangerException {
+		return callAsync(details, manager -> manager.deploy(deploymentName, file, new String[] {deploymentName}, add));
+	}
+
+	public IJBoss7DeploymentResult undeployAsync(IAS7ManagementDetails details, final String deploymentName,
+			final boolean removeFile, IProgressMonitor monitor) throws JBoss7ManangerException {
+		return callAsync(details, manager -> manager.undeploy(deploymentName, removeFile));
 	}
 
 	public IJBoss7DeploymentResult deploySync(IAS7ManagementDetails details, String deploymentName,
@@ -114,93 +139,77 @@ public class WildFly11ManagerService implements IJBoss7ManagerService, Increment
 
 
 	@Override
-	public IJBoss7DeploymentResult deploySync(IAS7ManagementDetails details, String deploymentName, File file,
-			boolean add, String[] explodePaths, IProgressMonitor monitor) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
-		try {
-			IJBoss7DeploymentResult result = manager.deploySync(deploymentName, file, add, explodePaths, monitor);
-			return result;
-		} finally {
-			manager.dispose();
-		}
+	public IJBoss7DeploymentResult deploySync(IAS7ManagementDetails details, final String deploymentName, final File file,
+			final boolean add, final String[] explodePaths, final IProgressMonitor monitor) throws JBoss7ManangerException {
+		return call(details, manager -> manager.deploySync(deploymentName, file, add, explodePaths, monitor));
 	}
 	
 
-	public IJBoss7DeploymentResult undeploySync(IAS7ManagementDetails details, String deploymentName,
-			boolean removeFile, IProgressMonitor monitor) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
-		try {
-			IJBoss7DeploymentResult result = manager.undeploySync(deploymentName, removeFile, monitor);
-			return result;
-		} finally {
-			manager.dispose();
-		}
+	public IJBoss7DeploymentResult undeploySync(IAS7ManagementDetails details, final String deploymentName,
+			final boolean removeFile, final IProgressMonitor monitor) throws JBoss7ManangerException {
+		return call(details, manager -> manager.undeploySync(deploymentName, removeFile, monitor));
 	}
 
-	public JBoss7DeploymentState getDeploymentState(IAS7ManagementDetails details, String deploymentName) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
-		try {
-			JBoss7DeploymentState result = manager.getDeploymentStateSafe(deploymentName);
-			return result;
-		} finally {
-			manager.dispose();
-		}
+	public JBoss7DeploymentState getDeploymentState(IAS7ManagementDetails details, final String deploymentName) throws JBoss7ManangerException {
+		return call(details, manager -> manager.getDeploymentStateSafe(deploymentName));
 	}
 	
 	public JBoss7ServerState getServerState(IAS7ManagementDetails details) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
-		try {
-			JBoss7ServerState state = manager.getServerState();
-			return state;
-		} finally {
-			manager.dispose();
-		}
+		return call(details, manager -> manager.getServerState());
 	}
 
 	public boolean isRunning(IAS7ManagementDetails details) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
+		// isRunning swallows connection errors, so a negative answer must not pool the channel
+		WildFly11ManagerPool pool = WildFly11ManagerPool.getDefault();
+		WildFly11Manager manager = pool.acquire(details);
+		boolean running = false;
 		try {
-			boolean ret = manager.isRunning();
-			return ret;
+			running = manager.isRunning();
+			return running;
 		} finally {
-			manager.dispose();
+			if( running )
+				pool.release(details, manager);
+			else
+				pool.invalidate(manager);
 		}
 	}
 
 	public void stop(IAS7ManagementDetails details) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
+		// A stopped server leaves nothing worth pooling
+		WildFly11ManagerPool pool = WildFly11ManagerPool.getDefault();
+		WildFly11Manager manager = pool.acquire(details);
 		try {
 			manager.stopServer();
 		} finally {
-			manager.dispose();
+			pool.invalidate(manager);
 		}
 	}
 
-    public String execute(IAS7ManagementDetails details, String request) throws JBoss7ManangerException {
-        WildFly11Manager manager = new WildFly11Manager(details);
-        try {
-            return manager.execute(ModelNode.fromJSONString(request)).toJSONString(true);
-        } finally {
-            manager.dispose();
-        }
+    public String execute(IAS7ManagementDetails details, final String request) throws JBoss7ManangerException {
+        return call(details, manager -> manager.execute(ModelNode.fromJSONString(request)).toJSONString(true));
     }
 
+    /*
+     * Callers dispose the service after every use, 
+     * so the shared connection pool is only cleared when the bundle stops.
+     */
     @Override
 	public void dispose() {
 	}
 
 	@Override
 	public IJBoss7DeploymentResult incrementalPublish(
-			IAS7ManagementDetails details, String deploymentName, 
-			IncrementalManagementModel model,
-			boolean redeploy, IProgressMonitor monitor) throws JBoss7ManangerException {
-		WildFly11Manager manager = new WildFly11Manager(details);
-		try {
-			IJBoss7DeploymentResult ret = manager.incrementalPublish(details, deploymentName, model, redeploy, monitor);
-			return ret;
-		} finally {
-			manager.dispose();
-		}
+			final IAS7ManagementDetails details, final String deploymentName, 
+			final IncrementalManagementModel model,
+			final boolean redeploy, final IProgressMonitor monitor) throws JBoss7ManangerException {
+		return call(details, manager -> manager.incrementalPublish(details, deploymentName, model, redeploy, monitor));
+	}
+
+	@Override
+	public IJBoss7DeploymentResult incrementalPublish(
+			final IAS7ManagementDetails details, final IncrementalManagementModel model,
+			final String[] redeploy, final IProgressMonitor monitor) throws JBoss7ManangerException {
+		return call(details, manager -> manager.incrementalPublish(details, model, redeploy, monitor));
 	}
 
 	@Override
@@ -10,7 +10,6 @@
  ******************************************************************************/ 
 package org.jboss.ide.eclipse.as.core.util;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -20,6 +19,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Date;
 
@@ -117,15 +119,7 @@ public class FileUtil {
 			return copied;
 		} else {
 			try {
-			    FileInputStream fis  = new FileInputStream(src);
-			    FileOutputStream fos = new FileOutputStream(dest);
-			    byte[] buf = new byte[1024];
-			    int i = 0;
-			    while((i=fis.read(buf))!=-1) {
-			      fos.write(buf, 0, i);
-			      }
-			    fis.close();
-			    fos.close();
+			    transfer(src, dest);
 			    if( listener != null ) listener.fileCopied(src, dest, true, null);
 				return true;
 			} catch( Exception e ) {
@@ -230,33 +224,69 @@ public class FileUtil {
         if(!source.isFile()) return false;
         if(dest.isFile() && !isSameFile(dest)) dest.delete();
         if(dest.isFile() && !overwrite) return false;
-        if(!dest.exists())
-			try {
-				dest.createNewFile();
-			} catch (IOException e1) {
-				ASWTPToolsPlugin.log(e1); 
-			}
-        InputStream is = null;
-        OutputStream os = null;
         try {
-            is = new BufferedInputStream(new FileInputStream(source), 16 * 1024);
-            os = new BufferedOutputStream(new FileOutputStream(dest), 16 * 1024);
-            copyStream(is, os);
+            transfer(source, dest);
             return true;
         } catch (IOException e) {
         	ASWTPToolsPlugin.log(e);
             return false;
-        } finally {
-            try {
-                if (is != null) is.close();
-            } catch (IOException e) {
-            	ASWTPToolsPlugin.log(e);
-            }
-            try {
-                if (os != null) os.close();
-            } catch (IOException e) {
-            	ASWTPToolsPlugin.log(e);
+        }
+    }
+
+    /**
+     * Copy the content of source into dest using channel transfers, 
+     * which lets the operating system move the data without copying it 
+     * through the Java heap. The destination is created or truncated, 
+     * and receives the last-modified timestamp of the source. 
+     * 
+     * @param source the file to copy
+     * @param dest the destination file, whose parent folder must exist
+     * @throws IOException
+     */
+    public static void transfer(File source, File dest) throws IOException {
+        FileChannel in = null;
+        FileChannel out = null;
+        try {
+            in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+            out = FileChannel.open(dest.toPath(), StandardOpenOption.WRITE, 
+            		StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            long size = in.size();
+            long pos = 0;
+            while (pos < size) {
+                long n = in.transferTo(pos, size - pos, out);
+                if (n <= 0) {
+                	// The source shrank while copying, or the channel made no progress
+                	if (pos >= in.size()) break;
+                	copyRemaining(in, out, pos);
+                	break;
+                }
+                pos += n;
             }
+        } finally {
+            closeQuietly(in);
+            closeQuietly(out);
+        }
+        long ts = source.lastModified();
+        if (ts != 0)
+        	dest.setLastModified(ts);
+    }
+
+    private static void copyRemaining(FileChannel in, FileChannel out, long pos) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(BUFFER);
+        in.position(pos);
+        while (in.read(buf) != -1) {
+            buf.flip();
+            while (buf.hasRemaining())
+                out.write(buf);
+            buf.clear();
+        }
+    }
+
+    private static void closeQuietly(FileChannel c) {
+        try {
+            if (c != null) c.close();
+        } catch (IOException e) {
+        	ASWTPToolsPlugin.log(e);
         }
     }
 
@@ -198,6 +198,7 @@ public interface IJBossToolingConstants {
 	public static final String TMP = "tmp"; //$NON-NLS-1$
 	public static final String CONFIG_IN_METADATA = "jbossConfig"; //$NON-NLS-1$
 	public static final String XPATH_FILE_NAME = "xpaths.xml"; //$NON-NLS-1$
+	public static final String PUBLISH_MANIFESTS = "publishManifests"; //$NON-NLS-1$
 
 	
 	// Inside the plugin (not metadata)
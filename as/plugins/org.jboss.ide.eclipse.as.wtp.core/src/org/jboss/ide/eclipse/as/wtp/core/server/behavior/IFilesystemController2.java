@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.as.wtp.core.server.behavior;
+
+import java.io.File;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+
+/**
+ * This interface is an addition to the {@link IFilesystemController}
+ * for controllers which can handle many filesystem operations in one call.
+ *
+ * Implementations are free to perform the individual operations
+ * in any order, or concurrently, so callers must not depend on
+ * one copy in a batch having completed before another begins.
+ *
+ * As with {@link IFilesystemController}, all remote paths
+ * must already be absolute.
+ *
+ * @since 3.10
+ */
+public interface IFilesystemController2 extends IFilesystemController {
+
+	/**
+	 * Make every directory in the given array, including any
+	 * missing parent directories.
+	 *
+	 * @param dirs		absolute remote directories
+	 * @param monitor	A progress monitor
+	 * @return a possibly-empty array of error and warning status
+	 * @throws CoreException
+	 */
+	public IStatus[] makeDirectories(IPath[] dirs, IProgressMonitor monitor) throws CoreException;
+
+	/**
+	 * Copy each local file to the remote path at the same index.
+	 * The parent folders of all destinations must already exist.
+	 *
+	 * @param files			The local files
+	 * @param destinations	The absolute remote paths, one per file
+	 * @param monitor		A progress monitor
+	 * @return a possibly-empty array of error and warning status
+	 * @throws CoreException
+	 */
+	public IStatus[] copyFiles(File[] files, IPath[] destinations, IProgressMonitor monitor) throws CoreException;
+}
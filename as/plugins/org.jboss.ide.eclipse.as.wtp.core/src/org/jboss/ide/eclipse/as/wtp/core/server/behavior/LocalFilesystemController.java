@@ -18,7 +18,15 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -27,6 +35,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.wst.server.core.internal.Messages;
@@ -43,8 +52,11 @@ import org.jboss.ide.eclipse.as.wtp.core.ASWTPToolsPlugin;
 /**
  * This class is an implementation of {@link IFilesystemController} for use 
  * to execute filesystem operations that occur on a local system. 
+ * 
+ * Batched copies through {@link IFilesystemController2} are spread 
+ * over a small, bounded pool of worker threads.
  */
-public class LocalFilesystemController extends AbstractSubsystemController implements IFilesystemController {
+public class LocalFilesystemController extends AbstractSubsystemController implements IFilesystemController2 {
 
 	/**
 	 * A key for the environment of the subsystem.
@@ -64,6 +76,12 @@ public class LocalFilesystemController extends AbstractSubsystemController imple
 	// A prefix to use for temporary files
 	private static final String TEMPFILE_PREFIX = "tmp"; //$NON-NLS-1$
 	
+	// Upper bound on concurrent copies for a batch; local disks saturate quickly
+	private static final int MAX_COPY_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors()));
+	
+	// Batches smaller than this are not worth handing to worker threads
+	private static final int MIN_PARALLEL_BATCH = 8;
+	
 	public LocalFilesystemController() {
 	}
 	
@@ -74,14 +92,7 @@ public class LocalFilesystemController extends AbstractSubsystemController imple
 				return new Status(IStatus.ERROR, ASWTPToolsPlugin.PLUGIN_ID, IEventCodes.JST_PUB_FAIL, 
 						NLS.bind(Messages.errorReading, file.getAbsolutePath()), null);
 			}
-			InputStream in = null;
-			try {
-				in = new FileInputStream(file);
-			} catch (IOException e) {
-				new Status(IStatus.ERROR, ASWTPToolsPlugin.PLUGIN_ID, IEventCodes.JST_PUB_FAIL, 
-						NLS.bind(Messages.errorReading, file.getAbsolutePath()), e);
-			}
-			IStatus ret = copyFile(in, absoluteRemotePath, file.lastModified());
+			IStatus ret = copyFile(file, absoluteRemotePath);
 			monitor.worked(100);
 			monitor.done();
 			if( ret != null && !ret.isOK()) 
@@ -111,19 +122,21 @@ public class LocalFilesystemController extends AbstractSubsystemController imple
 
 	
 	/**
-	 * Copy a file from a to b. Closes the input stream after use.
+	 * Copy a local file into position through a temporary file, 
+	 * using channel transfers rather than streams. 
 	 * 
-	 * @param in an input stream
-	 * @param to a path to copy to. the directory must already exist. This must be an absolute path
-	 * @param ts timestamp
-	 * @throws CoreException if anything goes wrong
+	 * @param source the local file
+	 * @param to a path to copy to. This must be an absolute path
+	 * @throws CoreException if the temporary file cannot be moved into place
 	 */
-	private IStatus copyFile(InputStream in, IPath to, long ts) throws CoreException {
+	private IStatus copyFile(File source, IPath to) throws CoreException {
 		File tempFile = null;
 		try {
 			File file = to.toFile();
-			tempFile = writeToTempFile(in, to);
+			tempFile = createTempFile(to);
+			FileUtil.transfer(source, tempFile);
 			moveTempFile(tempFile, file);
+			long ts = source.lastModified();
 			if (ts != IResource.NULL_STAMP && ts != 0)
 				file.setLastModified(ts);
 		} catch (CoreException e) {
@@ -134,15 +147,12 @@ public class LocalFilesystemController extends AbstractSubsystemController imple
 		} finally {
 			if (tempFile != null && tempFile.exists())
 				tempFile.deleteOnExit();
-			StreamUtils.safeClose(in);
 		}
 		return null;
 	}
 	
-	private File writeToTempFile(InputStream in, IPath filePath) throws IOException {			
-		File tempFile = File.createTempFile(TEMPFILE_PREFIX, "." + filePath.getFileExtension(), getTempFolder()); //$NON-NLS-1$
-		FileUtil.writeTo(in, tempFile);				
-		return tempFile;
+	private File createTempFile(IPath filePath) throws IOException {
+		return File.createTempFile(TEMPFILE_PREFIX, "." + filePath.getFileExtension(), getTempFolder()); //$NON-NLS-1$
 	}
 	
 	/**
@@ -395,4 +405,99 @@ public class LocalFilesystemController extends AbstractSubsystemController imple
 		return path.toFile().exists();
 	}
 	
+	public IStatus[] makeDirectories(IPath[] dirs, IProgressMonitor monitor) throws CoreException {
+		monitor = ProgressMonitorUtil.getMonitorFor(monitor);
+		// Drop duplicates and any directory whose child is also requested, mkdirs handles parents
+		Set<File> leafs = new LinkedHashSet<File>();
+		for( int i = 0; i < dirs.length; i++ ) {
+			leafs.add(dirs[i].toFile());
+		}
+		for( int i = 0; i < dirs.length; i++ ) {
+			File parent = dirs[i].toFile().getParentFile();
+			while( parent != null ) {
+				leafs.remove(parent);
+				parent = parent.getParentFile();
+			}
+		}
+		monitor.beginTask("Creating directories", leafs.size()); //$NON-NLS-1$
+		List<IStatus> status = new ArrayList<IStatus>();
+		for( File f : leafs ) {
+			if( !f.mkdirs() && !f.isDirectory()) {
+				status.add(new Status(IStatus.ERROR, ASWTPToolsPlugin.PLUGIN_ID, IEventCodes.JST_PUB_FAIL, 
+						"Unable to create directory " + f.getAbsolutePath(), null)); //$NON-NLS-1$
+			}
+			monitor.worked(1);
+		}
+		monitor.done();
+		return status.toArray(new IStatus[status.size()]);
+	}
+
+	public IStatus[] copyFiles(final File[] files, final IPath[] destinations, IProgressMonitor monitor) throws CoreException {
+		monitor = ProgressMonitorUtil.getMonitorFor(monitor);
+		monitor.beginTask("Copying " + files.length + " files", files.length); //$NON-NLS-1$ //$NON-NLS-2$
+		List<IStatus> status = new ArrayList<IStatus>();
+		try {
+			if( files.length < MIN_PARALLEL_BATCH || MAX_COPY_THREADS == 1 ) {
+				for( int i = 0; i < files.length; i++ ) {
+					if( monitor.isCanceled())
+						break;
+					addIfError(status, copyFile(files[i], destinations[i], new NullProgressMonitor()));
+					monitor.worked(1);
+				}
+				return status.toArray(new IStatus[status.size()]);
+			}
+			
+			ExecutorService executor = Executors.newFixedThreadPool(MAX_COPY_THREADS, new CopyThreadFactory());
+			try {
+				List<Future<IStatus>> futures = new ArrayList<Future<IStatus>>(files.length);
+				for( int i = 0; i < files.length; i++ ) {
+					final int index = i;
+					futures.add(executor.submit(() -> copyFile(files[index], destinations[index], new NullProgressMonitor())));
+				}
+				// Progress monitors are not thread-safe, so report progress only from this thread
+				for( Future<IStatus> f : futures ) {
+					if( monitor.isCanceled()) {
+						f.cancel(false);
+						continue;
+					}
+					addIfError(status, waitFor(f));
+					monitor.worked(1);
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+		} finally {
+			monitor.done();
+		}
+		return status.toArray(new IStatus[status.size()]);
+	}
+	
+	private IStatus waitFor(Future<IStatus> f) throws CoreException {
+		try {
+			return f.get();
+		} catch(InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			return new Status(IStatus.CANCEL, ASWTPToolsPlugin.PLUGIN_ID, "Copy interrupted", ie); //$NON-NLS-1$
+		} catch(ExecutionException ee) {
+			Throwable cause = ee.getCause();
+			if( cause instanceof CoreException )
+				throw (CoreException)cause;
+			return new Status(IStatus.ERROR, ASWTPToolsPlugin.PLUGIN_ID, IEventCodes.JST_PUB_FAIL, 
+					cause == null ? ee.getLocalizedMessage() : cause.getLocalizedMessage(), cause);
+		}
+	}
+	
+	private void addIfError(List<IStatus> list, IStatus s) {
+		if( s != null && !s.isOK())
+			list.add(s);
+	}
+	
+	private static class CopyThreadFactory implements ThreadFactory {
+		private static final AtomicInteger count = new AtomicInteger();
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "Local Filesystem Copy " + count.incrementAndGet()); //$NON-NLS-1$
+			t.setDaemon(true);
+			return t;
+		}
+	}
 }
\ No newline at end of file
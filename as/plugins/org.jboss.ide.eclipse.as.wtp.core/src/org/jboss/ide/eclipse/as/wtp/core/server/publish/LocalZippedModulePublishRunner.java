@@ -11,11 +11,26 @@
  ******************************************************************************/ 
 package org.jboss.ide.eclipse.as.wtp.core.server.publish;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -40,6 +55,7 @@ import org.jboss.ide.eclipse.as.core.util.FileUtil;
 import org.jboss.ide.eclipse.as.core.util.IEventCodes;
 import org.jboss.ide.eclipse.as.core.util.ModuleResourceUtil;
 import org.jboss.ide.eclipse.as.core.util.ProgressMonitorUtil;
+import org.jboss.ide.eclipse.as.core.util.StreamUtils;
 import org.jboss.ide.eclipse.as.wtp.core.ASWTPToolsPlugin;
 import org.jboss.ide.eclipse.as.wtp.core.Messages;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.util.PublishControllerUtil;
@@ -74,10 +90,25 @@ import org.jboss.ide.eclipse.as.wtp.core.util.ServerModelUtilities;
  * This class will *not* transfer an archive to any remote system.
  * Clients should do this themselves. 
  * 
+ * A full publish streams every entry straight into a new archive,
+ * which then replaces the destination. Entries whose content is 
+ * already compressed are stored rather than deflated again. 
+ * An incremental publish rewrites only the changed entries through TrueZip, 
+ * and only the destination archive is unmounted afterwards, so that 
+ * concurrent publishes of other archives are not flushed as well.
+ * 
  * @since 3.0
  */
 public class LocalZippedModulePublishRunner extends ModuleResourceUtil {
 	
+	private static final int BUFFER = 65536;
+	
+	// Entries with these extensions are already compressed, so deflating them again is wasted work
+	private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<String>(Arrays.asList(new String[]{
+			"jar", "war", "ear", "rar", "sar", "zip", "gz", "tgz", "bz2", "xz", "7z",  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$
+			"png", "jpg", "jpeg", "gif", "ico", "webp", "woff", "woff2", "mp3", "mp4"  //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$
+	}));
+	
 	private IServer server;
 	private IModule[] module;
 	private IPath destinationArchive;
@@ -96,7 +127,6 @@ public class LocalZippedModulePublishRunner extends ModuleResourceUtil {
 	
 	public IStatus fullPublishModule(IProgressMonitor monitor) throws CoreException {
 		IStatus[] status = fullPublish(monitor);
-		TrueZipUtil.umount();
 		IStatus finalStatus = createModuleStatus(module, status);
 		return finalStatus;
 	}
@@ -147,7 +177,7 @@ public class LocalZippedModulePublishRunner extends ModuleResourceUtil {
 		removedMonitor.done();
 		
 		
-		TrueZipUtil.umount();
+		umountArchive();
 		
 		IStatus finalStatus = createModuleStatus(moduleAsArray, operationStatus);
 
@@ -171,12 +201,246 @@ public class LocalZippedModulePublishRunner extends ModuleResourceUtil {
 	}
 	
 
+	// Commit and release only our own archive, leaving others mounted by TrueZip alone
+	private void umountArchive() {
+		TrueZipUtil.umount(destinationArchive.toFile());
+	}
+	
 	// The full publish called on the root module 
 	private IStatus[] fullPublish(IProgressMonitor monitor) {
-		// Get rid of the old file during a full publish
-		FileUtil.safeDelete(destinationArchive.toFile(), null);
-		TrueZipUtil.umount();
-		return fullPublish(module, null,ProgressMonitorUtil.getMonitorFor(monitor));
+		monitor = ProgressMonitorUtil.getMonitorFor(monitor);
+		java.io.File dest = destinationArchive.toFile();
+		// Release anything TrueZip still holds for the archive we are about to replace
+		if( dest.isFile())
+			umountArchive();
+		else if( dest.exists())
+			FileUtil.safeDelete(dest, null);
+		dest.getParentFile().mkdirs();
+		
+		ArrayList<IStatus> results = new ArrayList<IStatus>();
+		java.io.File tmp = new java.io.File(dest.getParentFile(), dest.getName() + ".tmp"); //$NON-NLS-1$
+		ZipOutputStream zos = null;
+		boolean replaced = false;
+		try {
+			zos = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(tmp), BUFFER));
+			streamModule(module, zos, new HashSet<String>(), results, monitor);
+			zos.close();
+			zos = null;
+			if( !monitor.isCanceled()) {
+				Files.move(tmp.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+				replaced = true;
+			}
+		} catch(IOException ioe) {
+			results.add(new Status(IStatus.ERROR, ASWTPToolsPlugin.PLUGIN_ID, 
+					"Unable to write archive " + dest, ioe)); //$NON-NLS-1$
+		} finally {
+			StreamUtils.safeClose(zos);
+			if( !replaced )
+				tmp.delete();
+		}
+		return (IStatus[]) results.toArray(new IStatus[results.size()]);
+	}
+	
+	/*
+	 * Write the given module's resources, and recursively its children,
+	 * as entries of the given zip stream. Child modules become nested archive entries. 
+	 */
+	private void streamModule(IModule[] module, ZipOutputStream zos, Set<String> names, 
+			List<IStatus> results, IProgressMonitor monitor) throws IOException {
+		monitor.beginTask("Packaging Module: " + module[module.length-1].getName(), 2000); //$NON-NLS-1$
+		try {
+			IModuleResource[] resources = getResources(module);
+			IModulePathFilter filter = filterProvider == null ? null : filterProvider.getFilter(server, module);
+			IModuleResource[] resources2 = filter == null ? resources : filter.getFilteredMembers();
+			
+			int totalCount = countMembers(resources2, true);
+			IProgressMonitor copyMonitor = ProgressMonitorUtil.submon(monitor, 1000);
+			copyMonitor.beginTask("Copying Resources", totalCount*100); //$NON-NLS-1$
+			IStatus copied = streamResources(zos, names, resources2, results, copyMonitor);
+			copyMonitor.done();
+			if( copied.getSeverity() == IStatus.CANCEL ) {
+				results.add(copied);
+				return;
+			}
+			
+			IModule[] children = getChildModules(module);
+			if( children != null && children.length > 0 ) {
+				IProgressMonitor childMonitor = ProgressMonitorUtil.submon(monitor, 1000);
+				childMonitor.beginTask("Assembling child modules", children.length * 100); //$NON-NLS-1$
+				IPath parentPath = getRootModuleRelativePath(module);
+				int parentSegments = parentPath == null ? 0 : parentPath.segmentCount();
+				for( int i = 0; i < children.length; i++ ) {
+					if( monitor.isCanceled()) {
+						results.add(new Status(IStatus.CANCEL, ASWTPToolsPlugin.PLUGIN_ID, "Operation Canceled")); //$NON-NLS-1$
+						return;
+					}
+					IModule[] combined = combine(module, children[i]);
+					IPath childPath = getRootModuleRelativePath(combined).removeFirstSegments(parentSegments);
+					streamChildModule(combined, childPath, zos, names, results, ProgressMonitorUtil.submon(childMonitor, 100));
+				}
+				childMonitor.done();
+			}
+		} catch( CoreException ce) {
+			results.add(generateCoreExceptionStatus(ce));
+		} finally {
+			monitor.done();
+		}
+	}
+	
+	private void streamChildModule(IModule[] combined, IPath childPath, ZipOutputStream zos, Set<String> names, 
+			List<IStatus> results, IProgressMonitor monitor) throws IOException, CoreException {
+		IModule child = combined[combined.length-1];
+		if( ServerModelUtilities.isBinaryModule(child)) {
+			// See fullBinaryPublish: a binary module's single file *is* the entry
+			IModuleResource[] resources = getResources(child, new NullProgressMonitor());
+			if( resources.length == 1 && resources[0] instanceof IModuleFile ) {
+				java.io.File source = getFile((IModuleFile)resources[0]);
+				if( source != null ) {
+					try {
+						putFile(zos, names, childPath.toString(), source);
+					} catch(FileNotFoundException fnfe) {
+						results.add(generateCopyFailStatus(source, destinationArchive.append(childPath).toFile()));
+					}
+				}
+				monitor.done();
+				return;
+			}
+		}
+		
+		// Nested archives are deflated, since their size and checksum are unknown until written
+		String name = childPath.toString();
+		putParentEntries(zos, names, name);
+		if( !names.add(name)) {
+			monitor.done();
+			return;
+		}
+		ZipEntry entry = new ZipEntry(name);
+		entry.setTime(System.currentTimeMillis());
+		zos.putNextEntry(entry);
+		ZipOutputStream nested = new ZipOutputStream(new NonClosingOutputStream(zos));
+		if( ServerModelUtilities.isBinaryModule(child)) {
+			IModuleResource[] resources = getResources(child, new NullProgressMonitor());
+			monitor.beginTask("Copying Resources", countMembers(resources, true) * 100); //$NON-NLS-1$
+			IStatus copied = streamResources(nested, new HashSet<String>(), resources, results, monitor);
+			monitor.done();
+			if( copied.getSeverity() == IStatus.CANCEL )
+				results.add(copied);
+		} else {
+			streamModule(combined, nested, new HashSet<String>(), results, monitor);
+		}
+		nested.finish();
+		zos.closeEntry();
+	}
+	
+	/*
+	 * Returns Status.CANCEL_STATUS if the monitor was canceled part way through
+	 */
+	private IStatus streamResources(ZipOutputStream zos, Set<String> names, IModuleResource[] children, 
+			List<IStatus> results, IProgressMonitor monitor) throws IOException {
+		for( int i = 0; i < children.length; i++ ) {
+			if( monitor.isCanceled()) 
+				return Status.CANCEL_STATUS;
+			IPath relative = children[i].getModuleRelativePath().append(children[i].getName());
+			if( children[i] instanceof IModuleFile ) {
+				java.io.File source = getFile((IModuleFile)children[i]);
+				if( source != null ) {
+					try {
+						putFile(zos, names, relative.toString(), source);
+					} catch(FileNotFoundException fnfe) {
+						// The source could not be opened; nothing was written for it
+						results.add(generateCopyFailStatus(source, destinationArchive.append(relative).toFile()));
+					}
+				}
+				monitor.worked(100);
+			} else if( children[i] instanceof IModuleFolder ) {
+				String dir = relative.addTrailingSeparator().toString();
+				putParentEntries(zos, names, dir);
+				putDirectory(zos, names, dir);
+				IStatus s = streamResources(zos, names, ((IModuleFolder)children[i]).members(), results, monitor);
+				if( !s.isOK())
+					return s;
+			}
+		}
+		return Status.OK_STATUS;
+	}
+	
+	private void putParentEntries(ZipOutputStream zos, Set<String> names, String name) throws IOException {
+		int i = name.indexOf('/');
+		while( i > 0 && i < name.length() - 1 ) {
+			putDirectory(zos, names, name.substring(0, i+1));
+			i = name.indexOf('/', i+1);
+		}
+	}
+	
+	private void putDirectory(ZipOutputStream zos, Set<String> names, String dir) throws IOException {
+		if( names.add(dir)) {
+			zos.putNextEntry(new ZipEntry(dir));
+			zos.closeEntry();
+		}
+	}
+	
+	/*
+	 * Add one file entry. A FileNotFoundException means the source 
+	 * could not be opened and the zip stream was left untouched.
+	 */
+	private void putFile(ZipOutputStream zos, Set<String> names, String name, java.io.File source) throws IOException {
+		if( names.contains(name))
+			return;
+		InputStream in = new FileInputStream(source);
+		try {
+			ZipEntry entry = new ZipEntry(name);
+			entry.setTime(source.lastModified());
+			if( isCompressed(name)) {
+				// Stored entries must declare their size and checksum up front
+				entry.setMethod(ZipEntry.STORED);
+				entry.setSize(source.length());
+				entry.setCompressedSize(source.length());
+				entry.setCrc(crc(source));
+			}
+			putParentEntries(zos, names, name);
+			names.add(name);
+			zos.putNextEntry(entry);
+			FileUtil.writeTo(in, zos);
+			zos.closeEntry();
+		} finally {
+			StreamUtils.safeClose(in);
+		}
+	}
+	
+	private static boolean isCompressed(String name) {
+		int dot = name.lastIndexOf('.');
+		return dot != -1 && COMPRESSED_EXTENSIONS.contains(name.substring(dot+1).toLowerCase());
+	}
+	
+	private static long crc(java.io.File f) throws IOException {
+		CRC32 crc = new CRC32();
+		InputStream in = null;
+		try {
+			in = new FileInputStream(f);
+			byte[] buf = new byte[BUFFER];
+			int r;
+			while((r = in.read(buf)) != -1) {
+				crc.update(buf, 0, r);
+			}
+		} finally {
+			StreamUtils.safeClose(in);
+		}
+		return crc.getValue();
+	}
+	
+	/*
+	 * Lets a nested zip stream be finished without closing the enclosing stream
+	 */
+	private static class NonClosingOutputStream extends FilterOutputStream {
+		NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+		}
+		public void close() throws IOException {
+			flush();
+		}
 	}
 	
 	// Full publish called on either a root module or any valid module tree (children etc)
@@ -219,12 +483,12 @@ public class LocalZippedModulePublishRunner extends ModuleResourceUtil {
 			results.addAll(Arrays.asList(copyResults));
 			copyMonitor.done();
 			
-			TrueZipUtil.umount();
+			umountArchive();
 			
 			IModule[] children = getChildModules(module);
 			if( children != null )
 				publishChildren(module, results, children, moduleRoot,  ProgressMonitorUtil.submon(monitor, 1000));
-			TrueZipUtil.umount();
+			umountArchive();
 		} catch( CoreException ce) {
 			results.add(generateCoreExceptionStatus(ce));
 		}
@@ -290,7 +554,7 @@ public class LocalZippedModulePublishRunner extends ModuleResourceUtil {
 				}
 			}
 			monitor.done();
-			TrueZipUtil.umount();
+			umountArchive();
 			return (IStatus[]) results.toArray(new IStatus[results.size()]);
 		} catch( CoreException ce) {
 			results.add(generateCoreExceptionStatus(ce));
@@ -0,0 +1,237 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.ide.eclipse.as.wtp.core.server.publish;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.jboss.ide.eclipse.as.core.util.StreamUtils;
+import org.jboss.ide.eclipse.as.wtp.core.Trace;
+
+/**
+ * A record of the files written to a local deploy folder by a full publish.
+ * For every relative path it remembers the size and timestamp of the source,
+ * the timestamp of the deployed copy, and a digest of the content.
+ *
+ * This lets a full publish skip files whose deployed copy is already
+ * byte-identical to the source, rather than deleting and re-copying
+ * the entire module.
+ *
+ * A manifest is only meaningful for a deploy folder on the local
+ * filesystem, since the deployed copies must be inspected.
+ *
+ * @since 3.10
+ */
+public class PublishManifest {
+	private static final String DIGEST_ALGORITHM = "SHA-1"; //$NON-NLS-1$
+	private static final char[] HEX = "0123456789abcdef".toCharArray(); //$NON-NLS-1$
+
+	private static class Entry {
+		private long size;
+		private long sourceStamp;
+		private long deployedStamp;
+		private String digest;
+	}
+
+	private File storage;
+	private boolean loaded = false;
+	private Map<String, Entry> entries = new HashMap<String, Entry>();
+	private Set<String> seen = new HashSet<String>();
+
+	/**
+	 * Create a manifest backed by the given file.
+	 * The file is read immediately if it exists.
+	 *
+	 * @param storage the metadata file holding this manifest
+	 */
+	public PublishManifest(File storage) {
+		this.storage = storage;
+		load();
+	}
+
+	/**
+	 * Returns true if a manifest from a previous publish was found.
+	 * Without one there is nothing to compare against,
+	 * and every file must be copied.
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * Returns true if the given source must be copied to the deployed location.
+	 *
+	 * @param relative	the path relative to the deploy root
+	 * @param source	the local source file
+	 * @param deployed	the deployed copy
+	 */
+	public boolean requiresCopy(String relative, File source, File deployed) {
+		seen.add(relative);
+		Entry e = entries.get(relative);
+		if( e == null || source == null || !deployed.isFile())
+			return true;
+		long size = source.length();
+		if( e.size != size || deployed.length() != size )
+			return true;
+		// Someone else has modified the deployed copy
+		if( e.deployedStamp != deployed.lastModified())
+			return true;
+		long stamp = source.lastModified();
+		if( e.sourceStamp == stamp )
+			return false;
+		// The source was touched, check whether its content actually changed
+		String digest = digest(source);
+		if( digest == null || !digest.equals(e.digest))
+			return true;
+		e.sourceStamp = stamp;
+		return false;
+	}
+
+	/**
+	 * Record that the given source has been copied to the deployed location
+	 */
+	public void copied(String relative, File source, File deployed) {
+		seen.add(relative);
+		String digest = source == null ? null : digest(source);
+		if( digest == null || !deployed.isFile()) {
+			entries.remove(relative);
+			return;
+		}
+		Entry e = new Entry();
+		e.size = source.length();
+		e.sourceStamp = source.lastModified();
+		e.deployedStamp = deployed.lastModified();
+		e.digest = digest;
+		entries.put(relative, e);
+	}
+
+	/**
+	 * Forget every entry that was not checked or copied since this
+	 * manifest was loaded, and return the paths that were removed.
+	 */
+	public Set<String> removeUnseen() {
+		Set<String> orphans = new HashSet<String>();
+		Iterator<String> it = entries.keySet().iterator();
+		while(it.hasNext()) {
+			String k = it.next();
+			if( !seen.contains(k)) {
+				orphans.add(k);
+				it.remove();
+			}
+		}
+		return orphans;
+	}
+
+	/**
+	 * Discard all entries, for example when the deploy folder is removed
+	 */
+	public void clear() {
+		entries.clear();
+		seen.clear();
+		if( storage.exists())
+			storage.delete();
+		loaded = false;
+	}
+
+	private void load() {
+		if( !storage.isFile())
+			return;
+		Properties p = new Properties();
+		InputStream is = null;
+		try {
+			is = new FileInputStream(storage);
+			p.load(is);
+		} catch(IOException ioe) {
+			Trace.trace(Trace.STRING_FINER, "Unable to read publish manifest " + storage, ioe); //$NON-NLS-1$
+			return;
+		} finally {
+			StreamUtils.safeClose(is);
+		}
+		for( String k : p.stringPropertyNames()) {
+			String[] parts = p.getProperty(k).split(","); //$NON-NLS-1$
+			if( parts.length != 4 )
+				continue;
+			try {
+				Entry e = new Entry();
+				e.size = Long.parseLong(parts[0]);
+				e.sourceStamp = Long.parseLong(parts[1]);
+				e.deployedStamp = Long.parseLong(parts[2]);
+				e.digest = parts[3];
+				entries.put(k, e);
+			} catch(NumberFormatException nfe) {
+				// Ignore the corrupt entry, the file will simply be copied
+			}
+		}
+		loaded = true;
+	}
+
+	/**
+	 * Write the manifest to its backing file
+	 */
+	public void save() {
+		Properties p = new Properties();
+		Iterator<String> it = entries.keySet().iterator();
+		while(it.hasNext()) {
+			String k = it.next();
+			Entry e = entries.get(k);
+			p.setProperty(k, e.size + "," + e.sourceStamp + "," + e.deployedStamp + "," + e.digest); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		storage.getParentFile().mkdirs();
+		OutputStream os = null;
+		try {
+			os = new FileOutputStream(storage);
+			p.store(os, null);
+			loaded = true;
+		} catch(IOException ioe) {
+			Trace.trace(Trace.STRING_FINER, "Unable to write publish manifest " + storage, ioe); //$NON-NLS-1$
+		} finally {
+			StreamUtils.safeClose(os);
+		}
+	}
+
+	private static String digest(File f) {
+		InputStream is = null;
+		try {
+			MessageDigest md = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			is = new FileInputStream(f);
+			byte[] buf = new byte[16384];
+			int r;
+			while((r = is.read(buf)) != -1) {
+				md.update(buf, 0, r);
+			}
+			byte[] d = md.digest();
+			char[] out = new char[d.length * 2];
+			for( int i = 0; i < d.length; i++ ) {
+				out[i*2] = HEX[(d[i] >> 4) & 0xF];
+				out[i*2+1] = HEX[d[i] & 0xF];
+			}
+			return new String(out);
+		} catch(IOException ioe) {
+			return null;
+		} catch(NoSuchAlgorithmException nsae) {
+			return null;
+		} finally {
+			StreamUtils.safeClose(is);
+		}
+	}
+}
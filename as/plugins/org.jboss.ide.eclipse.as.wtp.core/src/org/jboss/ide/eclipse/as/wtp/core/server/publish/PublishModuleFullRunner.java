@@ -13,7 +13,10 @@ package org.jboss.ide.eclipse.as.wtp.core.server.publish;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
@@ -31,6 +34,7 @@ import org.jboss.ide.eclipse.as.core.util.ProgressMonitorUtil;
 import org.jboss.ide.eclipse.as.core.util.PublishCopyUtil;
 import org.jboss.ide.eclipse.as.wtp.core.ASWTPToolsPlugin;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IFilesystemController;
+import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IFilesystemController2;
 /**
  * A utility class for the purposes of traversing a 
  * Module Resource Tree, and initiating the correct filesystem 
@@ -55,6 +59,11 @@ import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IFilesystemController;
  * This class re-implements portions of {@link PublishCopyUtil}, which 
  * will one day be removed and marked as deprecated
  * </p>
+ * <p>
+ * If the filesystem controller is an {@link IFilesystemController2}, 
+ * the tree is first collected into one set of directories and one list of
+ * copies, which are then handed to the controller as two batch calls. 
+ * </p>
  * @since 3.0
  */
 public final class PublishModuleFullRunner {
@@ -64,6 +73,7 @@ public final class PublishModuleFullRunner {
 	
 	private IFilesystemController fsController;
 	private IPath rootDirectory;
+	private PublishManifest manifest;
 	
 	
 	/**
@@ -87,6 +97,21 @@ public final class PublishModuleFullRunner {
 		this.rootDirectory = rootDirectory;
 	}
 	
+	/**
+	 * Set a manifest of the content deployed by the previous full publish.
+	 * When set, the root directory is no longer wiped. Instead, only 
+	 * files whose content differs are copied, and everything in the 
+	 * root directory which is not part of the module is deleted. 
+	 * 
+	 * A manifest may only be used for a root directory on the local filesystem.
+	 * 
+	 * @param manifest the manifest, or <code>null</code> to always copy everything
+	 * @since 3.10
+	 */
+	public void setPublishManifest(PublishManifest manifest) {
+		this.manifest = manifest;
+	}
+	
 	/**
 	 * Publish the given module resources to the given path.
 	 * 
@@ -111,8 +136,16 @@ public final class PublishModuleFullRunner {
 		if( monitor.isCanceled())
 			return CANCEL_STATUS_ARR;
 		
-		Trace.trace(Trace.STRING_FINER, "      Deleting root directory: " + rootDirectory); //$NON-NLS-1$
-		fsController.deleteResource(rootDirectory, ProgressMonitorUtil.getSubMon(monitor, 100));
+		boolean reuseDeployed = manifest != null && manifest.isLoaded() && rootDirectory.toFile().isDirectory();
+		if( reuseDeployed ) {
+			Trace.trace(Trace.STRING_FINER, "      Reusing unchanged content in root directory: " + rootDirectory); //$NON-NLS-1$
+			monitor.worked(100);
+		} else {
+			if( manifest != null )
+				manifest.clear();
+			Trace.trace(Trace.STRING_FINER, "      Deleting root directory: " + rootDirectory); //$NON-NLS-1$
+			fsController.deleteResource(rootDirectory, ProgressMonitorUtil.getSubMon(monitor, 100));
+		}
 		
 		if( monitor.isCanceled())
 			return CANCEL_STATUS_ARR;
@@ -128,7 +161,12 @@ public final class PublishModuleFullRunner {
 		
 		// Begin to run through the resources
 		ArrayList<IStatus> all =new ArrayList<IStatus>();
-		IStatus[] results = traverseResources(resources, rootDirectory, monitor); //$NON-NLS-1$
+		IStatus[] results = null;
+		if( manifest != null || fsController instanceof IFilesystemController2 ) {
+			results = batchPublish(resources, ProgressMonitorUtil.getSubMon(monitor, 100 * count));
+		} else {
+			results = traverseResources(resources, rootDirectory, monitor); //$NON-NLS-1$
+		}
 		if( s != null )
 			all.add(s);
 		all.addAll(Arrays.asList(results));
@@ -136,6 +174,189 @@ public final class PublishModuleFullRunner {
 		return results;
 	}
 	
+	/*
+	 * Collect every directory and file copy in the tree, drop any
+	 * copies the publish manifest knows to be unchanged, and then 
+	 * hand them to the controller as batch requests if it supports them 
+	 */
+	private IStatus[] batchPublish(IModuleResource[] resources, IProgressMonitor monitor) throws CoreException {
+		monitor.beginTask("Publishing resources", 1000); //$NON-NLS-1$
+		Set<IPath> dirs = new LinkedHashSet<IPath>();
+		List<File> sources = new ArrayList<File>();
+		List<IPath> destinations = new ArrayList<IPath>();
+		collectResources(resources, rootDirectory, dirs, sources, destinations);
+		if( monitor.isCanceled())
+			return CANCEL_STATUS_ARR;
+		
+		List<IStatus> status = new ArrayList<IStatus>(2);
+		if( manifest != null ) {
+			// Anything deleted here is seen as missing, and copied again, by the filter
+			addArrayToList(status, removeStale(dirs, destinations, ProgressMonitorUtil.getSubMon(monitor, 100)));
+			filterUnchanged(sources, destinations);
+			manifest.removeUnseen();
+		} else {
+			monitor.worked(100);
+		}
+		
+		Trace.trace(Trace.STRING_FINER, "      Creating " + dirs.size() + " folders"); //$NON-NLS-1$ //$NON-NLS-2$
+		Trace.trace(Trace.STRING_FINER, "      Copying " + sources.size() + " files"); //$NON-NLS-1$ //$NON-NLS-2$
+		if( fsController instanceof IFilesystemController2 ) {
+			IFilesystemController2 controller = (IFilesystemController2)fsController;
+			addArrayToList(status, controller.makeDirectories(dirs.toArray(new IPath[dirs.size()]), 
+					ProgressMonitorUtil.getSubMon(monitor, 100)));
+			if( monitor.isCanceled())
+				return CANCEL_STATUS_ARR;
+			addArrayToList(status, controller.copyFiles(sources.toArray(new File[sources.size()]), 
+					destinations.toArray(new IPath[destinations.size()]), 
+					ProgressMonitorUtil.getSubMon(monitor, 800)));
+		} else {
+			IProgressMonitor dirMon = ProgressMonitorUtil.getSubMon(monitor, 100);
+			dirMon.beginTask("Creating folders", dirs.size()); //$NON-NLS-1$
+			for( IPath dir : dirs ) {
+				addIfNotNull(status, fsController.makeDirectoryIfRequired(dir, ProgressMonitorUtil.getSubMon(dirMon, 1)));
+			}
+			dirMon.done();
+			IProgressMonitor copyMon = ProgressMonitorUtil.getSubMon(monitor, 800);
+			copyMon.beginTask("Copying files", sources.size()); //$NON-NLS-1$
+			for( int i = 0; i < sources.size() && !monitor.isCanceled(); i++ ) {
+				addIfNotNull(status, fsController.copyFile(sources.get(i), destinations.get(i), 
+						ProgressMonitorUtil.getSubMon(copyMon, 1)));
+			}
+			copyMon.done();
+		}
+		if( monitor.isCanceled()) {
+			if( manifest != null )
+				manifest.clear();
+			return CANCEL_STATUS_ARR;
+		}
+		if( manifest != null ) {
+			updateManifest(sources, destinations, status);
+		}
+		monitor.done();
+		return status.toArray(new IStatus[status.size()]);
+	}
+	
+	/*
+	 * Remove any pending copy whose deployed file is already identical to its source
+	 */
+	private void filterUnchanged(List<File> sources, List<IPath> destinations) {
+		int skipped = 0;
+		for( int i = sources.size() - 1; i >= 0; i-- ) {
+			IPath dest = destinations.get(i);
+			if( !manifest.requiresCopy(getRelativePath(dest), sources.get(i), dest.toFile())) {
+				sources.remove(i);
+				destinations.remove(i);
+				skipped++;
+			}
+		}
+		Trace.trace(Trace.STRING_FINER, "      Skipping " + skipped + " unchanged files"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+	
+	/*
+	 * Delete everything in the root directory which is not part of the module,
+	 * whether the previous publish deployed it or not, just as wiping the root
+	 * would. A folder outside the module is deleted with all of its content,
+	 * so no folder emptied by the deletion is left behind. 
+	 * Files are compared with java.io.File, which follows the case rules of the platform.
+	 */
+	private IStatus[] removeStale(Set<IPath> dirs, List<IPath> destinations, IProgressMonitor monitor) throws CoreException {
+		Set<File> files = new HashSet<File>();
+		Set<File> folders = new HashSet<File>();
+		for( IPath dest : destinations ) {
+			files.add(dest.toFile());
+			addWithParents(folders, dest.removeLastSegments(1));
+		}
+		for( IPath dir : dirs ) {
+			addWithParents(folders, dir);
+		}
+		List<IPath> stale = new ArrayList<IPath>();
+		collectStale(rootDirectory, files, folders, stale);
+		
+		monitor.beginTask("Removing deleted resources", stale.size()); //$NON-NLS-1$
+		List<IStatus> status = new ArrayList<IStatus>();
+		for( IPath p : stale ) {
+			Trace.trace(Trace.STRING_FINER, "      Deleting removed resource: " + p); //$NON-NLS-1$
+			IStatus ds = fsController.deleteResource(p, ProgressMonitorUtil.getSubMon(monitor, 1));
+			if( ds != null && !ds.isOK())
+				status.add(ds);
+		}
+		monitor.done();
+		return status.toArray(new IStatus[status.size()]);
+	}
+	
+	private void addWithParents(Set<File> folders, IPath dir) {
+		IPath p = dir;
+		while( p.segmentCount() > rootDirectory.segmentCount() && folders.add(p.toFile()))
+			p = p.removeLastSegments(1);
+	}
+	
+	private void collectStale(IPath dir, Set<File> files, Set<File> folders, List<IPath> stale) {
+		String[] names = dir.toFile().list();
+		if( names == null )
+			return;
+		for( int i = 0; i < names.length; i++ ) {
+			IPath child = dir.append(names[i]);
+			File f = child.toFile();
+			if( f.isDirectory()) {
+				if( folders.contains(f))
+					collectStale(child, files, folders, stale);
+				else
+					stale.add(child);
+			} else if( !files.contains(f)) {
+				stale.add(child);
+			}
+		}
+	}
+	
+	private void updateManifest(List<File> sources, List<IPath> destinations, List<IStatus> status) {
+		boolean failed = false;
+		for( IStatus st : status ) {
+			if( st.getSeverity() == IStatus.ERROR ) 
+				failed = true;
+		}
+		if( failed ) {
+			// We cannot tell which copies failed; start over on the next full publish
+			manifest.clear();
+			return;
+		}
+		for( int i = 0; i < sources.size(); i++ ) {
+			IPath dest = destinations.get(i);
+			manifest.copied(getRelativePath(dest), sources.get(i), dest.toFile());
+		}
+		manifest.save();
+	}
+	
+	private String getRelativePath(IPath absolute) {
+		return absolute.removeFirstSegments(rootDirectory.segmentCount()).makeRelative().setDevice(null).toPortableString();
+	}
+	
+	private void addIfNotNull(List<IStatus> list, IStatus s) {
+		if( s != null )
+			list.add(s);
+	}
+	
+	private void collectResources(IModuleResource[] resources, IPath path, Set<IPath> dirs, 
+			List<File> sources, List<IPath> destinations) throws CoreException {
+		if( resources == null ) 
+			return;
+		for( int i = 0; i < resources.length; i++ ) {
+			IModuleResource resource = resources[i];
+			IPath absoluteRemote = path.append(resource.getModuleRelativePath()).append(resource.getName());
+			if (resource instanceof IModuleFolder) {
+				IModuleResource[] children = ((IModuleFolder) resource).members();
+				if( children.length == 0 ) {
+					dirs.add(absoluteRemote);
+				} else {
+					collectResources(children, path, dirs, sources, destinations);
+				}
+			} else {
+				dirs.add(absoluteRemote.removeLastSegments(1));
+				sources.add(ModuleResourceUtil.getFile(((IModuleFile)resource)));
+				destinations.add(absoluteRemote);
+			}
+		}
+	}
+	
 	// Iterate over the array and call handleSingleResource(etc) on each item
 	private IStatus[] traverseResources(IModuleResource[] resources, IPath relative,
 			IProgressMonitor monitor) throws CoreException {
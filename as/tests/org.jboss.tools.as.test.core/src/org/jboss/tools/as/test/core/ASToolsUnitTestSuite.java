@@ -16,6 +16,7 @@ import org.jboss.tools.as.test.core.classpath.ClasspathSuite;
 import org.jboss.tools.as.test.core.console.ConsoleWriterTest;
 import org.jboss.tools.as.test.core.parametized.server.ParametizedSuite;
 import org.jboss.tools.as.test.core.polling.PollThreadTest;
+import org.jboss.tools.as.test.core.polling.PollerSchedulerTest;
 import org.jboss.tools.as.test.core.portal.LaunchProjectOnJPP6Test;
 import org.jboss.tools.as.test.core.runtime.RuntimeSuite;
 import org.jboss.tools.as.test.core.runtimedetect.RuntimeDetectionTest;
@@ -32,6 +33,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	ParametizedSuite.class,
 	RuntimeSuite.class,
 	PollThreadTest.class,
+	PollerSchedulerTest.class,
 	ClasspathSuite.class,
 	RuntimeDetectionTest.class,
 	CatalogMissingEntriesTest.class,
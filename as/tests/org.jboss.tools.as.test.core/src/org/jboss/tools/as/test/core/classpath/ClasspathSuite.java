@@ -12,7 +12,9 @@ package org.jboss.tools.as.test.core.classpath;
 
 import org.jboss.tools.as.test.core.classpath.modules.JBossModulesClasspathTest;
 import org.jboss.tools.as.test.core.classpath.modules.LayeredModulePathFactoryTest;
+import org.jboss.tools.as.test.core.classpath.modules.ModuleSlotCacheTest;
 import org.jboss.tools.as.test.core.classpath.modules.ModuleSlotStackOverflowDefectTest;
+import org.jboss.tools.as.test.core.classpath.modules.ModulesIndexTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
@@ -22,7 +24,9 @@ import org.junit.runners.Suite.SuiteClasses;
 	JEEClasspathContainerTest.class,
 	LayeredModulePathFactoryTest.class,
 	JBossModulesClasspathTest.class,
-	ModuleSlotStackOverflowDefectTest.class
+	ModuleSlotStackOverflowDefectTest.class,
+	ModulesIndexTest.class,
+	ModuleSlotCacheTest.class
 })
 public class ClasspathSuite {
 }
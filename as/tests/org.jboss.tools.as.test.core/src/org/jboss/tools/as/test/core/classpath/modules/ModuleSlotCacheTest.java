@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.as.test.core.classpath.modules;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.jboss.ide.eclipse.as.classpath.core.runtime.cache.internal.ModuleSlot;
+import org.jboss.ide.eclipse.as.classpath.core.runtime.cache.internal.ModuleSlotCache;
+import org.jboss.ide.eclipse.as.classpath.core.runtime.modules.manifest.ModuleSlotManifestUtil;
+import org.jboss.tools.test.util.JobUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ModuleSlotCacheTest extends TestCase {
+	private static final int FILES = 8;
+	private IProject project;
+
+	@Before
+	public void setUp() throws Exception {
+		project = ResourcesPlugin.getWorkspace().getRoot().getProject("moduleSlotCacheTest");
+		project.create(new NullProgressMonitor());
+		project.open(new NullProgressMonitor());
+		for( int i = 0; i < FILES; i++ ) {
+			IFolder folder = project.getFolder("m" + i);
+			folder.create(true, true, new NullProgressMonitor());
+			folder.getFile("MANIFEST.MF").create(new ByteArrayInputStream(manifest("org.m" + i).getBytes()),
+					true, new NullProgressMonitor());
+		}
+		JobUtils.waitForIdle();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		project.delete(true, true, new NullProgressMonitor());
+	}
+
+	private String manifest(String dependency) {
+		return "Manifest-Version: 1.0\nDependencies: " + dependency + "\n\n";
+	}
+
+	@Test
+	public void testConcurrentEnsureInCache() throws Exception {
+		Thread[] threads = new Thread[FILES];
+		for( int i = 0; i < FILES; i++ ) {
+			final IFile f = project.getFolder("m" + i).getFile("MANIFEST.MF");
+			threads[i] = new Thread(new Runnable() {
+				public void run() {
+					new ModuleSlotManifestUtil().ensureInCache(f);
+				}
+			});
+		}
+		for( int i = 0; i < FILES; i++ ) {
+			threads[i].start();
+		}
+		for( int i = 0; i < FILES; i++ ) {
+			threads[i].join();
+		}
+		List<IFile> cached = Arrays.asList(ModuleSlotCache.getInstance().getManifests(project));
+		assertEquals(FILES, cached.size());
+		assertEquals(FILES, new ModuleSlotManifestUtil().getAllModuleSlots(project).length);
+	}
+
+	@Test
+	public void testChangedFileIsOutdated() throws Exception {
+		IFile f = project.getFolder("m0").getFile("MANIFEST.MF");
+		ModuleSlot[] slots = new ModuleSlotManifestUtil().getAllModuleSlots(project, new IFile[]{f});
+		assertEquals(1, slots.length);
+		assertEquals("org.m0", slots[0].getModule());
+		assertFalse(ModuleSlotCache.getInstance().isOutdated(f));
+
+		f.setContents(new ByteArrayInputStream(manifest("org.other, org.more").getBytes()), true, false, new NullProgressMonitor());
+		assertTrue(ModuleSlotCache.getInstance().isOutdated(f));
+		slots = new ModuleSlotManifestUtil().getAllModuleSlots(project, new IFile[]{f});
+		assertEquals(2, slots.length);
+		assertFalse(ModuleSlotCache.getInstance().isOutdated(f));
+	}
+
+	@Test
+	public void testRemovedFileForgotten() throws Exception {
+		IFile f = project.getFolder("m0").getFile("MANIFEST.MF");
+		new ModuleSlotManifestUtil().ensureInCache(f);
+		new ModuleSlotManifestUtil().getAllModuleSlots(project);
+		new ModuleSlotManifestUtil().removeFromCache(f);
+		assertFalse(Arrays.asList(ModuleSlotCache.getInstance().getManifests(project)).contains(f));
+		assertNull(ModuleSlotCache.getInstance().getEntries(f));
+	}
+}
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.as.test.core.classpath.modules;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+import org.jboss.ide.eclipse.as.classpath.core.runtime.cache.internal.ModuleSlot;
+import org.jboss.ide.eclipse.as.classpath.core.runtime.cache.internal.ModulesIndex;
+import org.jboss.ide.eclipse.as.core.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ModulesIndexTest extends TestCase {
+	private File root;
+	private IPath modules;
+	private IPath base;
+
+	@Before
+	public void setUp() throws IOException {
+		root = Files.createTempDirectory(getClass().getName()).toFile();
+		modules = new Path(root.getAbsolutePath()).append("modules");
+		base = modules.append("system").append("layers").append("base");
+		createModule(base, "org/foo/main", "foo.jar");
+		createAlias(base, "org/bar/main", "org.foo");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ModulesIndex.getInstance().clear();
+		FileUtil.completeDelete(root);
+	}
+
+	private File createModule(IPath layer, String path, String jar) throws IOException {
+		File dir = layer.append(path).toFile();
+		dir.mkdirs();
+		Files.write(new File(dir, "module.xml").toPath(), "<module xmlns=\"urn:jboss:module:1:1\"/>".getBytes());
+		new File(dir, jar).createNewFile();
+		return dir;
+	}
+
+	private void createAlias(IPath layer, String path, String target) throws IOException {
+		File dir = layer.append(path).toFile();
+		dir.mkdirs();
+		Files.write(new File(dir, "module.xml").toPath(),
+				("<module-alias xmlns=\"urn:jboss:module:1:1\" name=\"x\" target-name=\"" + target + "\"/>").getBytes());
+	}
+
+	@Test
+	public void testJarsAndAliases() throws Exception {
+		IPath[] jars = new ModuleSlot("org.foo").getJars(modules);
+		assertEquals(1, jars.length);
+		assertEquals("foo.jar", jars[0].lastSegment());
+		IPath[] aliased = new ModuleSlot("org.bar", "main").getJars(modules);
+		assertEquals(1, aliased.length);
+		assertEquals(jars[0], aliased[0]);
+		assertEquals(0, new ModuleSlot("org.missing").getJars(modules).length);
+		assertEquals(0, new ModuleSlot("org.foo", "other").getJars(modules).length);
+	}
+
+	@Test
+	public void testActiveOverlayHidesBase() throws Exception {
+		IPath overlay = MockJBossModulesUtil.addOverlay(base, "overlay1");
+		createModule(overlay, "org/foo/main", "foo-patched.jar");
+		MockJBossModulesUtil.setActiveOverlays(base, new String[]{"overlay1"});
+		IPath[] jars = new ModuleSlot("org.foo").getJars(modules);
+		assertEquals(1, jars.length);
+		assertEquals("foo-patched.jar", jars[0].lastSegment());
+		IPath[] layers = ModulesIndex.getInstance().getLayers(modules);
+		assertEquals(overlay, layers[1]);
+		assertEquals(base, layers[2]);
+	}
+
+	@Test
+	public void testChangedTreeIsReindexed() throws Exception {
+		assertEquals(1, new ModuleSlot("org.foo").getJars(modules).length);
+		// Allow for filesystems which only record modification times in seconds
+		Thread.sleep(1100);
+		new File(base.append("org/foo/main").toFile(), "foo-extra.jar").createNewFile();
+		ModulesIndex.getInstance().invalidate(modules);
+		assertEquals(2, new ModuleSlot("org.foo").getJars(modules).length);
+	}
+}
@@ -162,11 +162,11 @@ public class PollThreadTest extends TestCase {
 		} catch(InterruptedException ie) {}
 		assertFalse(listener.anythingAsserted);
 		assertNull(listener.assertedWhat);
+		assertTrue(pt.isAlive());
 		PollThreadUtils.cancelPolling("Some Message", pt);
 		assertEquals(canceledHow[0], IServerStatePoller.CANCEL);
-		try {
-			Thread.sleep(200);
-		} catch(InterruptedException ie){}
+		pt.join(2000);
+		assertFalse(pt.isAlive());
 		assertFalse(listener.anythingAsserted);
 		assertEquals(null, listener.assertedWhat);
 		assertTrue(cleanedUp[0]);
@@ -197,11 +197,11 @@ public class PollThreadTest extends TestCase {
 		} catch(InterruptedException ie) {}
 		assertFalse(listener.anythingAsserted);
 		assertNull(listener.assertedWhat);
+		assertTrue(pt.isAlive());
 		PollThreadUtils.cancelPolling("Some Message", pt);
 		assertEquals(canceledHow[0], IServerStatePoller.CANCEL);
-		try {
-			Thread.sleep(200);
-		} catch(InterruptedException ie){}
+		pt.join(2000);
+		assertFalse(pt.isAlive());
 		assertFalse(listener.anythingAsserted);
 		assertEquals(null, listener.assertedWhat);
 		assertTrue(cleanedUp[0]);
@@ -242,16 +242,15 @@ public class PollThreadTest extends TestCase {
 		};
 		PollerListener listener = new PollerListener();
 		PollThread pt = new PollThread(IServerStatePoller.SERVER_UP, failPoller, listener, s);
+		assertFalse(pt.isAlive());
 		pt.start();
-		try {
-			Thread.sleep(500);
-		} catch(InterruptedException ie) {}
+		pt.join(2000);
+		assertFalse(pt.isAlive());
 		assertTrue(listener.anythingAsserted);
 		assertTrue(listener.assertedWhat[0]);
 		assertFalse(listener.assertedWhat[1]);
 		assertTrue(cleanedUp[0]);
 		assertEquals(canceledHow[0], IServerStatePoller.CANCEL);
-		assertFalse(pt.isAlive());
 	}
 	
 }
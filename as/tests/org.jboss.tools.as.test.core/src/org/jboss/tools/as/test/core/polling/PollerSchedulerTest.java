@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.as.test.core.polling;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.jboss.ide.eclipse.as.core.extensions.polling.PollerScheduler;
+import org.junit.Test;
+
+public class PollerSchedulerTest extends TestCase {
+
+	private static class CountingTask implements PollerScheduler.IPollTask {
+		private final AtomicInteger count = new AtomicInteger();
+		private final int finishAt;
+		CountingTask(int finishAt) {
+			this.finishAt = finishAt;
+		}
+		public boolean poll() {
+			return count.incrementAndGet() >= finishAt;
+		}
+	}
+
+	@Test
+	public void testTaskRunsUntilFinished() throws Exception {
+		CountingTask task = new CountingTask(3);
+		PollerScheduler.PollHandle h = PollerScheduler.getDefault().schedule(task, 10, 20);
+		Thread.sleep(500);
+		assertTrue(h.isDone());
+		assertEquals(3, task.count.get());
+	}
+
+	@Test
+	public void testDelayBacksOff() throws Exception {
+		CountingTask task = new CountingTask(Integer.MAX_VALUE);
+		PollerScheduler.PollHandle h = PollerScheduler.getDefault().schedule(task, 50, 400);
+		Thread.sleep(1500);
+		h.cancel();
+		// Without backoff this would be 30 checks
+		int count = task.count.get();
+		assertTrue("Unexpected number of checks: " + count, count > 3 && count < 15);
+	}
+
+	@Test
+	public void testCancelStopsTask() throws Exception {
+		CountingTask task = new CountingTask(Integer.MAX_VALUE);
+		PollerScheduler.PollHandle h = PollerScheduler.getDefault().schedule(task, 20, 20);
+		Thread.sleep(200);
+		h.cancel();
+		Thread.sleep(50);
+		int count = task.count.get();
+		Thread.sleep(200);
+		assertTrue(h.isDone());
+		assertEquals(count, task.count.get());
+	}
+
+	@Test
+	public void testPollNowWakesTask() throws Exception {
+		CountingTask task = new CountingTask(Integer.MAX_VALUE);
+		PollerScheduler.PollHandle h = PollerScheduler.getDefault().schedule(task, 10000, 10000);
+		Thread.sleep(200);
+		assertEquals(1, task.count.get());
+		h.pollNow();
+		Thread.sleep(200);
+		assertEquals(2, task.count.get());
+		h.cancel();
+	}
+
+	@Test
+	public void testBlockingTasksDoNotHoldSharedThreads() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		PollerScheduler.IPollTask blocker = new PollerScheduler.IPollTask() {
+			public boolean poll() {
+				try {
+					release.await();
+				} catch(InterruptedException ie) {
+					// Finish
+				}
+				return true;
+			}
+		};
+		PollerScheduler.PollHandle[] blocked = new PollerScheduler.PollHandle[PollerScheduler.POOL_SIZE + 1];
+		for( int i = 0; i < blocked.length; i++ )
+			blocked[i] = PollerScheduler.getDefault().scheduleBlocking(blocker, 10, 10);
+		try {
+			CountingTask task = new CountingTask(3);
+			PollerScheduler.PollHandle h = PollerScheduler.getDefault().schedule(task, 10, 20);
+			Thread.sleep(500);
+			assertTrue(h.isDone());
+			assertEquals(3, task.count.get());
+		} finally {
+			release.countDown();
+		}
+		Thread.sleep(200);
+		for( int i = 0; i < blocked.length; i++ )
+			assertTrue(blocked[i].isDone());
+	}
+
+	@Test
+	public void testBlockingPoolIsBounded() throws Exception {
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		PollerScheduler.IPollTask blocker = new PollerScheduler.IPollTask() {
+			public boolean poll() {
+				int now = running.incrementAndGet();
+				synchronized(maxRunning) {
+					maxRunning.set(Math.max(maxRunning.get(), now));
+				}
+				try {
+					release.await();
+				} catch(InterruptedException ie) {
+					// Finish
+				} finally {
+					running.decrementAndGet();
+				}
+				return true;
+			}
+		};
+		PollerScheduler.PollHandle[] blocked = new PollerScheduler.PollHandle[PollerScheduler.BLOCKING_POOL_SIZE + 4];
+		for( int i = 0; i < blocked.length; i++ )
+			blocked[i] = PollerScheduler.getDefault().scheduleBlocking(blocker, 10, 10);
+		try {
+			Thread.sleep(500);
+			assertEquals(PollerScheduler.BLOCKING_POOL_SIZE, running.get());
+		} finally {
+			release.countDown();
+		}
+		Thread.sleep(500);
+		assertEquals(PollerScheduler.BLOCKING_POOL_SIZE, maxRunning.get());
+		for( int i = 0; i < blocked.length; i++ )
+			assertTrue(blocked[i].isDone());
+	}
+}
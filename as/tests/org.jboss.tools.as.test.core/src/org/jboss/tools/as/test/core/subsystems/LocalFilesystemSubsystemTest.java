@@ -19,12 +19,17 @@ import junit.framework.TestCase;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.Path;
 import org.eclipse.wst.server.core.IServer;
 import org.eclipse.wst.server.core.IServerWorkingCopy;
+import org.eclipse.wst.server.core.model.IModuleResource;
+import org.eclipse.wst.server.core.util.ModuleFile;
 import org.jboss.ide.eclipse.as.core.server.IDeployableServer;
 import org.jboss.ide.eclipse.as.core.util.IJBossToolingConstants;
 import org.jboss.ide.eclipse.as.core.util.ServerConverter;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.LocalFilesystemController;
+import org.jboss.ide.eclipse.as.wtp.core.server.publish.PublishManifest;
+import org.jboss.ide.eclipse.as.wtp.core.server.publish.PublishModuleFullRunner;
 import org.jboss.tools.as.test.core.ASMatrixTests;
 import org.jboss.tools.as.test.core.internal.utils.IOUtil;
 import org.jboss.tools.as.test.core.internal.utils.ServerCreationTestUtils;
@@ -121,6 +126,73 @@ public class LocalFilesystemSubsystemTest extends TestCase {
 		assertTrue(tmpfile.toFile().exists());
 	}
 
+	@Test
+	public void testFullPublishWithManifestSkipsUnchanged() throws Exception {
+		IPath src = getStateLocationPath("manifestSrc");
+		File a = src.append("a.txt").toFile();
+		File b = src.append("b.txt").toFile();
+		src.toFile().mkdirs();
+		IOUtil.setContents(a, "alpha");
+		IOUtil.setContents(b, "beta");
+		IPath deployRoot = getStateLocationPath("manifestDeploy/my.war");
+		File manifestFile = getStateLocationPath("manifest.properties").toFile();
+		TestLocalFilesystemController controller = new TestLocalFilesystemController();
+		controller.initialize(null, null, createEnvironmentTempFolder1());
+		
+		IModuleResource[] members = new IModuleResource[] {
+				new ModuleFile(a, "a.txt", Path.EMPTY),
+				new ModuleFile(b, "b.txt", new Path("inner"))
+		};
+		PublishModuleFullRunner runner = new PublishModuleFullRunner(controller, deployRoot);
+		runner.setPublishManifest(new PublishManifest(manifestFile));
+		runner.fullPublish(members, new NullProgressMonitor());
+		assertEquals("alpha", IOUtil.getContents(deployRoot.append("a.txt").toFile()));
+		assertEquals("beta", IOUtil.getContents(deployRoot.append("inner/b.txt").toFile()));
+		assertTrue(manifestFile.exists());
+		
+		// Files the manifest does not know about are not part of the module either
+		File stray = deployRoot.append("stray.txt").toFile();
+		IOUtil.setContents(stray, "stray");
+		File strayFolder = deployRoot.append("strayFolder").toFile();
+		strayFolder.mkdirs();
+		IOUtil.setContents(new File(strayFolder, "other.txt"), "other");
+		File deployedA = deployRoot.append("a.txt").toFile();
+		long deployedStamp = deployedA.lastModified();
+		
+		// Drop b from the module; its deployed copy is an orphan
+		members = new IModuleResource[] { new ModuleFile(a, "a.txt", Path.EMPTY) };
+		runner = new PublishModuleFullRunner(controller, deployRoot);
+		runner.setPublishManifest(new PublishManifest(manifestFile));
+		runner.fullPublish(members, new NullProgressMonitor());
+		assertEquals(deployedStamp, deployedA.lastModified());
+		assertFalse(deployRoot.append("inner/b.txt").toFile().exists());
+		assertFalse(deployRoot.append("inner").toFile().exists());
+		assertFalse(stray.exists());
+		assertFalse(strayFolder.exists());
+	}
+
+	@Test
+	public void testCopyFilesBatch() throws Exception {
+		int count = 20;
+		File[] files = new File[count];
+		IPath[] destinations = new IPath[count];
+		getStateLocationPath("batchSrc").toFile().mkdirs();
+		for( int i = 0; i < count; i++ ) {
+			files[i] = getStateLocationPath("batchSrc/f" + i + ".txt").toFile();
+			IOUtil.setContents(files[i], "content" + i);
+			destinations[i] = getStateLocationPath("batchDest/d" + (i % 3) + "/f" + i + ".txt");
+		}
+		TestLocalFilesystemController controller = new TestLocalFilesystemController();
+		controller.initialize(null, null, createEnvironmentTempFolder1());
+		IPath[] dirs = new IPath[] { destinations[0].removeLastSegments(1), 
+				destinations[1].removeLastSegments(1), destinations[2].removeLastSegments(1)};
+		assertEquals(0, controller.makeDirectories(dirs, new NullProgressMonitor()).length);
+		assertEquals(0, controller.copyFiles(files, destinations, new NullProgressMonitor()).length);
+		for( int i = 0; i < count; i++ ) {
+			assertEquals("content" + i, IOUtil.getContents(destinations[i].toFile()));
+		}
+	}
+	
 	@Test
 	public void testTemporaryDeployFolderForServer() throws Exception {
 		try {
@@ -33,6 +33,7 @@ import org.eclipse.wst.server.core.util.ModuleFolder;
 import org.jboss.ide.eclipse.as.core.util.RemotePath;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.AbstractSubsystemController;
 import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IFilesystemController;
+import org.jboss.ide.eclipse.as.wtp.core.server.behavior.IFilesystemController2;
 import org.jboss.ide.eclipse.as.wtp.core.server.publish.PublishModuleFullRunner;
 import org.jboss.ide.eclipse.as.wtp.core.server.publish.PublishModuleIncrementalRunner;
 import org.jboss.tools.as.test.core.internal.utils.MockModule;
@@ -153,6 +154,44 @@ public class PublishRunnerTest extends TestCase {
 		assertFileCopiedAndParentDirsMade(tc, rootPath, getLeafs1());
 	}
 
+	@Test
+	public void testStandardModuleBatchFullPublish() throws Exception {
+		BatchTestController tc = new BatchTestController();
+		IModule m = createTestMockModule();
+		ModuleDelegate md = (ModuleDelegate)m.loadAdapter(ModuleDelegate.class, new NullProgressMonitor());
+		IModuleResource[] asArr = md.members();
+		PublishModuleFullRunner runner = new PublishModuleFullRunner(tc, rootPath);
+		try {
+			runner.fullPublish(asArr, null);
+		} catch(CoreException ce) {
+			ce.printStackTrace();
+			throw ce;
+		}
+		assertFileCopiedAndParentDirsMade(tc, rootPath, getLeafs1());
+		// One batch for directories, one for files
+		assertEquals(1, tc.mkdirBatches);
+		assertEquals(1, tc.copyBatches);
+		assertEquals(getLeafs1().length, tc.copied.size());
+	}
+
+	@Test
+	public void testDeepFolderBatchFullPublish() throws Exception {
+		BatchTestController tc = new BatchTestController();
+		ModuleFolder mf = new ModuleFolder(null, "finalDeepFolder", new Path("some/inner/path"));
+		ModuleFolder empty = new ModuleFolder(null, "empty", new Path("some/inner/path/finalDeepFolder"));
+		IModuleResource mf2 = new ModuleFile("wonka2.pdf", new Path("some/inner/path/finalDeepFolder"), System.currentTimeMillis());
+		mf.setMembers(new IModuleResource[]{mf2, empty});
+		IModuleResource[] asArr = new IModuleResource[]{mf};
+		PublishModuleFullRunner runner = new PublishModuleFullRunner(tc, rootPath);
+		try {
+			runner.fullPublish(asArr, null);
+		} catch(CoreException ce) {
+			ce.printStackTrace();
+			throw ce;
+		}
+		assertFolderAndParentDirsMade(tc, rootPath, new Path("some/inner/path/finalDeepFolder/empty"));
+		assertFileCopiedAndParentDirsMade(tc, rootPath, new Path("some/inner/path/finalDeepFolder/wonka2.pdf"));
+	}
 	
 	@Test
 	public void testStandardModuleFullPublishWithCancel() throws Exception {
@@ -367,6 +406,29 @@ public class PublishRunnerTest extends TestCase {
 		}
 	}	
 	
+	private static class BatchTestController extends TestController implements IFilesystemController2 {
+		private int mkdirBatches = 0;
+		private int copyBatches = 0;
+
+		@Override
+		public IStatus[] makeDirectories(IPath[] dirs, IProgressMonitor monitor) throws CoreException {
+			mkdirBatches++;
+			for( int i = 0; i < dirs.length; i++ ) {
+				makeDirectoryIfRequired(dirs[i], monitor);
+			}
+			return new IStatus[0];
+		}
+
+		@Override
+		public IStatus[] copyFiles(File[] files, IPath[] destinations, IProgressMonitor monitor) throws CoreException {
+			copyBatches++;
+			for( int i = 0; i < files.length; i++ ) {
+				copyFile(files[i], destinations[i], monitor);
+			}
+			return new IStatus[0];
+		}
+	}
+	
 	private IPath[] getLeafs1() {
 		IPath[] leafs = new IPath[] {
 				new Path("w"),
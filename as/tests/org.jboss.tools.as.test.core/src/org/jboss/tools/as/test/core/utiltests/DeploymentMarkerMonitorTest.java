@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.as.test.core.utiltests;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.eclipse.core.runtime.Path;
+import org.jboss.ide.eclipse.as.core.server.internal.v7.DeploymentMarkerMonitor;
+import org.jboss.ide.eclipse.as.core.server.internal.v7.DeploymentMarkerUtils;
+import org.jboss.ide.eclipse.as.core.util.FileUtil;
+import org.jboss.ide.eclipse.as.wtp.core.server.behavior.LocalFilesystemController;
+import org.jboss.tools.as.test.core.ASMatrixTests;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeploymentMarkerMonitorTest extends TestCase {
+	private File folder;
+
+	@Before
+	public void setUp() {
+		folder = ASMatrixTests.getDefault().getStateLocation().append("markerMonitor").toFile();
+		folder.mkdirs();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		DeploymentMarkerMonitor.shutdown();
+		FileUtil.completeDelete(folder);
+	}
+
+	@Test
+	public void testExistingMarkersFound() throws Exception {
+		new File(folder, "one.war.deployed").createNewFile();
+		new File(folder, "two.war.failed").createNewFile();
+		Set<String> markers = DeploymentMarkerMonitor.getDefault().getMarkers(folder, "one.war");
+		assertEquals(1, markers.size());
+		assertTrue(markers.contains(DeploymentMarkerUtils.DEPLOYED));
+		assertTrue(DeploymentMarkerMonitor.getDefault().getMarkers(folder, "two.war").contains(DeploymentMarkerUtils.FAILED_DEPLOY));
+		assertTrue(DeploymentMarkerMonitor.getDefault().getMarkers(folder, "three.war").isEmpty());
+	}
+
+	@Test
+	public void testMissingFolder() throws Exception {
+		assertNull(DeploymentMarkerMonitor.getDefault().getMarkers(new File(folder, "missing"), "one.war"));
+	}
+
+	@Test
+	public void testListenerNotified() throws Exception {
+		DeploymentMarkerMonitor.getDefault().getMarkers(folder, "one.war");
+		final CountDownLatch created = new CountDownLatch(1);
+		final CountDownLatch deleted = new CountDownLatch(1);
+		DeploymentMarkerMonitor.IDeploymentMarkerListener l = new DeploymentMarkerMonitor.IDeploymentMarkerListener() {
+			public void markerChanged(File f, String deployment, String marker, boolean exists) {
+				if( "one.war".equals(deployment) && DeploymentMarkerUtils.DEPLOYED.equals(marker))
+					(exists ? created : deleted).countDown();
+			}
+		};
+		DeploymentMarkerMonitor.getDefault().addListener(l);
+		try {
+			File marker = new File(folder, "one.war.deployed");
+			marker.createNewFile();
+			assertTrue(created.await(10, TimeUnit.SECONDS));
+			assertTrue(DeploymentMarkerMonitor.getDefault().getMarkers(folder, "one.war").contains(DeploymentMarkerUtils.DEPLOYED));
+			marker.delete();
+			assertTrue(deleted.await(10, TimeUnit.SECONDS));
+			assertTrue(DeploymentMarkerMonitor.getDefault().getMarkers(folder, "one.war").isEmpty());
+		} finally {
+			DeploymentMarkerMonitor.getDefault().removeListener(l);
+		}
+	}
+
+	@Test
+	public void testFindFirstMarker() throws Exception {
+		new File(folder, "one.war.deployed").createNewFile();
+		new File(folder, "one.war.undeployed").createNewFile();
+		String[] order = new String[] { DeploymentMarkerUtils.UNDEPLOYED, DeploymentMarkerUtils.DEPLOYED };
+		Path module = new Path(new File(folder, "one.war").getAbsolutePath());
+		assertEquals(DeploymentMarkerUtils.UNDEPLOYED,
+				DeploymentMarkerUtils.findFirstMarker(module, new LocalFilesystemController(), order));
+		assertNull(DeploymentMarkerUtils.findFirstMarker(module, new LocalFilesystemController(),
+				new String[] { DeploymentMarkerUtils.FAILED_DEPLOY }));
+	}
+
+	@Test
+	public void testOwnMarkerWritesSeenImmediately() throws Exception {
+		new File(folder, "one.war.deployed").createNewFile();
+		Path module = new Path(new File(folder, "one.war").getAbsolutePath());
+		LocalFilesystemController controller = new LocalFilesystemController();
+		String[] order = new String[] { DeploymentMarkerUtils.DO_DEPLOY, DeploymentMarkerUtils.DEPLOYED };
+		assertEquals(DeploymentMarkerUtils.DEPLOYED, DeploymentMarkerUtils.findFirstMarker(module, controller, order));
+
+		// No waiting for change notification between the writes and the checks
+		DeploymentMarkerUtils.removeDeployedMarker(module, controller);
+		assertNull(DeploymentMarkerUtils.findFirstMarker(module, controller, order));
+		DeploymentMarkerUtils.createDoDeployMarker(module, controller);
+		assertEquals(DeploymentMarkerUtils.DO_DEPLOY, DeploymentMarkerUtils.findFirstMarker(module, controller, order));
+		DeploymentMarkerUtils.removeDoDeployMarker(module, controller);
+		assertNull(DeploymentMarkerUtils.findFirstMarker(module, controller, order));
+	}
+}
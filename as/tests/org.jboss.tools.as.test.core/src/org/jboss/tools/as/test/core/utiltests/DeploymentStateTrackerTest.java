@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.as.test.core.utiltests;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.TestCase;
+
+import org.eclipse.wst.server.core.IModule;
+import org.eclipse.wst.server.core.IServer;
+import org.jboss.ide.eclipse.as.core.server.internal.v7.DeploymentStateTracker;
+import org.jboss.ide.eclipse.as.core.util.IJBossToolingConstants;
+import org.jboss.tools.as.test.core.internal.utils.MockModule;
+import org.jboss.tools.as.test.core.internal.utils.ServerCreationTestUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeploymentStateTrackerTest extends TestCase {
+	private IServer server;
+
+	@Before
+	public void setUp() {
+		server = ServerCreationTestUtils.createMockServerWithRuntime(IJBossToolingConstants.SERVER_WILDFLY_90,
+				getClass().getName());
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		ServerCreationTestUtils.deleteAllServersAndRuntimes();
+	}
+
+	private IModule createModule(String name) {
+		return new MockModule(name, name, "jst.web", "Web", "3.0");
+	}
+
+	@Test
+	public void testAllWaitingModulesReadTogether() throws Exception {
+		final AtomicInteger reads = new AtomicInteger();
+		final AtomicInteger maxBatch = new AtomicInteger();
+		DeploymentStateTracker tracker = new DeploymentStateTracker(server, new DeploymentStateTracker.IDeploymentStateReader() {
+			public int[] readStates(IModule[] roots, String[] names) throws Exception {
+				int count = reads.incrementAndGet();
+				maxBatch.set(Math.max(maxBatch.get(), names.length));
+				int[] ret = new int[names.length];
+				for( int i = 0; i < names.length; i++ ) {
+					// one.war starts on the third read, two.war on the fourth
+					int startsAt = names[i].equals("one.war") ? 3 : 4;
+					ret[i] = count >= startsAt ? IServer.STATE_STARTED : IServer.STATE_STARTING;
+				}
+				return ret;
+			}
+		});
+		Future<Integer> one = tracker.whenStarted(createModule("one"), "one.war");
+		Future<Integer> two = tracker.whenStarted(createModule("two"), "two.war");
+		assertEquals(IServer.STATE_STARTED, one.get(10, TimeUnit.SECONDS).intValue());
+		assertEquals(IServer.STATE_STARTED, two.get(10, TimeUnit.SECONDS).intValue());
+		assertEquals(2, maxBatch.get());
+		assertTrue(reads.get() <= 5);
+	}
+
+	@Test
+	public void testReadFailureCompletesFutures() throws Exception {
+		DeploymentStateTracker tracker = new DeploymentStateTracker(server, new DeploymentStateTracker.IDeploymentStateReader() {
+			public int[] readStates(IModule[] roots, String[] names) throws Exception {
+				throw new Exception("Server unreachable");
+			}
+		});
+		Future<Integer> f = tracker.whenStarted(createModule("one"), "one.war");
+		try {
+			f.get(10, TimeUnit.SECONDS);
+			fail("The future should have failed");
+		} catch(ExecutionException ee) {
+			assertEquals("Server unreachable", ee.getCause().getMessage());
+		}
+	}
+
+	@Test
+	public void testCanceledModuleNoLongerRead() throws Exception {
+		// The size of each batch read, in order
+		final BlockingQueue<Integer> batches = new LinkedBlockingQueue<Integer>();
+		DeploymentStateTracker tracker = new DeploymentStateTracker(server, new DeploymentStateTracker.IDeploymentStateReader() {
+			public int[] readStates(IModule[] roots, String[] names) throws Exception {
+				batches.add(names.length);
+				int[] ret = new int[names.length];
+				for( int i = 0; i < names.length; i++ ) {
+					ret[i] = IServer.STATE_STOPPED;
+				}
+				return ret;
+			}
+		});
+		Future<Integer> one = tracker.whenStarted(createModule("one"), "one.war");
+		Future<Integer> two = tracker.whenStarted(createModule("two"), "two.war");
+		// The first read may begin before two.war is added; adding it wakes the tracker
+		Integer batch = batches.poll(10, TimeUnit.SECONDS);
+		if( batch != null && batch.intValue() == 1 )
+			batch = batches.poll(10, TimeUnit.SECONDS);
+		assertEquals(Integer.valueOf(2), batch);
+
+		one.cancel(false);
+		batches.clear();
+		// Read again now rather than after the current delay
+		tracker.refreshNow();
+		batch = batches.poll(10, TimeUnit.SECONDS);
+		if( batch != null && batch.intValue() == 2 ) {
+			// A read already under way when one.war was canceled
+			batch = batches.poll(10, TimeUnit.SECONDS);
+		}
+		assertEquals(Integer.valueOf(1), batch);
+		two.cancel(false);
+		tracker.refreshNow();
+	}
+}
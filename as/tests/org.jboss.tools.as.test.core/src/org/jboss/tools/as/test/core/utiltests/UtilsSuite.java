@@ -22,7 +22,11 @@ import org.junit.runners.Suite.SuiteClasses;
 	UnitedServerListenerTest.class,
 	RSEUtilsTest.class,
 	VersionStringUtilTest.class,
-	ServerHomeValidationUtilityTest.class
+	ServerHomeValidationUtilityTest.class,
+	DeploymentStateTrackerTest.class,
+	DeploymentMarkerMonitorTest.class,
+	XMLDocumentRepositoryTest.class,
+	XPathCategoryTest.class
 })
 public class UtilsSuite {
 }
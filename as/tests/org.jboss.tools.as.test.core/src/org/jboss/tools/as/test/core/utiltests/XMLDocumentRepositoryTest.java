@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.as.test.core.utiltests;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import junit.framework.TestCase;
+
+import org.dom4j.Document;
+import org.jboss.ide.eclipse.as.core.extensions.descriptors.XMLDocumentRepository;
+import org.jboss.ide.eclipse.as.core.util.FileUtil;
+import org.jboss.tools.as.test.core.ASMatrixTests;
+import org.jboss.tools.as.test.core.internal.utils.IOUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class XMLDocumentRepositoryTest extends TestCase {
+	private File folder;
+	private File xml;
+
+	@Before
+	public void setUp() throws Exception {
+		folder = ASMatrixTests.getDefault().getStateLocation().append("xmlRepository").toFile();
+		folder.mkdirs();
+		xml = new File(folder, "standalone.xml");
+		IOUtil.setContents(xml, "<server><port value=\"8080\"/></server>");
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtil.completeDelete(folder);
+	}
+
+	@Test
+	public void testDocumentCached() throws Exception {
+		XMLDocumentRepository repo = new XMLDocumentRepository(null);
+		Document d = repo.getDocument(xml.getAbsolutePath());
+		assertNotNull(d);
+		assertSame(d, repo.getDocument(xml.getAbsolutePath()));
+		assertFalse(repo.refresh(xml.getAbsolutePath()));
+	}
+
+	@Test
+	public void testTouchedFileNotReparsed() throws Exception {
+		XMLDocumentRepository repo = new XMLDocumentRepository(null);
+		Document d = repo.getDocument(xml.getAbsolutePath());
+		long scanned = System.currentTimeMillis();
+		xml.setLastModified(xml.lastModified() + 5000);
+		assertFalse(repo.refresh(xml.getAbsolutePath()));
+		assertSame(d, repo.getDocument(xml.getAbsolutePath()));
+		assertFalse(repo.hasChangedSince(xml.getAbsolutePath(), scanned));
+	}
+
+	@Test
+	public void testChangedFileReparsed() throws Exception {
+		XMLDocumentRepository repo = new XMLDocumentRepository(null);
+		Document d = repo.getDocument(xml.getAbsolutePath());
+		IOUtil.setContents(xml, "<server><port value=\"8081\"/></server>");
+		xml.setLastModified(xml.lastModified() + 5000);
+		assertTrue(repo.refresh(xml.getAbsolutePath()));
+		Document d2 = repo.getDocument(xml.getAbsolutePath());
+		assertNotSame(d, d2);
+		assertEquals("8081", d2.getRootElement().element("port").attributeValue("value"));
+	}
+
+	@Test
+	public void testConcurrentReadsShareDocument() throws Exception {
+		final XMLDocumentRepository repo = new XMLDocumentRepository(null);
+		ExecutorService exec = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Document>> futures = new ArrayList<Future<Document>>();
+			for( int i = 0; i < 16; i++ ) {
+				futures.add(exec.submit(new Callable<Document>() {
+					public Document call() {
+						return repo.getDocument(xml.getAbsolutePath());
+					}
+				}));
+			}
+			Document first = futures.get(0).get();
+			assertNotNull(first);
+			for( Future<Document> f : futures ) {
+				assertSame(first, f.get());
+			}
+		} finally {
+			exec.shutdown();
+		}
+	}
+
+	@Test
+	public void testCacheBounded() throws Exception {
+		XMLDocumentRepository repo = new XMLDocumentRepository(null);
+		Document d = repo.getDocument(xml.getAbsolutePath());
+		for( int i = 0; i < XMLDocumentRepository.MAX_DOCUMENTS; i++ ) {
+			File f = new File(folder, "other" + i + ".xml");
+			IOUtil.setContents(f, "<other/>");
+			repo.getDocument(f.getAbsolutePath());
+		}
+		// The first document was dropped and is parsed again
+		assertNull(repo.getDocument(xml.getAbsolutePath(), false));
+		Document d2 = repo.getDocument(xml.getAbsolutePath());
+		assertNotNull(d2);
+		assertNotSame(d, d2);
+	}
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v1.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     Red Hat, Inc. - initial API and implementation
+ ******************************************************************************/
+package org.jboss.tools.as.test.core.utiltests;
+
+import java.io.File;
+
+import junit.framework.TestCase;
+
+import org.jboss.ide.eclipse.as.core.extensions.descriptors.AntFileFilter;
+import org.jboss.ide.eclipse.as.core.extensions.descriptors.XPathCategory;
+import org.jboss.ide.eclipse.as.core.extensions.descriptors.XPathQuery;
+import org.jboss.ide.eclipse.as.core.util.FileUtil;
+import org.jboss.tools.as.test.core.ASMatrixTests;
+import org.jboss.tools.as.test.core.internal.utils.IOUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class XPathCategoryTest extends TestCase {
+	private File folder;
+
+	@Before
+	public void setUp() throws Exception {
+		folder = ASMatrixTests.getDefault().getStateLocation().append("xpathCategory").toFile();
+		new File(folder, "configuration").mkdirs();
+		IOUtil.setContents(new File(folder, "configuration/standalone.xml"), 
+				"<server><socket-binding name=\"http\" port=\"8080\"/><socket-binding name=\"https\" port=\"8443\"/></server>");
+		IOUtil.setContents(new File(folder, "configuration/other.xml"), "<other/>");
+		AntFileFilter.clearScanCache();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		FileUtil.completeDelete(folder);
+	}
+
+	@Test
+	public void testAllQueriesLoadedTogether() throws Exception {
+		XPathCategory cat = new XPathCategory("Ports", null);
+		XPathQuery http = new XPathQuery(null, "http", folder.getAbsolutePath(), "configuration/*.xml", 
+				"//socket-binding[@name='http']", "port");
+		XPathQuery https = new XPathQuery(null, "https", folder.getAbsolutePath(), "configuration/*.xml", 
+				"//socket-binding[@name='https']", "port");
+		cat.addQuery(http);
+		cat.addQuery(https);
+		assertFalse(https.resultsLoaded());
+		assertEquals("8080", http.getFirstResult());
+		// Loading one query loads the others in the category
+		assertTrue(https.resultsLoaded());
+		assertEquals("8443", https.getFirstResult());
+		assertEquals(1, https.getResults().length);
+	}
+
+	@Test
+	public void testBadXPathHasNoResults() throws Exception {
+		XPathCategory cat = new XPathCategory("Ports", null);
+		XPathQuery bad = new XPathQuery(null, "bad", folder.getAbsolutePath(), "configuration/*.xml", 
+				"//socket-binding[", "port");
+		XPathQuery good = new XPathQuery(null, "good", folder.getAbsolutePath(), "configuration/*.xml", 
+				"//socket-binding[@name='http']", "port");
+		cat.addQuery(bad);
+		cat.addQuery(good);
+		assertEquals(0, bad.getResults().length);
+		assertEquals("8080", good.getFirstResult());
+	}
+}
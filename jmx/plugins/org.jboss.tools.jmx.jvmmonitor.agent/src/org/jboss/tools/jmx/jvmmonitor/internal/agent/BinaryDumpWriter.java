@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.internal.agent;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The writer of the binary CPU profile dump. The dump is laid out as follows,
+ * where every number but the magic is an unsigned variable length integer
+ * (7 bits per byte, least significant group first).
+ *
+ * <pre>
+ * magic             4 bytes, "JMCP"
+ * version           1
+ * string count, then for each string its UTF-8 length and bytes
+ * date, runtime, main class and arguments as string indexes
+ * thread count, then for each thread
+ *     name as string index, root frame count, root frames
+ * frame
+ *     name as string index, invocation count, time [ms], child count,
+ *     child frames
+ * </pre>
+ *
+ * The string table is written first, so the call tree is encoded into a
+ * separate buffer while the strings are being collected.
+ */
+public class BinaryDumpWriter {
+
+    /** The magic number at the start of the binary dump. */
+    static final int MAGIC = 0x4A4D4350;
+
+    /** The version of the binary dump format. */
+    static final int VERSION = 1;
+
+    /** The indexes of the strings, keyed by string. */
+    private Map<String, Integer> indexes;
+
+    /** The strings in the order of their indexes. */
+    private List<String> strings;
+
+    /** The encoded call tree. */
+    private ByteArrayOutputStream body;
+
+    /**
+     * The constructor.
+     */
+    protected BinaryDumpWriter() {
+        indexes = new HashMap<String, Integer>();
+        strings = new ArrayList<String>();
+        body = new ByteArrayOutputStream(8192);
+    }
+
+    /**
+     * Writes the given string as an index into the string table.
+     *
+     * @param string
+     *            The string
+     */
+    protected void writeString(String string) {
+        Integer index = indexes.get(string);
+        if (index == null) {
+            index = Integer.valueOf(strings.size());
+            indexes.put(string, index);
+            strings.add(string);
+        }
+        writeNumber(body, index.intValue());
+    }
+
+    /**
+     * Writes the given number.
+     *
+     * @param value
+     *            The number, which must not be negative
+     */
+    protected void writeNumber(long value) {
+        writeNumber(body, value);
+    }
+
+    /**
+     * Gets the binary dump, made of the header, the string table and the
+     * encoded call tree.
+     *
+     * @return The binary dump
+     */
+    protected byte[] toByteArray() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.size()
+                + strings.size() * 32 + 16);
+        out.write(MAGIC >>> 24);
+        out.write(MAGIC >>> 16);
+        out.write(MAGIC >>> 8);
+        out.write(MAGIC);
+        writeNumber(out, VERSION);
+        writeNumber(out, strings.size());
+        for (String string : strings) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeNumber(out, bytes.length);
+            out.write(bytes, 0, bytes.length);
+        }
+        byte[] tree = body.toByteArray();
+        out.write(tree, 0, tree.length);
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the given number as variable length integer.
+     *
+     * @param out
+     *            The output stream
+     * @param value
+     *            The number, which must not be negative
+     */
+    private static void writeNumber(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
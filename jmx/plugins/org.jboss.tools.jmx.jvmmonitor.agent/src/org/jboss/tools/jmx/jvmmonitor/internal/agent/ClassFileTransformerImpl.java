@@ -50,9 +50,11 @@ public class ClassFileTransformerImpl implements ClassFileTransformer {
             Class<?> classBeingRedefined, ProtectionDomain protectionDomain,
             byte[] classfileBuffer) throws IllegalClassFormatException {
 
-        if (!isProfiledClassLoader(loader)
-                || !matches(className, Config.getInstance().profiledPackages)
-                || matches(className, Config.getInstance().ignoredPackages)) {
+        Config config = Config.getInstance();
+        if (className == null
+                || !config.getProfiledPackageFilter().matches(className)
+                || config.getIgnoredPackageFilter().matches(className)
+                || !isProfiledClassLoader(loader)) {
             return classfileBuffer;
         }
 
@@ -72,45 +74,6 @@ public class ClassFileTransformerImpl implements ClassFileTransformer {
         return writer.toByteArray();
     }
 
-    /**
-     * Checks if the given class name matches with one of the packages list.
-     * 
-     * @param className
-     *            The class name (e.g. java/lang/String)
-     * @param packages
-     *            The packages
-     * @return <tt>true</tt> if the given class belongs to one of the packages
-     */
-    private static boolean matches(String className, Set<String> packages) {
-        if (packages.isEmpty()) {
-            return false;
-        }
-
-        String packageName;
-        if (className.contains("/")) {
-            packageName = className.substring(0, className.lastIndexOf('/'))
-                    .replace('/', '.');
-        } else if (className.startsWith("$")) {
-            return false; // e.g. $Proxy0
-        } else {
-            packageName = Constants.DEFAULT_PACKAGE;
-        }
-
-        for (String pkg : packages) {
-            if (pkg.endsWith("*")) {
-                if (packageName.concat(".").startsWith(
-                        pkg.substring(0, pkg.length() - 1))) {
-                    return true;
-                }
-            } else {
-                if (packageName.equals(pkg)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
     /**
      * Gets the state indicating if the classes loaded by given class loader are
      * profiled.
@@ -25,7 +25,7 @@ public class Config {
     private final static String SEPARATOR = ",";
 
     /** The flag for enabling profiler. */
-    private boolean profilerEnabled;
+    private volatile boolean profilerEnabled;
 
     /** The flag for enabling automatic dump. */
     private boolean autoDumpEnabled;
@@ -42,6 +42,12 @@ public class Config {
     /** The list of profiled class loaders. */
     protected Set<String> profiledClassLoaders;
 
+    /** The filter compiled from the ignored java packages. */
+    private volatile PackageFilter ignoredPackageFilter;
+
+    /** The filter compiled from the profiled java packages. */
+    private volatile PackageFilter profiledPackageFilter;
+
     /** The shared instance of this class. */
     private static Config config;
 
@@ -88,6 +94,36 @@ public class Config {
         }
     }
 
+    /**
+     * Sets the profiled java packages.
+     * 
+     * @param packages
+     *            The packages separated with comma
+     */
+    protected synchronized void setProfiledPackages(String packages) {
+        profiledPackages.clear();
+        addElements(profiledPackages, packages);
+        profiledPackageFilter = new PackageFilter(profiledPackages);
+    }
+
+    /**
+     * Gets the filter of the profiled java packages.
+     * 
+     * @return The filter of the profiled java packages
+     */
+    protected PackageFilter getProfiledPackageFilter() {
+        return profiledPackageFilter;
+    }
+
+    /**
+     * Gets the filter of the ignored java packages.
+     * 
+     * @return The filter of the ignored java packages
+     */
+    protected PackageFilter getIgnoredPackageFilter() {
+        return ignoredPackageFilter;
+    }
+
     /**
      * Gets the profiler enabled state.
      * 
@@ -188,6 +224,8 @@ public class Config {
             profiledClassLoaders.clear();
             addElements(profiledClassLoaders, profiledClassLoadersStr);
         }
+        ignoredPackageFilter = new PackageFilter(ignoredPackages);
+        profiledPackageFilter = new PackageFilter(profiledPackages);
     }
 
     /**
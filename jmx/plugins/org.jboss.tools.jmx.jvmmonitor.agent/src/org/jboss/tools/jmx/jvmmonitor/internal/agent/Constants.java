@@ -66,11 +66,11 @@ public class Constants {
     /** The method name representing the class initialization method. */
     static final String METHOD_CLINIT = "<clinit>";
 
-    /** The descriptor for two strings. */
-    static final String DESC_STRING_STRING = "(Ljava/lang/String;Ljava/lang/String;)V";
+    /** The descriptor for an int. */
+    static final String DESC_INT = "(I)V";
 
-    /** The descriptor for three strings. */
-    static final String DESC_STRING_STRING_STRING = "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;)V";
+    /** The descriptor for an int and a string. */
+    static final String DESC_INT_STRING = "(ILjava/lang/String;)V";
 
     /** The -javaagent option for JVM. */
     static final String JAVA_AGENT_OPTION = "-javaagent:";
@@ -11,118 +11,126 @@ package org.jboss.tools.jmx.jvmmonitor.internal.agent;
  */
 public class CpuBciProfiler {
 
+    /** The configuration. */
+    private static final Config config = Config.getInstance();
+
     /** The runtime model. */
     private static RuntimeModel model;
 
+    /** The thread node of the current thread. */
+    private static ThreadLocal<ThreadNode> currentThread = new ThreadLocal<ThreadNode>();
+
     /**
      * The method to be invoked when stepping into frame.
      * 
-     * @param className
-     *            The class name
-     * @param methodName
-     *            The method name
+     * @param methodId
+     *            The method id given by {@link MethodRegistry}
      */
-    public static void stepInto(String className, String methodName) {
-        if (!Config.getInstance().isProfilerEnabled()) {
+    public static void stepInto(int methodId) {
+        if (!config.isProfilerEnabled()) {
             return;
         }
 
-        long time = System.currentTimeMillis();
-        String thread = Thread.currentThread().getName();
+        long time = System.nanoTime();
 
         // get the current thread
-        ThreadNode threadNode = model.getThread(thread);
+        ThreadNode threadNode = getCurrentThread();
 
         // update the current frame
-        FrameNode frame;
-        FrameNode previousFrame = threadNode.getCurrentFrame();
-        if (previousFrame == null) {
-            frame = threadNode.getRootFrame(className, methodName);
-        } else {
-            frame = previousFrame.getChild(className, methodName);
-        }
+        FrameNode frame = threadNode.getCurrentFrame().getChild(methodId);
         threadNode.setCurrentFrame(frame);
 
         // set the time
-        frame.setStepIntoTime(time, System.currentTimeMillis() - time);
+        frame.setStepIntoTime(time, System.nanoTime() - time);
     }
 
     /**
      * The method to be invoked when stepping out from frame.
      * 
-     * @param className
-     *            The class name
-     * @param methodName
-     *            The method name
+     * @param methodId
+     *            The method id given by {@link MethodRegistry}
      */
-    public static void stepReturn(String className, String methodName) {
-        if (!Config.getInstance().isProfilerEnabled()) {
+    public static void stepReturn(int methodId) {
+        if (!config.isProfilerEnabled()) {
             return;
         }
 
-        long time = System.currentTimeMillis();
-        String thread = Thread.currentThread().getName();
+        long time = System.nanoTime();
 
         // get the current thread
-        ThreadNode threadNode = model.getThread(thread);
+        ThreadNode threadNode = getCurrentThread();
 
         // update the current frame
         FrameNode previousFrame = threadNode.getCurrentFrame();
-        if (previousFrame == null) {
+        if (previousFrame.isRoot()) {
             return;
         }
         threadNode.setCurrentFrame(previousFrame.getParent());
 
         // set the time stepping return from this frame
-        long overhead = System.currentTimeMillis() - time;
+        long overhead = System.nanoTime() - time;
         previousFrame.setStepReturnTime(time + overhead, overhead);
     }
 
     /**
      * The method to be executed when dropping to frame due to exception.
      * 
-     * @param className
-     *            The class name
-     * @param methodName
-     *            The method name
+     * @param methodId
+     *            The method id given by {@link MethodRegistry}
      * @param exception
      *            The exception
      */
-    public static void dropToFrame(String className, String methodName,
-            String exception) {
-        if (!Config.getInstance().isProfilerEnabled()) {
+    public static void dropToFrame(int methodId, String exception) {
+        if (!config.isProfilerEnabled()) {
             return;
         }
 
-        long time = System.currentTimeMillis();
-        String thread = Thread.currentThread().getName();
+        long time = System.nanoTime();
 
         // get the current thread
-        ThreadNode threadNode = model.getThread(thread);
+        ThreadNode threadNode = getCurrentThread();
 
         // update the current frame
         FrameNode previousFrame = threadNode.getCurrentFrame();
-        if (previousFrame == null) {
+        if (previousFrame.isRoot()) {
             return;
         }
-        FrameNode frame = previousFrame.searchFrame(className, methodName);
+        FrameNode frame = previousFrame.searchFrame(methodId);
         threadNode.setCurrentFrame(frame);
 
         // set the time dropping to this frame
-        long overhead = System.currentTimeMillis() - time;
-        if (frame.equals(previousFrame)) {
+        long overhead = System.nanoTime() - time;
+        if (frame == previousFrame) {
             // stay at frame
             previousFrame.incrementOverhead(overhead);
             return;
         }
 
         FrameNode iterator = previousFrame;
-        while (!frame.equals(iterator)) {
+        while (frame != iterator) {
             iterator.setStepReturnTime(time + overhead, overhead);
             iterator = iterator.getParent();
         }
     }
 
+    /**
+     * Gets the thread node of the current thread. The thread node is looked
+     * up by thread name only the first time, and again after the model has
+     * been cleared.
+     * 
+     * @return The thread node
+     */
+    private static ThreadNode getCurrentThread() {
+        RuntimeModel runtimeModel = model;
+        ThreadNode threadNode = currentThread.get();
+        if (threadNode == null || !runtimeModel.isCurrent(threadNode)) {
+            threadNode = runtimeModel.getThread(Thread.currentThread()
+                    .getName());
+            currentThread.set(threadNode);
+        }
+        return threadNode;
+    }
+
     /**
      * Initialize the profiler.
      */
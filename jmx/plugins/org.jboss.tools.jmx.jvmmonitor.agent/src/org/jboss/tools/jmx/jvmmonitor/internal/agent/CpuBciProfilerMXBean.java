@@ -67,6 +67,14 @@ public interface CpuBciProfilerMXBean {
      */
     String dump();
 
+    /**
+     * Dumps the profile data in the compact binary format, which is much
+     * smaller and faster to produce than the XML given by {@link #dump()}.
+     * 
+     * @return The profile data
+     */
+    byte[] dumpBinary();
+
     /**
      * Gets the directory where dump file is created.
      * 
@@ -146,6 +146,19 @@ public class CpuBciProfilerMXBeanImpl implements CpuBciProfilerMXBean {
         }
     }
 
+    /*
+     * @see CpuBciProfilerMXBean#dumpBinary()
+     */
+    @Override
+    public byte[] dumpBinary() {
+        try {
+            return CpuBciProfiler.getModel().dumpBinary();
+        } catch (Throwable t) {
+            Agent.logError(t, Messages.CANNOT_GET_DUMP);
+            return new byte[0];
+        }
+    }
+
     /*
      * @see ProfilerMXBean#dumpToFile()
      */
@@ -188,17 +201,16 @@ public class CpuBciProfilerMXBeanImpl implements CpuBciProfilerMXBean {
     @Override
     public void setFilter(String key, String value) {
         if (Constants.PROFILED_PACKAGES_PROP_KEY.equals(key)) {
-            Config.getInstance().profiledPackages.clear();
-            Config.getInstance().addElements(
-                    Config.getInstance().profiledPackages, value);
+            Config.getInstance().setProfiledPackages(value);
+            PackageFilter filter = Config.getInstance()
+                    .getProfiledPackageFilter();
 
             // store target classes
             targetClasses.clear();
             for (Class<?> clazz : inst.getAllLoadedClasses()) {
                 String className = clazz.getName();
                 if (!className.startsWith("[")
-                        && matches(className,
-                                Config.getInstance().profiledPackages)) {
+                        && filter.matches(className.replace('.', '/'))) {
                     targetClasses.add(clazz);
                 }
             }
@@ -283,38 +295,4 @@ public class CpuBciProfilerMXBeanImpl implements CpuBciProfilerMXBean {
         classes.removeAll(transformedTargetClasses);
         return classes;
     }
-
-    /**
-     * Checks if the given class belongs to one of the packages list.
-     * 
-     * @param className
-     *            the class name (e.g. java.lang.String)
-     * @param packages
-     *            the list of packages
-     * @return true if the given class belongs to one of the packages list
-     */
-    private static boolean matches(String className, Set<String> packages) {
-        if (packages.isEmpty()) {
-            return false;
-        }
-
-        String packageName;
-        if (className.contains(".")) {
-            packageName = className.substring(0, className.lastIndexOf('.'));
-        } else {
-            packageName = Constants.DEFAULT_PACKAGE;
-        }
-        for (String pkg : packages) {
-            if (pkg.endsWith("*")) {
-                if (packageName.startsWith(pkg.substring(0, pkg.length() - 2))) {
-                    return true;
-                }
-            } else {
-                if (packageName.equals(pkg)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
 }
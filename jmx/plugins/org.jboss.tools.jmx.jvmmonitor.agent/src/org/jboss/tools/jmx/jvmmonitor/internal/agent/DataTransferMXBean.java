@@ -34,6 +34,49 @@ public interface DataTransferMXBean {
      */
     byte[] read(String fileName, int pos, int maxSize);
 
+    /**
+     * Gets the largest chunk size in bytes the agent accepts for a transfer
+     * session.
+     * 
+     * @return The max chunk size
+     */
+    int getMaxChunkSize();
+
+    /**
+     * Opens a transfer session reading the file on host where target JVM is
+     * running. The file stays open until the session is closed, and chunks
+     * are read one after another with {@link #readChunk(long)}.
+     * 
+     * @param fileName
+     *            The file name
+     * @param chunkSize
+     *            The chunk size in bytes, lowered to the max chunk size if
+     *            larger
+     * @param compress
+     *            <tt>true</tt> to deflate each chunk on its own
+     * @return The session id, or <tt>-1</tt> if the file cannot be read
+     */
+    long open(String fileName, int chunkSize, boolean compress);
+
+    /**
+     * Reads the next chunk of the session.
+     * 
+     * @param session
+     *            The session id
+     * @return The chunk, or an empty array at the end of file
+     */
+    byte[] readChunk(long session);
+
+    /**
+     * Closes the session.
+     * 
+     * @param session
+     *            The session id
+     * @return The CRC-32 checksum of the file data read in the session, before
+     *         compression, or <tt>-1</tt> if there is no such session
+     */
+    long close(long session);
+
     /**
      * Gets the version.
      * 
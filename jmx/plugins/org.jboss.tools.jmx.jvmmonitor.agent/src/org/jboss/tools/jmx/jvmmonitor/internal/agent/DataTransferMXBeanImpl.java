@@ -10,9 +10,17 @@
 package org.jboss.tools.jmx.jvmmonitor.internal.agent;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
 
 /**
  * The MXBean to transfer data.
@@ -20,6 +28,29 @@ import java.util.Arrays;
 @SuppressWarnings("nls")
 public class DataTransferMXBeanImpl implements DataTransferMXBean {
 
+    /** The max chunk size in bytes of a transfer session. */
+    private static final int MAX_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    /** The min chunk size in bytes of a transfer session. */
+    private static final int MIN_CHUNK_SIZE = 4096;
+
+    /** The time in milliseconds after which an idle session is closed. */
+    private static final long SESSION_TIMEOUT = 5 * 60 * 1000;
+
+    /** The open transfer sessions. */
+    private Map<Long, Session> sessions;
+
+    /** The last given session id. */
+    private AtomicLong lastSessionId;
+
+    /**
+     * The constructor.
+     */
+    public DataTransferMXBeanImpl() {
+        sessions = new ConcurrentHashMap<Long, Session>();
+        lastSessionId = new AtomicLong();
+    }
+
     /*
      * @see DataTransferMXBean#read(String, int, int)
      */
@@ -59,6 +90,89 @@ public class DataTransferMXBeanImpl implements DataTransferMXBean {
         return results;
     }
 
+    /*
+     * @see DataTransferMXBean#getMaxChunkSize()
+     */
+    @Override
+    public int getMaxChunkSize() {
+        return MAX_CHUNK_SIZE;
+    }
+
+    /*
+     * @see DataTransferMXBean#open(String, int, boolean)
+     */
+    @Override
+    public long open(String fileName, int chunkSize, boolean compress) {
+        closeIdleSessions();
+
+        File file = new File(fileName);
+        if (!file.exists() || !file.isFile() || !file.canRead()) {
+            Agent.logError(new Exception(), Messages.CANNOT_READ_FILE, fileName);
+            return -1;
+        }
+
+        try {
+            int size = Math.max(MIN_CHUNK_SIZE,
+                    Math.min(chunkSize, MAX_CHUNK_SIZE));
+            Session session = new Session(file, size, compress);
+            long id = lastSessionId.incrementAndGet();
+            sessions.put(id, session);
+            return id;
+        } catch (IOException e) {
+            Agent.logError(e, Messages.CANNOT_READ_FILE, fileName);
+            return -1;
+        }
+    }
+
+    /*
+     * @see DataTransferMXBean#readChunk(long)
+     */
+    @Override
+    public byte[] readChunk(long session) {
+        Session s = sessions.get(session);
+        if (s == null) {
+            return new byte[0];
+        }
+
+        try {
+            return s.read();
+        } catch (IOException e) {
+            Agent.logError(e, Messages.CANNOT_READ_FILE, s.fileName);
+            sessions.remove(session);
+            s.close();
+            return new byte[0];
+        }
+    }
+
+    /*
+     * @see DataTransferMXBean#close(long)
+     */
+    @Override
+    public long close(long session) {
+        Session s = sessions.remove(session);
+        if (s == null) {
+            return -1;
+        }
+        s.close();
+        return s.checksum.getValue();
+    }
+
+    /**
+     * Closes the sessions which have not been used for a while, e.g. because
+     * the client got disconnected in the middle of a transfer.
+     */
+    private void closeIdleSessions() {
+        long now = System.currentTimeMillis();
+        Iterator<Session> iterator = sessions.values().iterator();
+        while (iterator.hasNext()) {
+            Session session = iterator.next();
+            if (now - session.lastAccess > SESSION_TIMEOUT) {
+                iterator.remove();
+                session.close();
+            }
+        }
+    }
+
     /*
      * @see DataTransferMXBean#getVersion()
      */
@@ -66,4 +180,111 @@ public class DataTransferMXBeanImpl implements DataTransferMXBean {
     public String getVersion() {
         return Constants.VERSION;
     }
+
+    /**
+     * The transfer session. The buffers are allocated once and reused for
+     * every chunk, so that only the returned array is created per chunk.
+     */
+    private static class Session {
+
+        /** The file name. */
+        private String fileName;
+
+        /** The input stream of the file. */
+        private InputStream input;
+
+        /** The buffer for file data. */
+        private byte[] buffer;
+
+        /** The buffer for compressed data, or <tt>null</tt> if not compressed. */
+        private byte[] compressed;
+
+        /** The deflater, or <tt>null</tt> if not compressed. */
+        private Deflater deflater;
+
+        /** The checksum of the file data read so far. */
+        private CRC32 checksum;
+
+        /** The time in milliseconds when the session was last used. */
+        private volatile long lastAccess;
+
+        /**
+         * The constructor.
+         * 
+         * @param file
+         *            The file
+         * @param chunkSize
+         *            The chunk size
+         * @param compress
+         *            <tt>true</tt> to deflate the chunks
+         * @throws IOException
+         */
+        Session(File file, int chunkSize, boolean compress) throws IOException {
+            fileName = file.getPath();
+            input = new FileInputStream(file);
+            buffer = new byte[chunkSize];
+            if (compress) {
+                deflater = new Deflater(Deflater.BEST_SPEED);
+                compressed = new byte[chunkSize + chunkSize / 16 + 64];
+            }
+            checksum = new CRC32();
+            lastAccess = System.currentTimeMillis();
+        }
+
+        /**
+         * Reads the next chunk.
+         * 
+         * @return The chunk, or an empty array at the end of file
+         * @throws IOException
+         */
+        synchronized byte[] read() throws IOException {
+            lastAccess = System.currentTimeMillis();
+
+            // fill the buffer, as a short read would only cost a round trip
+            int size = 0;
+            while (size < buffer.length) {
+                int read = input.read(buffer, size, buffer.length - size);
+                if (read == -1) {
+                    break;
+                }
+                size += read;
+            }
+            if (size == 0) {
+                return new byte[0];
+            }
+            checksum.update(buffer, 0, size);
+
+            if (deflater == null) {
+                return Arrays.copyOf(buffer, size);
+            }
+
+            deflater.reset();
+            deflater.setInput(buffer, 0, size);
+            deflater.finish();
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == compressed.length) {
+                    compressed = Arrays.copyOf(compressed, compressed.length * 2);
+                }
+                length += deflater.deflate(compressed, length,
+                        compressed.length - length);
+            }
+            return Arrays.copyOf(compressed, length);
+        }
+
+        /**
+         * Closes the session.
+         */
+        synchronized void close() {
+            try {
+                input.close();
+            } catch (IOException e) {
+                // do nothing
+            }
+            if (deflater != null) {
+                deflater.end();
+                deflater = null;
+            }
+        }
+    }
 }
@@ -7,10 +7,8 @@
 package org.jboss.tools.jmx.jvmmonitor.internal.agent;
 
 import java.io.PrintWriter;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
-import org.jboss.tools.jmx.jvmmonitor.internal.agent.asm.Type;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * The frame node of runtime model.
@@ -18,25 +16,40 @@ import org.jboss.tools.jmx.jvmmonitor.internal.agent.asm.Type;
 @SuppressWarnings("nls")
 public class FrameNode {
 
-    /** The class name. */
-    private String className;
+    /** The method id of the root frame node of a thread. */
+    protected static final int ROOT_METHOD_ID = -1;
+
+    /** The time stepped into a frame which is not being executed. */
+    private static final long NOT_STEPPED_INTO = Long.MIN_VALUE;
+
+    /** The child frame nodes of a frame without children. */
+    private static final FrameNode[] NO_FRAMES = new FrameNode[1];
 
-    /** The method name. */
-    private String methodName;
+    /** The updater publishing the child frame nodes. */
+    private static final AtomicReferenceFieldUpdater<FrameNode, FrameNode[]> CHILD_FRAMES = AtomicReferenceFieldUpdater
+            .newUpdater(FrameNode.class, FrameNode[].class, "childFrames");
 
-    /** The child frame nodes. */
-    private Map<String, FrameNode> childFrames;
+    /** The method id. */
+    private int methodId;
+
+    /**
+     * The child frame nodes, an open addressing table keyed by method id. A
+     * table is never modified once published. A child is added by publishing
+     * a copy of the table with a compare-and-set, since threads with the same
+     * name share their frames. The table can therefore be dumped at any time.
+     */
+    private volatile FrameNode[] childFrames;
 
     /** The parent frame node. */
     private FrameNode parentFrame;
 
-    /** The time stepped into this frame. */
+    /** The time [ns] stepped into this frame. */
     private long stepIntoTime;
 
-    /** The total invocation time. */
+    /** The total invocation time [ns]. */
     private long totalTime;
 
-    /** The overhead time. */
+    /** The overhead time [ns]. */
     private long overheadTime;
 
     /** The invocation count. */
@@ -46,39 +59,102 @@ public class FrameNode {
      * The constructor.
      * 
      * @param parent
-     *            The parent frame node
-     * @param clazz
-     *            The class name
-     * @param method
-     *            The method name
+     *            The parent frame node, or <tt>null</tt> for the root frame
+     *            node of a thread
+     * @param methodId
+     *            The method id
      */
-    protected FrameNode(FrameNode parent, String clazz, String method) {
+    protected FrameNode(FrameNode parent, int methodId) {
         parentFrame = parent;
-        className = clazz;
-        methodName = method;
-        childFrames = new ConcurrentHashMap<String, FrameNode>();
-        stepIntoTime = 0;
+        this.methodId = methodId;
+        childFrames = NO_FRAMES;
+        stepIntoTime = NOT_STEPPED_INTO;
         totalTime = 0;
         overheadTime = 0;
         count = 0;
     }
 
     /**
-     * Gets the child frame for the given class name and method name.
+     * Gets the child frame for the given method.
      * 
-     * @param clazz
-     *            The class name
-     * @param method
-     *            The method name
+     * @param id
+     *            The method id
      * @return The child frame
      */
-    protected FrameNode getChild(String clazz, String method) {
-        FrameNode frame = childFrames.get(clazz + '.' + method);
-        if (frame == null) {
-            frame = new FrameNode(this, clazz, method);
-            childFrames.put(clazz + '.' + method, frame);
+    protected FrameNode getChild(int id) {
+        while (true) {
+            FrameNode[] frames = childFrames;
+            int mask = frames.length - 1;
+            for (int i = id & mask;; i = (i + 1) & mask) {
+                FrameNode frame = frames[i];
+                if (frame == null) {
+                    break;
+                }
+                if (frame.methodId == id) {
+                    return frame;
+                }
+            }
+
+            int childCount = 0;
+            for (FrameNode child : frames) {
+                if (child != null) {
+                    childCount++;
+                }
+            }
+            FrameNode frame = new FrameNode(this, id);
+            int length = frames.length;
+            if ((childCount + 1) * 2 > length) {
+                length *= 2;
+            }
+            FrameNode[] newFrames = new FrameNode[length];
+            for (FrameNode child : frames) {
+                if (child != null) {
+                    put(newFrames, child);
+                }
+            }
+            put(newFrames, frame);
+
+            // look again if another thread has added a child in the meantime
+            if (CHILD_FRAMES.compareAndSet(this, frames, newFrames)) {
+                return frame;
+            }
+        }
+    }
+
+    /**
+     * Gets the child frames.
+     * 
+     * @return The child frames
+     */
+    protected FrameNode[] getChildren() {
+        FrameNode[] frames = childFrames;
+        FrameNode[] children = new FrameNode[frames.length];
+        int count = 0;
+        for (FrameNode frame : frames) {
+            if (frame != null) {
+                children[count++] = frame;
+            }
+        }
+        FrameNode[] result = new FrameNode[count];
+        System.arraycopy(children, 0, result, 0, count);
+        return result;
+    }
+
+    /**
+     * Puts the frame into the table of child frames.
+     *
+     * @param frames
+     *            The table of child frames
+     * @param frame
+     *            The frame
+     */
+    private static void put(FrameNode[] frames, FrameNode frame) {
+        int mask = frames.length - 1;
+        int i = frame.methodId & mask;
+        while (frames[i] != null) {
+            i = (i + 1) & mask;
         }
-        return frame;
+        frames[i] = frame;
     }
 
     /**
@@ -106,7 +182,7 @@ public class FrameNode {
     protected void setStepReturnTime(long time, long overhead) {
         totalTime += time - stepIntoTime;
         overheadTime += overhead;
-        stepIntoTime = 0;
+        stepIntoTime = NOT_STEPPED_INTO;
     }
 
     /**
@@ -128,26 +204,33 @@ public class FrameNode {
         return parentFrame;
     }
 
+    /**
+     * Gets the state indicating if this is the root frame node of a thread.
+     * 
+     * @return <tt>true</tt> if this is the root frame node
+     */
+    protected boolean isRoot() {
+        return parentFrame == null;
+    }
+
     /**
      * Searches the frame.
      * 
-     * @param clazz
-     *            The class name
-     * @param method
-     *            The method name
+     * @param id
+     *            The method id
      * @return The frame
      */
-    protected FrameNode searchFrame(String clazz, String method) {
+    protected FrameNode searchFrame(int id) {
 
-        if (className.equals(clazz) && methodName.equals(method)) {
+        if (methodId == id) {
             return this;
         }
 
-        if (parentFrame == null) {
+        if (parentFrame == null || parentFrame.isRoot()) {
             return this;
         }
 
-        return parentFrame.searchFrame(clazz, method);
+        return parentFrame.searchFrame(id);
     }
 
     /**
@@ -156,25 +239,27 @@ public class FrameNode {
      * @param writer
      *            The writer
      * @param time
-     *            The time
+     *            The time [ns]
      * @param nest
      *            The nest
      */
     protected void dump(PrintWriter writer, long time, int nest) {
         String name = getFrameName();
         long actualTotalTime = totalTime - overheadTime;
-        if (stepIntoTime != 0) {
+        if (stepIntoTime != NOT_STEPPED_INTO) {
             actualTotalTime += time - stepIntoTime;
         }
+        actualTotalTime = TimeUnit.NANOSECONDS.toMillis(actualTotalTime);
+        FrameNode[] children = getChildren();
 
         for (int i = 0; i < nest; i++) {
             writer.print("\t");
         }
         writer.printf("<frame name=\"%s\" cnt=\"%d\" time=\"%d\"", name, count,
                 Math.max(actualTotalTime, 0));
-        if (childFrames.size() > 0) {
+        if (children.length > 0) {
             writer.println(">");
-            for (FrameNode frameNode : childFrames.values()) {
+            for (FrameNode frameNode : children) {
                 frameNode.dump(writer, time, nest + 1);
             }
             for (int i = 0; i < nest; i++) {
@@ -192,16 +277,18 @@ public class FrameNode {
      * @param buffer
      *            The string buffer
      * @param time
-     *            The time
+     *            The time [ns]
      * @param nest
      *            The nest count
      */
     protected void dump(StringBuffer buffer, long time, int nest) {
         String name = getFrameName();
         long actualTotalTime = totalTime - overheadTime;
-        if (stepIntoTime != 0) {
+        if (stepIntoTime != NOT_STEPPED_INTO) {
             actualTotalTime += time - stepIntoTime;
         }
+        actualTotalTime = TimeUnit.NANOSECONDS.toMillis(actualTotalTime);
+        FrameNode[] children = getChildren();
 
         for (int i = 0; i < nest; i++) {
             buffer.append('\t');
@@ -209,9 +296,9 @@ public class FrameNode {
         buffer.append("<frame name=\"").append(name).append("\" cnt=\"")
                 .append(count).append("\" time=\"")
                 .append(Math.max(actualTotalTime, 0)).append("\"");
-        if (childFrames.size() > 0) {
+        if (children.length > 0) {
             buffer.append(">\n");
-            for (FrameNode frameNode : childFrames.values()) {
+            for (FrameNode frameNode : children) {
                 frameNode.dump(buffer, time, nest + 1);
             }
             for (int i = 0; i < nest; i++) {
@@ -224,33 +311,39 @@ public class FrameNode {
     }
 
     /**
-     * Gets the frame name.
+     * Dumps the profile data in binary format.
      * 
-     * @return The frame name
+     * @param writer
+     *            The binary dump writer
+     * @param time
+     *            The time [ns]
      */
-    private String getFrameName() {
+    protected void dump(BinaryDumpWriter writer, long time) {
+        long actualTotalTime = totalTime - overheadTime;
+        if (stepIntoTime != NOT_STEPPED_INTO) {
+            actualTotalTime += time - stepIntoTime;
+        }
+        actualTotalTime = TimeUnit.NANOSECONDS.toMillis(actualTotalTime);
+        FrameNode[] children = getChildren();
 
-        // replace '/' with '.'
-        String clazz = className.replace('/', '.');
-
-        // convert the parameter descriptor into java type
-        StringBuilder builder = new StringBuilder();
-        builder.append(methodName.substring(0, methodName.indexOf('(') + 1));
-        Type[] types = Type.getArgumentTypes(methodName.substring(methodName
-                .indexOf('(')));
-        for (int i = 0; i < types.length; i++) {
-            if (i > 0) {
-                builder.append(", ");
-            }
-            builder.append(Type.getType(types[i].getDescriptor())
-                    .getClassName());
+        writer.writeString(MethodRegistry.getFrameName(methodId));
+        writer.writeNumber(count);
+        writer.writeNumber(Math.max(actualTotalTime, 0));
+        writer.writeNumber(children.length);
+        for (FrameNode frameNode : children) {
+            frameNode.dump(writer, time);
         }
-        builder.append(')');
-        String method = builder.toString();
+    }
 
-        // convert into escaped characters
-        method = method.replaceAll("<", "&lt;").replaceAll(">", "&gt;");
+    /**
+     * Gets the frame name, with the characters escaped for XML.
+     * 
+     * @return The frame name
+     */
+    private String getFrameName() {
+        String name = MethodRegistry.getFrameName(methodId);
 
-        return clazz + '.' + method;
+        // convert into escaped characters
+        return name.replaceAll("<", "&lt;").replaceAll(">", "&gt;");
     }
 }
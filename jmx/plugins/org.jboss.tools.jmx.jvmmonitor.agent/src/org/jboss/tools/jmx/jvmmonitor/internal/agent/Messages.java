@@ -61,6 +61,9 @@ public class Messages {
     /** The error message that clearing SWT resource tracking data failed. */
     static final String CANNOT_CLEAR_RESOURCE_TRACKING_DATA = "Cannot clear SWT resource tracking data";
 
+    /** The error message that the sampling period is illegal. */
+    static final String ILLEGAL_SAMPLING_PERIOD = "Illegal sampling period: %d";
+
     /** The info message that agent got loaded. */
     static final String AGENT_LOADED = "Agent has been loaded.";
 
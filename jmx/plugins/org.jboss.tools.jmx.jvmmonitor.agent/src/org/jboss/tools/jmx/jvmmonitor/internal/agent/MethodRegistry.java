@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.internal.agent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.tools.jmx.jvmmonitor.internal.agent.asm.Type;
+
+/**
+ * The registry of instrumented methods. Each method is given an integer id
+ * when its class is instrumented, so that the profiler doesn't have to deal
+ * with class and method names while the application is running.
+ */
+public class MethodRegistry {
+
+    /** The ids of the registered methods, keyed by class and method name. */
+    private static Map<String, Integer> ids = new HashMap<String, Integer>();
+
+    /** The class names, indexed by id. */
+    private static List<String> classNames = new ArrayList<String>();
+
+    /** The method names, indexed by id. */
+    private static List<String> methodNames = new ArrayList<String>();
+
+    /** The frame names, indexed by id, or <tt>null</tt> if not yet built. */
+    private static List<String> frameNames = new ArrayList<String>();
+
+    /**
+     * Gets the id of the given method, registering it if necessary.
+     *
+     * @param className
+     *            The class name
+     * @param methodName
+     *            The method name with its parameter descriptor
+     * @return The method id
+     */
+    protected static synchronized int register(String className,
+            String methodName) {
+        String key = className + '.' + methodName;
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = Integer.valueOf(classNames.size());
+            ids.put(key, id);
+            classNames.add(className);
+            methodNames.add(methodName);
+            frameNames.add(null);
+        }
+        return id.intValue();
+    }
+
+    /**
+     * Gets the frame name of the given method, e.g.
+     * <tt>java.lang.String.indexOf(java.lang.String, int)</tt>.
+     *
+     * @param id
+     *            The method id
+     * @return The frame name
+     */
+    @SuppressWarnings("nls")
+    protected static synchronized String getFrameName(int id) {
+        String frameName = frameNames.get(id);
+        if (frameName != null) {
+            return frameName;
+        }
+
+        String methodName = methodNames.get(id);
+
+        // replace '/' with '.'
+        String clazz = classNames.get(id).replace('/', '.');
+
+        // convert the parameter descriptor into java type
+        StringBuilder builder = new StringBuilder();
+        builder.append(methodName.substring(0, methodName.indexOf('(') + 1));
+        Type[] types = Type.getArgumentTypes(methodName.substring(methodName
+                .indexOf('(')));
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(Type.getType(types[i].getDescriptor())
+                    .getClassName());
+        }
+        builder.append(')');
+
+        frameName = clazz + '.' + builder.toString();
+        frameNames.set(id, frameName);
+        return frameName;
+    }
+}
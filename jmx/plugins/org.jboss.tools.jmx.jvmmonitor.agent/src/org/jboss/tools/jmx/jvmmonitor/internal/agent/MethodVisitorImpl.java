@@ -16,11 +16,8 @@ import org.jboss.tools.jmx.jvmmonitor.internal.agent.asm.Opcodes;
  */
 public class MethodVisitorImpl extends MethodAdapter {
 
-    /** The class name */
-    private String className;
-
-    /** The method name */
-    private String methodName;
+    /** The method id */
+    private int methodId;
 
     /** The state indicating if this is the class initialization method. */
     private boolean isClinit;
@@ -38,9 +35,10 @@ public class MethodVisitorImpl extends MethodAdapter {
     public MethodVisitorImpl(MethodVisitor methodVisitor, String className,
             String methodName) {
         super(methodVisitor);
-        this.className = className;
-        this.methodName = methodName;
         isClinit = methodName.startsWith(Constants.METHOD_CLINIT);
+        if (!isClinit) {
+            methodId = MethodRegistry.register(className, methodName);
+        }
     }
 
     /*
@@ -48,8 +46,7 @@ public class MethodVisitorImpl extends MethodAdapter {
      */
     @Override
     public void visitCode() {
-        instrumentMethodInvocation(Constants.METHOD_STEP_INTO, className,
-                methodName);
+        instrumentMethodInvocation(Constants.METHOD_STEP_INTO);
 
         super.visitCode();
     }
@@ -63,8 +60,7 @@ public class MethodVisitorImpl extends MethodAdapter {
         // the JVM opcode to return method
         if ((Opcodes.IRETURN <= opcode && opcode <= Opcodes.RETURN)
                 || Opcodes.ATHROW == opcode) {
-            instrumentMethodInvocation(Constants.METHOD_STEP_RETURN, className,
-                    methodName);
+            instrumentMethodInvocation(Constants.METHOD_STEP_RETURN);
         }
 
         super.visitInsn(opcode);
@@ -91,7 +87,7 @@ public class MethodVisitorImpl extends MethodAdapter {
 
         if (label.info != null) {
             instrumentMethodInvocation(Constants.METHOD_DROP_TO_FRAME,
-                    className, methodName, (String) label.info);
+                    (String) label.info);
         }
     }
 
@@ -101,7 +97,7 @@ public class MethodVisitorImpl extends MethodAdapter {
      * @param name
      *            The method name
      * @param args
-     *            The method arguments
+     *            The method arguments following the method id
      */
     private void instrumentMethodInvocation(String name, String... args) {
         if (isClinit) {
@@ -110,15 +106,16 @@ public class MethodVisitorImpl extends MethodAdapter {
 
         // get descriptor
         String desc = null;
-        if (args.length == 2) {
-            desc = Constants.DESC_STRING_STRING;
-        } else if (args.length == 3) {
-            desc = Constants.DESC_STRING_STRING_STRING;
+        if (args.length == 0) {
+            desc = Constants.DESC_INT;
+        } else if (args.length == 1) {
+            desc = Constants.DESC_INT_STRING;
         } else {
             return;
         }
 
         // instrument
+        visitLdcInsn(Integer.valueOf(methodId));
         for (String arg : args) {
             visitLdcInsn(arg);
         }
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.internal.agent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The filter of classes by package, compiled from packages such as
+ * <tt>java.lang</tt>, <tt>org.eclipse.*</tt> or <tt>&lt;default&gt;</tt>. A
+ * package ending with <tt>*</tt> matches every package starting with the
+ * rest of it.
+ * <p>
+ * The packages are kept as sorted arrays in the internal form of class names
+ * with a trailing slash (e.g. <tt>java/lang/</tt>), so that a class is
+ * looked up by two binary searches without creating any string. The
+ * prefixes are reduced so that none of them starts with another one, and
+ * thus the only prefix which can match a class is the greatest one not
+ * after the package of the class.
+ */
+@SuppressWarnings("nls")
+public class PackageFilter {
+
+    /** The package name of the classes in the default package. */
+    private static final String DEFAULT_PACKAGE = Constants.DEFAULT_PACKAGE
+            + "/";
+
+    /** The sorted packages matched exactly. */
+    private String[] packages;
+
+    /** The sorted prefixes of the packages. */
+    private String[] prefixes;
+
+    /**
+     * The constructor.
+     *
+     * @param patterns
+     *            The packages separated with dot
+     */
+    protected PackageFilter(Collection<String> patterns) {
+        List<String> packageList = new ArrayList<String>();
+        List<String> prefixList = new ArrayList<String>();
+        for (String pattern : patterns) {
+            if (pattern.endsWith("*")) {
+                prefixList.add(pattern.substring(0, pattern.length() - 1)
+                        .replace('.', '/'));
+            } else {
+                packageList.add(pattern.replace('.', '/') + '/');
+            }
+        }
+
+        packages = packageList.toArray(new String[packageList.size()]);
+        Arrays.sort(packages);
+
+        String[] sortedPrefixes = prefixList.toArray(new String[prefixList
+                .size()]);
+        Arrays.sort(sortedPrefixes);
+        prefixList.clear();
+        for (String prefix : sortedPrefixes) {
+            // a prefix sorts right after the prefixes it starts with
+            if (prefixList.isEmpty()
+                    || !prefix.startsWith(prefixList.get(prefixList.size() - 1))) {
+                prefixList.add(prefix);
+            }
+        }
+        prefixes = prefixList.toArray(new String[prefixList.size()]);
+    }
+
+    /**
+     * Gets the state indicating if this filter matches no class.
+     *
+     * @return <tt>true</tt> if no package is given
+     */
+    protected boolean isEmpty() {
+        return packages.length == 0 && prefixes.length == 0;
+    }
+
+    /**
+     * Checks if the given class belongs to one of the packages.
+     *
+     * @param className
+     *            The class name in internal form (e.g. java/lang/String)
+     * @return <tt>true</tt> if the given class belongs to one of the packages
+     */
+    protected boolean matches(String className) {
+        if (isEmpty()) {
+            return false;
+        }
+
+        String packageName;
+        int length = className.lastIndexOf('/') + 1;
+        if (length > 0) {
+            packageName = className;
+        } else if (className.startsWith("$")) {
+            return false; // e.g. $Proxy0
+        } else {
+            packageName = DEFAULT_PACKAGE;
+            length = packageName.length();
+        }
+
+        // exact package
+        int low = 0;
+        int high = packages.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int result = compare(packages[mid], packageName, length);
+            if (result < 0) {
+                low = mid + 1;
+            } else if (result > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+
+        // the greatest prefix not after the package
+        low = 0;
+        high = prefixes.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (compare(prefixes[mid], packageName, length) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (high < 0) {
+            return false;
+        }
+        String prefix = prefixes[high];
+        return prefix.length() <= length
+                && packageName.startsWith(prefix);
+    }
+
+    /**
+     * Compares the given string lexicographically with the beginning of the
+     * given package name.
+     *
+     * @param string
+     *            The string
+     * @param packageName
+     *            The package name, possibly followed by a class name
+     * @param length
+     *            The length of the package name
+     * @return A negative integer, zero, or a positive integer as the string
+     *         is less than, equal to, or greater than the package name
+     */
+    private static int compare(String string, String packageName, int length) {
+        int min = Math.min(string.length(), length);
+        for (int i = 0; i < min; i++) {
+            int result = string.charAt(i) - packageName.charAt(i);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return string.length() - length;
+    }
+}
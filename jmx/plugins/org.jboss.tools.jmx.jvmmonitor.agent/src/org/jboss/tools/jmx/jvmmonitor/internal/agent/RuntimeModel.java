@@ -16,11 +16,13 @@ import java.lang.management.RuntimeMXBean;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The runtime model.
@@ -28,14 +30,21 @@ import java.util.concurrent.ConcurrentHashMap;
 @SuppressWarnings("nls")
 public class RuntimeModel implements Runnable {
 
+    /** The last generation given to a runtime model */
+    private static AtomicInteger generations = new AtomicInteger();
+
     /** The thread nodes */
     private Map<String, ThreadNode> threadNodes;
 
+    /** The generation, which changes whenever the model is cleared */
+    private volatile int generation;
+
     /**
      * The constructor.
      */
     protected RuntimeModel() {
         threadNodes = new ConcurrentHashMap<String, ThreadNode>();
+        generation = generations.incrementAndGet();
 
         // to dump the model into file when shutting down application
         Runtime.getRuntime().addShutdownHook(new Thread(this));
@@ -59,20 +68,33 @@ public class RuntimeModel implements Runnable {
      *            The thread name
      * @return The thread node
      */
-    protected ThreadNode getThread(String thread) {
+    protected synchronized ThreadNode getThread(String thread) {
         ThreadNode threadNode = threadNodes.get(thread);
         if (threadNode == null) {
-            threadNode = new ThreadNode(thread);
+            threadNode = new ThreadNode(thread, generation);
             threadNodes.put(thread, threadNode);
         }
         return threadNode;
     }
 
+    /**
+     * Gets the state indicating if the given thread node belongs to this
+     * model, and hasn't been cleared since it was created.
+     * 
+     * @param threadNode
+     *            The thread node
+     * @return <tt>true</tt> if the thread node is current
+     */
+    protected boolean isCurrent(ThreadNode threadNode) {
+        return threadNode.getGeneration() == generation;
+    }
+
     /**
      * Clears the model.
      */
-    protected void clear() {
+    protected synchronized void clear() {
         threadNodes.clear();
+        generation = generations.incrementAndGet();
     }
 
     /**
@@ -92,6 +114,23 @@ public class RuntimeModel implements Runnable {
         return callable.call();
     }
 
+    /**
+     * Dumps the profile data in binary format with <tt>Callable</tt>.
+     * 
+     * @return The profile data
+     * @throws Exception
+     */
+    protected byte[] dumpBinary() throws Exception {
+        Callable<byte[]> callable = new Callable<byte[]>() {
+            @Override
+            public byte[] call() {
+                return doDumpBinary();
+            }
+        };
+
+        return callable.call();
+    }
+
     /**
      * Dumps the profile data with <tt>Runnable</tt>.
      */
@@ -131,7 +170,7 @@ public class RuntimeModel implements Runnable {
         buffer.append("mainClass=\"").append(getMainClass()).append("\" ");
         buffer.append("arguments=\"").append(getJvmArguments()).append("\">\n");
 
-        long currentTime = System.currentTimeMillis();
+        long currentTime = System.nanoTime();
         for (ThreadNode threadNode : threadNodes.values()) {
             threadNode.dump(buffer, currentTime);
         }
@@ -139,6 +178,45 @@ public class RuntimeModel implements Runnable {
         return buffer.toString();
     }
 
+    /**
+     * Dumps the profile data in binary format, as described in
+     * {@link BinaryDumpWriter}.
+     * 
+     * @return The profile data
+     */
+    protected byte[] doDumpBinary() {
+
+        // get date and time
+        Date currentDate = new Date();
+        String date = new SimpleDateFormat(Constants.DATE_FORMAT)
+                .format(currentDate);
+        String time = new SimpleDateFormat(Constants.TIME_FORMAT)
+                .format(currentDate);
+
+        BinaryDumpWriter writer = new BinaryDumpWriter();
+        writer.writeString(date + ' ' + time);
+        writer.writeString(getRuntime());
+        writer.writeString(getMainClass());
+        writer.writeString(getJvmArguments());
+
+        // the threads without frames are left out
+        long currentTime = System.nanoTime();
+        List<ThreadNode> threads = new ArrayList<ThreadNode>();
+        List<FrameNode[]> rootFrames = new ArrayList<FrameNode[]>();
+        for (ThreadNode threadNode : threadNodes.values()) {
+            FrameNode[] frameNodes = threadNode.getRootFrames();
+            if (frameNodes.length > 0) {
+                threads.add(threadNode);
+                rootFrames.add(frameNodes);
+            }
+        }
+        writer.writeNumber(threads.size());
+        for (int i = 0; i < threads.size(); i++) {
+            threads.get(i).dump(writer, rootFrames.get(i), currentTime);
+        }
+        return writer.toByteArray();
+    }
+
     /**
      * Dumps into a dump file.
      */
@@ -167,7 +245,7 @@ public class RuntimeModel implements Runnable {
             writer.printf("mainClass=\"%s\" ", getMainClass());
             writer.printf("arguments=\"%s\">\n", getJvmArguments());
             writer.println("");
-            long currentTime = System.currentTimeMillis();
+            long currentTime = System.nanoTime();
             for (ThreadNode threadNode : threadNodes.values()) {
                 threadNode.dump(writer, currentTime);
             }
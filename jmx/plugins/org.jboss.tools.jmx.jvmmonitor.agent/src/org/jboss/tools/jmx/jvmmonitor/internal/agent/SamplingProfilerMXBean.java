@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.internal.agent;
+
+import javax.management.MXBean;
+
+/**
+ * The MXBean to control the sampling profiler, which samples the stack traces
+ * of all threads inside the target JVM and aggregates them into a call tree.
+ */
+@SuppressWarnings("nls")
+@MXBean
+public interface SamplingProfilerMXBean {
+
+    /** The MXBean name. */
+    final static String SAMPLING_PROFILER_MXBEAN_NAME = "org.jboss.tools.jmx.jvmmonitor:type=Sampling Profiler";
+
+    /**
+     * Sets the state indicating if profiler is running.
+     *
+     * @param run
+     *            True to run profiler
+     */
+    void setRunning(boolean run);
+
+    /**
+     * Gets the state indicating if profiler is running.
+     *
+     * @return <tt>true</tt> if profiler is running
+     */
+    boolean isRunning();
+
+    /**
+     * Sets the sampling period.
+     *
+     * @param period
+     *            The sampling period [ms]
+     */
+    void setSamplingPeriod(int period);
+
+    /**
+     * Gets the sampling period.
+     *
+     * @return The sampling period [ms]
+     */
+    int getSamplingPeriod();
+
+    /**
+     * Sets the profiled packages. A package ending with <tt>*</tt> also
+     * matches its sub-packages, and <tt>&lt;default&gt;</tt> stands for the
+     * default package.
+     *
+     * @param packages
+     *            The profiled packages
+     */
+    void setProfiledPackages(String[] packages);
+
+    /**
+     * Gets the profiled packages.
+     *
+     * @return The profiled packages
+     */
+    String[] getProfiledPackages();
+
+    /**
+     * Dumps the profile data sampled since the previous dump in the binary
+     * format of {@link CpuBciProfilerMXBean#dumpBinary()}, and clears it.
+     * Profiler stops by itself if the profile data isn't dumped for a minute.
+     *
+     * @return The profile data sampled since the previous dump
+     */
+    byte[] dumpDelta();
+}
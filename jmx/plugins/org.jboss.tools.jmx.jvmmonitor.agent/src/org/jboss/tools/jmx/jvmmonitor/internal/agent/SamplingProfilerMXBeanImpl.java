@@ -0,0 +1,408 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.internal.agent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The sampling profiler. A daemon thread takes the stack traces of all threads
+ * at the sampling period and aggregates them into a call tree per thread, so
+ * that the client only has to fetch the aggregated delta from time to time
+ * instead of all stack traces at every sampling.
+ */
+@SuppressWarnings("nls")
+public class SamplingProfilerMXBeanImpl implements SamplingProfilerMXBean,
+        Runnable {
+
+    /** The default sampling period [ms]. */
+    private static final int DEFAULT_SAMPLING_PERIOD = 10;
+
+    /** The time [ms] after which profiler stops if the delta isn't dumped. */
+    private static final long DUMP_TIMEOUT = 60 * 1000;
+
+    /** The sampling thread name. */
+    private static final String SAMPLING_THREAD_NAME = "JVM Monitor Sampling Profiler";
+
+    /** The thread MXBean. */
+    private ThreadMXBean threadMXBean;
+
+    /** The sampling period [ms]. */
+    private volatile int samplingPeriod;
+
+    /** The profiled packages. */
+    private volatile String[] profiledPackages;
+
+    /** The filter compiled from the profiled packages. */
+    private volatile PackageFilter packageFilter;
+
+    /** The sampling thread, or <tt>null</tt> if profiler isn't running. */
+    private Thread samplingThread;
+
+    /** The root frames of the sampled threads, keyed by thread name. */
+    private Map<String, Frame> threads;
+
+    /** The time [ms] when the delta was dumped last. */
+    private volatile long dumpTime;
+
+    /**
+     * The constructor.
+     */
+    public SamplingProfilerMXBeanImpl() {
+        threadMXBean = ManagementFactory.getThreadMXBean();
+        samplingPeriod = DEFAULT_SAMPLING_PERIOD;
+        setProfiledPackages(null);
+        threads = new LinkedHashMap<String, Frame>();
+    }
+
+    /*
+     * @see SamplingProfilerMXBean#setRunning(boolean)
+     */
+    @Override
+    public synchronized void setRunning(boolean run) {
+        if (run && samplingThread == null) {
+            dumpTime = System.currentTimeMillis();
+            samplingThread = new Thread(this, SAMPLING_THREAD_NAME);
+            samplingThread.setDaemon(true);
+            samplingThread.start();
+        } else if (!run && samplingThread != null) {
+            samplingThread.interrupt();
+            samplingThread = null;
+            threads = new LinkedHashMap<String, Frame>();
+        }
+    }
+
+    /*
+     * @see SamplingProfilerMXBean#isRunning()
+     */
+    @Override
+    public synchronized boolean isRunning() {
+        return samplingThread != null;
+    }
+
+    /*
+     * @see SamplingProfilerMXBean#setSamplingPeriod(int)
+     */
+    @Override
+    public void setSamplingPeriod(int period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    Messages.ILLEGAL_SAMPLING_PERIOD, period));
+        }
+        samplingPeriod = period;
+    }
+
+    /*
+     * @see SamplingProfilerMXBean#getSamplingPeriod()
+     */
+    @Override
+    public int getSamplingPeriod() {
+        return samplingPeriod;
+    }
+
+    /*
+     * @see SamplingProfilerMXBean#setProfiledPackages(String[])
+     */
+    @Override
+    public void setProfiledPackages(String[] packages) {
+        String[] newPackages = packages == null ? new String[0] : packages
+                .clone();
+        packageFilter = new PackageFilter(Arrays.asList(newPackages));
+        profiledPackages = newPackages;
+    }
+
+    /*
+     * @see SamplingProfilerMXBean#getProfiledPackages()
+     */
+    @Override
+    public String[] getProfiledPackages() {
+        return profiledPackages.clone();
+    }
+
+    /*
+     * @see SamplingProfilerMXBean#dumpDelta()
+     */
+    @Override
+    public byte[] dumpDelta() {
+        Map<String, Frame> delta;
+        synchronized (this) {
+            delta = threads;
+            threads = new LinkedHashMap<String, Frame>();
+            dumpTime = System.currentTimeMillis();
+        }
+
+        BinaryDumpWriter writer = new BinaryDumpWriter();
+        for (int i = 0; i < 4; i++) {
+            writer.writeString("");
+        }
+        writer.writeNumber(delta.size());
+        for (Map.Entry<String, Frame> entry : delta.entrySet()) {
+            Frame root = entry.getValue();
+            writer.writeString(entry.getKey());
+            writer.writeNumber(root.children.size());
+            for (Frame frame : root.children) {
+                frame.dump(writer);
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    /*
+     * @see Runnable#run()
+     */
+    @Override
+    public void run() {
+        Thread thread = Thread.currentThread();
+        Map<Long, StackTraceElement[]> previousStackTraces = new HashMap<Long, StackTraceElement[]>();
+        Map<String, Boolean> profiledClasses = new HashMap<String, Boolean>();
+        PackageFilter checkedFilter = null;
+        long previousTime = System.nanoTime();
+        while (true) {
+            try {
+                Thread.sleep(samplingPeriod);
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            synchronized (this) {
+                if (samplingThread != thread) {
+                    break;
+                }
+                if (System.currentTimeMillis() - dumpTime > DUMP_TIMEOUT) {
+                    samplingThread = null;
+                    threads = new LinkedHashMap<String, Frame>();
+                    break;
+                }
+            }
+
+            PackageFilter filter = packageFilter;
+            if (filter != checkedFilter) {
+                profiledClasses.clear();
+                checkedFilter = filter;
+            }
+
+            long time = System.nanoTime();
+            previousStackTraces = sample(thread.getId(), previousStackTraces,
+                    profiledClasses, filter, time - previousTime);
+            previousTime = time;
+        }
+    }
+
+    /**
+     * Samples the stack traces of all threads.
+     *
+     * @param samplingThreadId
+     *            The id of the sampling thread
+     * @param previousStackTraces
+     *            The stack traces of the previous sampling keyed by thread id
+     * @param profiledClasses
+     *            The states indicating if classes are profiled keyed by class
+     *            name
+     * @param filter
+     *            The filter of the profiled packages
+     * @param period
+     *            The actual sampling period [ns]
+     * @return The stack traces keyed by thread id
+     */
+    private Map<Long, StackTraceElement[]> sample(long samplingThreadId,
+            Map<Long, StackTraceElement[]> previousStackTraces,
+            Map<String, Boolean> profiledClasses, PackageFilter filter,
+            long period) {
+        ThreadInfo[] threadInfos = threadMXBean.dumpAllThreads(false, false);
+        Map<Long, StackTraceElement[]> stackTraces = new HashMap<Long, StackTraceElement[]>();
+        synchronized (this) {
+            for (ThreadInfo threadInfo : threadInfos) {
+                if (threadInfo == null
+                        || threadInfo.getThreadId() == samplingThreadId) {
+                    continue;
+                }
+                StackTraceElement[] stackTrace = threadInfo.getStackTrace();
+                String threadName = threadInfo.getThreadName();
+                if (stackTrace.length == 0 || threadName.startsWith("JMX ")
+                        || threadName.startsWith("RMI ")) {
+                    continue;
+                }
+
+                Long threadId = Long.valueOf(threadInfo.getThreadId());
+                stackTraces.put(threadId, stackTrace);
+                addStackTrace(threadName, stackTrace,
+                        previousStackTraces.get(threadId), profiledClasses,
+                        filter, period);
+            }
+        }
+        return stackTraces;
+    }
+
+    /**
+     * Adds the stack trace into the call tree of the given thread. The frame
+     * counts are only incremented from the first frame differing from the
+     * previous stack trace of the thread.
+     *
+     * @param threadName
+     *            The thread name
+     * @param stackTrace
+     *            The stack trace
+     * @param previousStackTrace
+     *            The previous stack trace, or <tt>null</tt> if not sampled
+     * @param profiledClasses
+     *            The states indicating if classes are profiled keyed by class
+     *            name
+     * @param filter
+     *            The filter of the profiled packages
+     * @param period
+     *            The actual sampling period [ns]
+     */
+    private void addStackTrace(String threadName,
+            StackTraceElement[] stackTrace,
+            StackTraceElement[] previousStackTrace,
+            Map<String, Boolean> profiledClasses, PackageFilter filter,
+            long period) {
+        Frame frame = null;
+        boolean isNewStack = false;
+        for (int i = 0; i < stackTrace.length; i++) {
+            StackTraceElement element = stackTrace[stackTrace.length - 1 - i];
+            if (!isProfiledClass(element.getClassName(), profiledClasses,
+                    filter)) {
+                continue;
+            }
+
+            if (previousStackTrace == null || i >= previousStackTrace.length
+                    || !element.equals(previousStackTrace[previousStackTrace.length - 1 - i])) {
+                isNewStack = true;
+            }
+
+            if (frame == null) {
+                frame = threads.get(threadName);
+                if (frame == null) {
+                    frame = new Frame(null, null);
+                    threads.put(threadName, frame);
+                }
+            }
+            frame = frame.getChild(element.getClassName(),
+                    element.getMethodName());
+            if (isNewStack) {
+                frame.count++;
+            }
+            frame.time += period;
+        }
+    }
+
+    /**
+     * Gets the state indicating if the given class belongs to one of the
+     * profiled packages.
+     *
+     * @param className
+     *            The class name (e.g. java.lang.String)
+     * @param profiledClasses
+     *            The states indicating if classes are profiled keyed by class
+     *            name, caching the result
+     * @param filter
+     *            The filter of the profiled packages
+     * @return <tt>true</tt> if the given class is profiled
+     */
+    private static boolean isProfiledClass(String className,
+            Map<String, Boolean> profiledClasses, PackageFilter filter) {
+        Boolean profiled = profiledClasses.get(className);
+        if (profiled == null) {
+            profiled = Boolean.valueOf(filter.matches(className.replace('.',
+                    '/')));
+            profiledClasses.put(className, profiled);
+        }
+        return profiled.booleanValue();
+    }
+
+    /**
+     * The frame of the sampled call tree.
+     */
+    private static class Frame {
+
+        /** The class name. */
+        private String className;
+
+        /** The method name. */
+        private String methodName;
+
+        /** The child frames, in the order they were first sampled. */
+        private List<Frame> children;
+
+        /**
+         * The child frames keyed by class name and method name, or
+         * <tt>null</tt> if there is no child frame yet.
+         */
+        private Map<String, Frame> childrenByName;
+
+        /** The number of samples where this frame was newly entered. */
+        private int count;
+
+        /** The sampled time [ns]. */
+        private long time;
+
+        /**
+         * The constructor.
+         *
+         * @param className
+         *            The class name, or <tt>null</tt> for the root frame
+         * @param methodName
+         *            The method name, or <tt>null</tt> for the root frame
+         */
+        Frame(String className, String methodName) {
+            this.className = className;
+            this.methodName = methodName;
+            children = new ArrayList<Frame>(2);
+        }
+
+        /**
+         * Gets the child frame for the given method, adding it if necessary.
+         *
+         * @param childClassName
+         *            The class name
+         * @param childMethodName
+         *            The method name
+         * @return The child frame
+         */
+        Frame getChild(String childClassName, String childMethodName) {
+            String key = childClassName + '.' + childMethodName;
+            if (childrenByName == null) {
+                childrenByName = new HashMap<String, Frame>(4);
+            }
+            Frame child = childrenByName.get(key);
+            if (child == null) {
+                child = new Frame(childClassName, childMethodName);
+                childrenByName.put(key, child);
+                children.add(child);
+            }
+            return child;
+        }
+
+        /**
+         * Dumps the frame and its child frames in binary format.
+         *
+         * @param writer
+         *            The binary dump writer
+         */
+        void dump(BinaryDumpWriter writer) {
+            writer.writeString(className + "." + methodName + "()");
+            writer.writeNumber(count);
+            writer.writeNumber(TimeUnit.NANOSECONDS.toMillis(time));
+            writer.writeNumber(children.size());
+            for (Frame child : children) {
+                child.dump(writer);
+            }
+        }
+    }
+}
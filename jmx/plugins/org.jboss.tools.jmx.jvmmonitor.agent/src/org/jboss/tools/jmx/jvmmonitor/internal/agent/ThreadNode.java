@@ -7,9 +7,6 @@
 package org.jboss.tools.jmx.jvmmonitor.internal.agent;
 
 import java.io.PrintWriter;
-import java.util.Collection;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The thread node of runtime model.
@@ -20,45 +17,44 @@ public class ThreadNode {
     /** The thread name */
     private String thread;
 
+    /** The generation of the runtime model this thread node belongs to */
+    private int generation;
+
     /** The current frame */
     private FrameNode currentFrame;
 
-    /** The root frame nodes */
-    private Map<String, FrameNode> rootFrames;
+    /** The root frame node, whose children are the root frames */
+    private FrameNode rootFrame;
 
     /**
      * The constructor.
      * 
      * @param thread
      *            The thread name
+     * @param generation
+     *            The generation of the runtime model
      */
-    protected ThreadNode(String thread) {
+    protected ThreadNode(String thread, int generation) {
         this.thread = thread;
-        rootFrames = new ConcurrentHashMap<String, FrameNode>();
+        this.generation = generation;
+        rootFrame = new FrameNode(null, FrameNode.ROOT_METHOD_ID);
+        currentFrame = rootFrame;
     }
 
     /**
-     * Gets the root frame.
+     * Gets the generation of the runtime model this thread node belongs to.
      * 
-     * @param className
-     *            The class name
-     * @param methodName
-     *            The method name
-     * @return The root frame
+     * @return The generation
      */
-    protected FrameNode getRootFrame(String className, String methodName) {
-        FrameNode frame = rootFrames.get(className + '.' + methodName);
-        if (frame == null) {
-            frame = new FrameNode(null, className, methodName);
-            rootFrames.put(className + '.' + methodName, frame);
-        }
-        return frame;
+    protected int getGeneration() {
+        return generation;
     }
 
     /**
      * Gets the current frame.
      * 
-     * @return The current frame, or <tt>null</tt> if not yet set
+     * @return The current frame, or the root frame node if no frame is being
+     *         executed
      */
     protected FrameNode getCurrentFrame() {
         return currentFrame;
@@ -80,11 +76,11 @@ public class ThreadNode {
      * @param writer
      *            The writer
      * @param time
-     *            The time
+     *            The time [ns]
      */
     protected void dump(PrintWriter writer, long time) {
-        Collection<FrameNode> frameNodes = rootFrames.values();
-        if (frameNodes.size() == 0) {
+        FrameNode[] frameNodes = rootFrame.getChildren();
+        if (frameNodes.length == 0) {
             return;
         }
         
@@ -102,11 +98,11 @@ public class ThreadNode {
      * @param buffer
      *            The string buffer
      * @param time
-     *            The time
+     *            The time [ns]
      */
     protected void dump(StringBuffer buffer, long time) {
-        Collection<FrameNode> frameNodes = rootFrames.values();
-        if (frameNodes.size() == 0) {
+        FrameNode[] frameNodes = rootFrame.getChildren();
+        if (frameNodes.length == 0) {
             return;
         }
 
@@ -117,4 +113,32 @@ public class ThreadNode {
         }
         buffer.append("\t</thread>\n");
     }
+
+    /**
+     * Dumps the profile data in binary format.
+     * 
+     * @param writer
+     *            The binary dump writer
+     * @param frameNodes
+     *            The root frames, as given by {@link #getRootFrames()}
+     * @param time
+     *            The time [ns]
+     */
+    protected void dump(BinaryDumpWriter writer, FrameNode[] frameNodes,
+            long time) {
+        writer.writeString(thread);
+        writer.writeNumber(frameNodes.length);
+        for (FrameNode frameNode : frameNodes) {
+            frameNode.dump(writer, time);
+        }
+    }
+
+    /**
+     * Gets the root frames.
+     * 
+     * @return The root frames
+     */
+    protected FrameNode[] getRootFrames() {
+        return rootFrame.getChildren();
+    }
 }
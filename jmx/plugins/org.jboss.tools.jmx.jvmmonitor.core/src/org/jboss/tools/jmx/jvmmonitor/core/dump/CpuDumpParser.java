@@ -6,7 +6,9 @@
  *******************************************************************************/
 package org.jboss.tools.jmx.jvmmonitor.core.dump;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -16,12 +18,14 @@ import javax.xml.parsers.SAXParserFactory;
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.jboss.tools.jmx.jvmmonitor.core.cpu.ICpuModel;
+import org.jboss.tools.jmx.jvmmonitor.internal.core.cpu.CpuBinaryDumpReader;
 import org.jboss.tools.jmx.jvmmonitor.internal.core.cpu.CpuDumpSaxEventHandler;
 import org.jboss.tools.jmx.jvmmonitor.internal.core.cpu.CpuModel;
 import org.xml.sax.SAXException;
 
 /**
- * The CPU dump parser.
+ * The CPU dump parser. Both the XML dump and the compact binary dump given by
+ * the agent are supported, and told apart by their first bytes.
  */
 public class CpuDumpParser extends AbstractDumpParser {
 
@@ -99,21 +103,53 @@ public class CpuDumpParser extends AbstractDumpParser {
     public void parse() throws ParserConfigurationException, SAXException,
             IOException {
 
-        parser = SAXParserFactory.newInstance().newSAXParser();
         CpuDumpSaxEventHandler handler = new CpuDumpSaxEventHandler(cpuModel,
                 monitor);
 
         if (inputType == InputType.FILE) {
             if (file.exists() && file.canRead()) {
-                parser.parse(file, handler);
+                InputStream input = new FileInputStream(file);
+                try {
+                    parse(new BufferedInputStream(input), handler);
+                } finally {
+                    input.close();
+                }
             }
         } else if (inputType == InputType.STREAM) {
-            parser.parse(inputStream, handler);
+            InputStream input = inputStream;
+            if (!input.markSupported()) {
+                input = new BufferedInputStream(input);
+            }
+            parse(input, handler);
         }
 
         info = handler.getProfileInfo();
     }
 
+    /**
+     * Parses the CPU dump from the given stream.
+     * 
+     * @param input
+     *            The input stream, which must support mark
+     * @param handler
+     *            The SAX event handler
+     * @throws SAXException
+     *             if creating parser fails
+     * @throws ParserConfigurationException
+     *             if creating parser fails
+     * @throws IOException
+     *             if parsing input fails
+     */
+    private void parse(InputStream input, CpuDumpSaxEventHandler handler)
+            throws ParserConfigurationException, SAXException, IOException {
+        if (CpuBinaryDumpReader.isBinaryDump(input)) {
+            new CpuBinaryDumpReader(input, handler, monitor).read();
+        } else {
+            parser = SAXParserFactory.newInstance().newSAXParser();
+            parser.parse(input, handler);
+        }
+    }
+
     /**
      * The input type.
      */
@@ -51,6 +51,15 @@ public interface IMonitoredMXBeanAttribute {
      */
     List<Number> getValues();
 
+    /**
+     * Gets the snapshot of the dates and values at once. Unlike
+     * {@link #getDates()} and {@link #getValues()} invoked one after the
+     * other, the dates and values are consistent with each other.
+     * 
+     * @return The snapshot of the dates and values
+     */
+    ITimeSeries getTimeSeries();
+
     /**
      * Sets the RGB.
      * 
@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.core.mbean;
+
+/**
+ * The snapshot of the values of a monitored MXBean attribute, ordered by
+ * time. The times and values at the same index belong together.
+ */
+public interface ITimeSeries {
+
+    /**
+     * Gets the number of values.
+     *
+     * @return The number of values
+     */
+    int size();
+
+    /**
+     * Gets the times.
+     *
+     * @return The times in milliseconds since the epoch
+     */
+    long[] getTimes();
+
+    /**
+     * Gets the values.
+     *
+     * @return The values
+     */
+    double[] getValues();
+}
@@ -8,6 +8,7 @@ package org.jboss.tools.jmx.jvmmonitor.internal.core;
 
 import static java.lang.management.ManagementFactory.newPlatformMXBeanProxy;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -33,6 +34,9 @@ import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import javax.management.Attribute;
 import javax.management.InstanceNotFoundException;
@@ -51,6 +55,7 @@ import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.jdt.core.Signature;
 import org.eclipse.osgi.util.NLS;
 import org.jboss.tools.jmx.jvmmonitor.core.AbstractJvm;
@@ -76,9 +81,12 @@ import org.jboss.tools.jmx.jvmmonitor.core.mbean.IMonitoredMXBeanGroup.AxisUnit;
 import org.jboss.tools.jmx.jvmmonitor.core.mbean.MBeanServerEvent;
 import org.jboss.tools.jmx.jvmmonitor.core.mbean.MBeanServerEvent.MBeanServerState;
 import org.jboss.tools.jmx.jvmmonitor.internal.core.cpu.CallTreeNode;
+import org.jboss.tools.jmx.jvmmonitor.internal.core.cpu.CpuBinaryDumpReader;
 import org.jboss.tools.jmx.jvmmonitor.internal.core.cpu.CpuModel;
+import org.jboss.tools.jmx.jvmmonitor.internal.core.cpu.CpuSamplingDeltaHandler;
 import org.jboss.tools.jmx.jvmmonitor.internal.core.cpu.MethodNode;
 import org.jboss.tools.jmx.jvmmonitor.internal.core.cpu.ThreadNode;
+import org.xml.sax.SAXException;
 
 /**
  * The MBean server. MBeanServerConnection is hidden for clients, since its
@@ -90,6 +98,15 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
     /** The data transfer MXBean name. */
     private final static String DATA_TRANSFER_MXBEAN_NAME = "org.jboss.tools.jmx.jvmmonitor:type=Data Transfer"; //$NON-NLS-1$
 
+    /** The preferred chunk size in bytes to transfer files. */
+    private final static int TRANSFER_CHUNK_SIZE = 1024 * 1024;
+
+    /** The sampling profiler MXBean name. */
+    private final static String SAMPLING_PROFILER_MXBEAN_NAME = "org.jboss.tools.jmx.jvmmonitor:type=Sampling Profiler"; //$NON-NLS-1$
+
+    /** The minimum period [ms] to poll the data sampled by the agent. */
+    private final static int AGENT_SAMPLING_POLLING_PERIOD = 1000;
+
     /** The MBean server connection. */
     private MBeanServerConnection connection;
     
@@ -142,6 +159,18 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
     /** The previous stack trace. */
     private Map<String, StackTraceElement[]> previousStackTraces;
 
+    /**
+     * The sampling profiler MXBean of the agent, or <tt>null</tt> if sampling
+     * the stack traces remotely.
+     */
+    private ObjectName samplingProfilerObjectName;
+
+    /**
+     * The profiled packages given to the sampling profiler of the agent, or
+     * <tt>null</tt> if the profiler has to be set up.
+     */
+    private Set<String> agentProfiledPackages;
+
     /**
      * The constructor.
      * 
@@ -640,6 +669,16 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
         }
         samplingTimer = new Timer(true);
 
+        // the agent samples at the given period, so that polling less often
+        // only fetches more aggregated data at once
+        samplingProfilerObjectName = getSamplingProfilerObjectName();
+        agentProfiledPackages = null;
+        long pollingPeriod = samplingPeriod;
+        if (samplingProfilerObjectName != null) {
+            pollingPeriod = Math.max(pollingPeriod,
+                    AGENT_SAMPLING_POLLING_PERIOD);
+        }
+
         TimerTask timerTask = new TimerTask() {
             @Override
             public void run() {
@@ -653,7 +692,7 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
                 }
             }
         };
-        samplingTimer.schedule(timerTask, 0, samplingPeriod);
+        samplingTimer.schedule(timerTask, 0, pollingPeriod);
     }
 
     /**
@@ -664,6 +703,40 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
             samplingTimer.cancel();
             samplingTimer = null;
         }
+        ObjectName objectName = samplingProfilerObjectName;
+        if (objectName != null) {
+            samplingProfilerObjectName = null;
+            try {
+                setAttribute(objectName, new Attribute("Running", //$NON-NLS-1$
+                        Boolean.FALSE));
+            } catch (JvmCoreException e) {
+                // do nothing, the agent stops sampling when not polled
+            }
+        }
+    }
+
+    /**
+     * Gets the object name of the sampling profiler MXBean of the agent.
+     * 
+     * @return The object name, or <tt>null</tt> if the agent isn't loaded
+     *         or doesn't provide the sampling profiler
+     */
+    private ObjectName getSamplingProfilerObjectName() {
+        if (!checkReachability()) {
+            return null;
+        }
+
+        try {
+            ObjectName objectName = getObjectName(SAMPLING_PROFILER_MXBEAN_NAME);
+            if (getConnection().isRegistered(objectName)) {
+                return objectName;
+            }
+        } catch (JvmCoreException e) {
+            // do nothing
+        } catch (IOException e) {
+            // do nothing
+        }
+        return null;
     }
 
     /**
@@ -876,7 +949,8 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
                     previousProcessCpuTime = (Long) value;
                     value = percent > 1 ? 1 : percent;
                 }
-                ((MonitoredMXBeanAttribute) attribute).add(value, new Date());
+                ((MonitoredMXBeanAttribute) attribute).add(
+                        value.doubleValue(), System.currentTimeMillis());
             }
         }
 
@@ -1088,20 +1162,9 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
             } else if (type == SnapshotType.Hprof && jvm.isRemote()) {
                 ObjectName objectName = getObjectName(DATA_TRANSFER_MXBEAN_NAME);
                 os = fileStore.openOutputStream(EFS.NONE, null);
-                byte[] bytes = new byte[0];
-                int offset = 0;
-                final int SIZE = 4096;
-                final String[] SIGNATURES = new String[] {
-                        String.class.getCanonicalName(), "int", "int" };//$NON-NLS-1$ //$NON-NLS-2$
-                do {
-                    bytes = (byte[]) invoke(objectName, "read", new Object[] { //$NON-NLS-1$
-                            dumpFileName, offset, SIZE }, SIGNATURES);
-                    os.write(bytes);
-                    offset += SIZE;
-                    if (monitor != null && monitor.isCanceled()) {
-                        return null;
-                    }
-                } while (bytes.length > 0);
+                if (!transferFile(objectName, dumpFileName, os, monitor)) {
+                    return null;
+                }
             }
 
             Snapshot snapshot = new Snapshot(fileStore, abstractJvm);
@@ -1135,6 +1198,136 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
         return fileStore;
     }
 
+    /**
+     * Transfers the file from the host where target JVM is running. The file
+     * is read in large compressed chunks through a transfer session, and
+     * verified with its checksum at the end.
+     * 
+     * @param objectName
+     *            The object name of data transfer MXBean
+     * @param fileName
+     *            The file name on the host where target JVM is running
+     * @param os
+     *            The output stream
+     * @param monitor
+     *            The progress monitor, or <tt>null</tt>
+     * @return <tt>false</tt> if canceled
+     * @throws JvmCoreException
+     * @throws IOException
+     */
+    private boolean transferFile(ObjectName objectName, String fileName,
+            OutputStream os, IProgressMonitor monitor)
+            throws JvmCoreException, IOException {
+        Object session;
+        int chunkSize = TRANSFER_CHUNK_SIZE;
+        try {
+            Object maxChunkSize = getAttribute(objectName, "MaxChunkSize"); //$NON-NLS-1$
+            if (maxChunkSize instanceof Integer) {
+                chunkSize = Math.min(chunkSize, (Integer) maxChunkSize);
+            }
+            session = invoke(objectName, "open", new Object[] { fileName, //$NON-NLS-1$
+                    chunkSize, Boolean.TRUE }, new String[] {
+                    String.class.getCanonicalName(), "int", "boolean" }); //$NON-NLS-1$ //$NON-NLS-2$
+        } catch (JvmCoreException e) {
+            if (!Util.isOperationMissing(e)) {
+                throw e;
+            }
+            // agents older than the transfer session can only read by offset
+            return transferFileByOffset(objectName, fileName, os, monitor);
+        }
+        if (!(session instanceof Long) || (Long) session == -1) {
+            throw new IOException(NLS.bind(Messages.dumpFailedMsg, fileName));
+        }
+
+        final String[] SIGNATURES = new String[] { "long" }; //$NON-NLS-1$
+        Object[] params = new Object[] { session };
+        byte[] buffer = new byte[chunkSize];
+        CRC32 checksum = new CRC32();
+        Inflater inflater = new Inflater();
+        boolean completed = false;
+        try {
+            while (true) {
+                if (monitor != null && monitor.isCanceled()) {
+                    return false;
+                }
+                byte[] chunk = (byte[]) invoke(objectName, "readChunk", params, //$NON-NLS-1$
+                        SIGNATURES);
+                if (chunk == null) {
+                    throw new IOException(Messages.jvmNotReachableMsg);
+                }
+                if (chunk.length == 0) {
+                    break;
+                }
+
+                inflater.reset();
+                inflater.setInput(chunk);
+                while (!inflater.finished()) {
+                    int size = inflater.inflate(buffer);
+                    if (size == 0 && inflater.needsInput()) {
+                        throw new IOException(NLS.bind(
+                                Messages.dumpFailedMsg, fileName));
+                    }
+                    os.write(buffer, 0, size);
+                    checksum.update(buffer, 0, size);
+                }
+            }
+            completed = true;
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        } finally {
+            inflater.end();
+            if (!completed) {
+                try {
+                    invoke(objectName, "close", params, SIGNATURES); //$NON-NLS-1$
+                } catch (JvmCoreException e) {
+                    // do nothing
+                }
+            }
+        }
+
+        Object value = invoke(objectName, "close", params, SIGNATURES); //$NON-NLS-1$
+        if (!(value instanceof Long) || (Long) value != checksum.getValue()) {
+            throw new IOException(NLS.bind(Messages.dumpFailedMsg, fileName));
+        }
+        return true;
+    }
+
+    /**
+     * Transfers the file from the host where target JVM is running, reading
+     * it by offset as supported by all agent versions.
+     * 
+     * @param objectName
+     *            The object name of data transfer MXBean
+     * @param fileName
+     *            The file name on the host where target JVM is running
+     * @param os
+     *            The output stream
+     * @param monitor
+     *            The progress monitor, or <tt>null</tt>
+     * @return <tt>false</tt> if canceled
+     * @throws JvmCoreException
+     * @throws IOException
+     */
+    private boolean transferFileByOffset(ObjectName objectName,
+            String fileName, OutputStream os, IProgressMonitor monitor)
+            throws JvmCoreException, IOException {
+        byte[] bytes = new byte[0];
+        int offset = 0;
+        final int SIZE = 4096;
+        final String[] SIGNATURES = new String[] {
+                String.class.getCanonicalName(), "int", "int" };//$NON-NLS-1$ //$NON-NLS-2$
+        do {
+            bytes = (byte[]) invoke(objectName, "read", new Object[] { //$NON-NLS-1$
+                    fileName, offset, SIZE }, SIGNATURES);
+            os.write(bytes);
+            offset += SIZE;
+            if (monitor != null && monitor.isCanceled()) {
+                return false;
+            }
+        } while (bytes.length > 0);
+        return true;
+    }
+
     /**
      * Gets the dump string.
      * 
@@ -1218,6 +1411,12 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
             return;
         }
 
+        ObjectName objectName = samplingProfilerObjectName;
+        if (objectName != null) {
+            pollProfilingData(objectName);
+            return;
+        }
+
         ThreadMXBean threadMXBean;
         try {
             threadMXBean = (ThreadMXBean) getMXBean(ThreadMXBean.class,
@@ -1278,6 +1477,50 @@ public abstract class AbstractMBeanServer implements IMBeanServer, IProfilingMBe
         previousSamplingTime = samplingTime;
     }
 
+    /**
+     * Polls the profiling data sampled by the agent since the previous poll,
+     * and merges it into the CPU model.
+     * 
+     * @param objectName
+     *            The object name of the sampling profiler MXBean
+     * @throws JvmCoreException
+     */
+    private void pollProfilingData(ObjectName objectName)
+            throws JvmCoreException {
+        Set<String> profiledPackages = jvm.getCpuProfiler()
+                .getProfiledPackages();
+
+        // the agent stops sampling by itself when it isn't polled for a
+        // while, e.g. after the IDE was suspended, so restart it if needed
+        if (!profiledPackages.equals(agentProfiledPackages)
+                || Boolean.FALSE.equals(getAttribute(objectName, "Running"))) { //$NON-NLS-1$
+            setAttribute(objectName, new Attribute("ProfiledPackages", //$NON-NLS-1$
+                    profiledPackages.toArray(new String[profiledPackages.size()])));
+            setAttribute(objectName, new Attribute("SamplingPeriod", //$NON-NLS-1$
+                    samplingPeriod));
+            setAttribute(objectName, new Attribute("Running", Boolean.TRUE)); //$NON-NLS-1$
+            agentProfiledPackages = new HashSet<String>(profiledPackages);
+        }
+
+        Object delta = invoke(objectName, "dumpDelta", null, null); //$NON-NLS-1$
+        if (!(delta instanceof byte[])) {
+            return;
+        }
+
+        CpuModel cpuModel = (CpuModel) jvm.getCpuProfiler().getCpuModel();
+        try {
+            new CpuBinaryDumpReader(new ByteArrayInputStream((byte[]) delta),
+                    new CpuSamplingDeltaHandler(cpuModel),
+                    new NullProgressMonitor()).read();
+        } catch (IOException e) {
+            throw new JvmCoreException(IStatus.ERROR,
+                    Messages.parseCpuDumpFailedMsg, e);
+        } catch (SAXException e) {
+            throw new JvmCoreException(IStatus.ERROR,
+                    Messages.parseCpuDumpFailedMsg, e);
+        }
+    }
+
     /**
      * Gets the inverted stack trace.
      * 
@@ -9,20 +9,28 @@ package org.jboss.tools.jmx.jvmmonitor.internal.core;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.management.ObjectName;
 
 import org.jboss.tools.jmx.jvmmonitor.core.mbean.IMonitoredMXBeanAttribute;
+import org.jboss.tools.jmx.jvmmonitor.core.mbean.ITimeSeries;
 
 
 /**
- * The monitored MXBean attributes.
+ * The monitored MXBean attributes. The most recent values are kept as they
+ * are, and the older ones only as the min / max value of each block of
+ * values, both in fixed capacity ring buffers.
  */
 public class MonitoredMXBeanAttribute implements IMonitoredMXBeanAttribute {
 
-    /** The number of durations. */
-    private static final long NUM_OF_DURATIONS = 500;
+    /** The number of the most recent values. */
+    private static final int NUM_OF_VALUES = 1000;
+
+    /** The number of the min / max values of the older blocks. */
+    private static final int NUM_OF_HISTORY_VALUES = 1000;
+
+    /** The number of values in a block of the history. */
+    private static final int NUM_OF_BLOCK_VALUES = 20;
 
     /** The object name. */
     private ObjectName objectName;
@@ -30,14 +38,26 @@ public class MonitoredMXBeanAttribute implements IMonitoredMXBeanAttribute {
     /** The attribute name. */
     private String atributeName;
 
-    /** The attribute values. */
-    private List<Number> values;
+    /** The most recent values. */
+    private volatile TimeSeriesRingBuffer values;
+
+    /** The min / max values of the blocks. */
+    private volatile TimeSeriesRingBuffer history;
+
+    /** The number of values in the current block. */
+    private int blockSize;
+
+    /** The time of the min value in the current block. */
+    private long blockMinTime;
+
+    /** The min value in the current block. */
+    private double blockMin;
 
-    /** The time values. */
-    private List<Date> dates;
+    /** The time of the max value in the current block. */
+    private long blockMaxTime;
 
-    /** The previous duration index. */
-    private int previousDurationIndex;
+    /** The max value in the current block. */
+    private double blockMax;
 
     /** The RGB. */
     private int[] rgb;
@@ -56,11 +76,11 @@ public class MonitoredMXBeanAttribute implements IMonitoredMXBeanAttribute {
             String attributeName, int[] rgb) {
         this.objectName = objectName;
         this.atributeName = attributeName;
-        previousDurationIndex = 0;
         this.rgb = rgb;
 
-        values = new CopyOnWriteArrayList<Number>();
-        dates = new CopyOnWriteArrayList<Date>();
+        values = new TimeSeriesRingBuffer(NUM_OF_VALUES);
+        history = new TimeSeriesRingBuffer(NUM_OF_HISTORY_VALUES);
+        blockSize = 0;
     }
 
     /*
@@ -92,6 +112,11 @@ public class MonitoredMXBeanAttribute implements IMonitoredMXBeanAttribute {
      */
     @Override
     public List<Date> getDates() {
+        long[] times = getTimeSeries().getTimes();
+        List<Date> dates = new ArrayList<Date>(times.length);
+        for (long time : times) {
+            dates.add(new Date(time));
+        }
         return dates;
     }
 
@@ -100,7 +125,44 @@ public class MonitoredMXBeanAttribute implements IMonitoredMXBeanAttribute {
      */
     @Override
     public List<Number> getValues() {
-        return values;
+        double[] doubles = getTimeSeries().getValues();
+        List<Number> numbers = new ArrayList<Number>(doubles.length);
+        for (double value : doubles) {
+            numbers.add(value);
+        }
+        return numbers;
+    }
+
+    /*
+     * @see IMonitoredMXBeanAttribute#getTimeSeries()
+     */
+    @Override
+    public ITimeSeries getTimeSeries() {
+        TimeSeries recent = values.snapshot();
+        TimeSeries older = history.snapshot();
+
+        // the history older than the most recent values
+        long[] olderTimes = older.getTimes();
+        int olderSize = olderTimes.length;
+        if (recent.size() > 0) {
+            long firstTime = recent.getTimes()[0];
+            while (olderSize > 0 && olderTimes[olderSize - 1] >= firstTime) {
+                olderSize--;
+            }
+        }
+        if (olderSize == 0) {
+            return recent;
+        }
+
+        int size = olderSize + recent.size();
+        long[] times = new long[size];
+        double[] doubles = new double[size];
+        System.arraycopy(olderTimes, 0, times, 0, olderSize);
+        System.arraycopy(older.getValues(), 0, doubles, 0, olderSize);
+        System.arraycopy(recent.getTimes(), 0, times, olderSize, recent.size());
+        System.arraycopy(recent.getValues(), 0, doubles, olderSize,
+                recent.size());
+        return new TimeSeries(times, doubles);
     }
 
     /*
@@ -116,124 +178,54 @@ public class MonitoredMXBeanAttribute implements IMonitoredMXBeanAttribute {
      */
     @Override
     public void clear() {
-        dates.clear();
-        values.clear();
-        previousDurationIndex = 0;
+        values = new TimeSeriesRingBuffer(NUM_OF_VALUES);
+        history = new TimeSeriesRingBuffer(NUM_OF_HISTORY_VALUES);
+        blockSize = 0;
     }
 
     /**
-     * Adds the attribute value.
+     * Adds the attribute value. This is invoked only by the thread updating
+     * the MBean model.
      * 
      * @param value
      *            The attribute value
-     * @param date
-     *            The date
+     * @param time
+     *            The time in milliseconds since the epoch
      */
-    public void add(Number value, Date date) {
-        values.add(value);
-        dates.add(date);
+    public void add(double value, long time) {
+        values.add(time, value);
 
-        // compress data if exceeding the certain size
-        if (dates.size() > NUM_OF_DURATIONS * 2) {
-            compress();
+        // keep the min / max values of the block in the history
+        if (blockSize == 0 || value < blockMin) {
+            blockMin = value;
+            blockMinTime = time;
         }
-    }
-
-    /**
-     * Gets the data size.
-     * 
-     * @return The data size.
-     */
-    public int getSize() {
-        return dates.size();
-    }
-
-    /**
-     * Compresses the data diving into several durations and keeping only the
-     * min / max value in each duration.
-     */
-    private void compress() {
-        ArrayList<Date> compressedDates = new ArrayList<Date>();
-        ArrayList<Number> compressedValues = new ArrayList<Number>();
-
-        int minIndex = 0;
-        int maxIndex = 0;
-        previousDurationIndex = 0;
-        for (int i = 0; i < dates.size(); i++) {
-            if (isInSameDurationAsPrevious(dates.get(i).getTime())) {
-
-                // get the min / max values in the same duration
-                double value = values.get(i).doubleValue();
-                if (value > values.get(maxIndex).doubleValue()) {
-                    maxIndex = i;
-                }
-                if (value < values.get(minIndex).doubleValue()) {
-                    minIndex = i;
-                }
+        if (blockSize == 0 || value > blockMax) {
+            blockMax = value;
+            blockMaxTime = time;
+        }
+        blockSize++;
+        if (blockSize == NUM_OF_BLOCK_VALUES) {
+            TimeSeriesRingBuffer buffer = history;
+            if (blockMinTime < blockMaxTime) {
+                buffer.add(blockMinTime, blockMin);
+                buffer.add(blockMaxTime, blockMax);
+            } else if (blockMinTime > blockMaxTime) {
+                buffer.add(blockMaxTime, blockMax);
+                buffer.add(blockMinTime, blockMin);
             } else {
-                addValues(compressedDates, compressedValues, minIndex, maxIndex);
-                maxIndex = i;
-                minIndex = i;
+                buffer.add(blockMinTime, blockMin);
             }
+            blockSize = 0;
         }
-
-        addValues(compressedDates, compressedValues, minIndex, maxIndex);
-
-        dates = compressedDates;
-        values = compressedValues;
     }
 
     /**
-     * Adds the values to the given array.
-     * 
-     * @param datesArray
-     *            The array of dates
-     * @param valuesArray
-     *            The array of values
-     * @param indexA
-     *            The index of {@link #dates} and {@link #values} to add
-     * @param indexB
-     *            The index of {@link #values} and {@link #values} to add
-     */
-    private void addValues(ArrayList<Date> datesArray,
-            ArrayList<Number> valuesArray, int indexA, int indexB) {
-        if (indexA < indexB) {
-            datesArray.add(dates.get(indexA));
-            valuesArray.add(values.get(indexA));
-            datesArray.add(dates.get(indexB));
-            valuesArray.add(values.get(indexB));
-        } else if (indexA > indexB) {
-            datesArray.add(dates.get(indexB));
-            valuesArray.add(values.get(indexB));
-            datesArray.add(dates.get(indexA));
-            valuesArray.add(values.get(indexA));
-        } else {
-            datesArray.add(dates.get(indexB));
-            valuesArray.add(values.get(indexB));
-        }
-    }
-
-    /**
-     * Checks if the given date is in the same duration as previous.
+     * Gets the data size.
      * 
-     * @param date
-     *            the date
-     * @return true if the given date is in the same duration as previous
+     * @return The data size.
      */
-    private boolean isInSameDurationAsPrevious(long date) {
-
-        double minDate = dates.get(0).getTime();
-        double maxDate = dates.get(dates.size() - 1).getTime();
-
-        // calculate the duration index
-        int durationIndex = (int) ((date - minDate) / (maxDate - minDate) * NUM_OF_DURATIONS);
-
-        // check if the duration index is the same as previous
-        boolean isInSameGridAsPrevious = (durationIndex == previousDurationIndex);
-
-        // store the previous duration index
-        previousDurationIndex = durationIndex;
-
-        return isInSameGridAsPrevious;
+    public int getSize() {
+        return getTimeSeries().size();
     }
 }
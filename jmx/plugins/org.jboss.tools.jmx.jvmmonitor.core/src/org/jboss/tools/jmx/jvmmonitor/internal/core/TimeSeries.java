@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.internal.core;
+
+import org.jboss.tools.jmx.jvmmonitor.core.mbean.ITimeSeries;
+
+/**
+ * The snapshot of the values of a monitored MXBean attribute.
+ */
+public class TimeSeries implements ITimeSeries {
+
+    /** The empty time series. */
+    static final TimeSeries EMPTY = new TimeSeries(new long[0], new double[0]);
+
+    /** The times. */
+    private long[] times;
+
+    /** The values. */
+    private double[] values;
+
+    /**
+     * The constructor.
+     *
+     * @param times
+     *            The times
+     * @param values
+     *            The values, as many as the times
+     */
+    public TimeSeries(long[] times, double[] values) {
+        this.times = times;
+        this.values = values;
+    }
+
+    /*
+     * @see ITimeSeries#size()
+     */
+    @Override
+    public int size() {
+        return times.length;
+    }
+
+    /*
+     * @see ITimeSeries#getTimes()
+     */
+    @Override
+    public long[] getTimes() {
+        return times;
+    }
+
+    /*
+     * @see ITimeSeries#getValues()
+     */
+    @Override
+    public double[] getValues() {
+        return values;
+    }
+}
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.internal.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The fixed capacity ring buffer of times and values, keeping the most recent
+ * ones. The values are added by a single thread, and snapshots can be taken
+ * by any thread without locking.
+ * <p>
+ * A snapshot copies the slots and then checks how many values were added
+ * meanwhile, dropping the oldest values whose slots may have been
+ * overwritten. The slots are accessed with volatile semantics, so the check
+ * cannot be ordered before the copy.
+ */
+public class TimeSeriesRingBuffer {
+
+    /** The times. */
+    private AtomicLongArray times;
+
+    /** The bits of the values. */
+    private AtomicLongArray values;
+
+    /** The number of values ever added. */
+    private volatile long count;
+
+    /**
+     * The constructor.
+     *
+     * @param capacity
+     *            The number of values to keep
+     */
+    public TimeSeriesRingBuffer(int capacity) {
+        times = new AtomicLongArray(capacity);
+        values = new AtomicLongArray(capacity);
+        count = 0;
+    }
+
+    /**
+     * Adds the value. This must only be invoked by a single thread.
+     *
+     * @param time
+     *            The time
+     * @param value
+     *            The value
+     */
+    public void add(long time, double value) {
+        long index = count;
+        int slot = (int) (index % times.length());
+        times.set(slot, time);
+        values.set(slot, Double.doubleToRawLongBits(value));
+        count = index + 1;
+    }
+
+    /**
+     * Gets the number of values ever added.
+     *
+     * @return The number of values ever added
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the snapshot of the values, the oldest first.
+     *
+     * @return The snapshot
+     */
+    public TimeSeries snapshot() {
+        int capacity = times.length();
+        long end = count;
+        long start = Math.max(0, end - capacity);
+        int size = (int) (end - start);
+
+        long[] timeArray = new long[size];
+        double[] valueArray = new double[size];
+        for (int i = 0; i < size; i++) {
+            int slot = (int) ((start + i) % capacity);
+            timeArray[i] = times.get(slot);
+            valueArray[i] = Double.longBitsToDouble(values.get(slot));
+        }
+
+        // the value being added may overwrite the oldest slot
+        long overwritten = count + 1 - capacity - start;
+        if (overwritten > 0) {
+            int from = (int) Math.min(overwritten, size);
+            timeArray = Arrays.copyOfRange(timeArray, from, size);
+            valueArray = Arrays.copyOfRange(valueArray, from, size);
+        }
+        return new TimeSeries(timeArray, valueArray);
+    }
+}
@@ -14,6 +14,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
 
+import javax.management.AttributeNotFoundException;
+import javax.management.ReflectionException;
+
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.runtime.CoreException;
@@ -21,6 +24,7 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.osgi.util.NLS;
 import org.jboss.tools.jmx.jvmmonitor.core.Activator;
+import org.jboss.tools.jmx.jvmmonitor.core.JvmCoreException;
 import org.jboss.tools.jmx.jvmmonitor.core.Messages;
 
 /**
@@ -106,4 +110,20 @@ public class Util {
         IPath filePath = baseDir.append(File.separator + fileName);
         return EFS.getLocalFileSystem().getStore(filePath);
     }
+
+    /**
+     * Gets the state indicating if the given error means that the agent has
+     * no such operation or attribute, rather than that the call failed.
+     * 
+     * @param e
+     *            The error
+     * @return True if the operation or attribute is not found
+     */
+    public static boolean isOperationMissing(JvmCoreException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof ReflectionException) {
+            return ((ReflectionException) cause).getTargetException() instanceof NoSuchMethodException;
+        }
+        return cause instanceof AttributeNotFoundException;
+    }
 }
@@ -7,7 +7,9 @@
 package org.jboss.tools.jmx.jvmmonitor.internal.core.cpu;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.jboss.tools.jmx.jvmmonitor.core.cpu.ICallTreeNode;
 import org.jboss.tools.jmx.jvmmonitor.core.cpu.ICpuModel;
@@ -22,6 +24,12 @@ public class CallTreeNode extends AbstractMethodNode implements ICallTreeNode {
     /** The child nodes. */
     private List<CallTreeNode> frames;
 
+    /**
+     * The child nodes keyed by name, or <tt>null</tt> if there is no child
+     * node. The list of child nodes only keeps the order for presentation.
+     */
+    private Map<String, CallTreeNode> framesByName;
+
     /** The total invocation time. */
     private long totalTime;
 
@@ -87,12 +95,10 @@ public class CallTreeNode extends AbstractMethodNode implements ICallTreeNode {
      */
     @Override
     public CallTreeNode getChild(String name) {
-        for (CallTreeNode frameNode : frames) {
-            if (frameNode.getName().equals(name)) {
-                return frameNode;
-            }
+        if (framesByName == null) {
+            return null;
         }
-        return null;
+        return framesByName.get(name);
     }
 
     /*
@@ -197,6 +203,12 @@ public class CallTreeNode extends AbstractMethodNode implements ICallTreeNode {
      */
     public void addChild(CallTreeNode node) {
         frames.add(node);
+        if (framesByName == null) {
+            framesByName = new HashMap<String, CallTreeNode>(4);
+        }
+        if (!framesByName.containsKey(node.getName())) {
+            framesByName.put(node.getName(), node);
+        }
     }
 
     /**
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.internal.core.cpu;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.xml.sax.SAXException;
+
+/**
+ * The reader of the binary CPU dump produced by the agent. The format is
+ * described in <tt>BinaryDumpWriter</tt> of the agent. The call tree is
+ * handed to {@link CpuDumpSaxEventHandler}, so that the CPU model is built
+ * exactly as from the XML dump.
+ */
+public class CpuBinaryDumpReader {
+
+    /** The magic number at the start of the binary dump. */
+    private static final int MAGIC = 0x4A4D4350;
+
+    /** The supported version of the binary dump format. */
+    private static final int VERSION = 1;
+
+    /** The input stream. */
+    private InputStream input;
+
+    /** The SAX event handler building the CPU model. */
+    private CpuDumpSaxEventHandler handler;
+
+    /** The progress monitor. */
+    private IProgressMonitor monitor;
+
+    /** The string table. */
+    private String[] strings;
+
+    /**
+     * The constructor.
+     *
+     * @param input
+     *            The input stream, positioned at the start of the dump
+     * @param handler
+     *            The SAX event handler building the CPU model
+     * @param monitor
+     *            The progress monitor
+     */
+    public CpuBinaryDumpReader(InputStream input,
+            CpuDumpSaxEventHandler handler, IProgressMonitor monitor) {
+        this.input = input;
+        this.handler = handler;
+        this.monitor = monitor;
+    }
+
+    /**
+     * Gets the state indicating if the given stream holds a binary dump. The
+     * stream is reset to where it was.
+     *
+     * @param input
+     *            The input stream, which must support mark
+     * @return <tt>true</tt> if the stream starts with the binary dump magic
+     * @throws IOException
+     *             if reading the stream fails
+     */
+    public static boolean isBinaryDump(InputStream input) throws IOException {
+        input.mark(4);
+        try {
+            int magic = 0;
+            for (int i = 0; i < 4; i++) {
+                int b = input.read();
+                if (b == -1) {
+                    return false;
+                }
+                magic = (magic << 8) | b;
+            }
+            return magic == MAGIC;
+        } finally {
+            input.reset();
+        }
+    }
+
+    /**
+     * Reads the dump into the CPU model.
+     *
+     * @throws IOException
+     *             if the dump cannot be read or is not a supported binary dump
+     * @throws SAXException
+     *             if the SAX event handler fails
+     */
+    public void read() throws IOException, SAXException {
+        for (int i = 0; i < 4; i++) {
+            if (readByte() != ((MAGIC >>> (24 - i * 8)) & 0xFF)) {
+                throw new IOException("Not a binary CPU dump"); //$NON-NLS-1$
+            }
+        }
+        int version = readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary CPU dump version " //$NON-NLS-1$
+                    + version);
+        }
+
+        strings = new String[readInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[readInt()];
+            readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        handler.startDocument();
+        handler.startProfile(readString(), readString(), readString(),
+                readString(), null);
+        int threadCount = readInt();
+        for (int i = 0; i < threadCount; i++) {
+            handler.startThread(readString());
+            int frameCount = readInt();
+            for (int j = 0; j < frameCount; j++) {
+                readFrame();
+            }
+            handler.endThread();
+        }
+        handler.endDocument();
+    }
+
+    /**
+     * Reads the frame and its child frames.
+     *
+     * @throws IOException
+     */
+    private void readFrame() throws IOException {
+        if (monitor.isCanceled()) {
+            throw new OperationCanceledException();
+        }
+
+        String name = readString();
+        int count = readInt();
+        long time = readLong();
+        handler.startFrame(name, count, time);
+        int childCount = readInt();
+        for (int i = 0; i < childCount; i++) {
+            readFrame();
+        }
+        handler.endFrame();
+    }
+
+    /**
+     * Reads the string given by its index into the string table.
+     *
+     * @return The string
+     * @throws IOException
+     */
+    private String readString() throws IOException {
+        int index = readInt();
+        if (index >= strings.length) {
+            throw new IOException("Illegal string index " + index); //$NON-NLS-1$
+        }
+        return strings[index];
+    }
+
+    /**
+     * Reads the variable length integer which must fit into an int.
+     *
+     * @return The integer
+     * @throws IOException
+     */
+    private int readInt() throws IOException {
+        long value = readLong();
+        if (value > Integer.MAX_VALUE) {
+            throw new IOException("Illegal number " + value); //$NON-NLS-1$
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads the variable length integer.
+     *
+     * @return The integer
+     * @throws IOException
+     */
+    private long readLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed number"); //$NON-NLS-1$
+    }
+
+    /**
+     * Reads the byte.
+     *
+     * @return The byte
+     * @throws IOException
+     */
+    private int readByte() throws IOException {
+        int b = input.read();
+        if (b == -1) {
+            throw new EOFException();
+        }
+        return b;
+    }
+
+    /**
+     * Reads the bytes.
+     *
+     * @param bytes
+     *            The bytes to fill
+     * @throws IOException
+     */
+    private void readFully(byte[] bytes) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            int read = input.read(bytes, offset, bytes.length - offset);
+            if (read == -1) {
+                throw new EOFException();
+            }
+            offset += read;
+        }
+    }
+}
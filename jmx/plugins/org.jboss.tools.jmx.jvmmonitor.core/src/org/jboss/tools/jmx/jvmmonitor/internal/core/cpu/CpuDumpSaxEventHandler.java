@@ -104,26 +104,13 @@ public class CpuDumpSaxEventHandler extends DefaultHandler {
             String mainClass = attributes.getValue("mainClass"); //$NON-NLS-1$
             String arguments = attributes.getValue("arguments"); //$NON-NLS-1$
             String comments = attributes.getValue("comments"); //$NON-NLS-1$
-            info = new ProfileInfo(date, runtime, mainClass, arguments,
-                    comments);
+            startProfile(date, runtime, mainClass, arguments, comments);
             return;
         }
 
         // thread
         if ("thread".equals(name)) { //$NON-NLS-1$
-            String threadName = attributes.getValue("name"); //$NON-NLS-1$
-            currentCallTreeThreadNode = cpuModel
-                    .getCallTreeThread(threadName);
-            if (currentCallTreeThreadNode == null) {
-                currentCallTreeThreadNode = new ThreadNode<CallTreeNode>(threadName);
-                cpuModel.addCallTreeThread(currentCallTreeThreadNode);
-            }
-            currentHotSpotThreadNode = cpuModel
-                    .getHotSpotThread(threadName);
-            if (currentHotSpotThreadNode == null) {
-                currentHotSpotThreadNode = new ThreadNode<MethodNode>(threadName);
-                cpuModel.addHotSpotThread(currentHotSpotThreadNode);
-            }
+            startThread(attributes.getValue("name")); //$NON-NLS-1$
             return;
         }
 
@@ -142,35 +129,13 @@ public class CpuDumpSaxEventHandler extends DefaultHandler {
 
         // thread
         if ("thread".equals(name)) { //$NON-NLS-1$
-            currentCallTreeThreadNode.setTotalTime(threadTotalTime);
-            currentCallTreeThreadNode = null;
-            currentHotSpotThreadNode.setTotalTime(threadTotalTime);
-            currentHotSpotThreadNode = null;
-            currentRootFrameNode = null;
-            currentFrameNode = null;
-            threadTotalTime = 0;
+            endThread();
             return;
         }
 
         // frame
         if ("frame".equals(name)) { //$NON-NLS-1$
-            ITreeNode parrentNode = currentFrameNode.getParent();
-            if (parrentNode instanceof CallTreeNode) {
-                CallTreeNode parentFrameNode = (CallTreeNode) parrentNode;
-                long selfTime = parentFrameNode.getSelfTime()
-                        - currentFrameNode.getTotalTime();
-                parentFrameNode.setSelfTime(selfTime);
-                storeMethods(currentFrameNode);
-                currentFrameNode = parentFrameNode;
-            } else {
-                storeMethods(currentFrameNode);
-
-                currentRootFrameNode.setTotalTime(frameTotalTime);
-                currentRootFrameNode = null;
-                currentFrameNode = null;
-                threadTotalTime += frameTotalTime;
-                frameTotalTime = 0;
-            }
+            endFrame();
         }
     }
 
@@ -183,6 +148,80 @@ public class CpuDumpSaxEventHandler extends DefaultHandler {
         return info;
     }
 
+    /**
+     * Starts the profile.
+     * 
+     * @param date
+     *            The date
+     * @param runtime
+     *            The runtime
+     * @param mainClass
+     *            The main class
+     * @param arguments
+     *            The arguments
+     * @param comments
+     *            The comments
+     */
+    void startProfile(String date, String runtime, String mainClass,
+            String arguments, String comments) {
+        info = new ProfileInfo(date, runtime, mainClass, arguments, comments);
+    }
+
+    /**
+     * Starts the thread.
+     * 
+     * @param threadName
+     *            The thread name
+     */
+    void startThread(String threadName) {
+        currentCallTreeThreadNode = cpuModel.getCallTreeThread(threadName);
+        if (currentCallTreeThreadNode == null) {
+            currentCallTreeThreadNode = new ThreadNode<CallTreeNode>(threadName);
+            cpuModel.addCallTreeThread(currentCallTreeThreadNode);
+        }
+        currentHotSpotThreadNode = cpuModel.getHotSpotThread(threadName);
+        if (currentHotSpotThreadNode == null) {
+            currentHotSpotThreadNode = new ThreadNode<MethodNode>(threadName);
+            cpuModel.addHotSpotThread(currentHotSpotThreadNode);
+        }
+    }
+
+    /**
+     * Ends the thread.
+     */
+    void endThread() {
+        currentCallTreeThreadNode.setTotalTime(threadTotalTime);
+        currentCallTreeThreadNode = null;
+        currentHotSpotThreadNode.setTotalTime(threadTotalTime);
+        currentHotSpotThreadNode = null;
+        currentRootFrameNode = null;
+        currentFrameNode = null;
+        threadTotalTime = 0;
+    }
+
+    /**
+     * Ends the frame.
+     */
+    void endFrame() {
+        ITreeNode parrentNode = currentFrameNode.getParent();
+        if (parrentNode instanceof CallTreeNode) {
+            CallTreeNode parentFrameNode = (CallTreeNode) parrentNode;
+            long selfTime = parentFrameNode.getSelfTime()
+                    - currentFrameNode.getTotalTime();
+            parentFrameNode.setSelfTime(selfTime);
+            storeMethods(currentFrameNode);
+            currentFrameNode = parentFrameNode;
+        } else {
+            storeMethods(currentFrameNode);
+
+            currentRootFrameNode.setTotalTime(frameTotalTime);
+            currentRootFrameNode = null;
+            currentFrameNode = null;
+            threadTotalTime += frameTotalTime;
+            frameTotalTime = 0;
+        }
+    }
+
     /**
      * Parses the frame attribute.
      * 
@@ -193,7 +232,20 @@ public class CpuDumpSaxEventHandler extends DefaultHandler {
         String methodName = attributes.getValue("name"); //$NON-NLS-1$
         int count = Integer.parseInt(attributes.getValue("cnt")); //$NON-NLS-1$
         long time = Long.parseLong(attributes.getValue("time")); //$NON-NLS-1$
+        startFrame(methodName, count, time);
+    }
 
+    /**
+     * Starts the frame.
+     * 
+     * @param methodName
+     *            The method name
+     * @param count
+     *            The invocation count
+     * @param time
+     *            The time
+     */
+    void startFrame(String methodName, int count, long time) {
         if (currentRootFrameNode == null) {
             currentRootFrameNode = (CallTreeNode) currentCallTreeThreadNode
                     .getChild(methodName);
@@ -66,6 +66,9 @@ public class CpuProfiler implements ICpuProfiler {
     /** The dump method in CpuProfilerMXBean. */
     private static final String DUMP = "dump"; //$NON-NLS-1$
 
+    /** The dumpBinary method in CpuProfilerMXBean. */
+    private static final String DUMP_BINARY = "dumpBinary"; //$NON-NLS-1$
+
     /** The setFilter method in CpuProfilerMXBean. */
     private static final String SET_FILTER = "setFilter"; //$NON-NLS-1$
 
@@ -105,6 +108,9 @@ public class CpuProfiler implements ICpuProfiler {
     /** The profiled packages. */
     private Set<String> profiledPackages;
 
+    /** The state indicating if the agent can give the binary dump. */
+    private boolean binaryDumpSupported;
+
     /**
      * The constructor.
      * 
@@ -117,6 +123,7 @@ public class CpuProfiler implements ICpuProfiler {
         type = ProfilerType.SAMPLING;
 
         profiledPackages = new HashSet<String>();
+        binaryDumpSupported = true;
     }
 
     /*
@@ -310,15 +317,14 @@ public class CpuProfiler implements ICpuProfiler {
             return;
         }
 
-        String dumpString = (String) invokeCpuProfilerMXBeanMethod(DUMP, null,
-                null);
-        if (dumpString == null) {
+        byte[] dump = getBciProfileDump();
+        if (dump == null || dump.length == 0) {
             return;
         }
 
         ByteArrayInputStream input = null;
         try {
-            input = new ByteArrayInputStream(dumpString.getBytes());
+            input = new ByteArrayInputStream(dump);
             CpuDumpParser parser = new CpuDumpParser(input, cpuModel, monitor);
             parser.parse();
         } catch (ParserConfigurationException e) {
@@ -537,6 +543,32 @@ public class CpuProfiler implements ICpuProfiler {
         return false;
     }
 
+    /**
+     * Gets the profile data from the agent, in the binary format if the agent
+     * supports it, or else in XML.
+     * 
+     * @return The profile data, or <tt>null</tt> if not connected
+     * @throws JvmCoreException
+     */
+    private byte[] getBciProfileDump() throws JvmCoreException {
+        if (binaryDumpSupported) {
+            try {
+                return (byte[]) invokeCpuProfilerMXBeanMethod(DUMP_BINARY,
+                        null, null);
+            } catch (JvmCoreException e) {
+                if (!Util.isOperationMissing(e)) {
+                    throw e;
+                }
+                // agents older than the binary dump only give XML
+                binaryDumpSupported = false;
+            }
+        }
+
+        String dumpString = (String) invokeCpuProfilerMXBeanMethod(DUMP, null,
+                null);
+        return dumpString == null ? null : dumpString.getBytes();
+    }
+
     /**
      * Validates the agent.
      * 
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Red Hat, Inc.
+ * Distributed under license by Red Hat, Inc. All rights reserved.
+ * This program is made available under the terms of the
+ * Eclipse Public License v2.0 which accompanies this distribution,
+ * and is available at http://www.eclipse.org/legal/epl-v20.html
+ *
+ * Contributors: Red Hat, Inc.
+ ******************************************************************************/
+package org.jboss.tools.jmx.jvmmonitor.internal.core.cpu;
+
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.jboss.tools.jmx.jvmmonitor.core.cpu.ITreeNode;
+
+/**
+ * The handler merging the profile data sampled by the agent since the previous
+ * poll into the CPU model. Unlike {@link CpuDumpSaxEventHandler}, which
+ * replaces the CPU model with the dump, the times and counts are added to the
+ * existing nodes, the same way as when sampling the stack traces remotely.
+ */
+public class CpuSamplingDeltaHandler extends CpuDumpSaxEventHandler {
+
+    /** The CPU model */
+    private CpuModel cpuModel;
+
+    /** The currently merged call tree thread node */
+    private ThreadNode<CallTreeNode> currentCallTreeThreadNode;
+
+    /** The currently merged hot spot thread node */
+    private ThreadNode<MethodNode> currentHotSpotThreadNode;
+
+    /** The currently merged frame node */
+    private CallTreeNode currentFrameNode;
+
+    /** The delta of time of the frames being merged, from the root frame */
+    private long[] frameTimes;
+
+    /** The delta of time of the child frames of the frames being merged */
+    private long[] childFrameTimes;
+
+    /** The depth of the currently merged frame node */
+    private int depth;
+
+    /** The delta of total time of the currently merged call tree thread */
+    private long callTreeThreadTime;
+
+    /** The delta of total time of the currently merged hot spot thread */
+    private long hotSpotThreadTime;
+
+    /**
+     * The constructor.
+     *
+     * @param cpuModel
+     *            The CPU model
+     */
+    public CpuSamplingDeltaHandler(CpuModel cpuModel) {
+        super(cpuModel, new NullProgressMonitor());
+        this.cpuModel = cpuModel;
+        frameTimes = new long[64];
+        childFrameTimes = new long[64];
+    }
+
+    /*
+     * @see CpuDumpSaxEventHandler#startDocument()
+     */
+    @Override
+    public void startDocument() {
+        // the delta is added to the current model
+    }
+
+    /*
+     * @see CpuDumpSaxEventHandler#endDocument()
+     */
+    @Override
+    public void endDocument() {
+        // the model is refreshed periodically while sampling
+    }
+
+    /*
+     * @see CpuDumpSaxEventHandler#startProfile(String, String, String, String,
+     * String)
+     */
+    @Override
+    void startProfile(String date, String runtime, String mainClass,
+            String arguments, String comments) {
+        // the delta carries no profile info
+    }
+
+    /*
+     * @see CpuDumpSaxEventHandler#startThread(String)
+     */
+    @Override
+    void startThread(String threadName) {
+        currentCallTreeThreadNode = cpuModel.getCallTreeThread(threadName);
+        if (currentCallTreeThreadNode == null) {
+            currentCallTreeThreadNode = new ThreadNode<CallTreeNode>(threadName);
+            cpuModel.addCallTreeThread(currentCallTreeThreadNode);
+        }
+        currentHotSpotThreadNode = cpuModel.getHotSpotThread(threadName);
+        if (currentHotSpotThreadNode == null) {
+            currentHotSpotThreadNode = new ThreadNode<MethodNode>(threadName);
+            cpuModel.addHotSpotThread(currentHotSpotThreadNode);
+        }
+        callTreeThreadTime = 0;
+        hotSpotThreadTime = 0;
+    }
+
+    /*
+     * @see CpuDumpSaxEventHandler#endThread()
+     */
+    @Override
+    void endThread() {
+        currentCallTreeThreadNode.setTotalTime(currentCallTreeThreadNode
+                .getTotalTime() + callTreeThreadTime);
+        currentHotSpotThreadNode.setTotalTime(currentHotSpotThreadNode
+                .getTotalTime() + hotSpotThreadTime);
+        currentCallTreeThreadNode = null;
+        currentHotSpotThreadNode = null;
+    }
+
+    /*
+     * @see CpuDumpSaxEventHandler#startFrame(String, int, long)
+     */
+    @Override
+    void startFrame(String methodName, int count, long time) {
+        CallTreeNode frameNode;
+        if (currentFrameNode == null) {
+            frameNode = (CallTreeNode) currentCallTreeThreadNode
+                    .getChild(methodName);
+        } else {
+            frameNode = currentFrameNode.getChild(methodName);
+        }
+
+        if (frameNode == null) {
+            if (currentFrameNode == null) {
+                frameNode = new CallTreeNode(cpuModel, methodName, time, count,
+                        currentCallTreeThreadNode);
+                currentCallTreeThreadNode.addChild(frameNode);
+            } else {
+                frameNode = new CallTreeNode(cpuModel, methodName, time, count,
+                        currentFrameNode, currentCallTreeThreadNode);
+                currentFrameNode.addChild(frameNode);
+            }
+        } else {
+            frameNode.setInvocationCount(frameNode.getInvocationCount()
+                    + count);
+            frameNode.setTotalTime(frameNode.getTotalTime() + time);
+        }
+
+        // the hot spot holds the time spent in the method including callees
+        MethodNode methodNode = (MethodNode) currentHotSpotThreadNode
+                .getChild(methodName);
+        if (methodNode == null) {
+            methodNode = new MethodNode(cpuModel, methodName,
+                    currentHotSpotThreadNode);
+            currentHotSpotThreadNode.addChild(methodNode);
+        }
+        methodNode.incrementCount(count);
+        methodNode.incrementTime(time);
+        hotSpotThreadTime += time;
+
+        if (currentFrameNode == null) {
+            callTreeThreadTime += time;
+        }
+        if (depth == frameTimes.length) {
+            long[] newFrameTimes = new long[depth * 2];
+            System.arraycopy(frameTimes, 0, newFrameTimes, 0, depth);
+            frameTimes = newFrameTimes;
+            long[] newChildFrameTimes = new long[depth * 2];
+            System.arraycopy(childFrameTimes, 0, newChildFrameTimes, 0, depth);
+            childFrameTimes = newChildFrameTimes;
+        }
+        frameTimes[depth] = time;
+        childFrameTimes[depth] = 0;
+        depth++;
+        currentFrameNode = frameNode;
+    }
+
+    /*
+     * @see CpuDumpSaxEventHandler#endFrame()
+     */
+    @Override
+    void endFrame() {
+        depth--;
+        long selfTime = frameTimes[depth] - childFrameTimes[depth];
+        currentFrameNode.setSelfTime(currentFrameNode.getSelfTime()
+                + Math.max(selfTime, 0));
+        if (depth > 0) {
+            childFrameTimes[depth - 1] += frameTimes[depth];
+        }
+
+        ITreeNode parentNode = currentFrameNode.getParent();
+        if (parentNode instanceof CallTreeNode) {
+            currentFrameNode = (CallTreeNode) parentNode;
+        } else {
+            currentFrameNode = null;
+        }
+    }
+}
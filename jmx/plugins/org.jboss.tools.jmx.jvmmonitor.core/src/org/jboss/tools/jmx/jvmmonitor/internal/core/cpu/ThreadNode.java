@@ -7,6 +7,8 @@
 package org.jboss.tools.jmx.jvmmonitor.internal.core.cpu;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.jboss.tools.jmx.jvmmonitor.core.cpu.IMethodNode;
@@ -25,6 +27,12 @@ public class ThreadNode<E extends IMethodNode> implements IThreadNode {
     /** The method nodes. */
     private List<E> nodes;
 
+    /**
+     * The method nodes keyed by name. The list of method nodes only keeps the
+     * order for presentation.
+     */
+    private Map<String, E> nodesByName;
+
     /** The thread name. */
     private String threadName;
 
@@ -40,6 +48,7 @@ public class ThreadNode<E extends IMethodNode> implements IThreadNode {
     public ThreadNode(String name) {
         threadName = name;
         nodes = new CopyOnWriteArrayList<E>();
+        nodesByName = new ConcurrentHashMap<String, E>();
     }
 
     /*
@@ -55,12 +64,7 @@ public class ThreadNode<E extends IMethodNode> implements IThreadNode {
      */
     @Override
     public IMethodNode getChild(String name) {
-        for (IMethodNode node : nodes) {
-            if (node.getName().equals(name)) {
-                return node;
-            }
-        }
-        return null;
+        return nodesByName.get(name);
     }
 
     /*
@@ -138,6 +142,7 @@ public class ThreadNode<E extends IMethodNode> implements IThreadNode {
      */
     public void addChild(E node) {
         nodes.add(node);
+        nodesByName.putIfAbsent(node.getName(), node);
     }
 
     /**
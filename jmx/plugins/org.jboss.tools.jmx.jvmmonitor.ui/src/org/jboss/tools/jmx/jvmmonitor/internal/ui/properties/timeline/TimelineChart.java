@@ -27,6 +27,7 @@ import org.eclipse.ui.forms.widgets.ExpandableComposite;
 import org.jboss.tools.jmx.jvmmonitor.core.mbean.IMonitoredMXBeanAttribute;
 import org.jboss.tools.jmx.jvmmonitor.core.mbean.IMonitoredMXBeanGroup;
 import org.jboss.tools.jmx.jvmmonitor.core.mbean.IMonitoredMXBeanGroup.AxisUnit;
+import org.jboss.tools.jmx.jvmmonitor.core.mbean.ITimeSeries;
 import org.jboss.tools.jmx.jvmmonitor.internal.ui.IConstants;
 import org.jboss.tools.jmx.jvmmonitor.internal.ui.RefreshJob;
 import org.jboss.tools.jmx.jvmmonitor.ui.Activator;
@@ -268,8 +269,9 @@ public class TimelineChart extends Chart implements IPropertyChangeListener {
                 }
             }
 
-            series.setXDateSeries(attribute.getDates().toArray(new Date[0]));
-            series.setYSeries(getYSeries(attribute));
+            ITimeSeries timeSeries = attribute.getTimeSeries();
+            series.setXDateSeries(getXDateSeries(timeSeries));
+            series.setYSeries(getYSeries(timeSeries));
             setColor((ILineSeries) series, attribute.getRGB());
         }
 
@@ -302,31 +304,39 @@ public class TimelineChart extends Chart implements IPropertyChangeListener {
     }
 
     /**
-     * Gets the Y series with given attribute.
+     * Gets the X date series with given time series.
      * 
-     * @param attribute
-     *            The attribute
-     * @return The Y Series
+     * @param timeSeries
+     *            The time series of the attribute
+     * @return The X date series
      */
-    private double[] getYSeries(IMonitoredMXBeanAttribute attribute) {
-        List<Number> values = attribute.getValues();
+    private static Date[] getXDateSeries(ITimeSeries timeSeries) {
+        long[] times = timeSeries.getTimes();
+        Date[] xSeries = new Date[times.length];
+        for (int i = 0; i < xSeries.length; i++) {
+            xSeries[i] = new Date(times[i]);
+        }
+        return xSeries;
+    }
 
-        double[] ySeries = new double[values.size()];
+    /**
+     * Gets the Y series with given time series.
+     * 
+     * @param timeSeries
+     *            The time series of the attribute
+     * @return The Y Series
+     */
+    private double[] getYSeries(ITimeSeries timeSeries) {
+        double[] values = timeSeries.getValues();
 
         double ratio = 1d;
         if (attributeGroup.getAxisUnit() == AxisUnit.MBytes) {
             ratio = 0.000001;
         }
 
+        double[] ySeries = new double[values.length];
         for (int i = 0; i < ySeries.length; i++) {
-            Number value = values.get(i);
-            if (value instanceof Integer) {
-                ySeries[i] = (Integer) value * ratio;
-            } else if (value instanceof Long) {
-                ySeries[i] = (Long) value * ratio;
-            } else if (value instanceof Double) {
-                ySeries[i] = (Double) value * ratio;
-            }
+            ySeries[i] = values[i] * ratio;
         }
         return ySeries;
     }